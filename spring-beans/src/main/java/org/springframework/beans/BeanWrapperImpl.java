@@ -392,7 +392,7 @@ public class BeanWrapperImpl extends AbstractPropertyAccessor implements BeanWra
 				}
 				else {
 					if (pd.getReadMethod() != null || pd.getWriteMethod() != null) {
-						return new TypeDescriptor(property(pd));
+						return nestedBw.getPropertyTypeDescriptor(pd);
 					}
 				}
 			}
@@ -486,7 +486,7 @@ public class BeanWrapperImpl extends AbstractPropertyAccessor implements BeanWra
 			throw new InvalidPropertyException(getRootClass(), this.nestedPath + propertyName,
 					"No property '" + propertyName + "' found");
 		}
-		return convertForProperty(propertyName, null, value, new TypeDescriptor(property(pd)));
+		return convertForProperty(propertyName, null, value, getPropertyTypeDescriptor(pd));
 	}
 
 	private Object convertForProperty(String propertyName, Object oldValue, Object newValue, TypeDescriptor td)
@@ -495,6 +495,19 @@ public class BeanWrapperImpl extends AbstractPropertyAccessor implements BeanWra
 		return convertIfNecessary(propertyName, oldValue, newValue, td.getType(), td);
 	}
 
+	/**
+	 * Obtain a TypeDescriptor for the given property, cached along with the
+	 * PropertyDescriptor in this wrapper's CachedIntrospectionResults.
+	 */
+	private TypeDescriptor getPropertyTypeDescriptor(PropertyDescriptor pd) {
+		CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+		TypeDescriptor td = cachedIntrospectionResults.getTypeDescriptor(pd);
+		if (td == null) {
+			td = cachedIntrospectionResults.addTypeDescriptor(pd, new TypeDescriptor(property(pd)));
+		}
+		return td;
+	}
+
 	private Property property(PropertyDescriptor pd) {
 		GenericTypeAwarePropertyDescriptor typeAware = (GenericTypeAwarePropertyDescriptor) pd;
 		return new Property(typeAware.getBeanClass(), typeAware.getReadMethod(), typeAware.getWriteMethod(), typeAware.getName());
@@ -1097,7 +1110,7 @@ public class BeanWrapperImpl extends AbstractPropertyAccessor implements BeanWra
 							}
 						}
 						valueToApply = convertForProperty(
-								propertyName, oldValue, originalValue, new TypeDescriptor(property(pd)));
+								propertyName, oldValue, originalValue, getPropertyTypeDescriptor(pd));
 					}
 					pv.getOriginalPropertyValue().conversionNecessary = (valueToApply != originalValue);
 				}
@@ -29,13 +29,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.SpringProperties;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
 /**
@@ -253,6 +256,9 @@ public class CachedIntrospectionResults {
 	/** PropertyDescriptor objects keyed by property name String */
 	private final Map<String, PropertyDescriptor> propertyDescriptorCache;
 
+	/** TypeDescriptor objects keyed by PropertyDescriptor (using a ConcurrentMap) */
+	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -316,6 +322,8 @@ public class CachedIntrospectionResults {
 				pd = buildGenericTypeAwarePropertyDescriptor(beanClass, pd);
 				this.propertyDescriptorCache.put(pd.getName(), pd);
 			}
+
+			this.typeDescriptorCache = new ConcurrentReferenceHashMap<PropertyDescriptor, TypeDescriptor>();
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
@@ -354,6 +362,15 @@ public class CachedIntrospectionResults {
 		return pds;
 	}
 
+	TypeDescriptor addTypeDescriptor(PropertyDescriptor pd, TypeDescriptor td) {
+		TypeDescriptor existing = this.typeDescriptorCache.putIfAbsent(pd, td);
+		return (existing != null ? existing : td);
+	}
+
+	TypeDescriptor getTypeDescriptor(PropertyDescriptor pd) {
+		return this.typeDescriptorCache.get(pd);
+	}
+
 	private PropertyDescriptor buildGenericTypeAwarePropertyDescriptor(Class<?> beanClass, PropertyDescriptor pd) {
 		try {
 			return new GenericTypeAwarePropertyDescriptor(beanClass, pd.getName(), pd.getReadMethod(),
@@ -22,7 +22,11 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -61,6 +65,10 @@ import org.springframework.util.StringUtils;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>Singletons get destroyed one after the other by default. A
+ * {@link #setDestructionExecutor destruction executor} may be specified
+ * for destroying independent singletons concurrently instead.
+ *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #registerSingleton
@@ -133,6 +141,32 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
      */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<String, Set<String>>(64);
 
+	/** Executor for destroying independent singletons concurrently, if any */
+	private volatile Executor destructionExecutor;
+
+
+	/**
+	 * Specify an executor for destroying singletons concurrently on shutdown
+	 * of the registry, e.g. a {@link java.util.concurrent.ThreadPoolExecutor}.
+	 * <p>Each singleton still gets destroyed after all of the singletons that
+	 * depend on it, but singletons without any such relationship may be
+	 * destroyed in parallel. Default is none, destroying all singletons
+	 * one after the other in the calling thread.
+	 * @since 3.2.19
+	 * @see #destroySingletons()
+	 */
+	public void setDestructionExecutor(Executor destructionExecutor) {
+		this.destructionExecutor = destructionExecutor;
+	}
+
+	/**
+	 * Return the executor for destroying singletons concurrently, if any.
+	 * @since 3.2.19
+	 */
+	public Executor getDestructionExecutor() {
+		return this.destructionExecutor;
+	}
+
 
     /**
      * 注册一个单例
@@ -520,8 +554,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		synchronized (this.disposableBeans) {
 			disposableBeanNames = StringUtils.toStringArray(this.disposableBeans.keySet());
 		}
-		for (int i = disposableBeanNames.length - 1; i >= 0; i--) {
-			destroySingleton(disposableBeanNames[i]);
+		Executor executor = this.destructionExecutor;
+		if (executor != null && disposableBeanNames.length > 1) {
+			destroySingletonsConcurrently(disposableBeanNames, executor);
+		}
+		else {
+			for (int i = disposableBeanNames.length - 1; i >= 0; i--) {
+				destroySingleton(disposableBeanNames[i]);
+			}
 		}
 
 		this.containedBeanMap.clear();
@@ -537,6 +577,114 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Destroy the given disposable beans through the given executor, each bean
+	 * only once all of the beans depending on it have been destroyed.
+	 * <p>Beans involved in circular dependencies cannot be ordered that way;
+	 * they get destroyed in the calling thread once nothing else is left.
+	 * @param disposableBeanNames the names of the disposable beans, in registration order
+	 * @param executor the executor to destroy the beans with
+	 */
+	private void destroySingletonsConcurrently(String[] disposableBeanNames, Executor executor) {
+		// Determine the beans which need to be destroyed before each bean...
+		Map<String, Set<String>> remainingDependents = new LinkedHashMap<String, Set<String>>();
+		Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+		synchronized (this.dependentBeanMap) {
+			for (int i = disposableBeanNames.length - 1; i >= 0; i--) {
+				collectDependents(disposableBeanNames[i], remainingDependents, dependencies);
+			}
+		}
+
+		final BlockingQueue<String> destroyedBeanNames = new LinkedBlockingQueue<String>();
+		Set<String> beanNamesToDestroy = new LinkedHashSet<String>(remainingDependents.keySet());
+		int running = 0;
+		while (!beanNamesToDestroy.isEmpty() || running > 0) {
+			for (Iterator<String> it = beanNamesToDestroy.iterator(); it.hasNext();) {
+				final String beanName = it.next();
+				if (remainingDependents.get(beanName).isEmpty()) {
+					it.remove();
+					running++;
+					Runnable destruction = new Runnable() {
+						public void run() {
+							try {
+								destroySingleton(beanName);
+							}
+							finally {
+								destroyedBeanNames.add(beanName);
+							}
+						}
+					};
+					try {
+						executor.execute(destruction);
+					}
+					catch (RejectedExecutionException ex) {
+						destruction.run();
+					}
+				}
+			}
+			if (running == 0) {
+				// Only circular dependencies left: destroy those beans in registration order.
+				for (String beanName : beanNamesToDestroy) {
+					destroySingleton(beanName);
+				}
+				return;
+			}
+			String destroyedBeanName;
+			try {
+				destroyedBeanName = destroyedBeanNames.take();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				logger.warn("Interrupted while destroying singletons concurrently - destroying the rest serially");
+				for (String beanName : beanNamesToDestroy) {
+					destroySingleton(beanName);
+				}
+				return;
+			}
+			running--;
+			Set<String> dependenciesToRelease = dependencies.get(destroyedBeanName);
+			if (dependenciesToRelease != null) {
+				for (String dependency : dependenciesToRelease) {
+					remainingDependents.get(dependency).remove(destroyedBeanName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Register the given bean and, recursively, all beans depending on it
+	 * as part of a concurrent destruction.
+	 * @param beanName the name of the bean
+	 * @param remainingDependents Map from bean name to the names of the beans
+	 * that need to be destroyed first
+	 * @param dependencies Map from bean name to the names of the beans which
+	 * are waiting for its destruction
+	 */
+	private void collectDependents(String beanName, Map<String, Set<String>> remainingDependents,
+			Map<String, Set<String>> dependencies) {
+
+		if (remainingDependents.containsKey(beanName)) {
+			return;
+		}
+		Set<String> dependents = new LinkedHashSet<String>();
+		remainingDependents.put(beanName, dependents);
+		Set<String> registeredDependents = this.dependentBeanMap.get(beanName);
+		if (registeredDependents != null) {
+			for (String dependentBeanName : registeredDependents) {
+				if (!dependentBeanName.equals(beanName)) {
+					dependents.add(dependentBeanName);
+					Set<String> dependenciesForDependent = dependencies.get(dependentBeanName);
+					if (dependenciesForDependent == null) {
+						dependenciesForDependent = new LinkedHashSet<String>();
+						dependencies.put(dependentBeanName, dependenciesForDependent);
+					}
+					dependenciesForDependent.add(beanName);
+					collectDependents(dependentBeanName, remainingDependents, dependencies);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Destroy the given bean. Delegates to {@code destroyBean}
 	 * if a corresponding disposable bean instance is found.
@@ -579,12 +727,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 		// Actually destroy the bean now...
 		if (bean != null) {
+			long startTime = System.currentTimeMillis();
 			try {
 				bean.destroy();
 			}
 			catch (Throwable ex) {
 				logger.error("Destroy method on bean with name '" + beanName + "' threw an exception", ex);
 			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Destroyed bean '" + beanName + "' in " + (System.currentTimeMillis() - startTime) + " ms");
+			}
 		}
 
 		// Trigger destruction of contained beans...
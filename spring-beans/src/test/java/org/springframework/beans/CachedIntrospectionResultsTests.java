@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import org.junit.Test;
 
 import org.springframework.core.OverridingClassLoader;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.tests.sample.beans.TestBean;
 
 import static org.hamcrest.CoreMatchers.*;
@@ -64,6 +65,16 @@ public final class CachedIntrospectionResultsTests {
 		assertFalse(CachedIntrospectionResults.classCache.containsKey(ArrayList.class));
 	}
 
+	@Test
+	public void propertyTypeDescriptorCached() throws Exception {
+		BeanWrapper bw = new BeanWrapperImpl(TestBean.class);
+		TypeDescriptor td = bw.getPropertyTypeDescriptor("age");
+		assertEquals(int.class, td.getType());
+		assertSame(td, new BeanWrapperImpl(new TestBean()).getPropertyTypeDescriptor("age"));
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(TestBean.class);
+		assertSame(td, results.getTypeDescriptor(results.getPropertyDescriptor("age")));
+	}
+
 	@Test
 	public void shouldUseExtendedBeanInfoWhenApplicable() throws NoSuchMethodException, SecurityException {
 		// given a class with a non-void returning setter method
@@ -32,6 +32,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.security.auth.Subject;
 
 import org.apache.commons.logging.Log;
@@ -2052,6 +2057,47 @@ public class DefaultListableBeanFactoryTests {
 		assertTrue("Destroy method invoked", BeanWithDestroyMethod.closed);
 	}
 
+	@Test
+	public void testConcurrentDestroySingletons() throws Exception {
+		final List<String> destroyedBeans = new CopyOnWriteArrayList<String>();
+		final CountDownLatch latch = new CountDownLatch(2);
+		final boolean[] destroyedConcurrently = new boolean[2];
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		for (final String beanName : new String[] {"a", "b", "c", "d", "e", "f", "g"}) {
+			lbf.registerDisposableBean(beanName, new DisposableBean() {
+				@Override
+				public void destroy() throws Exception {
+					if (beanName.equals("e") || beanName.equals("f")) {
+						// only returns true if both beans get destroyed at the same time
+						latch.countDown();
+						destroyedConcurrently[beanName.equals("e") ? 0 : 1] = latch.await(5, TimeUnit.SECONDS);
+					}
+					destroyedBeans.add(beanName);
+				}
+			});
+		}
+		lbf.registerDependentBean("b", "a");
+		lbf.registerDependentBean("c", "b");
+		lbf.registerDependentBean("d", "g");
+		lbf.registerDependentBean("g", "d");
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			lbf.setDestructionExecutor(executor);
+			lbf.destroySingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(7, destroyedBeans.size());
+		assertTrue(destroyedBeans.indexOf("a") < destroyedBeans.indexOf("b"));
+		assertTrue(destroyedBeans.indexOf("b") < destroyedBeans.indexOf("c"));
+		assertTrue(destroyedBeans.contains("d"));
+		assertTrue(destroyedBeans.contains("g"));
+		assertTrue(destroyedConcurrently[0]);
+		assertTrue(destroyedConcurrently[1]);
+		assertEquals(0, lbf.getSingletonCount());
+	}
+
 	@Test
 	public void testFindTypeOfSingletonFactoryMethodOnBeanInstance() {
 		findTypeOfPrototypeFactoryMethodOnBeanInstance(true);
@@ -64,6 +64,7 @@ import org.springframework.core.Ordered;
 import org.springframework.jndi.support.SimpleJndiBeanFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -322,84 +323,95 @@ public class CommonAnnotationBeanPostProcessor extends InitDestroyAnnotationBean
 					if (metadata != null) {
 						metadata.clear(pvs);
 					}
+					metadata = buildResourceMetadata(clazz);
+					this.injectionMetadataCache.put(cacheKey, metadata);
+				}
+			}
+		}
+		return metadata;
+	}
+
+	private InjectionMetadata buildResourceMetadata(final Class<?> clazz) {
+		LinkedList<InjectionMetadata.InjectedElement> elements = new LinkedList<InjectionMetadata.InjectedElement>();
+		Class<?> targetClass = clazz;
 
-					LinkedList<InjectionMetadata.InjectedElement> elements = new LinkedList<InjectionMetadata.InjectedElement>();
-					Class<?> targetClass = clazz;
-
-					do {
-						LinkedList<InjectionMetadata.InjectedElement> currElements = new LinkedList<InjectionMetadata.InjectedElement>();
-						for (Field field : targetClass.getDeclaredFields()) {
-							if (webServiceRefClass != null && field.isAnnotationPresent(webServiceRefClass)) {
-								if (Modifier.isStatic(field.getModifiers())) {
-									throw new IllegalStateException("@WebServiceRef annotation is not supported on static fields");
-								}
-								currElements.add(new WebServiceRefElement(field, null));
+		do {
+			final LinkedList<InjectionMetadata.InjectedElement> currElements =
+					new LinkedList<InjectionMetadata.InjectedElement>();
+
+			ReflectionUtils.doWithLocalFields(targetClass, new ReflectionUtils.FieldCallback() {
+				public void doWith(Field field) {
+					if (webServiceRefClass != null && field.isAnnotationPresent(webServiceRefClass)) {
+						if (Modifier.isStatic(field.getModifiers())) {
+							throw new IllegalStateException("@WebServiceRef annotation is not supported on static fields");
+						}
+						currElements.add(new WebServiceRefElement(field, null));
+					}
+					else if (ejbRefClass != null && field.isAnnotationPresent(ejbRefClass)) {
+						if (Modifier.isStatic(field.getModifiers())) {
+							throw new IllegalStateException("@EJB annotation is not supported on static fields");
+						}
+						currElements.add(new EjbRefElement(field, null));
+					}
+					else if (field.isAnnotationPresent(Resource.class)) {
+						if (Modifier.isStatic(field.getModifiers())) {
+							throw new IllegalStateException("@Resource annotation is not supported on static fields");
+						}
+						if (!ignoredResourceTypes.contains(field.getType().getName())) {
+							currElements.add(new ResourceElement(field, null));
+						}
+					}
+				}
+			});
+
+			ReflectionUtils.doWithLocalMethods(targetClass, new ReflectionUtils.MethodCallback() {
+				public void doWith(Method method) {
+					Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+					Method mostSpecificMethod = BridgeMethodResolver.findBridgedMethod(ClassUtils.getMostSpecificMethod(bridgedMethod, clazz));
+					if (bridgedMethod.equals(mostSpecificMethod)) {
+						if (webServiceRefClass != null && bridgedMethod.isAnnotationPresent(webServiceRefClass)) {
+							if (Modifier.isStatic(bridgedMethod.getModifiers())) {
+								throw new IllegalStateException("@WebServiceRef annotation is not supported on static methods");
 							}
-							else if (ejbRefClass != null && field.isAnnotationPresent(ejbRefClass)) {
-								if (Modifier.isStatic(field.getModifiers())) {
-									throw new IllegalStateException("@EJB annotation is not supported on static fields");
-								}
-								currElements.add(new EjbRefElement(field, null));
+							if (bridgedMethod.getParameterTypes().length != 1) {
+								throw new IllegalStateException("@WebServiceRef annotation requires a single-arg method: " + bridgedMethod);
 							}
-							else if (field.isAnnotationPresent(Resource.class)) {
-								if (Modifier.isStatic(field.getModifiers())) {
-									throw new IllegalStateException("@Resource annotation is not supported on static fields");
-								}
-								if (!ignoredResourceTypes.contains(field.getType().getName())) {
-									currElements.add(new ResourceElement(field, null));
-								}
+							PropertyDescriptor pd = BeanUtils.findPropertyForMethod(bridgedMethod, clazz);
+							currElements.add(new WebServiceRefElement(bridgedMethod, pd));
+						}
+						else if (ejbRefClass != null && bridgedMethod.isAnnotationPresent(ejbRefClass)) {
+							if (Modifier.isStatic(bridgedMethod.getModifiers())) {
+								throw new IllegalStateException("@EJB annotation is not supported on static methods");
 							}
+							if (bridgedMethod.getParameterTypes().length != 1) {
+								throw new IllegalStateException("@EJB annotation requires a single-arg method: " + bridgedMethod);
+							}
+							PropertyDescriptor pd = BeanUtils.findPropertyForMethod(bridgedMethod, clazz);
+							currElements.add(new EjbRefElement(bridgedMethod, pd));
 						}
-						for (Method method : targetClass.getDeclaredMethods()) {
-							method = BridgeMethodResolver.findBridgedMethod(method);
-							Method mostSpecificMethod = BridgeMethodResolver.findBridgedMethod(ClassUtils.getMostSpecificMethod(method, clazz));
-							if (method.equals(mostSpecificMethod)) {
-								if (webServiceRefClass != null && method.isAnnotationPresent(webServiceRefClass)) {
-									if (Modifier.isStatic(method.getModifiers())) {
-										throw new IllegalStateException("@WebServiceRef annotation is not supported on static methods");
-									}
-									if (method.getParameterTypes().length != 1) {
-										throw new IllegalStateException("@WebServiceRef annotation requires a single-arg method: " + method);
-									}
-									PropertyDescriptor pd = BeanUtils.findPropertyForMethod(method, clazz);
-									currElements.add(new WebServiceRefElement(method, pd));
-								}
-								else if (ejbRefClass != null && method.isAnnotationPresent(ejbRefClass)) {
-									if (Modifier.isStatic(method.getModifiers())) {
-										throw new IllegalStateException("@EJB annotation is not supported on static methods");
-									}
-									if (method.getParameterTypes().length != 1) {
-										throw new IllegalStateException("@EJB annotation requires a single-arg method: " + method);
-									}
-									PropertyDescriptor pd = BeanUtils.findPropertyForMethod(method, clazz);
-									currElements.add(new EjbRefElement(method, pd));
-								}
-								else if (method.isAnnotationPresent(Resource.class)) {
-									if (Modifier.isStatic(method.getModifiers())) {
-										throw new IllegalStateException("@Resource annotation is not supported on static methods");
-									}
-									Class<?>[] paramTypes = method.getParameterTypes();
-									if (paramTypes.length != 1) {
-										throw new IllegalStateException("@Resource annotation requires a single-arg method: " + method);
-									}
-									if (!ignoredResourceTypes.contains(paramTypes[0].getName())) {
-										PropertyDescriptor pd = BeanUtils.findPropertyForMethod(method, clazz);
-										currElements.add(new ResourceElement(method, pd));
-									}
-								}
+						else if (bridgedMethod.isAnnotationPresent(Resource.class)) {
+							if (Modifier.isStatic(bridgedMethod.getModifiers())) {
+								throw new IllegalStateException("@Resource annotation is not supported on static methods");
+							}
+							Class<?>[] paramTypes = bridgedMethod.getParameterTypes();
+							if (paramTypes.length != 1) {
+								throw new IllegalStateException("@Resource annotation requires a single-arg method: " + bridgedMethod);
+							}
+							if (!ignoredResourceTypes.contains(paramTypes[0].getName())) {
+								PropertyDescriptor pd = BeanUtils.findPropertyForMethod(bridgedMethod, clazz);
+								currElements.add(new ResourceElement(bridgedMethod, pd));
 							}
 						}
-						elements.addAll(0, currElements);
-						targetClass = targetClass.getSuperclass();
 					}
-					while (targetClass != null && targetClass != Object.class);
-
-					metadata = new InjectionMetadata(clazz, elements);
-					this.injectionMetadataCache.put(cacheKey, metadata);
 				}
-			}
+			});
+
+			elements.addAll(0, currElements);
+			targetClass = targetClass.getSuperclass();
 		}
-		return metadata;
+		while (targetClass != null && targetClass != Object.class);
+
+		return new InjectionMetadata(clazz, elements);
 	}
 
 	/**
@@ -34,6 +34,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.CachedIntrospectionResults;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -71,10 +72,13 @@ import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.context.expression.StandardBeanExpressionResolver;
 import org.springframework.context.weaving.LoadTimeWeaverAware;
 import org.springframework.context.weaving.LoadTimeWeaverAwareProcessor;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
@@ -85,6 +89,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Abstract implementation of the {@link org.springframework.context.ApplicationContext}
@@ -195,6 +200,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	/** Reference to the JVM shutdown hook, if registered */
 	private Thread shutdownHook;
 
+	/** Whether to reset Spring's common reflection caches on close */
+	private boolean resetCommonCachesOnClose = false;
+
 	/** ResourcePatternResolver used by this context */
 	private ResourcePatternResolver resourcePatternResolver;
 
@@ -405,6 +413,22 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		}
 	}
 
+	/**
+	 * Specify whether to reset Spring's common reflection metadata caches when
+	 * this context gets closed. Default is "false".
+	 * <p>Switch this flag on if this context is the last one in its application,
+	 * e.g. for a web application deployed in a server with Spring on a shared
+	 * class path, so that the application's classes do not remain referenced
+	 * after undeployment. Note that the caches are shared across the JVM (or the
+	 * class loader that Spring lives in): resetting them affects the performance
+	 * of other contexts which are still active.
+	 * @since 3.2.19
+	 * @see #resetCommonCaches()
+	 */
+	public void setResetCommonCachesOnClose(boolean resetCommonCachesOnClose) {
+		this.resetCommonCachesOnClose = resetCommonCachesOnClose;
+	}
+
 	public void addBeanFactoryPostProcessor(BeanFactoryPostProcessor postProcessor) {
 		Assert.notNull(postProcessor, "BeanFactoryPostProcessor must not be null");
 		this.beanFactoryPostProcessors.add(postProcessor);
@@ -1079,12 +1103,40 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			// Let subclasses do some final clean-up if they wish...
 			onClose();
 
+			// Release reflection metadata for the classes of this context, if requested.
+			if (this.resetCommonCachesOnClose) {
+				resetCommonCaches();
+			}
+
 			synchronized (this.activeMonitor) {
 				this.active = false;
 			}
 		}
 	}
 
+	/**
+	 * Reset Spring's common reflection metadata caches, in particular the
+	 * {@link ReflectionUtils}, {@link AnnotationUtils}, {@link GenericTypeResolver},
+	 * {@link TypeDescriptor} and {@link CachedIntrospectionResults} caches.
+	 * <p>Called on {@link #close()} if {@link #setResetCommonCachesOnClose
+	 * "resetCommonCachesOnClose"} has been switched on, so that the classes of a
+	 * shut-down context do not remain referenced from static caches in a shared
+	 * class loader.
+	 * @since 3.2.19
+	 * @see ReflectionUtils#clearCache()
+	 * @see AnnotationUtils#clearCache()
+	 * @see GenericTypeResolver#clearCache()
+	 * @see TypeDescriptor#clearCache()
+	 * @see CachedIntrospectionResults#clearClassLoader(ClassLoader)
+	 */
+	protected void resetCommonCaches() {
+		ReflectionUtils.clearCache();
+		AnnotationUtils.clearCache();
+		GenericTypeResolver.clearCache();
+		TypeDescriptor.clearCache();
+		CachedIntrospectionResults.clearClassLoader(getClassLoader());
+	}
+
 	/**
 	 * Template method for destroying all beans that this context manages.
 	 * The default implementation destroy all cached singletons in this context,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -224,9 +224,7 @@ public abstract class AbstractMessageSource extends MessageSourceSupport impleme
 
 			MessageFormat messageFormat = resolveCode(code, locale);
 			if (messageFormat != null) {
-				synchronized (messageFormat) {
-					return messageFormat.format(argsToUse);
-				}
+				return SimpleMessageFormat.format(messageFormat, argsToUse);
 			}
 		}
 
@@ -332,9 +330,7 @@ public abstract class AbstractMessageSource extends MessageSourceSupport impleme
 	protected String resolveCodeWithoutArguments(String code, Locale locale) {
 		MessageFormat messageFormat = resolveCode(code, locale);
 		if (messageFormat != null) {
-			synchronized (messageFormat) {
-				return messageFormat.format(new Object[0]);
-			}
+			return SimpleMessageFormat.format(messageFormat, new Object[0]);
 		}
 		return null;
 	}
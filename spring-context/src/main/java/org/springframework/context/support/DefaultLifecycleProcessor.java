@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,17 @@ package org.springframework.context.support;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
@@ -66,6 +71,8 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 
 	private volatile ConfigurableListableBeanFactory beanFactory;
 
+	private volatile Executor taskExecutor;
+
 
 	/**
 	 * Specify the maximum time allotted in milliseconds for the shutdown of
@@ -76,6 +83,19 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		this.timeoutPerShutdownPhase = timeoutPerShutdownPhase;
 	}
 
+	/**
+	 * Specify an executor for starting the Lifecycle beans of each phase
+	 * concurrently, e.g. a {@link java.util.concurrent.ThreadPoolExecutor}.
+	 * <p>A bean declared as a dependency of another bean will still be started
+	 * before the dependent bean, and each phase will be completely started before
+	 * the next phase begins. Default is none, starting all beans one after the
+	 * other in the calling thread.
+	 * @since 3.2.19
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	public void setBeanFactory(BeanFactory beanFactory) {
 		Assert.isInstanceOf(ConfigurableListableBeanFactory.class, beanFactory);
 		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
@@ -166,22 +186,119 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			for (String dependency : dependenciesForBean) {
 				doStart(lifecycleBeans, dependency, autoStartupOnly);
 			}
-			if (!bean.isRunning() &&
-					(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Starting bean '" + beanName + "' of type [" + bean.getClass() + "]");
+			startBean(beanName, bean, autoStartupOnly);
+		}
+	}
+
+	/**
+	 * Collect the specified bean as part of the given set of Lifecycle beans
+	 * for a concurrent start, along with any beans that it depends on.
+	 * @param lifecycleBeans Map with bean name as key and Lifecycle instance as value
+	 * @param beanName the name of the bean to start
+	 * @param beansToStart Map with the collected beans, dependencies first
+	 * @param pendingDependencies Map from bean name to the names of the collected
+	 * beans that need to be started first
+	 */
+	private void collectForStart(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			Map<String, Lifecycle> beansToStart, Map<String, Set<String>> pendingDependencies) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean != null && !this.equals(bean)) {
+			Set<String> dependencies = new LinkedHashSet<String>();
+			String[] dependenciesForBean = this.beanFactory.getDependenciesForBean(beanName);
+			for (String dependency : dependenciesForBean) {
+				collectForStart(lifecycleBeans, dependency, beansToStart, pendingDependencies);
+				// a dependency not collected yet is part of a circular dependency: do not wait for it
+				if (beansToStart.containsKey(dependency)) {
+					dependencies.add(dependency);
 				}
-				try {
-					bean.start();
+			}
+			beansToStart.put(beanName, bean);
+			pendingDependencies.put(beanName, dependencies);
+		}
+	}
+
+	/**
+	 * Start the given beans through the task executor, each bean only once
+	 * all of the beans that it depends on have been started.
+	 * @param executor the executor to start the beans with
+	 * @param beansToStart Map with bean name as key and Lifecycle instance as value
+	 * @param pendingDependencies Map from bean name to the names of the beans
+	 * that need to be started first
+	 */
+	private void doStartConcurrently(Executor executor, Map<String, Lifecycle> beansToStart,
+			Map<String, Set<String>> pendingDependencies, boolean autoStartupOnly) {
+
+		BlockingQueue<StartTask> completedTasks = new LinkedBlockingQueue<StartTask>();
+		Set<String> beanNamesToStart = new LinkedHashSet<String>(beansToStart.keySet());
+		RuntimeException failure = null;
+		int running = 0;
+		while (running > 0 || (failure == null && !beanNamesToStart.isEmpty())) {
+			if (failure == null) {
+				for (Iterator<String> it = beanNamesToStart.iterator(); it.hasNext();) {
+					String beanName = it.next();
+					if (pendingDependencies.get(beanName).isEmpty()) {
+						it.remove();
+						running++;
+						StartTask task = new StartTask(beanName, beansToStart.get(beanName), autoStartupOnly, completedTasks);
+						try {
+							executor.execute(task);
+						}
+						catch (RejectedExecutionException ex) {
+							task.run();
+						}
+					}
 				}
-				catch (Throwable ex) {
-					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
+			}
+			StartTask completedTask;
+			try {
+				completedTask = completedTasks.take();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ApplicationContextException("Interrupted while starting Lifecycle beans", ex);
+			}
+			running--;
+			if (completedTask.failure != null) {
+				if (failure == null) {
+					failure = completedTask.failure;
 				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Successfully started bean '" + beanName + "'");
+			}
+			else {
+				for (Set<String> dependencies : pendingDependencies.values()) {
+					dependencies.remove(completedTask.beanName);
 				}
 			}
 		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Start the given bean unless it is already running or, in case of
+	 * an auto-startup, if it is not meant to be started automatically.
+	 * @param beanName the name of the bean to start
+	 * @param bean the Lifecycle instance
+	 */
+	private void startBean(String beanName, Lifecycle bean, boolean autoStartupOnly) {
+		if (!bean.isRunning() &&
+				(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Starting bean '" + beanName + "' of type [" + bean.getClass() + "]");
+			}
+			long startTime = System.currentTimeMillis();
+			try {
+				bean.start();
+			}
+			catch (Throwable ex) {
+				throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully started bean '" + beanName + "' in " +
+						(System.currentTimeMillis() - startTime) + " ms");
+			}
+		}
 	}
 
 	private void stopBeans() {
@@ -228,12 +345,14 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 							logger.debug("Asking bean '" + beanName + "' of type [" + bean.getClass() + "] to stop");
 						}
 						countDownBeanNames.add(beanName);
+						final long startTime = System.currentTimeMillis();
 						((SmartLifecycle) bean).stop(new Runnable() {
 							public void run() {
 								latch.countDown();
 								countDownBeanNames.remove(beanName);
 								if (logger.isDebugEnabled()) {
-									logger.debug("Bean '" + beanName + "' completed its stop procedure");
+									logger.debug("Bean '" + beanName + "' completed its stop procedure in " +
+											(System.currentTimeMillis() - startTime) + " ms");
 								}
 							}
 						});
@@ -242,9 +361,11 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 						if (logger.isDebugEnabled()) {
 							logger.debug("Stopping bean '" + beanName + "' of type [" + bean.getClass() + "]");
 						}
+						long startTime = System.currentTimeMillis();
 						bean.stop();
 						if (logger.isDebugEnabled()) {
-							logger.debug("Successfully stopped bean '" + beanName + "'");
+							logger.debug("Successfully stopped bean '" + beanName + "' in " +
+									(System.currentTimeMillis() - startTime) + " ms");
 						}
 					}
 				}
@@ -342,9 +463,22 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.info("Starting beans in phase " + this.phase);
 			}
 			Collections.sort(this.members);
-			for (LifecycleGroupMember member : this.members) {
-				if (this.lifecycleBeans.containsKey(member.name)) {
-					doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+			Executor executor = taskExecutor;
+			if (executor != null) {
+				Map<String, Lifecycle> beansToStart = new LinkedHashMap<String, Lifecycle>();
+				Map<String, Set<String>> pendingDependencies = new HashMap<String, Set<String>>();
+				for (LifecycleGroupMember member : this.members) {
+					if (this.lifecycleBeans.containsKey(member.name)) {
+						collectForStart(this.lifecycleBeans, member.name, beansToStart, pendingDependencies);
+					}
+				}
+				doStartConcurrently(executor, beansToStart, pendingDependencies, this.autoStartupOnly);
+			}
+			else {
+				for (LifecycleGroupMember member : this.members) {
+					if (this.lifecycleBeans.containsKey(member.name)) {
+						doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+					}
 				}
 			}
 		}
@@ -383,6 +517,43 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 	}
 
 
+	/**
+	 * Task for starting a single bean as part of a concurrent start,
+	 * reporting its completion to the given queue.
+	 */
+	private class StartTask implements Runnable {
+
+		private final String beanName;
+
+		private final Lifecycle bean;
+
+		private final boolean autoStartupOnly;
+
+		private final BlockingQueue<StartTask> completedTasks;
+
+		private volatile RuntimeException failure;
+
+		public StartTask(String beanName, Lifecycle bean, boolean autoStartupOnly, BlockingQueue<StartTask> completedTasks) {
+			this.beanName = beanName;
+			this.bean = bean;
+			this.autoStartupOnly = autoStartupOnly;
+			this.completedTasks = completedTasks;
+		}
+
+		public void run() {
+			try {
+				startBean(this.beanName, this.bean, this.autoStartupOnly);
+			}
+			catch (RuntimeException ex) {
+				this.failure = ex;
+			}
+			finally {
+				this.completedTasks.add(this);
+			}
+		}
+	}
+
+
 	/**
 	 * Adapts the Comparable interface onto the lifecycle phase model.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,9 @@
 package org.springframework.context.support;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,7 +53,7 @@ public abstract class MessageSourceSupport {
 	 * codes are cached on a specific basis in subclasses.
 	 */
 	private final Map<String, Map<Locale, MessageFormat>> messageFormatsPerMessage =
-			new HashMap<String, Map<Locale, MessageFormat>>();
+			new ConcurrentHashMap<String, Map<Locale, MessageFormat>>();
 
 
 	/**
@@ -116,47 +116,68 @@ public abstract class MessageSourceSupport {
 			return msg;
 		}
 		MessageFormat messageFormat = null;
-		synchronized (this.messageFormatsPerMessage) {
+		if (locale != null) {
 			Map<Locale, MessageFormat> messageFormatsPerLocale = this.messageFormatsPerMessage.get(msg);
 			if (messageFormatsPerLocale != null) {
 				messageFormat = messageFormatsPerLocale.get(locale);
 			}
-			else {
-				messageFormatsPerLocale = new HashMap<Locale, MessageFormat>();
+		}
+		if (messageFormat == null) {
+			messageFormat = getOrCreateMessageFormat(msg, locale);
+		}
+		if (messageFormat == INVALID_MESSAGE_FORMAT) {
+			return msg;
+		}
+		return SimpleMessageFormat.format(messageFormat, resolveArguments(args, locale));
+	}
+
+	private MessageFormat getOrCreateMessageFormat(String msg, Locale locale) {
+		if (locale == null) {
+			// No caching for a null Locale: not supported as concurrent map key
+			return createMessageFormatIfValid(msg, locale);
+		}
+		synchronized (this.messageFormatsPerMessage) {
+			Map<Locale, MessageFormat> messageFormatsPerLocale = this.messageFormatsPerMessage.get(msg);
+			if (messageFormatsPerLocale == null) {
+				messageFormatsPerLocale = new ConcurrentHashMap<Locale, MessageFormat>();
 				this.messageFormatsPerMessage.put(msg, messageFormatsPerLocale);
 			}
+			MessageFormat messageFormat = messageFormatsPerLocale.get(locale);
 			if (messageFormat == null) {
-				try {
-					messageFormat = createMessageFormat(msg, locale);
-				}
-				catch (IllegalArgumentException ex) {
-					// invalid message format - probably not intended for formatting,
-					// rather using a message structure with no arguments involved
-					if (this.alwaysUseMessageFormat) {
-						throw ex;
-					}
-					// silently proceed with raw message if format not enforced
-					messageFormat = INVALID_MESSAGE_FORMAT;
-				}
+				messageFormat = createMessageFormatIfValid(msg, locale);
 				messageFormatsPerLocale.put(locale, messageFormat);
 			}
+			return messageFormat;
 		}
-		if (messageFormat == INVALID_MESSAGE_FORMAT) {
-			return msg;
+	}
+
+	private MessageFormat createMessageFormatIfValid(String msg, Locale locale) {
+		try {
+			return createMessageFormat(msg, locale);
 		}
-		synchronized (messageFormat) {
-			return messageFormat.format(resolveArguments(args, locale));
+		catch (IllegalArgumentException ex) {
+			// invalid message format - probably not intended for formatting,
+			// rather using a message structure with no arguments involved
+			if (this.alwaysUseMessageFormat) {
+				throw ex;
+			}
+			// silently proceed with raw message if format not enforced
+			return INVALID_MESSAGE_FORMAT;
 		}
 	}
 
 	/**
 	 * Create a MessageFormat for the given message and Locale.
+	 * <p>The default implementation returns a MessageFormat which keeps a
+	 * pre-parsed form of simple patterns with plain {@code {n}} placeholders,
+	 * allowing such messages to be rendered without synchronizing on the
+	 * shared MessageFormat instance.
 	 * @param msg the message to create a MessageFormat for
 	 * @param locale the Locale to create a MessageFormat for
 	 * @return the MessageFormat instance
 	 */
 	protected MessageFormat createMessageFormat(String msg, Locale locale) {
-		return new MessageFormat((msg != null ? msg : ""), locale);
+		return new SimpleMessageFormat((msg != null ? msg : ""), locale);
 	}
 
 	/**
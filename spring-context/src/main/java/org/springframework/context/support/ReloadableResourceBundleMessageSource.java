@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,22 +16,38 @@
 
 package org.springframework.context.support;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.DefaultPropertiesPersister;
 import org.springframework.util.PropertiesPersister;
 import org.springframework.util.StringUtils;
@@ -71,6 +87,12 @@ import org.springframework.util.StringUtils;
  * individual properties files are detected with a maximum delay of 1 second.
  * Higher "cacheSeconds" values usually <i>do not</i> make a significant difference.
  *
+ * <p>On Java 7 and higher, the {@link #setWatchForChanges "watchForChanges"} flag
+ * offers an alternative to timestamp polling: properties files in the file system
+ * get observed through a {@code java.nio.file.WatchService}, with changed files
+ * reloaded by a background thread. Message lookups then neither perform any file
+ * access nor acquire any locks, just like in the default "cache forever" mode.
+ *
  * <p>This MessageSource can easily be used outside of an
  * {@link org.springframework.context.ApplicationContext}: It will use a
  * {@link org.springframework.core.io.DefaultResourceLoader} as default,
@@ -93,12 +115,15 @@ import org.springframework.util.StringUtils;
  * @see java.util.ResourceBundle
  */
 public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
-		implements ResourceLoaderAware {
+		implements ResourceLoaderAware, DisposableBean {
 
 	private static final String PROPERTIES_SUFFIX = ".properties";
 
 	private static final String XML_SUFFIX = ".xml";
 
+	private static final boolean watchServicePresent = ClassUtils.isPresent(
+			"java.nio.file.WatchService", ReloadableResourceBundleMessageSource.class.getClassLoader());
+
 
 	private String[] basenames = new String[0];
 
@@ -110,19 +135,25 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 
 	private long cacheMillis = -1;
 
+	private boolean watchForChanges = false;
+
 	private PropertiesPersister propertiesPersister = new DefaultPropertiesPersister();
 
 	private ResourceLoader resourceLoader = new DefaultResourceLoader();
 
 	/** Cache to hold filename lists per Locale */
 	private final Map<String, Map<Locale, List<String>>> cachedFilenames =
-			new HashMap<String, Map<Locale, List<String>>>();
+			new ConcurrentHashMap<String, Map<Locale, List<String>>>();
 
 	/** Cache to hold already loaded properties per filename */
-	private final Map<String, PropertiesHolder> cachedProperties = new HashMap<String, PropertiesHolder>();
+	private final Map<String, PropertiesHolder> cachedProperties = new ConcurrentHashMap<String, PropertiesHolder>();
 
 	/** Cache to hold merged loaded properties per locale */
-	private final Map<Locale, PropertiesHolder> cachedMergedProperties = new HashMap<Locale, PropertiesHolder>();
+	private final Map<Locale, PropertiesHolder> cachedMergedProperties =
+			new ConcurrentHashMap<Locale, PropertiesHolder>();
+
+	/** Background watcher for properties files, if watching for changes */
+	private PropertiesFileWatcher fileWatcher;
 
 
 	/**
@@ -231,6 +262,27 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		this.cacheMillis = (cacheSeconds * 1000);
 	}
 
+	/**
+	 * Set whether to watch properties files in the file system for changes,
+	 * reloading them in a background thread instead of checking their
+	 * last-modified timestamps on message access.
+	 * <p>Default is "false". Switch this flag to "true" for lock-free message
+	 * lookups without any file access on the calling thread, with changes
+	 * typically being picked up within a fraction of a second. The
+	 * {@link #setCacheSeconds "cacheSeconds"} setting is ignored in this case.
+	 * <p>Requires Java 7 or higher. Only applies to resources that can be resolved
+	 * in the file system; other resources (e.g. in jar files) are cached forever.
+	 * @since 3.2.19
+	 * @see java.nio.file.WatchService
+	 * @see #destroy()
+	 */
+	public void setWatchForChanges(boolean watchForChanges) {
+		if (watchForChanges && !watchServicePresent) {
+			throw new IllegalStateException("Watching properties files for changes requires Java 7 or higher");
+		}
+		this.watchForChanges = watchForChanges;
+	}
+
 	/**
 	 * Set the PropertiesPersister to use for parsing properties files.
 	 * <p>The default is a DefaultPropertiesPersister.
@@ -261,7 +313,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 */
 	@Override
 	protected String resolveCodeWithoutArguments(String code, Locale locale) {
-		if (this.cacheMillis < 0) {
+		if (isCacheForever()) {
 			PropertiesHolder propHolder = getMergedProperties(locale);
 			String result = propHolder.getProperty(code);
 			if (result != null) {
@@ -289,7 +341,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 */
 	@Override
 	protected MessageFormat resolveCode(String code, Locale locale) {
-		if (this.cacheMillis < 0) {
+		if (isCacheForever()) {
 			PropertiesHolder propHolder = getMergedProperties(locale);
 			MessageFormat result = propHolder.getMessageFormat(code, locale);
 			if (result != null) {
@@ -312,37 +364,55 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	}
 
 
+	/**
+	 * Return whether resource bundle contents are cached until explicitly
+	 * replaced, i.e. with cacheSeconds < 0 or when watching for changes.
+	 */
+	private boolean isCacheForever() {
+		return (this.cacheMillis < 0 || this.watchForChanges);
+	}
+
 	/**
 	 * Get a PropertiesHolder that contains the actually visible properties
 	 * for a Locale, after merging all specified resource bundles.
 	 * Either fetches the holder from the cache or freshly loads it.
 	 * <p>Only used when caching resource bundle contents forever, i.e.
-	 * with cacheSeconds < 0. Therefore, merged properties are always
-	 * cached forever.
+	 * with cacheSeconds < 0 or when watching for changes. Therefore,
+	 * merged properties are always cached until explicitly replaced.
 	 */
 	protected PropertiesHolder getMergedProperties(Locale locale) {
+		PropertiesHolder mergedHolder = this.cachedMergedProperties.get(locale);
+		if (mergedHolder != null) {
+			return mergedHolder;
+		}
 		synchronized (this.cachedMergedProperties) {
-			PropertiesHolder mergedHolder = this.cachedMergedProperties.get(locale);
-			if (mergedHolder != null) {
-				return mergedHolder;
-			}
-			Properties mergedProps = new Properties();
-			mergedHolder = new PropertiesHolder(mergedProps, -1);
-			for (int i = this.basenames.length - 1; i >= 0; i--) {
-				List filenames = calculateAllFilenames(this.basenames[i], locale);
-				for (int j = filenames.size() - 1; j >= 0; j--) {
-					String filename = (String) filenames.get(j);
-					PropertiesHolder propHolder = getProperties(filename);
-					if (propHolder.getProperties() != null) {
-						mergedProps.putAll(propHolder.getProperties());
-					}
-				}
+			mergedHolder = this.cachedMergedProperties.get(locale);
+			if (mergedHolder == null) {
+				mergedHolder = mergeProperties(locale);
+				this.cachedMergedProperties.put(locale, mergedHolder);
 			}
-			this.cachedMergedProperties.put(locale, mergedHolder);
 			return mergedHolder;
 		}
 	}
 
+	/**
+	 * Merge the properties of all specified resource bundles for the given Locale
+	 * into a new PropertiesHolder, without touching the merged properties cache.
+	 */
+	private PropertiesHolder mergeProperties(Locale locale) {
+		Properties mergedProps = new Properties();
+		for (int i = this.basenames.length - 1; i >= 0; i--) {
+			List<String> filenames = calculateAllFilenames(this.basenames[i], locale);
+			for (int j = filenames.size() - 1; j >= 0; j--) {
+				PropertiesHolder propHolder = getProperties(filenames.get(j));
+				if (propHolder.getProperties() != null) {
+					mergedProps.putAll(propHolder.getProperties());
+				}
+			}
+		}
+		return new PropertiesHolder(mergedProps, -1);
+	}
+
 	/**
 	 * Calculate all filenames for the given bundle basename and Locale.
 	 * Will calculate filenames for the given Locale, the system Locale
@@ -354,8 +424,15 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * @see #calculateFilenamesForLocale
 	 */
 	protected List<String> calculateAllFilenames(String basename, Locale locale) {
+		Map<Locale, List<String>> localeMap = this.cachedFilenames.get(basename);
+		if (localeMap != null) {
+			List<String> filenames = localeMap.get(locale);
+			if (filenames != null) {
+				return filenames;
+			}
+		}
 		synchronized (this.cachedFilenames) {
-			Map<Locale, List<String>> localeMap = this.cachedFilenames.get(basename);
+			localeMap = this.cachedFilenames.get(basename);
 			if (localeMap != null) {
 				List<String> filenames = localeMap.get(locale);
 				if (filenames != null) {
@@ -378,7 +455,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 				localeMap.put(locale, filenames);
 			}
 			else {
-				localeMap = new HashMap<Locale, List<String>>();
+				localeMap = new ConcurrentHashMap<Locale, List<String>>();
 				localeMap.put(locale, filenames);
 				this.cachedFilenames.put(basename, localeMap);
 			}
@@ -431,18 +508,24 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * @return the current PropertiesHolder for the bundle
 	 */
 	protected PropertiesHolder getProperties(String filename) {
+		PropertiesHolder propHolder = this.cachedProperties.get(filename);
+		if (isUpToDate(propHolder)) {
+			return propHolder;
+		}
 		synchronized (this.cachedProperties) {
-			PropertiesHolder propHolder = this.cachedProperties.get(filename);
-			if (propHolder != null &&
-					(propHolder.getRefreshTimestamp() < 0 ||
-					 propHolder.getRefreshTimestamp() > System.currentTimeMillis() - this.cacheMillis)) {
-				// up to date
+			propHolder = this.cachedProperties.get(filename);
+			if (isUpToDate(propHolder)) {
 				return propHolder;
 			}
 			return refreshProperties(filename, propHolder);
 		}
 	}
 
+	private boolean isUpToDate(PropertiesHolder propHolder) {
+		return (propHolder != null && (propHolder.getRefreshTimestamp() < 0 ||
+				propHolder.getRefreshTimestamp() > System.currentTimeMillis() - this.cacheMillis));
+	}
+
 	/**
 	 * Refresh the PropertiesHolder for the given bundle filename.
 	 * The holder can be {@code null} if not cached before, or a timed-out cache entry
@@ -451,11 +534,17 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 	 * @param propHolder the current PropertiesHolder for the bundle
 	 */
 	protected PropertiesHolder refreshProperties(String filename, PropertiesHolder propHolder) {
-		long refreshTimestamp = (this.cacheMillis < 0 ? -1 : System.currentTimeMillis());
+		long refreshTimestamp = (isCacheForever() ? -1 : System.currentTimeMillis());
 
 		Resource resource = this.resourceLoader.getResource(filename + PROPERTIES_SUFFIX);
+		if (this.watchForChanges) {
+			watchResource(resource, filename);
+		}
 		if (!resource.exists()) {
 			resource = this.resourceLoader.getResource(filename + XML_SUFFIX);
+			if (this.watchForChanges) {
+				watchResource(resource, filename);
+			}
 		}
 
 		if (resource.exists()) {
@@ -508,6 +597,52 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		return propHolder;
 	}
 
+	/**
+	 * Register the given resource with the background file watcher,
+	 * if it can be resolved in the file system. The resource does not
+	 * need to exist yet: its creation will be detected as well.
+	 * @param resource the properties resource to watch
+	 * @param filename the bundle filename (basename + Locale)
+	 */
+	private void watchResource(Resource resource, String filename) {
+		File file;
+		try {
+			file = resource.getFile();
+		}
+		catch (IOException ex) {
+			// Not in the file system (e.g. in a jar file): cache it forever.
+			return;
+		}
+		synchronized (this.cachedProperties) {
+			if (this.fileWatcher == null) {
+				this.fileWatcher = new PropertiesFileWatcher(this);
+			}
+			this.fileWatcher.watch(file, filename);
+		}
+	}
+
+	/**
+	 * Reload the given bundle files in response to a file change notification,
+	 * swapping in fresh PropertiesHolders as well as freshly merged properties
+	 * for all Locales accessed so far. Lookups on other threads keep using the
+	 * previous holders until the new ones are in place.
+	 * @param filenames the bundle filenames (basename + Locale) to reload
+	 */
+	void reloadProperties(Set<String> filenames) {
+		synchronized (this.cachedProperties) {
+			for (String filename : filenames) {
+				if (this.cachedProperties.containsKey(filename)) {
+					refreshProperties(filename, null);
+				}
+			}
+		}
+		synchronized (this.cachedMergedProperties) {
+			for (Locale locale : this.cachedMergedProperties.keySet()) {
+				this.cachedMergedProperties.put(locale, mergeProperties(locale));
+			}
+		}
+	}
+
 	/**
 	 * Load the properties from the given resource.
 	 * @param resource the resource to load from
@@ -568,6 +703,20 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		}
 	}
 
+	/**
+	 * Stop watching properties files for changes, if applicable.
+	 * @since 3.2.19
+	 * @see #setWatchForChanges
+	 */
+	public void destroy() {
+		synchronized (this.cachedProperties) {
+			if (this.fileWatcher != null) {
+				this.fileWatcher.close();
+				this.fileWatcher = null;
+			}
+		}
+	}
+
 	/**
 	 * Clear the resource bundle caches of this MessageSource and all its ancestors.
 	 * @see #clearCache
@@ -598,11 +747,11 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 
 		private long fileTimestamp = -1;
 
-		private long refreshTimestamp = -1;
+		private volatile long refreshTimestamp = -1;
 
 		/** Cache to hold already generated MessageFormats per message code */
 		private final Map<String, Map<Locale, MessageFormat>> cachedMessageFormats =
-				new HashMap<String, Map<Locale, MessageFormat>>();
+				new ConcurrentHashMap<String, Map<Locale, MessageFormat>>();
 
 		public PropertiesHolder(Properties properties, long fileTimestamp) {
 			this.properties = properties;
@@ -639,8 +788,15 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 			if (this.properties == null) {
 				return null;
 			}
+			Map<Locale, MessageFormat> localeMap = this.cachedMessageFormats.get(code);
+			if (localeMap != null) {
+				MessageFormat result = localeMap.get(locale);
+				if (result != null) {
+					return result;
+				}
+			}
 			synchronized (this.cachedMessageFormats) {
-				Map<Locale, MessageFormat> localeMap = this.cachedMessageFormats.get(code);
+				localeMap = this.cachedMessageFormats.get(code);
 				if (localeMap != null) {
 					MessageFormat result = localeMap.get(locale);
 					if (result != null) {
@@ -650,7 +806,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 				String msg = this.properties.getProperty(code);
 				if (msg != null) {
 					if (localeMap == null) {
-						localeMap = new HashMap<Locale, MessageFormat>();
+						localeMap = new ConcurrentHashMap<Locale, MessageFormat>();
 						this.cachedMessageFormats.put(code, localeMap);
 					}
 					MessageFormat result = createMessageFormat(msg, locale);
@@ -662,4 +818,119 @@ public class ReloadableResourceBundleMessageSource extends AbstractMessageSource
 		}
 	}
 
+
+	/**
+	 * Background watcher for properties files, based on a Java 7
+	 * {@link WatchService} observing the parent directories of the files.
+	 * Only loaded when watching for changes, i.e. on Java 7 or higher.
+	 */
+	private static class PropertiesFileWatcher implements Runnable {
+
+		private static final long COALESCE_MILLIS = 50;
+
+		private final Log logger = LogFactory.getLog(getClass());
+
+		private final ReloadableResourceBundleMessageSource messageSource;
+
+		private final WatchService watchService;
+
+		/** Bundle filenames per watched file path */
+		private final Map<Path, String> watchedFiles = new ConcurrentHashMap<Path, String>();
+
+		/** Watched directories per watch key */
+		private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<WatchKey, Path>();
+
+		public PropertiesFileWatcher(ReloadableResourceBundleMessageSource messageSource) {
+			this.messageSource = messageSource;
+			try {
+				this.watchService = FileSystems.getDefault().newWatchService();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Could not create WatchService for properties files", ex);
+			}
+			Thread thread = new Thread(this, "MessageSourceWatcher@" + Integer.toHexString(messageSource.hashCode()));
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		public void watch(File file, String filename) {
+			Path path = file.getAbsoluteFile().toPath();
+			if (this.watchedFiles.put(path, filename) != null) {
+				return;
+			}
+			Path dir = path.getParent();
+			if (dir == null || !dir.toFile().isDirectory()) {
+				return;
+			}
+			try {
+				WatchKey key = dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				this.watchedDirectories.put(key, dir);
+			}
+			catch (IOException ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Could not watch directory [" + dir + "] for changes of properties files", ex);
+				}
+			}
+			catch (ClosedWatchServiceException ex) {
+				// Shut down in the meantime.
+			}
+		}
+
+		public void run() {
+			try {
+				while (true) {
+					Set<String> changed = new LinkedHashSet<String>();
+					WatchKey key = this.watchService.take();
+					// Coalesce bursts of events (e.g. truncate + write) into a single reload.
+					while (key != null) {
+						collectChanges(key, changed);
+						key = this.watchService.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+					}
+					if (!changed.isEmpty()) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Reloading changed properties files " + changed);
+						}
+						try {
+							this.messageSource.reloadProperties(changed);
+						}
+						catch (RuntimeException ex) {
+							logger.warn("Failed to reload properties files " + changed, ex);
+						}
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			catch (ClosedWatchServiceException ex) {
+				// Regular shutdown.
+			}
+		}
+
+		private void collectChanges(WatchKey key, Set<String> changed) {
+			Path dir = this.watchedDirectories.get(key);
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (dir != null && event.context() instanceof Path) {
+					String filename = this.watchedFiles.get(dir.resolve((Path) event.context()));
+					if (filename != null) {
+						changed.add(filename);
+					}
+				}
+			}
+			if (!key.reset()) {
+				this.watchedDirectories.remove(key);
+			}
+		}
+
+		public void close() {
+			try {
+				this.watchService.close();
+			}
+			catch (IOException ex) {
+				logger.debug("Could not close WatchService for properties files", ex);
+			}
+		}
+	}
+
 }
@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.core.JdkVersion;
@@ -97,7 +98,7 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 	 * @see #getMessageFormat
 	 */
 	private final Map<ResourceBundle, Map<String, Map<Locale, MessageFormat>>> cachedBundleMessageFormats =
-			new HashMap<ResourceBundle, Map<String, Map<Locale, MessageFormat>>>();
+			new ConcurrentHashMap<ResourceBundle, Map<String, Map<Locale, MessageFormat>>>();
 
 
 	/**
@@ -345,8 +346,19 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 	protected MessageFormat getMessageFormat(ResourceBundle bundle, String code, Locale locale)
 			throws MissingResourceException {
 
+		Map<String, Map<Locale, MessageFormat>> codeMap = this.cachedBundleMessageFormats.get(bundle);
+		if (codeMap != null) {
+			Map<Locale, MessageFormat> localeMap = codeMap.get(code);
+			if (localeMap != null) {
+				MessageFormat result = localeMap.get(locale);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+
 		synchronized (this.cachedBundleMessageFormats) {
-			Map<String, Map<Locale, MessageFormat>> codeMap = this.cachedBundleMessageFormats.get(bundle);
+			codeMap = this.cachedBundleMessageFormats.get(bundle);
 			Map<Locale, MessageFormat> localeMap = null;
 			if (codeMap != null) {
 				localeMap = codeMap.get(code);
@@ -361,11 +373,11 @@ public class ResourceBundleMessageSource extends AbstractMessageSource implement
 			String msg = getStringOrNull(bundle, code);
 			if (msg != null) {
 				if (codeMap == null) {
-					codeMap = new HashMap<String, Map<Locale, MessageFormat>>();
+					codeMap = new ConcurrentHashMap<String, Map<Locale, MessageFormat>>();
 					this.cachedBundleMessageFormats.put(bundle, codeMap);
 				}
 				if (localeMap == null) {
-					localeMap = new HashMap<Locale, MessageFormat>();
+					localeMap = new ConcurrentHashMap<Locale, MessageFormat>();
 					codeMap.put(code, localeMap);
 				}
 				MessageFormat result = createMessageFormat(msg, locale);
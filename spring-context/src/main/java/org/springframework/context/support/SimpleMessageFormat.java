@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link MessageFormat} variant which additionally keeps a pre-parsed,
+ * immutable representation of its pattern if the pattern only consists of literal
+ * text (including MessageFormat quoting) and plain {@code {n}} placeholders.
+ * Such messages can then be rendered without synchronizing on the shared
+ * MessageFormat instance, as long as no argument requires locale-specific
+ * number or date formatting.
+ *
+ * <p>Patterns with format types or styles (e.g. {@code {0,number,#.##}}) are
+ * simply handled by the regular MessageFormat implementation. The same applies
+ * once the pattern, locale or formats get modified after construction.
+ *
+ * @since 3.2.19
+ * @see MessageSourceSupport#createMessageFormat
+ */
+@SuppressWarnings("serial")
+class SimpleMessageFormat extends MessageFormat {
+
+	/**
+	 * Literal text segments (String) and argument indexes (Integer),
+	 * or {@code null} if the pattern is not eligible for lock-free rendering.
+	 */
+	private transient volatile Object[] parts;
+
+
+	public SimpleMessageFormat(String pattern, Locale locale) {
+		super(pattern, locale);
+		this.parts = parsePattern(pattern);
+	}
+
+
+	/**
+	 * Format the given MessageFormat with the given arguments: without locking
+	 * if it is a SimpleMessageFormat with a pre-parsed pattern, and synchronizing
+	 * on the (not thread-safe) MessageFormat instance otherwise.
+	 * @param messageFormat the MessageFormat to use
+	 * @param args the arguments to fill in
+	 * @return the formatted message
+	 */
+	static String format(MessageFormat messageFormat, Object[] args) {
+		if (messageFormat instanceof SimpleMessageFormat) {
+			String result = ((SimpleMessageFormat) messageFormat).formatWithoutLocking(args);
+			if (result != null) {
+				return result;
+			}
+		}
+		synchronized (messageFormat) {
+			return messageFormat.format(args);
+		}
+	}
+
+	/**
+	 * Render the pre-parsed pattern with the given arguments, following
+	 * MessageFormat's rules for placeholders without format type.
+	 * @return the formatted message, or {@code null} if the regular
+	 * MessageFormat rendering needs to be applied instead
+	 */
+	private String formatWithoutLocking(Object[] args) {
+		Object[] parts = this.parts;
+		if (parts == null) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Object part : parts) {
+			if (part instanceof String) {
+				sb.append((String) part);
+				continue;
+			}
+			int index = (Integer) part;
+			if (args == null || index >= args.length) {
+				sb.append('{').append(index).append('}');
+				continue;
+			}
+			Object arg = args[index];
+			if (arg instanceof Number || arg instanceof Date) {
+				// Locale-specific formatting: let MessageFormat do its job.
+				return null;
+			}
+			String str = (arg != null ? arg.toString() : null);
+			sb.append(str != null ? str : "null");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Parse the given pattern into literal segments and argument indexes.
+	 * @return the parts, or {@code null} if the pattern contains more than
+	 * plain {@code {n}} placeholders
+	 */
+	private static Object[] parsePattern(String pattern) {
+		List<Object> parts = new ArrayList<Object>();
+		StringBuilder literal = new StringBuilder();
+		boolean inQuote = false;
+		int length = pattern.length();
+		for (int i = 0; i < length; i++) {
+			char ch = pattern.charAt(i);
+			if (ch == '\'') {
+				if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+					literal.append(ch);
+					i++;
+				}
+				else {
+					inQuote = !inQuote;
+				}
+			}
+			else if (ch == '{' && !inQuote) {
+				int end = pattern.indexOf('}', i + 1);
+				if (end <= i + 1) {
+					return null;
+				}
+				int index = 0;
+				for (int j = i + 1; j < end; j++) {
+					char digit = pattern.charAt(j);
+					if (digit < '0' || digit > '9') {
+						// Format type, format style or invalid argument
+						return null;
+					}
+					index = index * 10 + (digit - '0');
+				}
+				if (literal.length() > 0) {
+					parts.add(literal.toString());
+					literal.setLength(0);
+				}
+				parts.add(index);
+				i = end;
+			}
+			else {
+				literal.append(ch);
+			}
+		}
+		if (literal.length() > 0) {
+			parts.add(literal.toString());
+		}
+		return parts.toArray();
+	}
+
+
+	// Any modification disables the pre-parsed pattern.
+
+	@Override
+	public void applyPattern(String pattern) {
+		super.applyPattern(pattern);
+		this.parts = null;
+	}
+
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		this.parts = null;
+	}
+
+	@Override
+	public void setFormats(Format[] newFormats) {
+		super.setFormats(newFormats);
+		this.parts = null;
+	}
+
+	@Override
+	public void setFormatsByArgumentIndex(Format[] newFormats) {
+		super.setFormatsByArgumentIndex(newFormats);
+		this.parts = null;
+	}
+
+	@Override
+	public void setFormat(int formatElementIndex, Format newFormat) {
+		super.setFormat(formatElementIndex, newFormat);
+		this.parts = null;
+	}
+
+	@Override
+	public void setFormatByArgumentIndex(int argumentIndex, Format newFormat) {
+		super.setFormatByArgumentIndex(argumentIndex, newFormat);
+		this.parts = null;
+	}
+
+}
@@ -0,0 +1,683 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface, keeping scheduled
+ * tasks in a hierarchical timing wheel and running them on a fixed-size pool of
+ * worker threads.
+ *
+ * <p>In contrast to {@link ThreadPoolTaskScheduler}, which keeps every scheduled
+ * task in the delay queue (a binary heap) of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}, scheduling and
+ * rescheduling a task is a constant-time operation here, independent of the
+ * number of tasks. This makes this scheduler a good fit for very large numbers
+ * of triggers, e.g. many thousands of {@link org.springframework.scheduling.support.CronTrigger}
+ * instances in a multi-tenant setup.
+ *
+ * <p>The price for this is a limited timer resolution: tasks are executed on the
+ * first {@link #setTickDuration tick} at or after their scheduled execution time.
+ * Tasks are handed off to the worker pool by a single timer thread, so a slow task
+ * does not delay other tasks unless all workers are busy. The lag between scheduled
+ * and actual execution time is tracked, with executions exceeding the configured
+ * {@link #setMisfireThreshold misfire threshold} being counted as misfires.
+ *
+ * @since 3.2.19
+ * @see #setPoolSize
+ * @see #setTickDuration
+ * @see #getMisfireCount()
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport
+		implements TaskScheduler, SchedulingTaskExecutor {
+
+	/**
+	 * Default duration of a timer tick, in milliseconds.
+	 */
+	public static final long DEFAULT_TICK_DURATION = 10;
+
+	/**
+	 * Default number of buckets per wheel level.
+	 */
+	public static final int DEFAULT_TICKS_PER_WHEEL = 256;
+
+	/**
+	 * Default lag after which an execution counts as misfire, in milliseconds.
+	 */
+	public static final long DEFAULT_MISFIRE_THRESHOLD = 1000;
+
+	private static final int WHEEL_LEVELS = 4;
+
+
+	private volatile int poolSize = 1;
+
+	private volatile long tickDuration = DEFAULT_TICK_DURATION;
+
+	private volatile int ticksPerWheel = DEFAULT_TICKS_PER_WHEEL;
+
+	private volatile long misfireThreshold = DEFAULT_MISFIRE_THRESHOLD;
+
+	private volatile ErrorHandler errorHandler;
+
+	private volatile boolean waitForTasksToCompleteOnShutdown = false;
+
+	private volatile ExecutorService workerExecutor;
+
+	private volatile Wheel wheel;
+
+	private final AtomicLong executionCount = new AtomicLong();
+
+	private final AtomicLong misfireCount = new AtomicLong();
+
+	private final AtomicLong totalLag = new AtomicLong();
+
+	private final AtomicLong maxLag = new AtomicLong();
+
+
+	/**
+	 * Set the number of worker threads that execute the scheduled tasks.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Set the duration of a timer tick, in milliseconds, i.e. the timer resolution.
+	 * Default is 10.
+	 * <p>Tasks get executed on the first tick at or after their scheduled time.
+	 * A higher value reduces the timer thread's wake-ups at the expense of accuracy.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be 1 or higher");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of buckets per level of the timing wheel, rounded up
+	 * to the next power of two. Default is 256.
+	 * <p>With four levels, the default settings cover a range of roughly 500 days
+	 * before tasks need to be re-inserted into the top-level wheel.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 1 && ticksPerWheel <= (1 << 15), "'ticksPerWheel' must be between 2 and 32768");
+		int normalized = 2;
+		while (normalized < ticksPerWheel) {
+			normalized <<= 1;
+		}
+		this.ticksPerWheel = normalized;
+	}
+
+	/**
+	 * Set the lag between scheduled and actual execution time, in milliseconds,
+	 * beyond which an execution is counted as misfire. Default is 1000.
+	 * @see #getMisfireCount()
+	 */
+	public void setMisfireThreshold(long misfireThreshold) {
+		this.misfireThreshold = misfireThreshold;
+	}
+
+	/**
+	 * Provide an {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		Assert.notNull(errorHandler, "'errorHandler' must not be null");
+		this.errorHandler = errorHandler;
+	}
+
+	@Override
+	public void setWaitForTasksToCompleteOnShutdown(boolean waitForJobsToCompleteOnShutdown) {
+		super.setWaitForTasksToCompleteOnShutdown(waitForJobsToCompleteOnShutdown);
+		this.waitForTasksToCompleteOnShutdown = waitForJobsToCompleteOnShutdown;
+	}
+
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.workerExecutor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), threadFactory, rejectedExecutionHandler);
+		this.wheel = new Wheel(this.tickDuration, this.ticksPerWheel);
+		// Dedicated timer thread, not taken from the worker ThreadFactory
+		Thread timerThread = new Thread(getThreadGroup(), this.wheel, getThreadNamePrefix() + "timer");
+		timerThread.setDaemon(true);
+		this.wheel.start(timerThread);
+		return this.workerExecutor;
+	}
+
+	/**
+	 * Stop the timing wheel and shut down the worker pool.
+	 * <p>Like {@link java.util.concurrent.ScheduledThreadPoolExecutor}, this cancels
+	 * all tasks still waiting in the wheel, so that callers blocked on their
+	 * {@link ScheduledFuture} do not wait forever. Tasks already handed off to the
+	 * workers get cancelled as well, unless the scheduler is configured to
+	 * {@link #setWaitForTasksToCompleteOnShutdown wait for tasks to complete}.
+	 */
+	@Override
+	public void shutdown() {
+		if (this.wheel != null) {
+			this.wheel.stop();
+		}
+		if (!this.waitForTasksToCompleteOnShutdown && this.workerExecutor instanceof ThreadPoolExecutor) {
+			for (Runnable task : ((ThreadPoolExecutor) this.workerExecutor).getQueue()) {
+				if (task instanceof Future) {
+					((Future<?>) task).cancel(false);
+				}
+			}
+		}
+		super.shutdown();
+	}
+
+
+	// Metrics
+
+	/**
+	 * Return the number of scheduled executions performed so far.
+	 */
+	public long getExecutionCount() {
+		return this.executionCount.get();
+	}
+
+	/**
+	 * Return the number of executions which started later than the
+	 * misfire threshold after their scheduled execution time.
+	 * @see #setMisfireThreshold
+	 */
+	public long getMisfireCount() {
+		return this.misfireCount.get();
+	}
+
+	/**
+	 * Return the maximum lag between scheduled and actual execution time
+	 * observed so far, in milliseconds.
+	 */
+	public long getMaxLag() {
+		return this.maxLag.get();
+	}
+
+	/**
+	 * Return the average lag between scheduled and actual execution time,
+	 * in milliseconds.
+	 */
+	public long getAverageLag() {
+		long count = this.executionCount.get();
+		return (count > 0 ? this.totalLag.get() / count : 0);
+	}
+
+	/**
+	 * Return the number of tasks currently waiting for their next execution,
+	 * including cancelled tasks which have not been purged from the wheel yet.
+	 */
+	public int getScheduledTaskCount() {
+		Wheel wheel = this.wheel;
+		return (wheel != null ? wheel.taskCount.get() : 0);
+	}
+
+	private void recordExecution(long scheduledTime, long actualTime) {
+		long lag = Math.max(actualTime - scheduledTime, 0);
+		this.executionCount.incrementAndGet();
+		this.totalLag.addAndGet(lag);
+		long currentMax = this.maxLag.get();
+		while (lag > currentMax && !this.maxLag.compareAndSet(currentMax, lag)) {
+			currentMax = this.maxLag.get();
+		}
+		if (lag > this.misfireThreshold) {
+			this.misfireCount.incrementAndGet();
+		}
+	}
+
+
+	// SchedulingTaskExecutor implementation
+
+	public void execute(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			executor.execute(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	public Future<?> submit(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			return executor.submit(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	public <T> Future<T> submit(Callable<T> task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			Callable<T> taskToUse = task;
+			if (this.errorHandler != null) {
+				taskToUse = new DelegatingErrorHandlingCallable<T>(task, this.errorHandler);
+			}
+			return executor.submit(taskToUse);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	public boolean prefersShortLivedTasks() {
+		return true;
+	}
+
+
+	// TaskScheduler implementation
+
+	public ScheduledFuture schedule(Runnable task, Trigger trigger) {
+		ErrorHandler errorHandler =
+				(this.errorHandler != null ? this.errorHandler : TaskUtils.getDefaultErrorHandler(true));
+		Runnable taskToUse = TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true);
+		TriggerTask triggerTask = new TriggerTask(taskToUse, trigger);
+		Date nextExecutionTime = trigger.nextExecutionTime(triggerTask.triggerContext);
+		if (nextExecutionTime == null) {
+			return null;
+		}
+		return schedule(triggerTask, nextExecutionTime.getTime());
+	}
+
+	public ScheduledFuture schedule(Runnable task, Date startTime) {
+		return schedule(new WheelTask(errorHandlingTask(task, false), 0), startTime.getTime());
+	}
+
+	public ScheduledFuture scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "'period' must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), period), startTime.getTime());
+	}
+
+	public ScheduledFuture scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(), period);
+	}
+
+	public ScheduledFuture scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		return schedule(new WheelTask(errorHandlingTask(task, true), -delay), startTime.getTime());
+	}
+
+	public ScheduledFuture scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(), delay);
+	}
+
+
+	private ScheduledFuture schedule(WheelTask task, long time) {
+		Wheel wheel = getWheel();
+		task.time = time;
+		if (!wheel.add(task)) {
+			throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down - " +
+					"did not accept task: " + task.getTask());
+		}
+		return task;
+	}
+
+	private ExecutorService getWorkerExecutor() {
+		Assert.state(this.workerExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.workerExecutor;
+	}
+
+	private Wheel getWheel() {
+		Assert.state(this.wheel != null, "TimingWheelTaskScheduler not initialized");
+		return this.wheel;
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+
+	/**
+	 * Hierarchical timing wheel driven by a single timer thread.
+	 * <p>Level 0 has one bucket per tick; each bucket on level n covers a full
+	 * revolution of level n-1. Tasks get added through a concurrent queue and
+	 * are only ever placed into buckets by the timer thread, which cascades them
+	 * down to lower levels as their execution time approaches.
+	 */
+	private class Wheel implements Runnable {
+
+		private final long tickDuration;
+
+		private final int bits;
+
+		private final int mask;
+
+		/** Intrusive singly-linked task lists, only accessed by the timer thread */
+		private final WheelTask[][] buckets;
+
+		private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<WheelTask>();
+
+		private final AtomicInteger taskCount = new AtomicInteger();
+
+		private long startTime;
+
+		private long currentTick;
+
+		private volatile boolean running;
+
+		private Thread timerThread;
+
+		public Wheel(long tickDuration, int ticksPerWheel) {
+			this.tickDuration = tickDuration;
+			this.bits = Integer.numberOfTrailingZeros(ticksPerWheel);
+			this.mask = ticksPerWheel - 1;
+			this.buckets = new WheelTask[WHEEL_LEVELS][ticksPerWheel];
+		}
+
+		public void start(Thread timerThread) {
+			this.startTime = System.currentTimeMillis();
+			this.timerThread = timerThread;
+			this.running = true;
+			timerThread.start();
+		}
+
+		/**
+		 * Stop the timer thread and wait for it to cancel all remaining tasks.
+		 */
+		public void stop() {
+			this.running = false;
+			this.timerThread.interrupt();
+			try {
+				this.timerThread.join();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		public boolean add(WheelTask task) {
+			if (!this.running) {
+				return false;
+			}
+			this.taskCount.incrementAndGet();
+			this.pendingTasks.add(task);
+			// Stopped concurrently: either the timer thread has cancelled the task
+			// already, or it has drained the queue before and we need to back out.
+			if (!this.running && this.pendingTasks.remove(task)) {
+				this.taskCount.decrementAndGet();
+				return false;
+			}
+			return true;
+		}
+
+		public void run() {
+			while (this.running) {
+				long tick = this.currentTick + 1;
+				long sleepTime = this.startTime + tick * this.tickDuration - System.currentTimeMillis();
+				if (sleepTime > 0) {
+					try {
+						Thread.sleep(sleepTime);
+					}
+					catch (InterruptedException ex) {
+						continue;
+					}
+				}
+				this.currentTick = tick;
+				WheelTask task;
+				while ((task = this.pendingTasks.poll()) != null) {
+					place(task, tick);
+				}
+				for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+					if ((tick & ((1L << (level * this.bits)) - 1)) == 0) {
+						placeAll(removeBucket(level, (int) (tick >>> (level * this.bits)) & this.mask), tick);
+					}
+				}
+				placeAll(removeBucket(0, (int) tick & this.mask), tick);
+			}
+			cancelAll();
+		}
+
+		/**
+		 * Cancel all tasks left in the wheel after the timer has been stopped.
+		 */
+		private void cancelAll() {
+			WheelTask task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				cancel(task);
+			}
+			for (WheelTask[] level : this.buckets) {
+				for (int i = 0; i < level.length; i++) {
+					WheelTask head = level[i];
+					level[i] = null;
+					while (head != null) {
+						WheelTask next = head.nextInBucket;
+						head.nextInBucket = null;
+						cancel(head);
+						head = next;
+					}
+				}
+			}
+		}
+
+		private void cancel(WheelTask task) {
+			this.taskCount.decrementAndGet();
+			task.cancel(false);
+		}
+
+		private WheelTask removeBucket(int level, int index) {
+			WheelTask head = this.buckets[level][index];
+			this.buckets[level][index] = null;
+			return head;
+		}
+
+		private void placeAll(WheelTask head, long tick) {
+			while (head != null) {
+				WheelTask next = head.nextInBucket;
+				head.nextInBucket = null;
+				place(head, tick);
+				head = next;
+			}
+		}
+
+		/**
+		 * Place the given task into the bucket for its execution tick,
+		 * relative to the given current tick, or hand it off to the workers
+		 * if it is due already.
+		 */
+		private void place(WheelTask task, long tick) {
+			if (task.isCancelled()) {
+				this.taskCount.decrementAndGet();
+				return;
+			}
+			long offset = task.time - this.startTime;
+			long taskTick = (offset > 0 ? (offset + this.tickDuration - 1) / this.tickDuration : 0);
+			long delta = taskTick - tick;
+			if (delta <= 0) {
+				this.taskCount.decrementAndGet();
+				try {
+					workerExecutor.execute(task);
+				}
+				catch (RejectedExecutionException ex) {
+					if (this.running) {
+						logger.error("Worker pool did not accept scheduled task: " + task.getTask(), ex);
+					}
+					task.cancel(false);
+				}
+				return;
+			}
+			int level = 0;
+			while (level < WHEEL_LEVELS - 1 && delta >= (1L << ((level + 1) * this.bits))) {
+				level++;
+			}
+			int index = (int) (taskTick >>> (level * this.bits)) & this.mask;
+			task.nextInBucket = this.buckets[level][index];
+			this.buckets[level][index] = task;
+		}
+	}
+
+
+	/**
+	 * Task in the timing wheel: one-shot (period 0), fixed-rate (positive period)
+	 * or fixed-delay (negative period), analogous to ScheduledThreadPoolExecutor.
+	 */
+	private class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		private final Runnable task;
+
+		private final long period;
+
+		/** Scheduled execution time; written before handing the task to the wheel */
+		volatile long time;
+
+		/** Next task in the same bucket; only accessed by the timer thread */
+		WheelTask nextInBucket;
+
+		public WheelTask(Runnable task, long period) {
+			super(task, null);
+			this.task = task;
+			this.period = period;
+		}
+
+		public Runnable getTask() {
+			return this.task;
+		}
+
+		@Override
+		public void run() {
+			long scheduledTime = this.time;
+			long actualTime = System.currentTimeMillis();
+			recordExecution(scheduledTime, actualTime);
+			if (this.period == 0) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				reschedule(this.period > 0 ? scheduledTime + this.period : System.currentTimeMillis() - this.period);
+			}
+		}
+
+		protected void reschedule(long nextTime) {
+			Wheel wheel = TimingWheelTaskScheduler.this.wheel;
+			this.time = nextTime;
+			if (wheel == null || !wheel.add(this)) {
+				cancel(false);
+			}
+		}
+
+		/**
+		 * Complete this task without any further executions.
+		 */
+		protected void finish() {
+			set(null);
+		}
+
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.MILLISECONDS) - other.getDelay(TimeUnit.MILLISECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	/**
+	 * Task rescheduled according to the next execution time
+	 * suggested by a given {@link Trigger}.
+	 */
+	private class TriggerTask extends WheelTask {
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		public TriggerTask(Runnable task, Trigger trigger) {
+			// Period just marks the task as repeating: reschedule according to trigger
+			super(task, 1);
+			this.trigger = trigger;
+		}
+
+		@Override
+		public void run() {
+			long scheduledTime = this.time;
+			Date actualExecutionTime = new Date();
+			recordExecution(scheduledTime, actualExecutionTime.getTime());
+			if (runAndReset()) {
+				this.triggerContext.update(new Date(scheduledTime), actualExecutionTime, new Date());
+				Date nextExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+				if (nextExecutionTime != null) {
+					reschedule(nextExecutionTime.getTime());
+				}
+				else {
+					finish();
+				}
+			}
+		}
+	}
+
+
+	private static class DelegatingErrorHandlingCallable<V> implements Callable<V> {
+
+		private final Callable<V> delegate;
+
+		private final ErrorHandler errorHandler;
+
+		public DelegatingErrorHandlingCallable(Callable<V> delegate, ErrorHandler errorHandler) {
+			this.delegate = delegate;
+			this.errorHandler = errorHandler;
+		}
+
+		public V call() throws Exception {
+			try {
+				return this.delegate.call();
+			}
+			catch (Throwable t) {
+				this.errorHandler.handleError(t);
+				return null;
+			}
+		}
+	}
+
+}
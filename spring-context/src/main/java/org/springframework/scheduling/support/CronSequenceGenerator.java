@@ -55,6 +55,13 @@ import org.springframework.util.StringUtils;
  */
 public class CronSequenceGenerator {
 
+	/**
+	 * Number of upcoming fire times computed in one go, to be served from
+	 * the lookahead cache for subsequent {@link #next} calls.
+	 */
+	private static final int LOOKAHEAD_SIZE = 8;
+
+
 	private final String expression;
 
 	private final TimeZone timeZone;
@@ -71,6 +78,8 @@ public class CronSequenceGenerator {
 
 	private final BitSet seconds = new BitSet(60);
 
+	private volatile Lookahead lookahead;
+
 
 	/**
 	 * Construct a {@link CronSequenceGenerator} from the pattern provided,
@@ -104,15 +113,53 @@ public class CronSequenceGenerator {
 		return this.expression;
 	}
 
+	/**
+	 * Return the time zone that this sequence generator calculates fire times in.
+	 */
+	TimeZone getTimeZone() {
+		return this.timeZone;
+	}
+
 
 	/**
 	 * Get the next {@link Date} in the sequence matching the Cron pattern and
 	 * after the value provided. The return value will have a whole number of
 	 * seconds, and will be after the input value.
+	 * <p>Successive fire times are calculated in batches and kept in a lookahead
+	 * cache, allowing repeated calls (e.g. from many triggers sharing the same
+	 * expression) to be answered without any calendar arithmetic.
 	 * @param date a seed value
 	 * @return the next value matching the pattern
 	 */
 	public Date next(Date date) {
+		long timestamp = date.getTime();
+		Lookahead lookahead = this.lookahead;
+		if (lookahead != null) {
+			long next = lookahead.next(timestamp);
+			if (next != -1) {
+				return new Date(next);
+			}
+		}
+
+		Calendar calendar = new GregorianCalendar();
+		calendar.setTimeZone(this.timeZone);
+		long[] fireTimes = new long[LOOKAHEAD_SIZE];
+		fireTimes[0] = doNext(calendar, date);
+		int count = 1;
+		try {
+			while (count < LOOKAHEAD_SIZE) {
+				fireTimes[count] = doNext(calendar, new Date(fireTimes[count - 1]));
+				count++;
+			}
+		}
+		catch (IllegalArgumentException ex) {
+			// Runaway search further ahead: just cache the fire times found so far.
+		}
+		this.lookahead = new Lookahead(timestamp, fireTimes, count);
+		return new Date(fireTimes[0]);
+	}
+
+	private long doNext(Calendar calendar, Date date) {
 		/*
 		The plan:
 
@@ -130,8 +177,6 @@ public class CronSequenceGenerator {
 		4.2 Reset the minutes and seconds and go to 2
 		*/
 
-		Calendar calendar = new GregorianCalendar();
-		calendar.setTimeZone(this.timeZone);
 		calendar.setTime(date);
 
 		// First, just reset the milliseconds and try to calculate from there...
@@ -145,7 +190,7 @@ public class CronSequenceGenerator {
 			doNext(calendar, calendar.get(Calendar.YEAR));
 		}
 
-		return calendar.getTime();
+		return calendar.getTimeInMillis();
 	}
 
 	private void doNext(Calendar calendar, int dot) {
@@ -411,4 +456,47 @@ public class CronSequenceGenerator {
 		return getClass().getSimpleName() + ": " + this.expression;
 	}
 
+
+
+	/**
+	 * Immutable snapshot of consecutive fire times, valid for seed values
+	 * between the original seed and the last fire time in the snapshot.
+	 */
+	private static class Lookahead {
+
+		private final long seed;
+
+		private final long[] fireTimes;
+
+		private final int count;
+
+		public Lookahead(long seed, long[] fireTimes, int count) {
+			this.seed = seed;
+			this.fireTimes = fireTimes;
+			this.count = count;
+		}
+
+		/**
+		 * Return the first cached fire time after the given timestamp,
+		 * or -1 if the timestamp is not covered by this snapshot.
+		 */
+		public long next(long timestamp) {
+			if (timestamp < this.seed || timestamp >= this.fireTimes[this.count - 1]) {
+				return -1;
+			}
+			int low = 0;
+			int high = this.count - 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.fireTimes[mid] > timestamp) {
+					high = mid;
+				}
+				else {
+					low = mid + 1;
+				}
+			}
+			return this.fireTimes[low];
+		}
+	}
+
 }
@@ -17,6 +17,8 @@
 package org.springframework.scheduling.support;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.TimeZone;
 
 import org.springframework.scheduling.Trigger;
@@ -26,12 +28,28 @@ import org.springframework.scheduling.TriggerContext;
  * {@link Trigger} implementation for cron expressions.
  * Wraps a {@link CronSequenceGenerator}.
  *
+ * <p>Triggers for the same expression and time zone share a sequence generator,
+ * so that its lookahead cache of upcoming fire times serves all of them.
+ *
  * @author Juergen Hoeller
  * @since 3.0
  * @see CronSequenceGenerator
  */
 public class CronTrigger implements Trigger {
 
+	private static final int SHARED_GENERATOR_LIMIT = 256;
+
+	/** Shared sequence generators, keyed by expression and time zone id, in access order */
+	@SuppressWarnings("serial")
+	private static final Map<String, CronSequenceGenerator> sharedGenerators =
+			new LinkedHashMap<String, CronSequenceGenerator>(64, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CronSequenceGenerator> eldest) {
+					return (size() > SHARED_GENERATOR_LIMIT);
+				}
+			};
+
+
 	private final CronSequenceGenerator sequenceGenerator;
 
 
@@ -41,7 +59,7 @@ public class CronTrigger implements Trigger {
 	 * expression conventions
 	 */
 	public CronTrigger(String expression) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression);
+		this(expression, TimeZone.getDefault());
 	}
 
 	/**
@@ -51,7 +69,25 @@ public class CronTrigger implements Trigger {
 	 * @param timeZone a time zone in which the trigger times will be generated
 	 */
 	public CronTrigger(String expression, TimeZone timeZone) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression, timeZone);
+		this.sequenceGenerator = obtainSequenceGenerator(expression, timeZone);
+	}
+
+
+	/**
+	 * Return a shared {@link CronSequenceGenerator} for the given expression
+	 * and time zone, creating it if necessary.
+	 */
+	private static CronSequenceGenerator obtainSequenceGenerator(String expression, TimeZone timeZone) {
+		String key = expression + " @ " + timeZone.getID();
+		synchronized (sharedGenerators) {
+			CronSequenceGenerator generator = sharedGenerators.get(key);
+			if (generator != null && generator.getTimeZone().equals(timeZone)) {
+				return generator;
+			}
+			generator = new CronSequenceGenerator(expression, timeZone);
+			sharedGenerators.put(key, generator);
+			return generator;
+		}
 	}
 
 
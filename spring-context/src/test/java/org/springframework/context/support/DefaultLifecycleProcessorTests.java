@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,12 +17,17 @@
 package org.springframework.context.support;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContextException;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.SmartLifecycle;
@@ -567,6 +572,107 @@ public class DefaultLifecycleProcessorTests {
 		assertEquals(Integer.MIN_VALUE, getPhase(stoppedBeans.get(4)));
 	}
 
+	@Test
+	public void concurrentStartWithinPhase() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			CountDownLatch latch = new CountDownLatch(3);
+			LatchedSmartLifecycleBean bean1 = new LatchedSmartLifecycleBean(latch);
+			LatchedSmartLifecycleBean bean2 = new LatchedSmartLifecycleBean(latch);
+			LatchedSmartLifecycleBean bean3 = new LatchedSmartLifecycleBean(latch);
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			context.getBeanFactory().registerSingleton("bean1", bean1);
+			context.getBeanFactory().registerSingleton("bean2", bean2);
+			context.getBeanFactory().registerSingleton("bean3", bean3);
+			context.refresh();
+			// each start only completes once all three beans are starting at the same time
+			assertTrue(bean1.isRunning());
+			assertTrue(bean2.isRunning());
+			assertTrue(bean3.isRunning());
+			assertTrue(bean1.startedConcurrently);
+			assertTrue(bean2.startedConcurrently);
+			assertTrue(bean3.startedConcurrently);
+			context.stop();
+			assertFalse(bean1.isRunning());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void concurrentStartWithDependencies() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CopyOnWriteArrayList<Lifecycle> startedBeans = new CopyOnWriteArrayList<Lifecycle>();
+			TestSmartLifecycleBean beanMin = TestSmartLifecycleBean.forStartupTests(Integer.MIN_VALUE, startedBeans);
+			TestSmartLifecycleBean bean2a = TestSmartLifecycleBean.forStartupTests(2, startedBeans);
+			TestSmartLifecycleBean bean2b = TestSmartLifecycleBean.forStartupTests(2, startedBeans);
+			TestSmartLifecycleBean bean99 = TestSmartLifecycleBean.forStartupTests(99, startedBeans);
+			TestLifecycleBean simpleBean = TestLifecycleBean.forStartupTests(startedBeans);
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			context.getBeanFactory().registerSingleton("beanMin", beanMin);
+			context.getBeanFactory().registerSingleton("bean2a", bean2a);
+			context.getBeanFactory().registerSingleton("bean2b", bean2b);
+			context.getBeanFactory().registerSingleton("bean99", bean99);
+			context.getBeanFactory().registerSingleton("simpleBean", simpleBean);
+			context.getBeanFactory().registerDependentBean("bean99", "bean2a");
+			context.getBeanFactory().registerDependentBean("simpleBean", "bean2b");
+			context.getBeanFactory().registerDependentBean("bean2a", "bean2b");
+			context.refresh();
+			assertEquals(5, startedBeans.size());
+			assertEquals(beanMin, startedBeans.get(0));
+			assertTrue(startedBeans.indexOf(bean99) < startedBeans.indexOf(bean2a));
+			assertTrue(startedBeans.indexOf(simpleBean) < startedBeans.indexOf(bean2b));
+			assertTrue(startedBeans.indexOf(bean2a) < startedBeans.indexOf(bean2b));
+			context.stop();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void concurrentStartFailure() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			CopyOnWriteArrayList<Lifecycle> startedBeans = new CopyOnWriteArrayList<Lifecycle>();
+			TestSmartLifecycleBean bean1 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+			TestSmartLifecycleBean bean2 = TestSmartLifecycleBean.forStartupTests(2, startedBeans);
+			StaticApplicationContext context = createContextWithTaskExecutor(executor);
+			context.getBeanFactory().registerSingleton("failingBean", new DummySmartLifecycleBean() {
+				@Override
+				public void start() {
+					throw new IllegalStateException("Cannot start");
+				}
+			});
+			context.getBeanFactory().registerSingleton("bean1", bean1);
+			context.getBeanFactory().registerSingleton("bean2", bean2);
+			try {
+				context.refresh();
+				fail("Should have thrown ApplicationContextException");
+			}
+			catch (ApplicationContextException ex) {
+				assertTrue(ex.getMessage().contains("failingBean"));
+				assertTrue(ex.getCause() instanceof IllegalStateException);
+			}
+			// phase 0 failed, so later phases must not have been started
+			assertFalse(bean1.isRunning());
+			assertFalse(bean2.isRunning());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	private static StaticApplicationContext createContextWithTaskExecutor(ExecutorService executor) {
+		BeanDefinition beanDefinition = new RootBeanDefinition(DefaultLifecycleProcessor.class);
+		beanDefinition.getPropertyValues().addPropertyValue("taskExecutor", executor);
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("lifecycleProcessor", beanDefinition);
+		return context;
+	}
 
 	private static int getPhase(Lifecycle lifecycle) {
 		return (lifecycle instanceof SmartLifecycle) ?
@@ -679,6 +785,58 @@ public class DefaultLifecycleProcessorTests {
 	}
 
 
+	private static class LatchedSmartLifecycleBean implements SmartLifecycle {
+
+		private final CountDownLatch latch;
+
+		private volatile boolean startedConcurrently;
+
+		private volatile boolean running;
+
+		public LatchedSmartLifecycleBean(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public boolean isAutoStartup() {
+			return true;
+		}
+
+		@Override
+		public int getPhase() {
+			return 0;
+		}
+
+		@Override
+		public void start() {
+			this.latch.countDown();
+			try {
+				this.startedConcurrently = this.latch.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.running = true;
+		}
+
+		@Override
+		public void stop() {
+			this.running = false;
+		}
+
+		@Override
+		public void stop(Runnable callback) {
+			stop();
+			callback.run();
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+	}
+
+
 	public static class DummySmartLifecycleBean implements SmartLifecycle {
 
 		public boolean running = false;
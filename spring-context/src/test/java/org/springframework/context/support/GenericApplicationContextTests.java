@@ -16,11 +16,22 @@
 
 package org.springframework.context.support;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
 
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.CachedIntrospectionResults;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ReflectionUtils;
 
 import static org.junit.Assert.*;
 
@@ -55,4 +66,94 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void commonCachesResetOnClose() {
+		final List<String> resets = new ArrayList<String>();
+		GenericApplicationContext ac = new GenericApplicationContext() {
+			@Override
+			protected void resetCommonCaches() {
+				super.resetCommonCaches();
+				resets.add("reset");
+			}
+		};
+		ac.setResetCommonCachesOnClose(true);
+		ac.registerBeanDefinition("testBean", new RootBeanDefinition(String.class));
+		ac.refresh();
+		assertTrue(resets.isEmpty());
+		ac.close();
+		assertEquals(1, resets.size());
+		ac.close();
+		assertEquals(1, resets.size());
+	}
+
+	@Test
+	public void commonCachesNotResetOnCloseByDefault() {
+		populateCommonCaches();
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.refresh();
+		ac.close();
+		assertTrue(getCache(ReflectionUtils.class, "declaredMethodsCache").containsKey(CacheTestBean.class));
+		assertTrue(getCache(TypeDescriptor.class, "classTypeDescriptorCache").containsKey(CacheTestBean.class));
+		assertTrue(getCache(CachedIntrospectionResults.class, "classCache").containsKey(CacheTestBean.class));
+	}
+
+	@Test
+	public void commonCachesClearedOnClose() {
+		populateCommonCaches();
+		assertTrue(getCache(ReflectionUtils.class, "declaredMethodsCache").containsKey(CacheTestBean.class));
+		assertTrue(getCache(ReflectionUtils.class, "declaredFieldsCache").containsKey(CacheTestBean.class));
+		assertFalse(getCache(AnnotationUtils.class, "findAnnotationCache").isEmpty());
+		assertTrue(getCache(GenericTypeResolver.class, "typeVariableCache").containsKey(StringList.class));
+		assertFalse(getCache(GenericTypeResolver.class, "typeArgumentsCache").isEmpty());
+		assertTrue(getCache(TypeDescriptor.class, "classTypeDescriptorCache").containsKey(CacheTestBean.class));
+		assertTrue(getCache(CachedIntrospectionResults.class, "classCache").containsKey(CacheTestBean.class));
+
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setResetCommonCachesOnClose(true);
+		ac.refresh();
+		ac.close();
+		assertFalse(getCache(ReflectionUtils.class, "declaredMethodsCache").containsKey(CacheTestBean.class));
+		assertFalse(getCache(ReflectionUtils.class, "declaredFieldsCache").containsKey(CacheTestBean.class));
+		assertTrue(getCache(AnnotationUtils.class, "findAnnotationCache").isEmpty());
+		assertFalse(getCache(GenericTypeResolver.class, "typeVariableCache").containsKey(StringList.class));
+		assertTrue(getCache(GenericTypeResolver.class, "typeArgumentsCache").isEmpty());
+		assertFalse(getCache(TypeDescriptor.class, "classTypeDescriptorCache").containsKey(CacheTestBean.class));
+		assertFalse(getCache(CachedIntrospectionResults.class, "classCache").containsKey(CacheTestBean.class));
+	}
+
+	private void populateCommonCaches() {
+		ReflectionUtils.getAllDeclaredMethods(CacheTestBean.class);
+		ReflectionUtils.findField(CacheTestBean.class, "name");
+		AnnotationUtils.findAnnotation(CacheTestBean.class, Deprecated.class);
+		GenericTypeResolver.getTypeVariableMap(StringList.class);
+		GenericTypeResolver.resolveTypeArgument(StringList.class, List.class);
+		TypeDescriptor.valueOf(CacheTestBean.class);
+		BeanUtils.getPropertyDescriptors(CacheTestBean.class);
+	}
+
+	private static Map<?, ?> getCache(Class<?> holder, String fieldName) {
+		Field field = ReflectionUtils.findField(holder, fieldName);
+		ReflectionUtils.makeAccessible(field);
+		return (Map<?, ?>) ReflectionUtils.getField(field, null);
+	}
+
+
+	public static class CacheTestBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class StringList extends ArrayList<String> {
+	}
+
 }
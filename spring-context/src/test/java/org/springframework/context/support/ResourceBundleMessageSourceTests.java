@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.context.support;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
@@ -28,6 +31,8 @@ import org.springframework.context.MessageSourceResolvable;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.JdkVersion;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
 
 /**
  * @author Juergen Hoeller
@@ -352,6 +357,48 @@ public class ResourceBundleMessageSourceTests extends TestCase {
 		assertEquals(0, filenames.size());
 	}
 
+	public void testReloadableResourceBundleMessageSourceWithWatchForChanges() throws Exception {
+		if (!ClassUtils.isPresent("java.nio.file.WatchService", getClass().getClassLoader())) {
+			return;
+		}
+		File dir = File.createTempFile("messages", "");
+		assertTrue(dir.delete());
+		assertTrue(dir.mkdir());
+		File file = new File(dir, "messages.properties");
+		File germanFile = new File(dir, "messages_de.properties");
+		writeProperties(file, "code1=message1\ncode2=message2\n");
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+		ms.setBasename(dir.toURI() + "messages");
+		ms.setFallbackToSystemLocale(false);
+		ms.setWatchForChanges(true);
+		try {
+			assertEquals("message1", ms.getMessage("code1", null, Locale.ENGLISH));
+			assertEquals("message2", ms.getMessage("code2", null, Locale.GERMAN));
+
+			writeProperties(file, "code1=changed1\ncode2=message2\n");
+			writeProperties(germanFile, "code2=nachricht2\n");
+			long deadline = System.currentTimeMillis() + 10000;
+			while ((!"changed1".equals(ms.getMessage("code1", null, Locale.ENGLISH)) ||
+					!"nachricht2".equals(ms.getMessage("code2", null, Locale.GERMAN))) &&
+					System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			assertEquals("changed1", ms.getMessage("code1", null, Locale.ENGLISH));
+			assertEquals("nachricht2", ms.getMessage("code2", null, Locale.GERMAN));
+			assertEquals("message2", ms.getMessage("code2", null, Locale.ENGLISH));
+		}
+		finally {
+			ms.destroy();
+			file.delete();
+			germanFile.delete();
+			dir.delete();
+		}
+	}
+
+	private static void writeProperties(File file, String content) throws IOException {
+		FileCopyUtils.copy(content.getBytes("ISO-8859-1"), new FileOutputStream(file));
+	}
+
 	public void testMessageSourceResourceBundle() {
 		ResourceBundleMessageSource ms = new ResourceBundleMessageSource();
 		ms.setBasename("org/springframework/context/support/messages");
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SimpleMessageFormatTests {
+
+	private static final String[] PATTERNS = new String[] {
+		"", "Hello", "Hello {0}", "{0}{1}", "{1} and {0}", "Don''t {0}", "'{0}' is {0}",
+		"It''s '{quoted}' {0}", "unterminated '{0}", "brace } {0}", "{0} {0} {10}",
+		"{0,number,#.##} items", "{0,choice,0#none|1#one}", "{0,date}"
+	};
+
+	private static final Object[][] ARGUMENTS = new Object[][] {
+		null, {}, {"a"}, {"a", "b"}, {null, "b"}, {new StringBuilder("sb"), Boolean.TRUE},
+		{1234.5}, {new Date(0)}, {"a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k"}
+	};
+
+
+	@Test
+	public void sameResultsAsMessageFormat() {
+		for (String pattern : PATTERNS) {
+			for (Object[] args : ARGUMENTS) {
+				for (Locale locale : new Locale[] {Locale.ENGLISH, Locale.GERMAN}) {
+					String expected;
+					try {
+						expected = new MessageFormat(pattern, locale).format(args);
+					}
+					catch (IllegalArgumentException ex) {
+						// argument not applicable to format type
+						expected = ex.getClass().getName();
+					}
+					String actual;
+					try {
+						actual = SimpleMessageFormat.format(new SimpleMessageFormat(pattern, locale), args);
+					}
+					catch (IllegalArgumentException ex) {
+						actual = ex.getClass().getName();
+					}
+					assertEquals("Pattern [" + pattern + "]", expected, actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sameResultsAfterModification() {
+		SimpleMessageFormat messageFormat = new SimpleMessageFormat("Hello {0}", Locale.ENGLISH);
+		messageFormat.applyPattern("Bye {0}");
+		assertEquals("Bye World", SimpleMessageFormat.format(messageFormat, new Object[] {"World"}));
+		assertEquals("Bye World", messageFormat.format(new Object[] {"World"}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPattern() {
+		new SimpleMessageFormat("Hello {0", Locale.ENGLISH);
+	}
+
+	@Test
+	public void messageSourceUsesSimpleMessageFormat() {
+		StaticMessageSource messageSource = new StaticMessageSource();
+		assertTrue(messageSource.createMessageFormat("Hello {0}", Locale.ENGLISH) instanceof SimpleMessageFormat);
+		messageSource.addMessage("greeting", Locale.ENGLISH, "Hello {0}, it''s {1}");
+		assertEquals("Hello World, it's 1,000",
+				messageSource.getMessage("greeting", new Object[] {"World", 1000}, Locale.ENGLISH));
+		assertEquals("Hello World, it's now",
+				messageSource.getMessage("greeting", new Object[] {"World", "now"}, Locale.ENGLISH));
+		assertEquals("Hi World",
+				messageSource.getMessage("unknown", new Object[] {"World"}, "Hi {0}", Locale.ENGLISH));
+		assertEquals("Hi World",
+				messageSource.getMessage("unknown", new Object[] {"World"}, "Hi {0}", null));
+	}
+
+}
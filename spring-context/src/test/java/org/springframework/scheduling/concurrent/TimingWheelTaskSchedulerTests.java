@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTaskSchedulerTests {
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@Before
+	public void initScheduler() {
+		scheduler.setThreadNamePrefix("wheel-");
+		scheduler.setTickDuration(1);
+		// small wheels, so that tasks get cascaded through all levels quickly
+		scheduler.setTicksPerWheel(4);
+		scheduler.setPoolSize(4);
+		scheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void shutdownScheduler() {
+		scheduler.destroy();
+	}
+
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		long startTime = System.currentTimeMillis() + 50;
+		ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, new Date(startTime));
+		assertNull(future.get(5, TimeUnit.SECONDS));
+		assertTrue(System.currentTimeMillis() >= startTime);
+		assertEquals(1, count.get());
+		assertTrue(future.isDone());
+		assertEquals(1, scheduler.getExecutionCount());
+	}
+
+	@Test
+	public void dedicatedTimerThread() throws Exception {
+		final AtomicReference<Thread> workerThread = new AtomicReference<Thread>();
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				workerThread.set(Thread.currentThread());
+			}
+		}, new Date()).get(5, TimeUnit.SECONDS);
+		assertEquals("wheel-1", workerThread.get().getName());
+		assertFalse(workerThread.get().isDaemon());
+
+		Thread timerThread = null;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("wheel-timer")) {
+				timerThread = thread;
+			}
+		}
+		assertNotNull(timerThread);
+		assertTrue(timerThread.isDaemon());
+	}
+
+	@Test
+	public void scheduleManyTasksAcrossWheelLevels() throws Exception {
+		int taskCount = 2000;
+		final CountDownLatch latch = new CountDownLatch(taskCount);
+		final AtomicInteger early = new AtomicInteger();
+		Random random = new Random(42);
+		for (int i = 0; i < taskCount; i++) {
+			final long time = System.currentTimeMillis() + random.nextInt(400);
+			scheduler.schedule(new Runnable() {
+				public void run() {
+					if (System.currentTimeMillis() < time) {
+						early.incrementAndGet();
+					}
+					latch.countDown();
+				}
+			}, new Date(time));
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(0, early.get());
+		assertEquals(taskCount, scheduler.getExecutionCount());
+		assertEquals(0, scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+			public void run() {
+				latch.countDown();
+			}
+		}, 10);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		future.cancel(false);
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void scheduleWithFixedDelay() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = scheduler.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				latch.countDown();
+			}
+		}, 10);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		future.cancel(false);
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void scheduleTrigger() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, new TestTrigger(3));
+		assertNull(future.get(5, TimeUnit.SECONDS));
+		assertEquals(3, count.get());
+		assertEquals(3, scheduler.getExecutionCount());
+	}
+
+	@Test
+	public void cancelledTaskDoesNotRun() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+			public void run() {
+				count.incrementAndGet();
+			}
+		}, new Date(System.currentTimeMillis() + 50));
+		assertTrue(future.cancel(false));
+		Thread.sleep(150);
+		assertEquals(0, count.get());
+		assertEquals(0, scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void misfireCounted() throws Exception {
+		scheduler.setMisfireThreshold(100);
+		final CountDownLatch latch = new CountDownLatch(1);
+		ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+			public void run() {
+				latch.countDown();
+			}
+		}, new Date(System.currentTimeMillis() - 500));
+		future.get(5, TimeUnit.SECONDS);
+		assertEquals(1, scheduler.getMisfireCount());
+		assertTrue(scheduler.getMaxLag() >= 500);
+		assertTrue(scheduler.getAverageLag() >= 500);
+	}
+
+	@Test
+	public void pendingTasksCancelledOnShutdown() throws Exception {
+		Runnable task = new Runnable() {
+			public void run() {
+			}
+		};
+		ScheduledFuture<?> oneTimeFuture = scheduler.schedule(task, new Date(System.currentTimeMillis() + 60000));
+		ScheduledFuture<?> fixedRateFuture = scheduler.scheduleAtFixedRate(task,
+				new Date(System.currentTimeMillis() + 60000), 1000);
+		Thread.sleep(50);
+		ScheduledFuture<?> lateFuture = scheduler.schedule(task, new Date(System.currentTimeMillis() + 60000));
+		scheduler.shutdown();
+
+		assertTrue(oneTimeFuture.isCancelled());
+		assertTrue(fixedRateFuture.isCancelled());
+		assertTrue(lateFuture.isCancelled());
+		assertEquals(0, scheduler.getScheduledTaskCount());
+		try {
+			oneTimeFuture.get(5, TimeUnit.SECONDS);
+			fail("Should have thrown CancellationException");
+		}
+		catch (CancellationException ex) {
+			// expected
+		}
+	}
+
+	@Test(expected = TaskRejectedException.class)
+	public void rejectedAfterShutdown() {
+		scheduler.shutdown();
+		scheduler.schedule(new Runnable() {
+			public void run() {
+			}
+		}, new Date());
+	}
+
+
+	private static class TestTrigger implements Trigger {
+
+		private final AtomicInteger remaining;
+
+		public TestTrigger(int executions) {
+			this.remaining = new AtomicInteger(executions);
+		}
+
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			if (this.remaining.getAndDecrement() <= 0) {
+				return null;
+			}
+			Date last = triggerContext.lastCompletionTime();
+			return new Date((last != null ? last.getTime() : System.currentTimeMillis()) + 20);
+		}
+	}
+
+}
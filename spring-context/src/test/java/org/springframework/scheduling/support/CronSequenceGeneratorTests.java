@@ -76,4 +76,19 @@ public class CronSequenceGeneratorTests {
 		new CronSequenceGenerator("* * 6-6 * * *").next(new Date(2012, 6, 1, 9, 0));
 	}
 
+	@Test
+	public void lookaheadMatchesFreshCalculation() {
+		CronSequenceGenerator generator = new CronSequenceGenerator("0 */7 8-17 * * MON-FRI");
+		Date date = new Date(2012, 6, 1, 9, 53, 50);
+		for (int i = 0; i < 200; i++) {
+			Date next = generator.next(date);
+			assertEquals(new CronSequenceGenerator("0 */7 8-17 * * MON-FRI").next(date), next);
+			// Also query in between fire times, and going back in time
+			Date between = new Date(next.getTime() - 1500);
+			assertEquals(new CronSequenceGenerator("0 */7 8-17 * * MON-FRI").next(between), generator.next(between));
+			date = next;
+		}
+		assertEquals(new Date(2012, 6, 1, 9, 56), generator.next(new Date(2012, 6, 1, 9, 53, 50)));
+	}
+
 }
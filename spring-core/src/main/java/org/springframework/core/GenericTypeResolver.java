@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,13 @@ public abstract class GenericTypeResolver {
 	private static final Map<Class, Map<TypeVariable, Type>> typeVariableCache =
 			new ConcurrentReferenceHashMap<Class, Map<TypeVariable,Type>>();
 
+	/** Cache from Class and generic interface to resolved type arguments */
+	private static final Map<TypeArgumentsCacheKey, Class<?>[]> typeArgumentsCache =
+			new ConcurrentReferenceHashMap<TypeArgumentsCacheKey, Class<?>[]>(256);
+
+	/** Marker for cached type arguments which could not be resolved */
+	private static final Class<?>[] UNRESOLVABLE_TYPE_ARGUMENTS = new Class<?>[0];
+
 
 	/**
 	 * Determine the target type for the given parameter specification.
@@ -231,7 +238,7 @@ public abstract class GenericTypeResolver {
 	 * @return the resolved type of the argument, or {@code null} if not resolvable
 	 */
 	public static Class<?> resolveTypeArgument(Class<?> clazz, Class<?> genericIfc) {
-		Class<?>[] typeArgs = resolveTypeArguments(clazz, genericIfc);
+		Class<?>[] typeArgs = getTypeArguments(clazz, genericIfc);
 		if (typeArgs == null) {
 			return null;
 		}
@@ -256,7 +263,22 @@ public abstract class GenericTypeResolver {
 	 * number of actual type arguments, or {@code null} if not resolvable
 	 */
 	public static Class<?>[] resolveTypeArguments(Class<?> clazz, Class<?> genericIfc) {
-		return doResolveTypeArguments(clazz, clazz, genericIfc);
+		Class<?>[] typeArgs = getTypeArguments(clazz, genericIfc);
+		return (typeArgs != null ? typeArgs.clone() : null);
+	}
+
+	/**
+	 * Obtain the type arguments of the given generic interface from the cache,
+	 * resolving them if necessary. The returned array must not be modified.
+	 */
+	private static Class<?>[] getTypeArguments(Class<?> clazz, Class<?> genericIfc) {
+		TypeArgumentsCacheKey cacheKey = new TypeArgumentsCacheKey(clazz, genericIfc);
+		Class<?>[] typeArgs = typeArgumentsCache.get(cacheKey);
+		if (typeArgs == null) {
+			typeArgs = doResolveTypeArguments(clazz, clazz, genericIfc);
+			typeArgumentsCache.put(cacheKey, (typeArgs != null ? typeArgs : UNRESOLVABLE_TYPE_ARGUMENTS));
+		}
+		return (typeArgs != UNRESOLVABLE_TYPE_ARGUMENTS ? typeArgs : null);
 	}
 
 	private static Class<?>[] doResolveTypeArguments(Class<?> ownerClass, Class<?> classToIntrospect, Class<?> genericIfc) {
@@ -509,4 +531,48 @@ public abstract class GenericTypeResolver {
 		}
 	}
 
+	/**
+	 * Clear the internal caches of resolved type variables and type arguments,
+	 * e.g. when the classes of an application class loader are about to be discarded.
+	 * @since 3.2.19
+	 */
+	public static void clearCache() {
+		typeVariableCache.clear();
+		typeArgumentsCache.clear();
+	}
+
+
+	/**
+	 * Cache key for resolved type arguments: the target class
+	 * combined with the generic interface or superclass.
+	 */
+	private static class TypeArgumentsCacheKey {
+
+		private final Class<?> clazz;
+
+		private final Class<?> genericIfc;
+
+		public TypeArgumentsCacheKey(Class<?> clazz, Class<?> genericIfc) {
+			this.clazz = clazz;
+			this.genericIfc = genericIfc;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof TypeArgumentsCacheKey)) {
+				return false;
+			}
+			TypeArgumentsCacheKey otherKey = (TypeArgumentsCacheKey) other;
+			return (this.clazz == otherKey.clazz && this.genericIfc == otherKey.genericIfc);
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(this.clazz) * 29 + System.identityHashCode(this.genericIfc));
+		}
+	}
+
 }
@@ -21,10 +21,10 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -39,6 +39,9 @@ import org.springframework.util.ReflectionUtils;
  * #getAnnotation(Method, Class)}) and lookup in the entire inheritance hierarchy of the given method ({@link
  * #findAnnotation(Method, Class)}).
  *
+ * <p>The results of {@code findAnnotation} lookups, including unsuccessful ones, are
+ * cached in a concurrent map holding soft references; see {@link #clearCache()}.
+ *
  * @author Rob Harrop
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -53,7 +56,14 @@ public abstract class AnnotationUtils {
 	/** The attribute name for annotations with a single element */
 	static final String VALUE = "value";
 
-	private static final Map<Class<?>, Boolean> annotatedInterfaceCache = new WeakHashMap<Class<?>, Boolean>();
+	/** Marker for a cached lookup which did not find an annotation */
+	private static final Object NO_ANNOTATION = new Object();
+
+	private static final Map<AnnotationCacheKey, Object> findAnnotationCache =
+			new ConcurrentReferenceHashMap<AnnotationCacheKey, Object>(256);
+
+	private static final Map<Class<?>, Boolean> annotatedInterfaceCache =
+			new ConcurrentReferenceHashMap<Class<?>, Boolean>(256);
 
 
 	/**
@@ -120,6 +130,17 @@ public abstract class AnnotationUtils {
 	 * @return the annotation found, or {@code null} if none
 	 */
 	public static <A extends Annotation> A findAnnotation(Method method, Class<A> annotationType) {
+		AnnotationCacheKey cacheKey = new AnnotationCacheKey(method, annotationType);
+		Object cached = findAnnotationCache.get(cacheKey);
+		if (cached != null) {
+			return (cached != NO_ANNOTATION ? annotationType.cast(cached) : null);
+		}
+		A annotation = doFindAnnotation(method, annotationType);
+		findAnnotationCache.put(cacheKey, (annotation != null ? annotation : NO_ANNOTATION));
+		return annotation;
+	}
+
+	private static <A extends Annotation> A doFindAnnotation(Method method, Class<A> annotationType) {
 		A annotation = getAnnotation(method, annotationType);
 		Class<?> clazz = method.getDeclaringClass();
 		if (annotation == null) {
@@ -164,21 +185,19 @@ public abstract class AnnotationUtils {
 	}
 
 	private static boolean isInterfaceWithAnnotatedMethods(Class<?> iface) {
-		synchronized (annotatedInterfaceCache) {
-			Boolean flag = annotatedInterfaceCache.get(iface);
-			if (flag != null) {
-				return flag;
-			}
-			boolean found = false;
-			for (Method ifcMethod : iface.getMethods()) {
-				if (ifcMethod.getAnnotations().length > 0) {
-					found = true;
-					break;
-				}
+		Boolean flag = annotatedInterfaceCache.get(iface);
+		if (flag != null) {
+			return flag;
+		}
+		boolean found = false;
+		for (Method ifcMethod : iface.getMethods()) {
+			if (ifcMethod.getAnnotations().length > 0) {
+				found = true;
+				break;
 			}
-			annotatedInterfaceCache.put(iface, found);
-			return found;
 		}
+		annotatedInterfaceCache.put(iface, found);
+		return found;
 	}
 
 	/**
@@ -198,19 +217,30 @@ public abstract class AnnotationUtils {
 	 */
 	public static <A extends Annotation> A findAnnotation(Class<?> clazz, Class<A> annotationType) {
 		Assert.notNull(clazz, "Class must not be null");
+		AnnotationCacheKey cacheKey = new AnnotationCacheKey(clazz, annotationType);
+		Object cached = findAnnotationCache.get(cacheKey);
+		if (cached != null) {
+			return (cached != NO_ANNOTATION ? annotationType.cast(cached) : null);
+		}
+		A annotation = doFindAnnotation(clazz, annotationType);
+		findAnnotationCache.put(cacheKey, (annotation != null ? annotation : NO_ANNOTATION));
+		return annotation;
+	}
+
+	private static <A extends Annotation> A doFindAnnotation(Class<?> clazz, Class<A> annotationType) {
 		A annotation = clazz.getAnnotation(annotationType);
 		if (annotation != null) {
 			return annotation;
 		}
 		for (Class<?> ifc : clazz.getInterfaces()) {
-			annotation = findAnnotation(ifc, annotationType);
+			annotation = doFindAnnotation(ifc, annotationType);
 			if (annotation != null) {
 				return annotation;
 			}
 		}
 		if (!Annotation.class.isAssignableFrom(clazz)) {
 			for (Annotation ann : clazz.getAnnotations()) {
-				annotation = findAnnotation(ann.annotationType(), annotationType);
+				annotation = doFindAnnotation(ann.annotationType(), annotationType);
 				if (annotation != null) {
 					return annotation;
 				}
@@ -220,7 +250,7 @@ public abstract class AnnotationUtils {
 		if (superclass == null || superclass.equals(Object.class)) {
 			return null;
 		}
-		return findAnnotation(superclass, annotationType);
+		return doFindAnnotation(superclass, annotationType);
 	}
 
 	/**
@@ -515,4 +545,47 @@ public abstract class AnnotationUtils {
 		}
 	}
 
+	/**
+	 * Clear the internal annotation lookup caches, e.g. when the classes of an
+	 * application class loader are about to be discarded.
+	 * @since 3.2.19
+	 */
+	public static void clearCache() {
+		findAnnotationCache.clear();
+		annotatedInterfaceCache.clear();
+	}
+
+
+	/**
+	 * Cache key for the AnnotatedElement cache.
+	 */
+	private static class AnnotationCacheKey {
+
+		private final AnnotatedElement element;
+
+		private final Class<? extends Annotation> annotationType;
+
+		public AnnotationCacheKey(AnnotatedElement element, Class<? extends Annotation> annotationType) {
+			this.element = element;
+			this.annotationType = annotationType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AnnotationCacheKey)) {
+				return false;
+			}
+			AnnotationCacheKey otherKey = (AnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.element.hashCode() * 29 + this.annotationType.hashCode());
+		}
+	}
+
 }
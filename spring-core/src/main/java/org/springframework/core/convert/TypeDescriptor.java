@@ -27,6 +27,7 @@ import java.util.Map;
 import org.springframework.core.MethodParameter;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -75,6 +76,13 @@ public class TypeDescriptor implements Serializable {
         typeDescriptorCache.put(Object.class, new TypeDescriptor(Object.class));
     }
 
+    /**
+     * Cache of type descriptors for any other classes, avoiding repeated
+     * resolution of collection element types and map key/value types
+     */
+    private static final Map<Class<?>, TypeDescriptor> classTypeDescriptorCache =
+            new ConcurrentReferenceHashMap<Class<?>, TypeDescriptor>(256);
+
 
     /**
      * 类型信息
@@ -160,7 +168,14 @@ public class TypeDescriptor implements Serializable {
             type = Object.class;
         }
         TypeDescriptor desc = typeDescriptorCache.get(type);
-        return (desc != null ? desc : new TypeDescriptor(type));
+        if (desc == null) {
+            desc = classTypeDescriptorCache.get(type);
+            if (desc == null) {
+                desc = new TypeDescriptor(type);
+                classTypeDescriptorCache.put(type, desc);
+            }
+        }
+        return desc;
     }
 
     /**
@@ -309,6 +324,17 @@ public class TypeDescriptor implements Serializable {
         return (source != null ? valueOf(source.getClass()) : null);
     }
 
+    /**
+     * Clear the internal cache of type descriptors for arbitrary classes.
+     * <p>Cached entries are only softly referenced anyway; an explicit clearing
+     * allows for releasing classes from a shut-down application right away.
+     * @since 3.2.19
+     * @see #valueOf(Class)
+     */
+    public static void clearCache() {
+        classTypeDescriptorCache.clear();
+    }
+
 
     /**
      * The type of the backing class, method parameter, field, or property described by this TypeDescriptor.
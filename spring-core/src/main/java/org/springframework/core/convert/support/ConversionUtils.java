@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,13 @@
 
 package org.springframework.core.convert.support;
 
+import java.lang.reflect.Array;
+
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.util.StringUtils;
 
 /**
  * Internal utilities for the conversion package.
@@ -29,6 +32,13 @@ import org.springframework.core.convert.converter.GenericConverter;
  */
 abstract class ConversionUtils {
 
+	/**
+	 * Primitive array types with a specialized conversion from and to Strings,
+	 * avoiding the boxing of every single element.
+	 */
+	static final Class<?>[] PRIMITIVE_NUMBER_ARRAY_TYPES =
+			{int[].class, long[].class, double[].class, float[].class, short[].class, byte[].class};
+
 	public static Object invokeConverter(GenericConverter converter, Object source, TypeDescriptor sourceType,
 			TypeDescriptor targetType) {
 		try {
@@ -65,4 +75,56 @@ abstract class ConversionUtils {
 		}
 	}
 
+	/**
+	 * Parse the given String elements into an array of the given primitive number type,
+	 * following the rules of {@link org.springframework.util.NumberUtils#parseNumber}
+	 * (including hex values) but without boxing every element.
+	 * @param elements the String elements to parse
+	 * @param componentType the primitive component type of the target array
+	 * @return the primitive array
+	 * @throws IllegalArgumentException if an element is empty
+	 * @throws NumberFormatException if an element cannot be parsed
+	 */
+	static Object parsePrimitiveArray(String[] elements, Class<?> componentType) {
+		Object target = Array.newInstance(componentType, elements.length);
+		for (int i = 0; i < elements.length; i++) {
+			String element = elements[i];
+			if (element != null && StringUtils.containsWhitespace(element)) {
+				element = StringUtils.trimAllWhitespace(element);
+			}
+			if (!StringUtils.hasLength(element)) {
+				throw new IllegalArgumentException(
+						"Cannot assign empty element at index " + i + " to array of type [" + componentType + "]");
+			}
+			boolean hex = isHexNumber(element);
+			if (int.class.equals(componentType)) {
+				((int[]) target)[i] = (hex ? Integer.decode(element) : Integer.parseInt(element));
+			}
+			else if (long.class.equals(componentType)) {
+				((long[]) target)[i] = (hex ? Long.decode(element) : Long.parseLong(element));
+			}
+			else if (double.class.equals(componentType)) {
+				((double[]) target)[i] = Double.parseDouble(element);
+			}
+			else if (float.class.equals(componentType)) {
+				((float[]) target)[i] = Float.parseFloat(element);
+			}
+			else if (short.class.equals(componentType)) {
+				((short[]) target)[i] = (hex ? Short.decode(element) : Short.parseShort(element));
+			}
+			else if (byte.class.equals(componentType)) {
+				((byte[]) target)[i] = (hex ? Byte.decode(element) : Byte.parseByte(element));
+			}
+			else {
+				throw new IllegalArgumentException("Unsupported primitive array type [" + componentType + "]");
+			}
+		}
+		return target;
+	}
+
+	private static boolean isHexNumber(String value) {
+		int index = (value.startsWith("-") ? 1 : 0);
+		return (value.startsWith("0x", index) || value.startsWith("0X", index) || value.startsWith("#", index));
+	}
+
 }
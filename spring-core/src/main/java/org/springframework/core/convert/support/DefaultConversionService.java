@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -98,6 +98,9 @@ public class DefaultConversionService extends GenericConversionService {
 
 		converterRegistry.addConverter(new ArrayToStringConverter(conversionService));
 		converterRegistry.addConverter(new StringToArrayConverter(conversionService));
+		converterRegistry.addConverter(new PrimitiveArrayToStringConverter(conversionService));
+		converterRegistry.addConverter(new StringToPrimitiveArrayConverter(conversionService));
+		converterRegistry.addConverter(new StringArrayToPrimitiveArrayConverter(conversionService));
 
 		converterRegistry.addConverter(new ArrayToObjectConverter(conversionService));
 		converterRegistry.addConverter(new ObjectToArrayConverter(conversionService));
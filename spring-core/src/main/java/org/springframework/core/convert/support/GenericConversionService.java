@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.convert.ConversionException;
@@ -76,6 +77,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 	private final Map<ConverterCacheKey, GenericConverter> converterCache =
 			new ConcurrentHashMap<ConverterCacheKey, GenericConverter>(64);
 
+	/** Direct dispatch table for plain class-based conversions: source class --> target class --> converter */
+	private final ConcurrentMap<Class<?>, Map<Class<?>, ClassPairConverter>> classPairConverterCache =
+			new ConcurrentHashMap<Class<?>, Map<Class<?>, ClassPairConverter>>(64);
+
 
 	// implementing ConverterRegistry
 
@@ -116,8 +121,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "targetType to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return true;
+		}
+		return (getClassPairConverter(sourceType, targetType) != null);
 	}
 
 	public boolean canConvert(TypeDescriptor sourceType, TypeDescriptor targetType) {
@@ -152,6 +159,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@SuppressWarnings("unchecked")
 	public <T> T convert(Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "targetType to convert to cannot be null");
+		if (source != null) {
+			// Fast path for a plain class pair, without any per-call lookup objects
+			ClassPairConverter converter = getClassPairConverter(source.getClass(), targetType);
+			if (converter != null) {
+				return (T) converter.convert(source);
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -254,6 +268,26 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return (sourceType.isAssignableTo(targetType) ? NO_OP_CONVERTER : null);
 	}
 
+	/**
+	 * Determine whether conversions between the given types are performed by
+	 * a converter of the given type, e.g. a specific Converter or ConverterFactory
+	 * as registered with this ConversionService.
+	 * @param sourceType the source type to convert from
+	 * @param targetType the target type to convert to
+	 * @param converterType the Converter, ConverterFactory or GenericConverter type to check
+	 * @since 3.2.19
+	 */
+	boolean isConvertedBy(TypeDescriptor sourceType, TypeDescriptor targetType, Class<?> converterType) {
+		GenericConverter converter = getConverter(sourceType, targetType);
+		if (converter instanceof ConverterAdapter) {
+			return converterType.isInstance(((ConverterAdapter) converter).converter);
+		}
+		if (converter instanceof ConverterFactoryAdapter) {
+			return converterType.isInstance(((ConverterFactoryAdapter) converter).converterFactory);
+		}
+		return converterType.isInstance(converter);
+	}
+
 	// internal helpers
 
 	private GenericConverter.ConvertiblePair getRequiredTypeInfo(Object converter, Class<?> genericIfc) {
@@ -261,8 +295,34 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return (args != null ? new GenericConverter.ConvertiblePair(args[0], args[1]) : null);
 	}
 
+	/**
+	 * Obtain the converter for the given plain class pair from the direct dispatch
+	 * table, resolving it through {@link #getConverter} on first access.
+	 * @return the class pair converter, or {@code null} if no suitable converter was found
+	 */
+	private ClassPairConverter getClassPairConverter(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ClassPairConverter> convertersForSource = this.classPairConverterCache.get(sourceClass);
+		if (convertersForSource == null) {
+			convertersForSource = new ConcurrentHashMap<Class<?>, ClassPairConverter>(16);
+			Map<Class<?>, ClassPairConverter> existing =
+					this.classPairConverterCache.putIfAbsent(sourceClass, convertersForSource);
+			if (existing != null) {
+				convertersForSource = existing;
+			}
+		}
+		ClassPairConverter converter = convertersForSource.get(targetClass);
+		if (converter == null) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+			converter = new ClassPairConverter(sourceType, targetType, getConverter(sourceType, targetType));
+			convertersForSource.put(targetClass, converter);
+		}
+		return (converter.converter != null ? converter : null);
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairConverterCache.clear();
 	}
 
 	private Object handleConverterNotFound(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
@@ -381,6 +441,37 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Entry in the direct dispatch table for a plain class pair, holding the
+	 * resolved converter along with the corresponding type descriptors.
+	 */
+	private final class ClassPairConverter {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		private final GenericConverter converter;
+
+		public ClassPairConverter(TypeDescriptor sourceType, TypeDescriptor targetType, GenericConverter converter) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			if (converter instanceof ConverterFactoryAdapter) {
+				// Obtain the target-specific Converter once instead of on every conversion
+				ConverterFactoryAdapter factoryAdapter = (ConverterFactoryAdapter) converter;
+				converter = new ConverterAdapter(
+						factoryAdapter.converterFactory.getConverter(targetType.getObjectType()), factoryAdapter.typeInfo);
+			}
+			this.converter = converter;
+		}
+
+		public Object convert(Object source) {
+			Object result = ConversionUtils.invokeConverter(this.converter, source, this.sourceType, this.targetType);
+			return handleResult(this.sourceType, this.targetType, result);
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
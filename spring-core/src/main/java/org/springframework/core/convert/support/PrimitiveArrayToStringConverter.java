@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.core.convert.support;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+
+/**
+ * Converts a primitive number array such as {@code int[]} to a comma-delimited String,
+ * appending each element directly instead of converting it from its boxed type.
+ *
+ * <p>Only applies if the elements would otherwise be converted through the default
+ * {@link ObjectToStringConverter}; custom element formatters still get applied
+ * by the general {@link ArrayToStringConverter}.
+ *
+ * @since 3.2.19
+ */
+final class PrimitiveArrayToStringConverter implements ConditionalGenericConverter {
+
+	private static final String DELIMITER = ",";
+
+	private final ConversionService conversionService;
+
+
+	public PrimitiveArrayToStringConverter(ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+
+	public Set<ConvertiblePair> getConvertibleTypes() {
+		Set<ConvertiblePair> convertibleTypes = new LinkedHashSet<ConvertiblePair>();
+		for (Class<?> arrayType : ConversionUtils.PRIMITIVE_NUMBER_ARRAY_TYPES) {
+			convertibleTypes.add(new ConvertiblePair(arrayType, String.class));
+		}
+		return convertibleTypes;
+	}
+
+	public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		return (this.conversionService instanceof GenericConversionService &&
+				((GenericConversionService) this.conversionService).isConvertedBy(
+						sourceType.getElementTypeDescriptor(), targetType, ObjectToStringConverter.class));
+	}
+
+	public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (source == null) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder();
+		if (source instanceof int[]) {
+			int[] array = (int[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else if (source instanceof long[]) {
+			long[] array = (long[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else if (source instanceof double[]) {
+			double[] array = (double[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else if (source instanceof float[]) {
+			float[] array = (float[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else if (source instanceof short[]) {
+			short[] array = (short[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else if (source instanceof byte[]) {
+			byte[] array = (byte[]) source;
+			for (int i = 0; i < array.length; i++) {
+				if (i > 0) {
+					sb.append(DELIMITER);
+				}
+				sb.append(array[i]);
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported primitive array type [" + source.getClass() + "]");
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.core.convert.support;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.util.StringUtils;
+
+/**
+ * Converts a comma-delimited String to a primitive number array such as {@code int[]},
+ * parsing each element directly instead of converting it to its boxed type first.
+ *
+ * <p>Only applies if the elements would otherwise be converted through the default
+ * {@link StringToNumberConverterFactory}; custom element formatters still get applied
+ * by the general {@link StringToArrayConverter}.
+ *
+ * @since 3.2.19
+ */
+final class StringToPrimitiveArrayConverter implements ConditionalGenericConverter {
+
+	private final ConversionService conversionService;
+
+
+	public StringToPrimitiveArrayConverter(ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+
+	public Set<ConvertiblePair> getConvertibleTypes() {
+		Set<ConvertiblePair> convertibleTypes = new LinkedHashSet<ConvertiblePair>();
+		for (Class<?> arrayType : ConversionUtils.PRIMITIVE_NUMBER_ARRAY_TYPES) {
+			convertibleTypes.add(new ConvertiblePair(String.class, arrayType));
+		}
+		return convertibleTypes;
+	}
+
+	public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		return (this.conversionService instanceof GenericConversionService &&
+				((GenericConversionService) this.conversionService).isConvertedBy(
+						sourceType, targetType.getElementTypeDescriptor(), StringToNumberConverterFactory.class));
+	}
+
+	public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (source == null) {
+			return null;
+		}
+		String[] fields = StringUtils.commaDelimitedListToStringArray((String) source);
+		return ConversionUtils.parsePrimitiveArray(fields, targetType.getType().getComponentType());
+	}
+
+}
@@ -169,6 +169,19 @@ public class GenericTypeResolverTests {
 		assertThat(resolved, equalTo((Class) Object[].class));
 	}
 
+	@Test
+	public void resolvedTypeArgumentsCached() {
+		GenericTypeResolver.clearCache();
+		Class<?>[] resolved = GenericTypeResolver.resolveTypeArguments(MySimpleInterfaceType.class, MyInterfaceType.class);
+		assertThat(resolved, equalTo(new Class[] {String.class}));
+		resolved[0] = Integer.class;
+		resolved = GenericTypeResolver.resolveTypeArguments(MySimpleInterfaceType.class, MyInterfaceType.class);
+		assertThat(resolved, equalTo(new Class[] {String.class}));
+		assertEquals(String.class, resolveTypeArgument(MySimpleInterfaceType.class, MyInterfaceType.class));
+		assertNull(GenericTypeResolver.resolveTypeArguments(Map.class, Map.class));
+		assertNull(GenericTypeResolver.resolveTypeArguments(Map.class, Map.class));
+	}
+
 
 	public interface MyInterfaceType<T> {
 	}
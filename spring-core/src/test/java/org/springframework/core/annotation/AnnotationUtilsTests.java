@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,9 @@ import org.junit.Test;
 
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
 
 import static org.junit.Assert.*;
 import static org.springframework.core.annotation.AnnotationUtils.*;
@@ -272,6 +275,48 @@ public class AnnotationUtilsTests {
 		assertNotNull(order);
 	}
 
+	@Test
+	public void findAnnotationResultsCached() throws Exception {
+		clearCache();
+		Method method = Leaf.class.getMethod("annotatedOnRoot");
+		Order order = findAnnotation(method, Order.class);
+		assertNotNull(order);
+		assertSame(order, findAnnotation(method, Order.class));
+		assertNull(findAnnotation(Leaf.class.getMethod("notAnnotated"), Order.class));
+		assertNull(findAnnotation(Leaf.class.getMethod("notAnnotated"), Order.class));
+
+		Component component = findAnnotation(HasLocalAndMetaComponentAnnotation.class, Component.class);
+		assertEquals("local", component.value());
+		assertSame(component, findAnnotation(HasLocalAndMetaComponentAnnotation.class, Component.class));
+		assertNull(findAnnotation(Leaf.class, Component.class));
+		assertNull(findAnnotation(Leaf.class, Component.class));
+
+		clearCache();
+		assertEquals(order, findAnnotation(method, Order.class));
+		assertEquals(component, findAnnotation(HasLocalAndMetaComponentAnnotation.class, Component.class));
+	}
+
+	@Test
+	public void findAnnotationPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+		Method method = SubOfAbstractImplementsInterfaceWithAnnotatedMethod.class.getMethod("foo");
+		StopWatch watch = new StopWatch("findAnnotation performance");
+		watch.start("find 100,000 without cache");
+		for (int i = 0; i < 100000; i++) {
+			clearCache();
+			findAnnotation(method, Order.class);
+			findAnnotation(Leaf.class, Component.class);
+		}
+		watch.stop();
+		watch.start("find 100,000 with cache");
+		for (int i = 0; i < 100000; i++) {
+			findAnnotation(method, Order.class);
+			findAnnotation(Leaf.class, Component.class);
+		}
+		watch.stop();
+		System.out.println(watch.prettyPrint());
+	}
+
 
 	@Component(value = "meta1")
 	@Retention(RetentionPolicy.RUNTIME)
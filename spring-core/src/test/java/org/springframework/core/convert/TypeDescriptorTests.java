@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -485,6 +485,25 @@ public class TypeDescriptorTests {
 		assertEquals(Integer.class, typeDescriptor.getObjectType());
 	}
 
+	@Test
+	public void valueOfCached() {
+		TypeDescriptor typeDescriptor = TypeDescriptor.valueOf(ArrayList.class);
+		assertSame(typeDescriptor, TypeDescriptor.valueOf(ArrayList.class));
+		assertSame(typeDescriptor, TypeDescriptor.forObject(new ArrayList<Object>()));
+		assertTrue(typeDescriptor.isCollection());
+		assertSame(TypeDescriptor.valueOf(Integer.class), TypeDescriptor.valueOf(Integer.class));
+	}
+
+	@Test
+	public void valueOfCacheCleared() {
+		TypeDescriptor typeDescriptor = TypeDescriptor.valueOf(ArrayList.class);
+		TypeDescriptor.clearCache();
+		TypeDescriptor otherDescriptor = TypeDescriptor.valueOf(ArrayList.class);
+		assertNotSame(typeDescriptor, otherDescriptor);
+		assertEquals(typeDescriptor, otherDescriptor);
+		assertSame(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(String.class));
+	}
+
 	@Test
 	public void valueOfPrimitive() {
 		TypeDescriptor typeDescriptor = TypeDescriptor.valueOf(int.class);
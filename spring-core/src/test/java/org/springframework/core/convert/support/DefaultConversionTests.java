@@ -403,6 +403,60 @@ public class DefaultConversionTests {
 		assertEquals(3, result[2]);
 	}
 
+	@Test
+	public void convertStringToPrimitiveArrays() {
+		assertArrayEquals(new long[] {1L, -2L, 3000000000L}, conversionService.convert(" 1, -2 , 3000000000", long[].class));
+		assertArrayEquals(new int[] {16, -255, 10}, conversionService.convert("0x10,-#FF,10", int[].class));
+		assertArrayEquals(new short[] {1, 2}, conversionService.convert("1,2", short[].class));
+		assertArrayEquals(new byte[] {1, -2}, conversionService.convert("1,-2", byte[].class));
+		assertArrayEquals(new double[] {1.5, -0.25}, conversionService.convert("1.5,-0.25", double[].class), 0.0);
+		assertArrayEquals(new float[] {1.5f, 2f}, conversionService.convert("1.5,2", float[].class), 0.0f);
+		assertEquals(0, conversionService.convert("", int[].class).length);
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void convertStringToPrimitiveArrayWithInvalidElement() {
+		conversionService.convert("1,x,3", int[].class);
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void convertStringToPrimitiveArrayWithEmptyElement() {
+		conversionService.convert("1,,3", int[].class);
+	}
+
+	@Test
+	public void convertStringToPrimitiveArrayWithCustomElementConverter() {
+		conversionService.addConverter(new Converter<String, Integer>() {
+			@Override
+			public Integer convert(String source) {
+				return source.length();
+			}
+		});
+		assertArrayEquals(new int[] {1, 3}, conversionService.convert("a,bcd", int[].class));
+		assertArrayEquals(new int[] {2}, conversionService.convert(new String[] {"ab"}, int[].class));
+	}
+
+	@Test
+	public void convertPrimitiveArrayToString() {
+		assertEquals("1,-2,3", conversionService.convert(new int[] {1, -2, 3}, String.class));
+		assertEquals("3000000000", conversionService.convert(new long[] {3000000000L}, String.class));
+		assertEquals("1.5,-0.25", conversionService.convert(new double[] {1.5, -0.25}, String.class));
+		assertEquals("1.5", conversionService.convert(new float[] {1.5f}, String.class));
+		assertEquals("1,2", conversionService.convert(new short[] {1, 2}, String.class));
+		assertEquals("", conversionService.convert(new int[0], String.class));
+	}
+
+	@Test
+	public void convertPrimitiveArrayToStringWithCustomElementConverter() {
+		conversionService.addConverter(new Converter<Integer, String>() {
+			@Override
+			public String convert(Integer source) {
+				return "#" + source;
+			}
+		});
+		assertEquals("#1,#2", conversionService.convert(new int[] {1, 2}, String.class));
+	}
+
 	@Test
 	public void convertEmptyStringToArray() {
 		String[] result = conversionService.convert("", String[].class);
@@ -576,6 +630,17 @@ public class DefaultConversionTests {
 		assertEquals(3, result[2]);
 	}
 
+	@Test
+	public void convertArrayToPrimitiveArrays() {
+		assertArrayEquals(new long[] {1L, 16L}, conversionService.convert(new String[] {" 1 ", "0x10"}, long[].class));
+		assertArrayEquals(new double[] {0.5}, conversionService.convert(new String[] {"0.5"}, double[].class), 0.0);
+	}
+
+	@Test(expected = ConversionFailedException.class)
+	public void convertArrayToPrimitiveArrayWithInvalidElement() {
+		conversionService.convert(new String[] {"1", "x"}, int[].class);
+	}
+
 	@Test
 	public void convertArrayToArrayAssignable() {
 		int[] result = conversionService.convert(new int[] { 1, 2, 3 }, int[].class);
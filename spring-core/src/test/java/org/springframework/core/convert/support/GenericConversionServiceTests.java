@@ -475,6 +475,71 @@ public class GenericConversionServiceTests {
 
 	public static Map<String, Integer> map;
 
+	@Test
+	public void testPerformance4() {
+		Assume.group(TestGroup.PERFORMANCE);
+		GenericConversionService conversionService = new DefaultConversionService();
+		TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+		TypeDescriptor targetType = TypeDescriptor.valueOf(Integer.class);
+		StopWatch watch = new StopWatch("string->integer conversionPerformance");
+		watch.start("convert 4,000,000 with type descriptors");
+		for (int i = 0; i < 4000000; i++) {
+			conversionService.convert("3", sourceType, targetType);
+		}
+		watch.stop();
+		watch.start("convert 4,000,000 with target class");
+		for (int i = 0; i < 4000000; i++) {
+			conversionService.convert("3", Integer.class);
+		}
+		watch.stop();
+		watch.start("convert 4,000,000 manually");
+		for (int i = 0; i < 4000000; i++) {
+			Integer.valueOf("3");
+		}
+		watch.stop();
+		System.out.println(watch.prettyPrint());
+	}
+
+	@Test
+	public void convertClassPairObtainsFactoryConverterOnce() {
+		CountingConverterFactory factory = new CountingConverterFactory();
+		conversionService.addConverterFactory(factory);
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+		int count = factory.converterCount;
+		assertEquals(Integer.valueOf(4), conversionService.convert("4", Integer.class));
+		assertEquals(count, factory.converterCount);
+		assertEquals(Long.valueOf(5), conversionService.convert("5", Long.class));
+		count = factory.converterCount;
+		assertEquals(Integer.valueOf(6), conversionService.convert("6", Integer.class));
+		assertEquals(Long.valueOf(7), conversionService.convert("7", Long.class));
+		assertEquals(count, factory.converterCount);
+	}
+
+	@Test
+	public void convertClassPairAfterConverterRegistration() {
+		assertEquals("3", conversionService.convert("3", Object.class));
+		assertFalse(conversionService.canConvert(String.class, Integer.class));
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertTrue(conversionService.canConvert(String.class, Integer.class));
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+		conversionService.removeConvertible(String.class, Number.class);
+		assertFalse(conversionService.canConvert(String.class, Integer.class));
+	}
+
+	@Test
+	public void convertClassPairToPrimitive() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", int.class));
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", int.class));
+		try {
+			conversionService.convert("x", int.class);
+			fail("Should have thrown ConversionFailedException");
+		}
+		catch (ConversionFailedException ex) {
+			assertTrue(ex.getCause() instanceof NumberFormatException);
+		}
+	}
+
 	@Test
 	public void emptyListToArray() {
 		conversionService.addConverter(new CollectionToArrayConverter(conversionService));
@@ -497,6 +562,18 @@ public class GenericConversionServiceTests {
 		assertNull(conversionService.convert(list, sourceType, targetType));
 	}
 
+	private static class CountingConverterFactory implements ConverterFactory<String, Number> {
+
+		private final StringToNumberConverterFactory targetFactory = new StringToNumberConverterFactory();
+
+		private int converterCount;
+
+		public <T extends Number> Converter<String, T> getConverter(Class<T> targetType) {
+			this.converterCount++;
+			return this.targetFactory.getConverter(targetType);
+		}
+	}
+
 	private interface MyBaseInterface {
 
 	}
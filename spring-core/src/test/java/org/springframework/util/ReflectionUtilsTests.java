@@ -212,6 +212,42 @@ public class ReflectionUtilsTests {
 		assertEquals("Found 2 absquatulates", 2, absquatulateCount);
 	}
 
+	@Test
+	public void doWithLocalMethods() {
+		ListSavingMethodCallback mc = new ListSavingMethodCallback();
+		ReflectionUtils.doWithLocalMethods(TestObjectSubclass.class, mc);
+		assertEquals(1, mc.getMethodNames().size());
+		assertEquals("absquatulate", mc.getMethodNames().get(0));
+	}
+
+	@Test
+	public void doWithLocalFields() {
+		final List<String> fieldNames = new LinkedList<String>();
+		ReflectionUtils.doWithLocalFields(TestObjectSubclassWithPublicField.class, new ReflectionUtils.FieldCallback() {
+			@Override
+			public void doWith(Field field) {
+				fieldNames.add(field.getName());
+			}
+		});
+		assertEquals(1, fieldNames.size());
+		assertEquals("publicField", fieldNames.get(0));
+	}
+
+	@Test
+	public void declaredMembersCached() {
+		ListSavingMethodCallback mc = new ListSavingMethodCallback();
+		ReflectionUtils.doWithLocalMethods(TestObjectSubclass.class, mc);
+		ReflectionUtils.doWithLocalMethods(TestObjectSubclass.class, mc);
+		assertSame(mc.getMethods().get(0), mc.getMethods().get(1));
+		assertSame(ReflectionUtils.findField(TestObjectSubclassWithPublicField.class, "publicField"),
+				ReflectionUtils.findField(TestObjectSubclassWithPublicField.class, "publicField"));
+
+		ReflectionUtils.clearCache();
+		ReflectionUtils.doWithLocalMethods(TestObjectSubclass.class, mc);
+		assertEquals(mc.getMethods().get(0), mc.getMethods().get(2));
+		assertNotSame(mc.getMethods().get(0), mc.getMethods().get(2));
+	}
+
 	@Test
 	public void findMethod() throws Exception {
 		assertNotNull(ReflectionUtils.findMethod(B.class, "bar", String.class));
@@ -376,7 +412,6 @@ public class ReflectionUtilsTests {
 			return this.methodNames;
 		}
 
-		@SuppressWarnings("unused")
 		public List<Method> getMethods() {
 			return this.methods;
 		}
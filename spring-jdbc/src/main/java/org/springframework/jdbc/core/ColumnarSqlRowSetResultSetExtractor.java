@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.support.rowset.ColumnarSqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+/**
+ * {@link SqlRowSetResultSetExtractor} variant that returns a {@link ColumnarSqlRowSet},
+ * storing the data in primitive arrays per column instead of in a JDBC CachedRowSet.
+ * Particularly suitable for row sets that are kept in memory for a longer time.
+ *
+ * <p>Use it as a drop-in replacement for {@link JdbcTemplate#queryForRowSet}:
+ *
+ * <pre class="code">
+ * SqlRowSet rowSet = jdbcTemplate.query(sql, new ColumnarSqlRowSetResultSetExtractor(), args);</pre>
+ *
+ * @since 3.2.19
+ * @see ColumnarSqlRowSet
+ */
+public class ColumnarSqlRowSetResultSetExtractor extends SqlRowSetResultSetExtractor {
+
+	/**
+	 * This implementation creates a {@link ColumnarSqlRowSet} for the given ResultSet.
+	 */
+	@Override
+	protected SqlRowSet createSqlRowSet(ResultSet rs) throws SQLException {
+		return new ColumnarSqlRowSet(rs);
+	}
+
+}
@@ -914,6 +914,51 @@ public interface JdbcOperations {
 	 */
 	SqlRowSet queryForRowSet(String sql, Object... args) throws DataAccessException;
 
+	/**
+	 * Query using a prepared statement, mapping each row to a Java object
+	 * via a RowMapper, exposing the results as a lazily populated iterator.
+	 * <p>In contrast to the {@code query} methods, the ResultSet remains open
+	 * until the returned iterator has been exhausted or explicitly closed,
+	 * so the caller is responsible for calling {@link RowIterator#close()}
+	 * when stopping early. The connection is bound to the current transaction,
+	 * if any; with transaction synchronization active, the iterator will be
+	 * closed on transaction completion at the latest.
+	 * @param psc object that provides SQL and any necessary parameters
+	 * @param rowMapper object that will map one object per row
+	 * @return an open iterator over the mapped row objects
+	 * @throws DataAccessException if the query fails
+	 * @since 3.2.19
+	 * @see RowIterator
+	 */
+	<T> RowIterator<T> queryForIterator(PreparedStatementCreator psc, RowMapper<T> rowMapper)
+			throws DataAccessException;
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list
+	 * of arguments to bind to the query, mapping each row to a Java object
+	 * via a RowMapper, exposing the results as a lazily populated iterator.
+	 * <p>The statement is created as forward-only and read-only, with the
+	 * template's fetch size, max rows and query timeout applied. Note that
+	 * some drivers (e.g. PostgreSQL) only stream results with a non-zero
+	 * fetch size within a transaction, i.e. with auto-commit switched off.
+	 * <p>The caller is responsible for calling {@link RowIterator#close()}
+	 * when not iterating through all rows; see
+	 * {@link #queryForIterator(PreparedStatementCreator, RowMapper)}.
+	 * @param sql SQL query to execute
+	 * @param rowMapper object that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return an open iterator over the mapped row objects
+	 * @throws DataAccessException if the query fails
+	 * @since 3.2.19
+	 * @see RowIterator
+	 * @see JdbcTemplate#setFetchSize
+	 */
+	<T> RowIterator<T> queryForIterator(String sql, RowMapper<T> rowMapper, Object... args)
+			throws DataAccessException;
+
 	/**
 	 * Issue a single SQL update operation (such as an insert, update or delete statement)
 	 * using a PreparedStatementCreator to provide SQL and any required parameters.
@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -47,6 +48,8 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.nativejdbc.NativeJdbcExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 
@@ -811,6 +814,72 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return query(sql, args, new SqlRowSetResultSetExtractor());
 	}
 
+	public <T> RowIterator<T> queryForIterator(PreparedStatementCreator psc, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		Assert.notNull(psc, "PreparedStatementCreator must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		String sql = getSql(psc);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing prepared SQL query for iteration" + (sql != null ? " [" + sql + "]" : ""));
+		}
+
+		Connection con = DataSourceUtils.getConnection(getDataSource());
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		try {
+			Connection conToUse = con;
+			if (this.nativeJdbcExtractor != null &&
+					this.nativeJdbcExtractor.isNativeConnectionNecessaryForNativePreparedStatements()) {
+				conToUse = this.nativeJdbcExtractor.getNativeConnection(con);
+			}
+			ps = psc.createPreparedStatement(conToUse);
+			applyStatementSettings(ps);
+			PreparedStatement psToUse = ps;
+			if (this.nativeJdbcExtractor != null) {
+				psToUse = this.nativeJdbcExtractor.getNativePreparedStatement(ps);
+			}
+			rs = psToUse.executeQuery();
+			ResultSet rsToUse = rs;
+			if (this.nativeJdbcExtractor != null) {
+				rsToUse = this.nativeJdbcExtractor.getNativeResultSet(rs);
+			}
+			handleWarnings(ps);
+			ResultSetRowIterator<T> iterator = new ResultSetRowIterator<T>(con, ps, rs, rsToUse, rowMapper, sql);
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(
+						new RowIteratorSynchronization(iterator));
+			}
+			return iterator;
+		}
+		catch (SQLException ex) {
+			// Release Connection early, to avoid potential connection pool deadlock
+			// in the case when the exception translator hasn't been initialized yet.
+			JdbcUtils.closeResultSet(rs);
+			JdbcUtils.closeStatement(ps);
+			DataSourceUtils.releaseConnection(con, getDataSource());
+			throw getExceptionTranslator().translate("RowIterator", sql, ex);
+		}
+		catch (RuntimeException ex) {
+			JdbcUtils.closeResultSet(rs);
+			JdbcUtils.closeStatement(ps);
+			DataSourceUtils.releaseConnection(con, getDataSource());
+			throw ex;
+		}
+		finally {
+			if (psc instanceof ParameterDisposer) {
+				((ParameterDisposer) psc).cleanupParameters();
+			}
+		}
+	}
+
+	public <T> RowIterator<T> queryForIterator(String sql, RowMapper<T> rowMapper, Object... args)
+			throws DataAccessException {
+
+		return queryForIterator(
+				new ForwardOnlyPreparedStatementCreator(sql, newArgPreparedStatementSetter(args)), rowMapper);
+	}
+
 	protected int update(final PreparedStatementCreator psc, final PreparedStatementSetter pss)
 			throws DataAccessException {
 
@@ -1496,4 +1565,159 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+
+	/**
+	 * Adapter for PreparedStatementCreator, creating a forward-only, read-only
+	 * statement for a plain SQL statement and binding the given parameters.
+	 */
+	private static class ForwardOnlyPreparedStatementCreator
+			implements PreparedStatementCreator, ParameterDisposer, SqlProvider {
+
+		private final String sql;
+
+		private final PreparedStatementSetter pss;
+
+		public ForwardOnlyPreparedStatementCreator(String sql, PreparedStatementSetter pss) {
+			Assert.notNull(sql, "SQL must not be null");
+			this.sql = sql;
+			this.pss = pss;
+		}
+
+		public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+			PreparedStatement ps = con.prepareStatement(this.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			if (this.pss != null) {
+				try {
+					this.pss.setValues(ps);
+				}
+				catch (SQLException ex) {
+					JdbcUtils.closeStatement(ps);
+					throw ex;
+				}
+			}
+			return ps;
+		}
+
+		public String getSql() {
+			return this.sql;
+		}
+
+		public void cleanupParameters() {
+			if (this.pss instanceof ParameterDisposer) {
+				((ParameterDisposer) this.pss).cleanupParameters();
+			}
+		}
+	}
+
+
+	/**
+	 * RowIterator implementation on top of an open ResultSet, holding on to
+	 * the statement and connection until exhausted or explicitly closed.
+	 */
+	private class ResultSetRowIterator<T> implements RowIterator<T> {
+
+		private final Connection con;
+
+		private final Statement stmt;
+
+		private final ResultSet rs;
+
+		private final ResultSet rsToUse;
+
+		private final RowMapper<T> rowMapper;
+
+		private final String sql;
+
+		private int rowNum = 0;
+
+		private Boolean nextAvailable;
+
+		private boolean closed = false;
+
+		public ResultSetRowIterator(Connection con, Statement stmt, ResultSet rs, ResultSet rsToUse,
+				RowMapper<T> rowMapper, String sql) {
+
+			this.con = con;
+			this.stmt = stmt;
+			this.rs = rs;
+			this.rsToUse = rsToUse;
+			this.rowMapper = rowMapper;
+			this.sql = sql;
+		}
+
+		public boolean hasNext() {
+			if (this.closed) {
+				return false;
+			}
+			if (this.nextAvailable == null) {
+				try {
+					this.nextAvailable = this.rsToUse.next();
+				}
+				catch (SQLException ex) {
+					close();
+					throw getExceptionTranslator().translate("RowIterator", this.sql, ex);
+				}
+				if (!this.nextAvailable) {
+					close();
+				}
+			}
+			return this.nextAvailable;
+		}
+
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more rows available");
+			}
+			this.nextAvailable = null;
+			try {
+				return this.rowMapper.mapRow(this.rsToUse, this.rowNum++);
+			}
+			catch (SQLException ex) {
+				close();
+				throw getExceptionTranslator().translate("RowIterator", this.sql, ex);
+			}
+			catch (RuntimeException ex) {
+				close();
+				throw ex;
+			}
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("RowIterator does not support removal");
+		}
+
+		public void close() {
+			if (!this.closed) {
+				this.closed = true;
+				JdbcUtils.closeResultSet(this.rs);
+				JdbcUtils.closeStatement(this.stmt);
+				DataSourceUtils.releaseConnection(this.con, getDataSource());
+			}
+		}
+	}
+
+
+	/**
+	 * Transaction synchronization closing a RowIterator that is still open on
+	 * transaction completion. Ordered before the connection synchronization,
+	 * so that the connection is released before the transaction resources are.
+	 */
+	private static class RowIteratorSynchronization extends TransactionSynchronizationAdapter {
+
+		private final RowIterator<?> rowIterator;
+
+		public RowIteratorSynchronization(RowIterator<?> rowIterator) {
+			this.rowIterator = rowIterator;
+		}
+
+		@Override
+		public int getOrder() {
+			return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 1;
+		}
+
+		@Override
+		public void beforeCompletion() {
+			this.rowIterator.close();
+		}
+	}
+
 }
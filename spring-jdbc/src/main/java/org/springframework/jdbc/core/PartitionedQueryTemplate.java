@@ -0,0 +1,508 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+
+/**
+ * {@link JdbcTemplate} companion for executing a range-restricted query in
+ * parallel: the key range of the query gets split into partitions, each of
+ * which is queried on a separate connection through the configured
+ * {@link #setTaskExecutor TaskExecutor}.
+ *
+ * <p>The given SQL needs to restrict the partition key through two trailing
+ * placeholders, typically {@code WHERE id BETWEEN ? AND ?}: any regular
+ * arguments get bound first, followed by the inclusive lower and upper bound
+ * of the partition at hand. The partitions may either be specified explicitly
+ * or be derived from the key's minimum and maximum value through
+ * {@link #computeRanges}.
+ *
+ * <p>At most {@link #setConcurrencyLimit concurrencyLimit} partition queries
+ * are running at any time. As soon as one of them fails, all other running
+ * statements get cancelled and no further partitions are started; the original
+ * exception is then propagated to the caller.
+ *
+ * <p>Note that each partition obtains its own connection in a worker thread,
+ * i.e. outside of any transaction that the calling thread may be running in.
+ * The partition queries are therefore not guaranteed to see a consistent
+ * snapshot of the data, which is usually acceptable for analytical queries.
+ *
+ * @since 3.2.19
+ * @see #query(String, RowMapper, List, Object...)
+ * @see #query(String, RowCallbackHandler, List, Object...)
+ */
+public class PartitionedQueryTemplate implements InitializingBean {
+
+	/**
+	 * Default maximum number of partition queries running at the same time.
+	 */
+	public static final int DEFAULT_CONCURRENCY_LIMIT = 4;
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("PartitionedQueryTemplate-");
+
+	private int concurrencyLimit = DEFAULT_CONCURRENCY_LIMIT;
+
+
+	/**
+	 * Create a new PartitionedQueryTemplate for bean-style usage.
+	 * @see #setJdbcTemplate
+	 * @see #setDataSource
+	 */
+	public PartitionedQueryTemplate() {
+	}
+
+	/**
+	 * Create a new PartitionedQueryTemplate for the given DataSource.
+	 * @param dataSource the JDBC DataSource to obtain connections from
+	 */
+	public PartitionedQueryTemplate(DataSource dataSource) {
+		setDataSource(dataSource);
+	}
+
+	/**
+	 * Create a new PartitionedQueryTemplate for the given JdbcTemplate.
+	 * @param jdbcTemplate the JdbcTemplate to execute the partition queries with
+	 */
+	public PartitionedQueryTemplate(JdbcTemplate jdbcTemplate) {
+		setJdbcTemplate(jdbcTemplate);
+	}
+
+
+	/**
+	 * Set the JDBC DataSource to obtain connections from,
+	 * creating a default JdbcTemplate for it.
+	 */
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Set the JdbcTemplate to execute the partition queries with, e.g. with
+	 * a specific fetch size or exception translator. Its DataSource needs to
+	 * be able to hand out {@link #setConcurrencyLimit concurrencyLimit}
+	 * connections at the same time.
+	 */
+	public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Return the JdbcTemplate that executes the partition queries.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Set the TaskExecutor to run the partition queries with.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, i.e. a new thread per
+	 * partition. Consider specifying a thread pool for frequent invocations.
+	 * Note that a pool with fewer threads than the concurrency limit will
+	 * effectively limit the concurrency further.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the maximum number of partition queries running at the same time.
+	 * Default is 4.
+	 */
+	public void setConcurrencyLimit(int concurrencyLimit) {
+		Assert.isTrue(concurrencyLimit > 0, "Concurrency limit must be 1 or higher");
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	/**
+	 * Return the maximum number of partition queries running at the same time.
+	 */
+	public int getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	public void afterPropertiesSet() {
+		if (this.jdbcTemplate == null) {
+			throw new IllegalArgumentException("Property 'dataSource' or 'jdbcTemplate' is required");
+		}
+	}
+
+
+	/**
+	 * Determine the key ranges for the given number of partitions, based on the
+	 * minimum and maximum key value as returned by the given query.
+	 * @param minMaxSql a query returning a single row with the minimum and the
+	 * maximum key value in its first and second column, respectively,
+	 * e.g. {@code SELECT MIN(id), MAX(id) FROM orders}
+	 * @param partitionCount the number of partitions to split the range into
+	 * @param args arguments to bind to the query
+	 * @return the key ranges (empty if the query did not find any keys)
+	 * @throws DataAccessException if the query fails
+	 * @see #splitRange
+	 */
+	public List<KeyRange> computeRanges(String minMaxSql, int partitionCount, Object... args)
+			throws DataAccessException {
+
+		long[] minMax = this.jdbcTemplate.query(minMaxSql, args, new ResultSetExtractor<long[]>() {
+			public long[] extractData(ResultSet rs) throws SQLException {
+				if (!rs.next()) {
+					return null;
+				}
+				long min = rs.getLong(1);
+				if (rs.wasNull()) {
+					return null;
+				}
+				return new long[] {min, rs.getLong(2)};
+			}
+		});
+		if (minMax == null) {
+			return Collections.emptyList();
+		}
+		return splitRange(minMax[0], minMax[1], partitionCount);
+	}
+
+	/**
+	 * Split the given inclusive key range into the given number of partitions
+	 * of (almost) equal size. Fewer partitions are returned if the range does
+	 * not contain enough keys.
+	 * @param min the minimum key value (inclusive)
+	 * @param max the maximum key value (inclusive)
+	 * @param partitionCount the number of partitions to split the range into
+	 * @return the key ranges, in ascending order
+	 */
+	public static List<KeyRange> splitRange(long min, long max, int partitionCount) {
+		Assert.isTrue(min <= max, "Minimum key value must not be larger than maximum key value");
+		Assert.isTrue(partitionCount > 0, "Partition count must be 1 or higher");
+		long span = max - min + 1;
+		if (span <= 0) {
+			// Overflow: key range covers more than Long.MAX_VALUE keys
+			span = Long.MAX_VALUE;
+		}
+		int count = (int) Math.min(partitionCount, span);
+		long size = span / count;
+		long remainder = span % count;
+		List<KeyRange> ranges = new ArrayList<KeyRange>(count);
+		long lower = min;
+		for (int i = 0; i < count; i++) {
+			long upper = (i == count - 1 ? max : lower + size - 1 + (i < remainder ? 1 : 0));
+			ranges.add(new KeyRange(lower, upper));
+			lower = upper + 1;
+		}
+		return ranges;
+	}
+
+
+	/**
+	 * Query each of the given key ranges in parallel, mapping each row to a
+	 * Java object via a RowMapper, and merge the results.
+	 * @param sql SQL query to execute, with two trailing placeholders for the
+	 * lower and upper bound of the key range (e.g. {@code id BETWEEN ? AND ?})
+	 * @param rowMapper object that will map one object per row
+	 * (needs to be thread-safe)
+	 * @param ranges the key ranges to query
+	 * @param args arguments to bind to the query, preceding the key bounds
+	 * @return the result List, containing the mapped objects of all partitions
+	 * in the order of the given key ranges
+	 * @throws DataAccessException if any of the partition queries fails
+	 */
+	public <T> List<T> query(String sql, RowMapper<T> rowMapper, List<KeyRange> ranges, Object... args)
+			throws DataAccessException {
+
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		List<List<T>> partitionResults =
+				executePartitions(sql, args, ranges, new RowMapperResultSetExtractor<T>(rowMapper));
+		int size = 0;
+		for (List<T> partitionResult : partitionResults) {
+			size += partitionResult.size();
+		}
+		List<T> result = new ArrayList<T>(size);
+		for (List<T> partitionResult : partitionResults) {
+			result.addAll(partitionResult);
+		}
+		return result;
+	}
+
+	/**
+	 * Query each of the given key ranges in parallel, passing each row to the
+	 * given RowCallbackHandler as soon as it has been read.
+	 * <p>Note that the RowCallbackHandler will be invoked concurrently from
+	 * several worker threads and therefore needs to be thread-safe.
+	 * @param sql SQL query to execute, with two trailing placeholders for the
+	 * lower and upper bound of the key range (e.g. {@code id BETWEEN ? AND ?})
+	 * @param rch object that will extract results, one row at a time
+	 * @param ranges the key ranges to query
+	 * @param args arguments to bind to the query, preceding the key bounds
+	 * @throws DataAccessException if any of the partition queries fails
+	 */
+	public void query(String sql, final RowCallbackHandler rch, List<KeyRange> ranges, Object... args)
+			throws DataAccessException {
+
+		Assert.notNull(rch, "RowCallbackHandler must not be null");
+		executePartitions(sql, args, ranges, new ResultSetExtractor<Object>() {
+			public Object extractData(ResultSet rs) throws SQLException {
+				while (rs.next()) {
+					rch.processRow(rs);
+				}
+				return null;
+			}
+		});
+	}
+
+
+	/**
+	 * Execute the partition queries through the TaskExecutor, keeping at most
+	 * {@code concurrencyLimit} of them running at any time.
+	 * @return the extracted results, in the order of the given key ranges
+	 */
+	@SuppressWarnings("unchecked")
+	protected <R> List<R> executePartitions(
+			String sql, Object[] args, List<KeyRange> ranges, ResultSetExtractor<R> rse) {
+
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(ranges, "Key ranges must not be null");
+		Assert.state(this.jdbcTemplate != null, "No JdbcTemplate set");
+		if (ranges.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing partitioned SQL query [" + sql + "] for " + ranges.size() + " key ranges");
+		}
+
+		CompletionService<R> completionService = new ExecutorCompletionService<R>(this.taskExecutor);
+		Map<Future<R>, PartitionTask<R>> running = new ConcurrentHashMap<Future<R>, PartitionTask<R>>();
+		Object[] results = new Object[ranges.size()];
+		int submitted = 0;
+		int completed = 0;
+		try {
+			while (completed < ranges.size()) {
+				while (submitted < ranges.size() && running.size() < this.concurrencyLimit) {
+					PartitionTask<R> task = new PartitionTask<R>(submitted, sql, args, ranges.get(submitted), rse);
+					running.put(completionService.submit(task), task);
+					submitted++;
+				}
+				Future<R> future = completionService.take();
+				PartitionTask<R> task = running.remove(future);
+				results[task.index] = future.get();
+				completed++;
+			}
+		}
+		catch (InterruptedException ex) {
+			cancelAll(running);
+			Thread.currentThread().interrupt();
+			throw new DataAccessResourceFailureException("Interrupted while waiting for partition query results");
+		}
+		catch (ExecutionException ex) {
+			cancelAll(running);
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Unexpected exception from partition query", cause);
+		}
+		catch (RuntimeException ex) {
+			// e.g. TaskRejectedException
+			cancelAll(running);
+			throw ex;
+		}
+		List<R> resultList = new ArrayList<R>(results.length);
+		for (Object result : results) {
+			resultList.add((R) result);
+		}
+		return resultList;
+	}
+
+	private <R> void cancelAll(Map<Future<R>, PartitionTask<R>> running) {
+		for (Map.Entry<Future<R>, PartitionTask<R>> entry : running.entrySet()) {
+			entry.getValue().cancel();
+			entry.getKey().cancel(true);
+		}
+	}
+
+
+	/**
+	 * A range of partition key values, with both bounds being inclusive.
+	 */
+	public static class KeyRange {
+
+		private final long lowerBound;
+
+		private final long upperBound;
+
+		/**
+		 * Create a new KeyRange.
+		 * @param lowerBound the lower bound (inclusive)
+		 * @param upperBound the upper bound (inclusive)
+		 */
+		public KeyRange(long lowerBound, long upperBound) {
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+		}
+
+		/**
+		 * Return the lower bound (inclusive).
+		 */
+		public long getLowerBound() {
+			return this.lowerBound;
+		}
+
+		/**
+		 * Return the upper bound (inclusive).
+		 */
+		public long getUpperBound() {
+			return this.upperBound;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof KeyRange)) {
+				return false;
+			}
+			KeyRange otherRange = (KeyRange) other;
+			return (this.lowerBound == otherRange.lowerBound && this.upperBound == otherRange.upperBound);
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (this.lowerBound ^ (this.lowerBound >>> 32)) * 29 +
+					(int) (this.upperBound ^ (this.upperBound >>> 32));
+		}
+
+		@Override
+		public String toString() {
+			return "[" + this.lowerBound + ".." + this.upperBound + "]";
+		}
+	}
+
+
+	/**
+	 * Callable executing the query for a single key range, keeping track of
+	 * its statement so that it can be cancelled when another partition fails.
+	 */
+	private class PartitionTask<R> implements Callable<R>, PreparedStatementCreator, SqlProvider {
+
+		private final int index;
+
+		private final String sql;
+
+		private final Object[] args;
+
+		private final KeyRange range;
+
+		private final ResultSetExtractor<R> rse;
+
+		private volatile PreparedStatement statement;
+
+		private volatile boolean cancelled;
+
+		public PartitionTask(int index, String sql, Object[] args, KeyRange range, ResultSetExtractor<R> rse) {
+			this.index = index;
+			this.sql = sql;
+			this.args = args;
+			this.range = range;
+			this.rse = rse;
+		}
+
+		public R call() {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Querying key range " + this.range);
+			}
+			return jdbcTemplate.query(this, this.rse);
+		}
+
+		public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+			PreparedStatement ps = con.prepareStatement(this.sql);
+			this.statement = ps;
+			try {
+				if (this.cancelled) {
+					throw new SQLException("Partition query for key range " + this.range + " has been cancelled");
+				}
+				int argCount = (this.args != null ? this.args.length : 0);
+				Object[] argsToUse = new Object[argCount + 2];
+				if (argCount > 0) {
+					System.arraycopy(this.args, 0, argsToUse, 0, argCount);
+				}
+				argsToUse[argCount] = this.range.getLowerBound();
+				argsToUse[argCount + 1] = this.range.getUpperBound();
+				new ArgumentPreparedStatementSetter(argsToUse).setValues(ps);
+				return ps;
+			}
+			catch (SQLException ex) {
+				JdbcUtils.closeStatement(ps);
+				throw ex;
+			}
+		}
+
+		public String getSql() {
+			return this.sql;
+		}
+
+		public void cancel() {
+			this.cancelled = true;
+			PreparedStatement ps = this.statement;
+			if (ps != null) {
+				try {
+					ps.cancel();
+				}
+				catch (SQLException ex) {
+					logger.debug("Could not cancel partition query for key range " + this.range, ex);
+				}
+				catch (Throwable ex) {
+					// Statement already closed or driver not supporting cancellation
+					logger.debug("Unexpected exception on cancelling partition query", ex);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Cursor-style {@link Iterator} over the mapped rows of a JDBC query,
+ * keeping the underlying {@link java.sql.ResultSet}, statement and
+ * connection open until the iterator gets closed.
+ *
+ * <p>Rows are mapped one at a time while iterating, so arbitrarily large
+ * result sets can be processed with constant memory. The iterator closes
+ * itself once the last row has been read; callers that stop iterating
+ * early must call {@link #close()} themselves, typically in a finally block.
+ *
+ * <p>Any {@link java.sql.SQLException} encountered while iterating gets
+ * translated into Spring's {@code DataAccessException} hierarchy, with the
+ * iterator being closed before the exception is thrown.
+ *
+ * @since 3.2.19
+ * @param <T> the type of the mapped row objects
+ * @see JdbcOperations#queryForIterator(String, RowMapper, Object...)
+ */
+public interface RowIterator<T> extends Iterator<T>, Closeable {
+
+	/**
+	 * Release the underlying JDBC resources: that is, close the
+	 * ResultSet and the statement and release the connection.
+	 * <p>Can be called multiple times; subsequent calls have no effect.
+	 * After closing, {@link #hasNext()} returns {@code false}.
+	 */
+	void close();
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowIterator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.lob.DefaultLobHandler;
+import org.springframework.jdbc.support.lob.LobHandler;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.core.io.Resource} implementation that streams the
+ * BLOB returned by a query, keeping the underlying connection open while the
+ * content is being read, so that large LOBs do not have to be held in memory.
+ *
+ * <p>The query is executed on first access, e.g. through {@link #contentLength()}
+ * or {@link #getInputStream()}, via {@link JdbcOperations#queryForIterator}.
+ * The connection gets released when the returned InputStream is closed or when
+ * {@link #close()} is called, whichever comes first; callers are responsible
+ * for either. Since the content can only be read once, {@link #isOpen()}
+ * returns {@code true}.
+ *
+ * <p>Can be returned from a {@code @RequestMapping} method handled by a
+ * {@code ResourceReturnValueHandler}, which copies the content to the response
+ * in chunks, with HTTP range support, and closes this resource afterwards in
+ * any case:
+ *
+ * <pre class="code">
+ * &#064;RequestMapping("/documents/{id}")
+ * public Resource getDocument(&#064;PathVariable long id) {
+ *   return new StreamingLobResource(jdbcTemplate,
+ *       "SELECT content, content_length FROM document WHERE id = ?", id)
+ *       .withLengthColumn(2);
+ * }</pre>
+ *
+ * <p>The content length is not available from a LOB stream itself: specify a
+ * {@link #setLengthColumnIndex length column} (e.g. computed by the database's
+ * {@code OCTET_LENGTH} function) in order to expose it, which is required for
+ * a {@code Content-Length} header as well as for range requests.
+ *
+ * <p>Note that the query only runs on first access to the content, i.e. while
+ * the response is being written: after a transactional service method that
+ * returned this resource has completed, hence outside of its transaction. If
+ * the query does run within a transaction, its result gets closed when the
+ * transaction completes (see {@link JdbcOperations#queryForIterator}), so the
+ * content needs to be read before. For databases which only allow streaming
+ * of LOB content within a transaction, copy the content to the response
+ * within the transaction, e.g. in a
+ * {@link org.springframework.transaction.support.TransactionTemplate}
+ * callback, instead of returning this resource from a transactional method.
+ *
+ * @since 3.2.19
+ * @see AbstractLobStreamingResultSetExtractor
+ * @see LobHandler#getBlobAsBinaryStream
+ */
+public class StreamingLobResource extends AbstractResource implements Closeable {
+
+	private final JdbcOperations jdbcOperations;
+
+	private final String sql;
+
+	private final Object[] args;
+
+	private LobHandler lobHandler = new DefaultLobHandler();
+
+	private int columnIndex = 1;
+
+	private int lengthColumnIndex = 0;
+
+	private String filename;
+
+	private RowIterator<LobContent> rowIterator;
+
+	private LobContent content;
+
+	private boolean streamObtained = false;
+
+	private boolean closed = false;
+
+
+	/**
+	 * Create a new StreamingLobResource.
+	 * @param jdbcOperations the JdbcOperations to run the query with
+	 * @param sql the SQL query, selecting a single row with the BLOB
+	 * @param args arguments to bind to the query
+	 */
+	public StreamingLobResource(JdbcOperations jdbcOperations, String sql, Object... args) {
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		Assert.notNull(sql, "SQL must not be null");
+		this.jdbcOperations = jdbcOperations;
+		this.sql = sql;
+		this.args = args;
+	}
+
+
+	/**
+	 * Set the LobHandler to obtain the BLOB stream with.
+	 * Default is a {@link DefaultLobHandler}.
+	 */
+	public void setLobHandler(LobHandler lobHandler) {
+		Assert.notNull(lobHandler, "LobHandler must not be null");
+		this.lobHandler = lobHandler;
+	}
+
+	/**
+	 * Set the index of the BLOB column in the query result. Default is 1.
+	 */
+	public void setColumnIndex(int columnIndex) {
+		Assert.isTrue(columnIndex > 0, "Column index must be 1 or higher");
+		this.columnIndex = columnIndex;
+	}
+
+	/**
+	 * Set the index of a numeric column in the query result which contains
+	 * the length of the BLOB content in bytes. Default is none.
+	 */
+	public void setLengthColumnIndex(int lengthColumnIndex) {
+		this.lengthColumnIndex = lengthColumnIndex;
+	}
+
+	/**
+	 * Set the length column index, returning this resource for chained configuration.
+	 * @see #setLengthColumnIndex
+	 */
+	public StreamingLobResource withLengthColumn(int lengthColumnIndex) {
+		setLengthColumnIndex(lengthColumnIndex);
+		return this;
+	}
+
+	/**
+	 * Set a filename to expose for this resource, e.g. for determining
+	 * the media type of the content.
+	 */
+	public void setFilename(String filename) {
+		this.filename = filename;
+	}
+
+
+	/**
+	 * This implementation executes the query, returning {@code false}
+	 * if it did not find a row or if the BLOB value is {@code null}.
+	 */
+	@Override
+	public boolean exists() {
+		try {
+			openContent();
+			return true;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * This implementation always returns {@code true}:
+	 * the content can only be read once.
+	 */
+	@Override
+	public boolean isOpen() {
+		return true;
+	}
+
+	/**
+	 * This implementation returns the value of the length column,
+	 * or -1 if no length column has been specified (or its value is
+	 * {@code null}), without consuming the content.
+	 * @see #setLengthColumnIndex
+	 */
+	@Override
+	public long contentLength() throws IOException {
+		return openContent().length;
+	}
+
+	@Override
+	public String getFilename() {
+		return this.filename;
+	}
+
+	/**
+	 * This implementation returns the BLOB stream, releasing the
+	 * underlying JDBC resources when the stream gets closed.
+	 * @throws IllegalStateException if the stream has been obtained before
+	 */
+	public InputStream getInputStream() throws IOException {
+		LobContent content = openContent();
+		if (this.streamObtained) {
+			throw new IllegalStateException(getDescription() + " can only be read once");
+		}
+		this.streamObtained = true;
+		return new FilterInputStream(content.stream) {
+			@Override
+			public void close() throws IOException {
+				StreamingLobResource.this.close();
+			}
+		};
+	}
+
+	/**
+	 * Release the underlying JDBC resources: the ResultSet, the statement
+	 * and the connection. Can be called multiple times.
+	 */
+	public synchronized void close() {
+		this.closed = true;
+		if (this.rowIterator != null) {
+			try {
+				if (this.content != null) {
+					this.content.stream.close();
+				}
+			}
+			catch (IOException ex) {
+				// ignore - JDBC resources are released anyway
+			}
+			finally {
+				this.rowIterator.close();
+			}
+		}
+	}
+
+	public String getDescription() {
+		return "Streaming LOB resource [" + this.sql + "]";
+	}
+
+	/**
+	 * Execute the query if not done yet, keeping the result open.
+	 */
+	private synchronized LobContent openContent() throws IOException {
+		if (this.content != null) {
+			if (this.closed) {
+				throw new IOException(getDescription() + " has been closed");
+			}
+			return this.content;
+		}
+		if (this.closed) {
+			throw new IOException(getDescription() + " has been closed");
+		}
+		if (this.rowIterator == null) {
+			this.rowIterator = this.jdbcOperations.queryForIterator(this.sql, new RowMapper<LobContent>() {
+				public LobContent mapRow(ResultSet rs, int rowNum) throws SQLException {
+					long length = -1;
+					if (lengthColumnIndex > 0) {
+						length = rs.getLong(lengthColumnIndex);
+						if (rs.wasNull()) {
+							length = -1;
+						}
+					}
+					InputStream stream = lobHandler.getBlobAsBinaryStream(rs, columnIndex);
+					return (stream != null ? new LobContent(stream, length) : null);
+				}
+			}, this.args);
+		}
+		LobContent content = (this.rowIterator.hasNext() ? this.rowIterator.next() : null);
+		if (content == null) {
+			close();
+			throw new FileNotFoundException(getDescription() + " did not return any LOB content");
+		}
+		this.content = content;
+		return content;
+	}
+
+
+	/**
+	 * Holder for the BLOB stream and its length, if known.
+	 */
+	private static class LobContent {
+
+		private final InputStream stream;
+
+		private final long length;
+
+		public LobContent(InputStream stream, long length) {
+			this.stream = stream;
+			this.length = length;
+		}
+	}
+
+}
@@ -50,6 +50,10 @@ import org.springframework.util.Assert;
  *
  * <p>Call {@link #getDatabase()} to get the {@link EmbeddedDatabase} instance.
  *
+ * <p>Note that each database gets populated from scratch: copying or cloning
+ * a previously populated database is not supported. To share a database
+ * between several application contexts, expose it as a shared bean instead.
+ *
  * @author Keith Donald
  * @author Juergen Hoeller
  * @author Sam Brannen
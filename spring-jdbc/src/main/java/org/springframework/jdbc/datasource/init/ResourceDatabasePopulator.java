@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,12 @@
 package org.springframework.jdbc.datasource.init;
 
 import java.io.IOException;
-import java.io.LineNumberReader;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.apache.commons.logging.Log;
@@ -31,6 +30,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -39,6 +39,10 @@ import org.springframework.util.StringUtils;
  * <p>Call {@link #addScript(Resource)} to add a SQL script location.
  * Call {@link #setSqlScriptEncoding(String)} to set the encoding for all added scripts.
  *
+ * <p>Scripts are read one statement at a time rather than loaded into memory
+ * as a whole, and consecutive DML statements get executed as JDBC batches
+ * (see {@link #setBatchSize}), which makes large data scripts considerably faster.
+ *
  * @author Keith Donald
  * @author Dave Syer
  * @author Juergen Hoeller
@@ -51,7 +55,9 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 
 	private static final String DEFAULT_COMMENT_PREFIX = "--";
 
-	private static final String DEFAULT_STATEMENT_SEPARATOR = ";";
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final String[] BATCHABLE_STATEMENT_PREFIXES = {"insert ", "update ", "delete ", "merge "};
 
 	private static final Log logger = LogFactory.getLog(ResourceDatabasePopulator.class);
 
@@ -68,6 +74,8 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 
 	private boolean ignoreFailedDrops = false;
 
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
 
 	/**
 	 * Add a script to execute to populate the database.
@@ -128,6 +136,20 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		this.ignoreFailedDrops = ignoreFailedDrops;
 	}
 
+	/**
+	 * Set the maximum number of consecutive DML statements ({@code INSERT},
+	 * {@code UPDATE}, {@code DELETE}, {@code MERGE}) to execute as a single
+	 * JDBC batch, saving a round trip per statement. Default is 100.
+	 * <p>Set this to 1 to execute each statement individually. Batching is not
+	 * applied if the JDBC driver does not support batch updates or if
+	 * {@link #setContinueOnError "continueOnError"} has been specified, since
+	 * the remaining statements of a failed batch may not get executed then.
+	 * @since 3.2.19
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
 
 	public void populate(Connection connection) throws SQLException {
 		for (Resource script : this.scripts) {
@@ -161,49 +183,65 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 			logger.info("Executing SQL script from " + resource);
 		}
 		long startTime = System.currentTimeMillis();
-		List<String> statements = new LinkedList<String>();
-		String script;
+		ScriptStatementReader reader;
 		try {
-			script = readScript(resource);
+			reader = new ScriptStatementReader(resource.getReader(), this.separator, this.commentPrefix);
 		}
 		catch (IOException ex) {
 			throw new CannotReadScriptException(resource, ex);
 		}
-		String delimiter = this.separator;
-		if (delimiter == null) {
-			delimiter = DEFAULT_STATEMENT_SEPARATOR;
-			if (!containsSqlScriptDelimiters(script, delimiter)) {
-				delimiter = "\n";
-			}
-		}
-		splitSqlScript(script, delimiter, this.commentPrefix, statements);
+		boolean batchUpdates = (this.batchSize > 1 && !continueOnError && JdbcUtils.supportsBatchUpdates(connection));
+		List<String> batch = new ArrayList<String>();
 		int lineNumber = 0;
 		Statement stmt = connection.createStatement();
 		try {
-			for (String statement : statements) {
+			String statement = nextStatement(reader, resource);
+			while (statement != null) {
 				lineNumber++;
-				try {
-					stmt.execute(statement);
-					int rowsAffected = stmt.getUpdateCount();
-					if (logger.isDebugEnabled()) {
-						logger.debug(rowsAffected + " returned as updateCount for SQL: " + statement);
+				if (batchUpdates && isBatchableStatement(statement)) {
+					stmt.addBatch(statement);
+					batch.add(statement);
+					if (batch.size() >= this.batchSize) {
+						executeBatch(stmt, batch, lineNumber - batch.size() + 1, resource);
 					}
 				}
-				catch (SQLException ex) {
-					boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
-					if (continueOnError || (dropStatement && ignoreFailedDrops)) {
+				else {
+					if (!batch.isEmpty()) {
+						executeBatch(stmt, batch, lineNumber - batch.size(), resource);
+					}
+					try {
+						stmt.execute(statement);
+						int rowsAffected = stmt.getUpdateCount();
 						if (logger.isDebugEnabled()) {
-							logger.debug("Failed to execute SQL script statement at line " + lineNumber +
-									" of resource " + resource + ": " + statement, ex);
+							logger.debug(rowsAffected + " returned as updateCount for SQL: " + statement);
 						}
 					}
-					else {
-						throw new ScriptStatementFailedException(statement, lineNumber, resource, ex);
+					catch (SQLException ex) {
+						boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
+						if (continueOnError || (dropStatement && ignoreFailedDrops)) {
+							if (logger.isDebugEnabled()) {
+								logger.debug("Failed to execute SQL script statement at line " + lineNumber +
+										" of resource " + resource + ": " + statement, ex);
+							}
+						}
+						else {
+							throw new ScriptStatementFailedException(statement, lineNumber, resource, ex);
+						}
 					}
 				}
+				statement = nextStatement(reader, resource);
+			}
+			if (!batch.isEmpty()) {
+				executeBatch(stmt, batch, lineNumber - batch.size() + 1, resource);
 			}
 		}
 		finally {
+			try {
+				reader.close();
+			}
+			catch (IOException ex) {
+				logger.debug("Could not close SQL script reader", ex);
+			}
 			try {
 				stmt.close();
 			}
@@ -217,63 +255,22 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		}
 	}
 
-	/**
-	 * Read a script from the given resource and build a String containing the lines.
-	 * @param resource the resource to be read
-	 * @return {@code String} containing the script lines
-	 * @throws IOException in case of I/O errors
-	 */
-	private String readScript(EncodedResource resource) throws IOException {
-		LineNumberReader lnr = new LineNumberReader(resource.getReader());
+	private String nextStatement(ScriptStatementReader reader, EncodedResource resource) {
 		try {
-			String currentStatement = lnr.readLine();
-			StringBuilder scriptBuilder = new StringBuilder();
-			while (currentStatement != null) {
-				if (StringUtils.hasText(currentStatement) &&
-						(this.commentPrefix != null && !currentStatement.startsWith(this.commentPrefix))) {
-					if (scriptBuilder.length() > 0) {
-						scriptBuilder.append('\n');
-					}
-					scriptBuilder.append(currentStatement);
-				}
-				currentStatement = lnr.readLine();
-			}
-			maybeAddSeparatorToScript(scriptBuilder);
-			return scriptBuilder.toString();
-		}
-		finally {
-			lnr.close();
-		}
-	}
-
-	private void maybeAddSeparatorToScript(StringBuilder scriptBuilder) {
-		if (this.separator == null) {
-			return;
-		}
-		String trimmed = this.separator.trim();
-		if (trimmed.length() == this.separator.length()) {
-			return;
+			return reader.nextStatement();
 		}
-		// separator ends in whitespace, so we might want to see if the script is trying
-		// to end the same way
-		if (scriptBuilder.lastIndexOf(trimmed) == scriptBuilder.length() - trimmed.length()) {
-			scriptBuilder.append(this.separator.substring(trimmed.length()));
+		catch (IOException ex) {
+			throw new CannotReadScriptException(resource, ex);
 		}
 	}
 
 	/**
-	 * Does the provided SQL script contain the specified delimiter?
-	 * @param script the SQL script
-	 * @param delim character delimiting each statement - typically a ';' character
+	 * Determine whether the given statement may be added to a JDBC batch,
+	 * i.e. whether it is a DML statement returning an update count only.
 	 */
-	private boolean containsSqlScriptDelimiters(String script, String delim) {
-		boolean inLiteral = false;
-		char[] content = script.toCharArray();
-		for (int i = 0; i < script.length(); i++) {
-			if (content[i] == '\'') {
-				inLiteral = !inLiteral;
-			}
-			if (!inLiteral && script.startsWith(delim, i)) {
+	private boolean isBatchableStatement(String statement) {
+		for (String prefix : BATCHABLE_STATEMENT_PREFIXES) {
+			if (StringUtils.startsWithIgnoreCase(statement, prefix)) {
 				return true;
 			}
 		}
@@ -281,75 +278,38 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 	}
 
 	/**
-	 * Split an SQL script into separate statements delimited by the provided delimiter
-	 * string. Each individual statement will be added to the provided {@code List}.
-	 * <p>Within a statement, the provided {@code commentPrefix} will be honored;
-	 * any text beginning with the comment prefix and extending to the end of the
-	 * line will be omitted from the statement. In addition, multiple adjacent
-	 * whitespace characters will be collapsed into a single space.
-	 * @param script the SQL script
-	 * @param delim character delimiting each statement (typically a ';' character)
-	 * @param commentPrefix the prefix that identifies line comments in the SQL script &mdash; typically "--"
-	 * @param statements the List that will contain the individual statements
+	 * Execute the statements collected in the given batch, clearing it afterwards.
+	 * @param stmt the JDBC Statement that the batch has been added to
+	 * @param batch the statements in the batch
+	 * @param firstLineNumber the number of the first statement in the batch
+	 * @param resource the resource that the statements have been read from
 	 */
-	private void splitSqlScript(String script, String delim, String commentPrefix, List<String> statements) {
-		StringBuilder sb = new StringBuilder();
-		boolean inLiteral = false;
-		boolean inEscape = false;
-		char[] content = script.toCharArray();
-		for (int i = 0; i < script.length(); i++) {
-			char c = content[i];
-			if (inEscape) {
-				inEscape = false;
-				sb.append(c);
-				continue;
-			}
-			// MySQL style escapes
-			if (c == '\\') {
-				inEscape = true;
-				sb.append(c);
-				continue;
-			}
-			if (c == '\'') {
-				inLiteral = !inLiteral;
-			}
-			if (!inLiteral) {
-				if (script.startsWith(delim, i)) {
-					// we've reached the end of the current statement
-					if (sb.length() > 0) {
-						statements.add(sb.toString());
-						sb = new StringBuilder();
-					}
-					i += delim.length() - 1;
-					continue;
-				}
-				else if (script.startsWith(commentPrefix, i)) {
-					// skip over any content from the start of the comment to the EOL
-					int indexOfNextNewline = script.indexOf("\n", i);
-					if (indexOfNextNewline > i) {
-						i = indexOfNextNewline;
-						continue;
-					}
-					else {
-						// if there's no newline after the comment, we must be at the end
-						// of the script, so stop here.
-						break;
-					}
+	private void executeBatch(Statement stmt, List<String> batch, int firstLineNumber, EncodedResource resource)
+			throws SQLException {
+
+		try {
+			int[] rowsAffected = stmt.executeBatch();
+			if (logger.isDebugEnabled()) {
+				for (int i = 0; i < rowsAffected.length && i < batch.size(); i++) {
+					logger.debug(rowsAffected[i] + " returned as updateCount for SQL: " + batch.get(i));
 				}
-				else if (c == ' ' || c == '\n' || c == '\t') {
-					// avoid multiple adjacent whitespace characters
-					if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
-						c = ' ';
-					}
-					else {
-						continue;
-					}
+			}
+		}
+		catch (BatchUpdateException ex) {
+			// determine the failed statement: either marked as such or the first one without update count
+			int[] updateCounts = ex.getUpdateCounts();
+			int failedIndex = (updateCounts != null ? updateCounts.length : 0);
+			for (int i = 0; i < failedIndex; i++) {
+				if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+					failedIndex = i;
+					break;
 				}
 			}
-			sb.append(c);
+			failedIndex = Math.min(failedIndex, batch.size() - 1);
+			throw new ScriptStatementFailedException(batch.get(failedIndex), firstLineNumber + failedIndex, resource, ex);
 		}
-		if (StringUtils.hasText(sb)) {
-			statements.add(sb.toString());
+		finally {
+			batch.clear();
 		}
 	}
 
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.Reader;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads the statements of a SQL script one at a time, holding only the
+ * current statement in memory rather than the entire script.
+ *
+ * <p>Lines starting with the comment prefix as well as blank lines are skipped.
+ * Within a statement, comments extending to the end of the line are omitted
+ * and adjacent whitespace characters are collapsed into a single space.
+ *
+ * <p>If no separator has been specified, statements are separated by ";"
+ * if the script contains any, falling back to one statement per line
+ * otherwise. Only in the latter case does the script get buffered completely,
+ * since the decision can only be made once the end of the script is reached.
+ * Note that a ";" within a comment at the end of a line counts as well, as
+ * it does for a check of the complete script text.
+ *
+ * @since 3.2.19
+ * @see ResourceDatabasePopulator
+ */
+class ScriptStatementReader {
+
+	private static final String DEFAULT_STATEMENT_SEPARATOR = ";";
+
+	private static final String FALLBACK_STATEMENT_SEPARATOR = "\n";
+
+
+	private final LineNumberReader reader;
+
+	private final String separator;
+
+	private final String commentPrefix;
+
+	private String delimiter;
+
+	private int lookahead;
+
+	/** Script content which has been read but not scanned yet */
+	private StringBuilder buffer = new StringBuilder();
+
+	private int position = 0;
+
+	/** Complete script content as long as the delimiter has not been determined */
+	private StringBuilder rawScript;
+
+	private StringBuilder statement = new StringBuilder();
+
+	private boolean inLiteral = false;
+
+	private boolean inEscape = false;
+
+	private boolean lineRead = false;
+
+	private String lastLine;
+
+	private boolean endOfScript = false;
+
+
+	/**
+	 * Create a new ScriptStatementReader.
+	 * @param reader the reader to read the script from
+	 * @param separator the statement separator, or {@code null} to detect it
+	 * @param commentPrefix the prefix that identifies line comments
+	 */
+	public ScriptStatementReader(Reader reader, String separator, String commentPrefix) {
+		this.reader = new LineNumberReader(reader);
+		this.separator = separator;
+		this.commentPrefix = commentPrefix;
+		if (separator != null) {
+			setDelimiter(separator);
+		}
+		else {
+			setDelimiter(DEFAULT_STATEMENT_SEPARATOR);
+			this.rawScript = new StringBuilder();
+		}
+	}
+
+
+	/**
+	 * Return the next statement of the script.
+	 * @return the statement, or {@code null} if the end of the script has been reached
+	 * @throws IOException in case of I/O errors
+	 */
+	public String nextStatement() throws IOException {
+		while (true) {
+			String nextStatement = scan();
+			if (nextStatement != null) {
+				return nextStatement;
+			}
+			if (this.endOfScript) {
+				if (this.rawScript != null) {
+					// no delimiter found in the entire script: one statement per line
+					setDelimiter(FALLBACK_STATEMENT_SEPARATOR);
+					this.buffer = this.rawScript;
+					this.rawScript = null;
+					this.position = 0;
+					this.statement = new StringBuilder();
+					this.inLiteral = false;
+					this.inEscape = false;
+					continue;
+				}
+				if (StringUtils.hasText(this.statement)) {
+					nextStatement = this.statement.toString();
+					this.statement = new StringBuilder();
+					return nextStatement;
+				}
+				return null;
+			}
+			readLine();
+		}
+	}
+
+	/**
+	 * Close the underlying reader.
+	 */
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+
+	private void setDelimiter(String delimiter) {
+		this.delimiter = delimiter;
+		this.lookahead = Math.max(delimiter.length(), (this.commentPrefix != null ? this.commentPrefix.length() : 0));
+	}
+
+	private void readLine() throws IOException {
+		String line = this.reader.readLine();
+		while (line != null && !(StringUtils.hasText(line) &&
+				(this.commentPrefix != null && !line.startsWith(this.commentPrefix)))) {
+			line = this.reader.readLine();
+		}
+		if (line == null) {
+			this.endOfScript = true;
+			maybeAddSeparator();
+			return;
+		}
+		if (this.lineRead) {
+			append("\n");
+		}
+		append(line);
+		this.lineRead = true;
+		this.lastLine = line;
+	}
+
+	private void append(String content) {
+		this.buffer.append(content);
+		if (this.rawScript != null) {
+			this.rawScript.append(content);
+		}
+	}
+
+	private void maybeAddSeparator() {
+		if (this.separator == null) {
+			return;
+		}
+		String trimmed = this.separator.trim();
+		if (trimmed.length() == this.separator.length()) {
+			return;
+		}
+		// separator ends in whitespace, so we might want to see if the script is trying
+		// to end the same way
+		if (this.lastLine == null ? trimmed.length() == 0 : this.lastLine.endsWith(trimmed)) {
+			append(this.separator.substring(trimmed.length()));
+		}
+	}
+
+	/**
+	 * Scan the buffered content for the end of the current statement.
+	 * @return the completed statement, or {@code null} if more content is required
+	 */
+	private String scan() {
+		try {
+			while (this.position < this.buffer.length()) {
+				if (!this.endOfScript && this.buffer.length() - this.position < this.lookahead) {
+					// possibly the start of a delimiter or comment prefix: wait for more content
+					return null;
+				}
+				char c = this.buffer.charAt(this.position);
+				if (this.inEscape) {
+					this.inEscape = false;
+					this.statement.append(c);
+					this.position++;
+					continue;
+				}
+				// MySQL style escapes
+				if (c == '\\') {
+					this.inEscape = true;
+					this.statement.append(c);
+					this.position++;
+					continue;
+				}
+				if (c == '\'') {
+					this.inLiteral = !this.inLiteral;
+				}
+				if (!this.inLiteral) {
+					if (startsWith(this.delimiter)) {
+						// we've reached the end of the current statement
+						this.position += this.delimiter.length();
+						if (this.rawScript != null) {
+							// the script does contain the default delimiter
+							this.rawScript = null;
+						}
+						if (this.statement.length() > 0) {
+							String completed = this.statement.toString();
+							this.statement = new StringBuilder();
+							return completed;
+						}
+						continue;
+					}
+					else if (startsWith(this.commentPrefix)) {
+						// skip over any content from the start of the comment to the EOL
+						int indexOfNextNewline = this.buffer.indexOf("\n", this.position);
+						if (indexOfNextNewline > this.position) {
+							checkDelimiterInComment(indexOfNextNewline);
+							this.position = indexOfNextNewline + 1;
+							continue;
+						}
+						else if (!this.endOfScript) {
+							return null;
+						}
+						else {
+							// if there's no newline after the comment, we must be at the end
+							// of the script, so stop here.
+							checkDelimiterInComment(this.buffer.length());
+							this.position = this.buffer.length();
+							break;
+						}
+					}
+					else if (c == ' ' || c == '\n' || c == '\t') {
+						// avoid multiple adjacent whitespace characters
+						if (this.statement.length() > 0 && this.statement.charAt(this.statement.length() - 1) != ' ') {
+							c = ' ';
+						}
+						else {
+							this.position++;
+							continue;
+						}
+					}
+				}
+				this.statement.append(c);
+				this.position++;
+			}
+			return null;
+		}
+		finally {
+			// discard scanned content once it makes up half of the buffer
+			if (this.position > 0 && this.position >= this.buffer.length() / 2) {
+				this.buffer.delete(0, this.position);
+				this.position = 0;
+			}
+		}
+	}
+
+	/**
+	 * Stop buffering the script for the fallback separator if the default
+	 * delimiter occurs within the comment ending at the given position.
+	 */
+	private void checkDelimiterInComment(int commentEnd) {
+		if (this.rawScript != null && this.buffer.substring(this.position, commentEnd).contains(this.delimiter)) {
+			this.rawScript = null;
+		}
+	}
+
+	private boolean startsWith(String prefix) {
+		if (prefix == null || this.buffer.length() - this.position < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (this.buffer.charAt(this.position + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
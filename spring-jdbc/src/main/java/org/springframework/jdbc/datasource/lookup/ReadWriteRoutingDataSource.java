@@ -0,0 +1,480 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+
+/**
+ * {@link javax.sql.DataSource} implementation that routes connections for
+ * read-only transactions to one of several replica DataSources, with all
+ * other connections going to the primary (write) DataSource.
+ *
+ * <p>A transaction is considered read-only if it has been declared as such,
+ * e.g. through {@code @Transactional(readOnly = true)}, as exposed by
+ * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}.
+ * Since that flag is only exposed after the transaction manager obtained its
+ * connection, connections are by default handed out as lazy proxies (through
+ * a {@link LazyConnectionDataSourceProxy}), deciding on the target DataSource
+ * when the first statement gets created rather than at transaction begin.
+ *
+ * <p>Among the healthy replicas, the one with the least outstanding connections
+ * or with the lowest observed latency is chosen, depending on the configured
+ * {@link #setSelectionPolicy SelectionPolicy}, with ties being broken in a
+ * round-robin fashion. A background health check (see {@link #setHealthCheckInterval})
+ * takes replicas that fail to hand out a connection out of rotation until they
+ * recover. If no replica is available, the primary DataSource is used instead.
+ *
+ * <p>Note that replicas are usually lagging slightly behind the primary, so
+ * data written by a preceding transaction may not be visible to a read-only
+ * transaction immediately.
+ *
+ * @since 3.2.19
+ * @see #setWriteDataSource
+ * @see #setReadDataSources
+ * @see AbstractRoutingDataSource
+ * @see org.springframework.transaction.annotation.Transactional#readOnly
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+	/**
+	 * Strategy for choosing among the healthy replicas.
+	 */
+	public enum SelectionPolicy {
+
+		/**
+		 * Choose the replica with the least connections currently in use.
+		 */
+		LEAST_OUTSTANDING,
+
+		/**
+		 * Choose the replica with the lowest average latency for obtaining a
+		 * connection and running the health check.
+		 */
+		LOWEST_LATENCY
+	}
+
+
+	private DataSource writeDataSource;
+
+	private List<DataSource> readDataSources;
+
+	private SelectionPolicy selectionPolicy = SelectionPolicy.LEAST_OUTSTANDING;
+
+	private boolean lazyConnections = true;
+
+	private long healthCheckInterval = 5000;
+
+	private String validationQuery;
+
+	private Replica[] replicas;
+
+	private DataSource connectionSource;
+
+	private ScheduledExecutorService healthCheckExecutor;
+
+	private final AtomicInteger roundRobinCounter = new AtomicInteger();
+
+
+	/**
+	 * Set the primary DataSource, receiving all connection requests outside
+	 * of read-only transactions. This property is required.
+	 */
+	public void setWriteDataSource(DataSource writeDataSource) {
+		this.writeDataSource = writeDataSource;
+	}
+
+	/**
+	 * Return the primary DataSource.
+	 */
+	public DataSource getWriteDataSource() {
+		return this.writeDataSource;
+	}
+
+	/**
+	 * Set the replica DataSources to route read-only transactions to.
+	 */
+	public void setReadDataSources(List<DataSource> readDataSources) {
+		this.readDataSources = readDataSources;
+	}
+
+	/**
+	 * Set the strategy for choosing among the healthy replicas.
+	 * Default is {@link SelectionPolicy#LEAST_OUTSTANDING}.
+	 */
+	public void setSelectionPolicy(SelectionPolicy selectionPolicy) {
+		Assert.notNull(selectionPolicy, "SelectionPolicy must not be null");
+		this.selectionPolicy = selectionPolicy;
+	}
+
+	/**
+	 * Set whether to hand out lazy Connection proxies which decide on the
+	 * target DataSource when the first statement gets created. Default is "true".
+	 * <p>Switch this to "false" when this DataSource is wrapped in a
+	 * {@link LazyConnectionDataSourceProxy} already, or when transaction
+	 * managers are not involved, e.g. with transaction synchronization
+	 * exposing the read-only flag before a connection is requested anyway.
+	 */
+	public void setLazyConnections(boolean lazyConnections) {
+		this.lazyConnections = lazyConnections;
+	}
+
+	/**
+	 * Set the interval between health checks of the replicas, in milliseconds.
+	 * Default is 5000 ms.
+	 * <p>Replicas that fail to hand out a connection are taken out of rotation
+	 * and get re-checked at this interval. A value of 0 switches the background
+	 * health check off; failing replicas will then be skipped for the current
+	 * connection request only.
+	 */
+	public void setHealthCheckInterval(long healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	/**
+	 * Set a query to run as part of the health check, e.g. {@code SELECT 1}.
+	 * Default is none, just obtaining a connection from each replica.
+	 */
+	public void setValidationQuery(String validationQuery) {
+		this.validationQuery = validationQuery;
+	}
+
+	public void afterPropertiesSet() {
+		if (this.writeDataSource == null) {
+			throw new IllegalArgumentException("Property 'writeDataSource' is required");
+		}
+		int replicaCount = (this.readDataSources != null ? this.readDataSources.size() : 0);
+		this.replicas = new Replica[replicaCount];
+		for (int i = 0; i < replicaCount; i++) {
+			this.replicas[i] = new Replica(this.readDataSources.get(i), i);
+		}
+		if (this.lazyConnections) {
+			this.connectionSource = new LazyConnectionDataSourceProxy(new RoutingDataSource());
+		}
+		else {
+			this.connectionSource = new RoutingDataSource();
+		}
+		if (this.healthCheckInterval > 0 && replicaCount > 0) {
+			this.healthCheckExecutor = new ScheduledThreadPoolExecutor(1, new HealthCheckThreadFactory());
+			this.healthCheckExecutor.scheduleWithFixedDelay(new Runnable() {
+				public void run() {
+					checkReplicas();
+				}
+			}, this.healthCheckInterval, this.healthCheckInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public void destroy() {
+		if (this.healthCheckExecutor != null) {
+			this.healthCheckExecutor.shutdownNow();
+		}
+	}
+
+
+	public Connection getConnection() throws SQLException {
+		return getConnectionSource().getConnection();
+	}
+
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getConnectionSource().getConnection(username, password);
+	}
+
+	private DataSource getConnectionSource() {
+		Assert.state(this.connectionSource != null, "ReadWriteRoutingDataSource has not been initialized");
+		return this.connectionSource;
+	}
+
+	/**
+	 * Determine whether the current connection request should be routed to a
+	 * replica. The default implementation checks for a read-only transaction.
+	 * @see TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+	 */
+	protected boolean isReadOnlyRequest() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Obtain a connection for the current request from the primary DataSource
+	 * or from one of the healthy replicas.
+	 */
+	protected Connection doGetConnection(String username, String password) throws SQLException {
+		if (isReadOnlyRequest() && this.replicas.length > 0) {
+			boolean[] skipped = new boolean[this.replicas.length];
+			Replica replica;
+			while ((replica = selectReplica(skipped)) != null) {
+				try {
+					return replica.getConnection(username, password);
+				}
+				catch (SQLException ex) {
+					skipped[replica.index] = true;
+					if (this.healthCheckExecutor != null) {
+						replica.markDown(ex);
+					}
+					else if (logger.isDebugEnabled()) {
+						logger.debug("Could not obtain connection from replica " + replica.index, ex);
+					}
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("No replica available for read-only transaction - using write DataSource");
+			}
+		}
+		return (username != null ? this.writeDataSource.getConnection(username, password) :
+				this.writeDataSource.getConnection());
+	}
+
+	/**
+	 * Choose among the healthy, not yet skipped replicas according to the
+	 * configured selection policy, starting at a round-robin offset.
+	 * @return the chosen replica, or {@code null} if none is available
+	 */
+	private Replica selectReplica(boolean[] skipped) {
+		int count = this.replicas.length;
+		int offset = (this.roundRobinCounter.getAndIncrement() & Integer.MAX_VALUE) % count;
+		Replica best = null;
+		long bestMetric = Long.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			Replica candidate = this.replicas[(offset + i) % count];
+			if (candidate.healthy && !skipped[candidate.index]) {
+				long metric = (this.selectionPolicy == SelectionPolicy.LOWEST_LATENCY ?
+						candidate.latency : candidate.outstanding.get());
+				if (best == null || metric < bestMetric) {
+					best = candidate;
+					bestMetric = metric;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Check each replica by obtaining a connection and running the
+	 * validation query, if any, taking it in or out of rotation accordingly.
+	 */
+	protected void checkReplicas() {
+		for (Replica replica : this.replicas) {
+			long startTime = System.nanoTime();
+			Connection con = null;
+			Statement stmt = null;
+			try {
+				con = replica.dataSource.getConnection();
+				if (this.validationQuery != null) {
+					stmt = con.createStatement();
+					stmt.execute(this.validationQuery);
+				}
+				replica.recordLatency(System.nanoTime() - startTime);
+				replica.markUp();
+			}
+			catch (Throwable ex) {
+				replica.markDown(ex);
+			}
+			finally {
+				JdbcUtils.closeStatement(stmt);
+				JdbcUtils.closeConnection(con);
+			}
+		}
+	}
+
+	/**
+	 * Return whether the replica at the given index (as specified in the
+	 * {@link #setReadDataSources readDataSources} list) is currently in rotation.
+	 */
+	public boolean isReplicaHealthy(int index) {
+		return this.replicas[index].healthy;
+	}
+
+	/**
+	 * Return the number of connections currently in use for the replica at
+	 * the given index (as specified in the {@link #setReadDataSources
+	 * readDataSources} list).
+	 */
+	public int getOutstandingConnectionCount(int index) {
+		return this.replicas[index].outstanding.get();
+	}
+
+
+	/**
+	 * DataSource performing the actual routing, as target of the lazy proxy.
+	 */
+	private class RoutingDataSource extends AbstractDataSource {
+
+		public Connection getConnection() throws SQLException {
+			return doGetConnection(null, null);
+		}
+
+		public Connection getConnection(String username, String password) throws SQLException {
+			return doGetConnection(username, password);
+		}
+	}
+
+
+	/**
+	 * Runtime state of a replica DataSource.
+	 */
+	private class Replica {
+
+		private final DataSource dataSource;
+
+		private final int index;
+
+		private final AtomicInteger outstanding = new AtomicInteger();
+
+		private volatile boolean healthy = true;
+
+		private volatile long latency;
+
+		public Replica(DataSource dataSource, int index) {
+			Assert.notNull(dataSource, "Read DataSource must not be null");
+			this.dataSource = dataSource;
+			this.index = index;
+		}
+
+		public Connection getConnection(String username, String password) throws SQLException {
+			long startTime = System.nanoTime();
+			Connection con = (username != null ? this.dataSource.getConnection(username, password) :
+					this.dataSource.getConnection());
+			recordLatency(System.nanoTime() - startTime);
+			this.outstanding.incrementAndGet();
+			return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class}, new ReplicaConnectionInvocationHandler(con, this));
+		}
+
+		public void recordLatency(long nanos) {
+			// Exponentially weighted moving average; concurrent updates may get lost, which is fine here
+			long current = this.latency;
+			this.latency = (current == 0 ? nanos : current - (current >> 3) + (nanos >> 3));
+		}
+
+		public void markUp() {
+			if (!this.healthy) {
+				logger.info("Replica " + this.index + " is available again - taking it back into rotation");
+				this.healthy = true;
+			}
+		}
+
+		public void markDown(Throwable ex) {
+			if (this.healthy) {
+				logger.warn("Replica " + this.index + " failed - taking it out of rotation", ex);
+				this.healthy = false;
+			}
+		}
+	}
+
+
+	/**
+	 * Invocation handler that keeps track of outstanding replica connections.
+	 */
+	private static class ReplicaConnectionInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final Replica replica;
+
+		private boolean closed = false;
+
+		public ReplicaConnectionInvocationHandler(Connection target, Replica replica) {
+			this.target = target;
+			this.replica = replica;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			if (method.getName().equals("equals")) {
+				// Only consider equal when proxies are identical.
+				return (proxy == args[0]);
+			}
+			else if (method.getName().equals("hashCode")) {
+				// Use hashCode of Connection proxy.
+				return System.identityHashCode(proxy);
+			}
+			else if (method.getName().equals("toString")) {
+				return "Replica connection proxy for target Connection [" + this.target + "]";
+			}
+			else if (method.getName().equals("unwrap")) {
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return proxy;
+				}
+			}
+			else if (method.getName().equals("isWrapperFor")) {
+				if (((Class<?>) args[0]).isInstance(proxy)) {
+					return true;
+				}
+			}
+			else if (method.getName().equals("getTargetConnection")) {
+				// Handle getTargetConnection method: return underlying Connection.
+				return this.target;
+			}
+			else if (method.getName().equals("close")) {
+				synchronized (this) {
+					if (!this.closed) {
+						this.closed = true;
+						this.replica.outstanding.decrementAndGet();
+					}
+				}
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+
+	/**
+	 * ThreadFactory for the daemon thread running the health checks.
+	 */
+	@SuppressWarnings("serial")
+	private static class HealthCheckThreadFactory extends CustomizableThreadCreator implements ThreadFactory {
+
+		public HealthCheckThreadFactory() {
+			super("ReadWriteRoutingDataSource-health-");
+			setDaemon(true);
+		}
+
+		public Thread newThread(Runnable runnable) {
+			return createThread(runnable);
+		}
+	}
+
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.incrementer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataFieldMaxValueIncrementer} decorator that implements the hi/lo
+ * algorithm on top of any other incrementer: each value obtained from the
+ * target incrementer (the "hi" value) reserves a block of {@link #setBlockSize
+ * blockSize} keys, starting at {@code hi * blockSize}, which are then handed
+ * out without any further database access.
+ *
+ * <p>Keys are handed out from an {@link AtomicLong}, i.e. without locking,
+ * which makes this incrementer suitable for multi-threaded insert pipelines.
+ * Once a block is running low (see {@link #setPrefetchThreshold}), the next
+ * "hi" value gets fetched in the background through the configured
+ * {@link #setTaskExecutor TaskExecutor}, so that callers usually do not have
+ * to wait for a database round trip when switching to the next block.
+ *
+ * <p>Note that the target incrementer must be dedicated to this hi/lo usage:
+ * other clients obtaining plain values from the same sequence or table would
+ * produce keys overlapping with the blocks reserved here. Also, keys of a
+ * block not fully used at shutdown are lost, leaving gaps in the key range.
+ *
+ * @since 3.2.19
+ * @see #setTargetIncrementer
+ * @see #setBlockSize
+ */
+public class BlockAllocatingMaxValueIncrementer implements DataFieldMaxValueIncrementer, InitializingBean {
+
+	/**
+	 * Default number of keys reserved per "hi" value.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 100;
+
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private DataFieldMaxValueIncrementer targetIncrementer;
+
+	private int blockSize = DEFAULT_BLOCK_SIZE;
+
+	private int prefetchThreshold = -1;
+
+	private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("BlockAllocatingMaxValueIncrementer-");
+
+	private int paddingLength = 0;
+
+	private volatile Block currentBlock;
+
+	private FutureTask<Block> prefetchedBlock;
+
+	private final Object blockMonitor = new Object();
+
+
+	/**
+	 * Default constructor for bean property style usage.
+	 * @see #setTargetIncrementer
+	 */
+	public BlockAllocatingMaxValueIncrementer() {
+	}
+
+	/**
+	 * Convenience constructor.
+	 * @param targetIncrementer the incrementer to obtain "hi" values from
+	 * @param blockSize the number of keys to reserve per "hi" value
+	 */
+	public BlockAllocatingMaxValueIncrementer(DataFieldMaxValueIncrementer targetIncrementer, int blockSize) {
+		setTargetIncrementer(targetIncrementer);
+		setBlockSize(blockSize);
+	}
+
+
+	/**
+	 * Set the incrementer to obtain "hi" values from, e.g. an
+	 * {@link OracleSequenceMaxValueIncrementer} for a dedicated sequence.
+	 */
+	public void setTargetIncrementer(DataFieldMaxValueIncrementer targetIncrementer) {
+		Assert.notNull(targetIncrementer, "Target incrementer must not be null");
+		this.targetIncrementer = targetIncrementer;
+	}
+
+	/**
+	 * Return the incrementer to obtain "hi" values from.
+	 */
+	public DataFieldMaxValueIncrementer getTargetIncrementer() {
+		return this.targetIncrementer;
+	}
+
+	/**
+	 * Set the number of keys to reserve per "hi" value. Default is 100.
+	 * <p>Must not be changed once keys have been handed out, since the
+	 * key ranges are derived from it.
+	 */
+	public void setBlockSize(int blockSize) {
+		Assert.isTrue(blockSize > 0, "Block size must be 1 or higher");
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Return the number of keys to reserve per "hi" value.
+	 */
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	/**
+	 * Set the number of remaining keys in the current block at which the
+	 * next block gets fetched in the background. Default is a quarter of
+	 * the block size; 0 switches background prefetching off.
+	 */
+	public void setPrefetchThreshold(int prefetchThreshold) {
+		this.prefetchThreshold = prefetchThreshold;
+	}
+
+	/**
+	 * Set the TaskExecutor to fetch the next block with in the background.
+	 * Default is a {@link SimpleAsyncTaskExecutor}, i.e. a short-lived thread
+	 * per prefetch, which is usually fine given that there is just one
+	 * prefetch per block.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the padding length, i.e. the length to which a string result
+	 * should be pre-pended with zeroes.
+	 */
+	public void setPaddingLength(int paddingLength) {
+		this.paddingLength = paddingLength;
+	}
+
+	public void afterPropertiesSet() {
+		if (this.targetIncrementer == null) {
+			throw new IllegalArgumentException("Property 'targetIncrementer' is required");
+		}
+	}
+
+
+	public int nextIntValue() throws DataAccessException {
+		return (int) nextLongValue();
+	}
+
+	public long nextLongValue() throws DataAccessException {
+		while (true) {
+			Block block = this.currentBlock;
+			if (block != null) {
+				long value = block.counter.getAndIncrement();
+				if (value < block.end) {
+					if (value == block.prefetchAt) {
+						prefetchNextBlock();
+					}
+					return value;
+				}
+			}
+			switchToNextBlock(block);
+		}
+	}
+
+	public String nextStringValue() throws DataAccessException {
+		String s = Long.toString(nextLongValue());
+		int len = s.length();
+		if (len < this.paddingLength) {
+			StringBuilder sb = new StringBuilder(this.paddingLength);
+			for (int i = 0; i < this.paddingLength - len; i++) {
+				sb.append('0');
+			}
+			sb.append(s);
+			s = sb.toString();
+		}
+		return s;
+	}
+
+
+	/**
+	 * Replace the given exhausted block with the prefetched block, if any,
+	 * or with a freshly fetched block. Other threads may have replaced it already.
+	 */
+	private void switchToNextBlock(Block exhaustedBlock) {
+		synchronized (this.blockMonitor) {
+			if (this.currentBlock != exhaustedBlock) {
+				return;
+			}
+			Block nextBlock = null;
+			FutureTask<Block> prefetched = this.prefetchedBlock;
+			this.prefetchedBlock = null;
+			if (prefetched != null) {
+				try {
+					nextBlock = prefetched.get();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new DataAccessResourceFailureException("Interrupted while waiting for next key block");
+				}
+				catch (ExecutionException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Prefetching of next key block failed - fetching it again", ex.getCause());
+					}
+				}
+			}
+			if (nextBlock == null) {
+				nextBlock = fetchBlock();
+			}
+			this.currentBlock = nextBlock;
+		}
+	}
+
+	private void prefetchNextBlock() {
+		FutureTask<Block> prefetch = new FutureTask<Block>(new Callable<Block>() {
+			public Block call() {
+				return fetchBlock();
+			}
+		});
+		synchronized (this.blockMonitor) {
+			if (this.prefetchedBlock != null) {
+				return;
+			}
+			this.prefetchedBlock = prefetch;
+		}
+		try {
+			this.taskExecutor.execute(prefetch);
+		}
+		catch (RuntimeException ex) {
+			// Executor not available: fetch synchronously on block switch instead.
+			synchronized (this.blockMonitor) {
+				if (this.prefetchedBlock == prefetch) {
+					this.prefetchedBlock = null;
+				}
+			}
+			logger.debug("Could not prefetch next key block", ex);
+		}
+	}
+
+	/**
+	 * Obtain the next "hi" value from the target incrementer
+	 * and derive the corresponding block of keys.
+	 */
+	private Block fetchBlock() {
+		long hi = this.targetIncrementer.nextLongValue();
+		long start = hi * this.blockSize;
+		long end = start + this.blockSize;
+		if (start == 0) {
+			// Don't hand out 0 as a key
+			start = 1;
+		}
+		int threshold = (this.prefetchThreshold >= 0 ? this.prefetchThreshold : this.blockSize / 4);
+		long prefetchAt = (threshold > 0 ? Math.max(end - threshold, start) : -1);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Reserved key block [" + start + ".." + (end - 1) + "] for hi value " + hi);
+		}
+		return new Block(start, end, prefetchAt);
+	}
+
+
+	/**
+	 * A reserved range of keys.
+	 */
+	private static class Block {
+
+		final AtomicLong counter;
+
+		final long end;
+
+		final long prefetchAt;
+
+		public Block(long start, long end, long prefetchAt) {
+			this.counter = new AtomicLong(start);
+			this.end = end;
+			this.prefetchAt = prefetchAt;
+		}
+	}
+
+}
@@ -0,0 +1,971 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+
+/**
+ * Disconnected {@link SqlRowSet} implementation that stores the data of a
+ * {@link ResultSet} column by column in primitive arrays, as a memory-efficient
+ * alternative to a {@code javax.sql.rowset.CachedRowSet} which keeps every
+ * value as a boxed object in a per-row array.
+ *
+ * <p>The storage for each column is chosen based on its SQL type as exposed
+ * by the {@link ResultSetMetaData}: integral, boolean, date and time values
+ * are kept in a {@code long[]}, floating-point values in a {@code double[]},
+ * and character values in an {@code int[]} of codes into a per-column
+ * dictionary of distinct strings. Null values are tracked in a bitmap per
+ * column. All other types (e.g. DECIMAL, TIMESTAMP or multi-bit BIT) are kept
+ * as objects, as returned by {@link ResultSet#getObject(int)}.
+ *
+ * <p>Values are converted on access in the same way as with common JDBC
+ * drivers, e.g. allowing {@code getString} on a numeric column. Note that
+ * {@code getObject} with a type map ignores the given map, since values have
+ * been extracted already, and that the {@code Calendar} variants of the date
+ * and time accessors re-interpret the stored local date and time in the
+ * given Calendar's time zone.
+ *
+ * <p>Instances are populated eagerly on construction and are read-only
+ * afterwards; they may be shared for read access, as long as every thread
+ * uses its own cursor, i.e. its own instance. For the latter purpose,
+ * {@link #copy()} creates a new cursor over the same data.
+ *
+ * @since 3.2.19
+ * @see org.springframework.jdbc.core.ColumnarSqlRowSetResultSetExtractor
+ * @see ResultSetWrappingSqlRowSet
+ */
+public class ColumnarSqlRowSet implements SqlRowSet {
+
+	private static final long serialVersionUID = 5384529287462581047L;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+
+	private final RowSetMetaDataImpl metaData;
+
+	private final Map<String, Integer> columnLabelMap;
+
+	private final Column[] columns;
+
+	private final int rowCount;
+
+	private int cursor = 0;
+
+	private boolean lastValueNull;
+
+	private transient SqlRowSetMetaData rowSetMetaData;
+
+
+	/**
+	 * Create a new ColumnarSqlRowSet, reading all remaining rows of the given ResultSet.
+	 * @param resultSet the ResultSet to read (connected; will not be closed)
+	 * @throws SQLException if thrown by JDBC methods
+	 */
+	public ColumnarSqlRowSet(ResultSet resultSet) throws SQLException {
+		ResultSetMetaData rsmd = resultSet.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		this.metaData = copyMetaData(rsmd);
+		this.columnLabelMap = new HashMap<String, Integer>(columnCount);
+		this.columns = new Column[columnCount];
+		for (int i = 1; i <= columnCount; i++) {
+			String label = rsmd.getColumnLabel(i);
+			// Make sure to preserve first matching column for any given name,
+			// as defined in ResultSet's type-level javadoc.
+			if (!this.columnLabelMap.containsKey(label)) {
+				this.columnLabelMap.put(label, i);
+			}
+			this.columns[i - 1] = createColumn(rsmd.getColumnType(i), rsmd.getPrecision(i));
+		}
+		int row = 0;
+		while (resultSet.next()) {
+			for (int i = 0; i < columnCount; i++) {
+				this.columns[i].read(resultSet, i + 1, row);
+			}
+			row++;
+		}
+		for (Column column : this.columns) {
+			column.complete(row);
+		}
+		this.rowCount = row;
+	}
+
+	/**
+	 * Copy constructor, sharing the data of the given row set.
+	 */
+	private ColumnarSqlRowSet(ColumnarSqlRowSet original) {
+		this.metaData = original.metaData;
+		this.columnLabelMap = original.columnLabelMap;
+		this.columns = original.columns;
+		this.rowCount = original.rowCount;
+	}
+
+	/**
+	 * Create a disconnected copy of the given metadata.
+	 */
+	private static RowSetMetaDataImpl copyMetaData(ResultSetMetaData rsmd) throws SQLException {
+		int columnCount = rsmd.getColumnCount();
+		RowSetMetaDataImpl copy = new RowSetMetaDataImpl();
+		copy.setColumnCount(columnCount);
+		for (int i = 1; i <= columnCount; i++) {
+			copy.setCatalogName(i, rsmd.getCatalogName(i));
+			copy.setSchemaName(i, rsmd.getSchemaName(i));
+			copy.setTableName(i, rsmd.getTableName(i));
+			copy.setColumnName(i, rsmd.getColumnName(i));
+			copy.setColumnLabel(i, rsmd.getColumnLabel(i));
+			copy.setColumnType(i, rsmd.getColumnType(i));
+			copy.setColumnTypeName(i, rsmd.getColumnTypeName(i));
+			copy.setColumnDisplaySize(i, Math.max(rsmd.getColumnDisplaySize(i), 0));
+			copy.setPrecision(i, Math.max(rsmd.getPrecision(i), 0));
+			copy.setScale(i, Math.max(rsmd.getScale(i), 0));
+			copy.setCaseSensitive(i, rsmd.isCaseSensitive(i));
+			copy.setCurrency(i, rsmd.isCurrency(i));
+			copy.setSigned(i, rsmd.isSigned(i));
+			copy.setNullable(i, rsmd.isNullable(i));
+			copy.setAutoIncrement(i, rsmd.isAutoIncrement(i));
+			copy.setSearchable(i, rsmd.isSearchable(i));
+		}
+		return copy;
+	}
+
+	/**
+	 * Determine the column storage for the given SQL type.
+	 * @param sqlType the SQL type code from {@code java.sql.Types}
+	 * @param precision the column precision, distinguishing a single BIT
+	 * from a BIT(n) bit string
+	 */
+	private static Column createColumn(int sqlType, int precision) {
+		switch (sqlType) {
+			case Types.BIT:
+				// BIT(n) columns are exposed as byte arrays or bit strings by common drivers
+				return (precision <= 1 ? new LongColumn(sqlType) : new ObjectColumn());
+			case Types.BOOLEAN:
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+			case Types.BIGINT:
+			case Types.DATE:
+			case Types.TIME:
+				return new LongColumn(sqlType);
+			case Types.REAL:
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				return new DoubleColumn(sqlType);
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.LONGNVARCHAR:
+				return new StringColumn();
+			default:
+				return new ObjectColumn();
+		}
+	}
+
+
+	/**
+	 * Return the number of rows in this row set.
+	 */
+	public int size() {
+		return this.rowCount;
+	}
+
+	/**
+	 * Create a new row set over the same data, with its own cursor
+	 * positioned before the first row.
+	 */
+	public ColumnarSqlRowSet copy() {
+		return new ColumnarSqlRowSet(this);
+	}
+
+	public SqlRowSetMetaData getMetaData() {
+		if (this.rowSetMetaData == null) {
+			this.rowSetMetaData = new ResultSetWrappingSqlRowSetMetaData(this.metaData);
+		}
+		return this.rowSetMetaData;
+	}
+
+	public int findColumn(String columnLabel) throws InvalidResultSetAccessException {
+		Integer columnIndex = this.columnLabelMap.get(columnLabel);
+		if (columnIndex != null) {
+			return columnIndex;
+		}
+		for (Map.Entry<String, Integer> entry : this.columnLabelMap.entrySet()) {
+			if (entry.getKey().equalsIgnoreCase(columnLabel)) {
+				return entry.getValue();
+			}
+		}
+		throw new InvalidResultSetAccessException(new SQLException("Invalid column label: " + columnLabel));
+	}
+
+
+	// RowSet methods for extracting data values
+
+	public BigDecimal getBigDecimal(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return null;
+		}
+		try {
+			return column.getBigDecimal(row);
+		}
+		catch (RuntimeException ex) {
+			throw conversionFailure(columnIndex, "BigDecimal", ex);
+		}
+	}
+
+	public BigDecimal getBigDecimal(String columnLabel) throws InvalidResultSetAccessException {
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	public boolean getBoolean(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return false;
+		}
+		try {
+			return column.getBoolean(row);
+		}
+		catch (RuntimeException ex) {
+			throw conversionFailure(columnIndex, "boolean", ex);
+		}
+	}
+
+	public boolean getBoolean(String columnLabel) throws InvalidResultSetAccessException {
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	public byte getByte(int columnIndex) throws InvalidResultSetAccessException {
+		return (byte) getLong(columnIndex);
+	}
+
+	public byte getByte(String columnLabel) throws InvalidResultSetAccessException {
+		return getByte(findColumn(columnLabel));
+	}
+
+	public Date getDate(int columnIndex) throws InvalidResultSetAccessException {
+		java.util.Date value = getDateValue(columnIndex, "Date");
+		if (value == null || value instanceof Date) {
+			return (Date) value;
+		}
+		return new Date(value.getTime());
+	}
+
+	public Date getDate(String columnLabel) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel));
+	}
+
+	public Date getDate(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Date value = getDate(columnIndex);
+		return (value != null ? new Date(convertToCalendar(value, cal)) : null);
+	}
+
+	public Date getDate(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	public double getDouble(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return 0;
+		}
+		try {
+			return column.getDouble(row);
+		}
+		catch (RuntimeException ex) {
+			throw conversionFailure(columnIndex, "double", ex);
+		}
+	}
+
+	public double getDouble(String columnLabel) throws InvalidResultSetAccessException {
+		return getDouble(findColumn(columnLabel));
+	}
+
+	public float getFloat(int columnIndex) throws InvalidResultSetAccessException {
+		return (float) getDouble(columnIndex);
+	}
+
+	public float getFloat(String columnLabel) throws InvalidResultSetAccessException {
+		return getFloat(findColumn(columnLabel));
+	}
+
+	public int getInt(int columnIndex) throws InvalidResultSetAccessException {
+		return (int) getLong(columnIndex);
+	}
+
+	public int getInt(String columnLabel) throws InvalidResultSetAccessException {
+		return getInt(findColumn(columnLabel));
+	}
+
+	public long getLong(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return 0;
+		}
+		try {
+			return column.getLong(row);
+		}
+		catch (RuntimeException ex) {
+			throw conversionFailure(columnIndex, "long", ex);
+		}
+	}
+
+	public long getLong(String columnLabel) throws InvalidResultSetAccessException {
+		return getLong(findColumn(columnLabel));
+	}
+
+	public Object getObject(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return null;
+		}
+		return column.getObject(row);
+	}
+
+	public Object getObject(String columnLabel) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	public Object getObject(int columnIndex, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getObject(columnIndex);
+	}
+
+	public Object getObject(String columnLabel, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	public short getShort(int columnIndex) throws InvalidResultSetAccessException {
+		return (short) getLong(columnIndex);
+	}
+
+	public short getShort(String columnLabel) throws InvalidResultSetAccessException {
+		return getShort(findColumn(columnLabel));
+	}
+
+	public String getString(int columnIndex) throws InvalidResultSetAccessException {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return null;
+		}
+		return column.getString(row);
+	}
+
+	public String getString(String columnLabel) throws InvalidResultSetAccessException {
+		return getString(findColumn(columnLabel));
+	}
+
+	public Time getTime(int columnIndex) throws InvalidResultSetAccessException {
+		java.util.Date value = getDateValue(columnIndex, "Time");
+		if (value == null || value instanceof Time) {
+			return (Time) value;
+		}
+		return new Time(value.getTime());
+	}
+
+	public Time getTime(String columnLabel) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel));
+	}
+
+	public Time getTime(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Time value = getTime(columnIndex);
+		return (value != null ? new Time(convertToCalendar(value, cal)) : null);
+	}
+
+	public Time getTime(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel), cal);
+	}
+
+	public Timestamp getTimestamp(int columnIndex) throws InvalidResultSetAccessException {
+		java.util.Date value = getDateValue(columnIndex, "Timestamp");
+		if (value == null || value instanceof Timestamp) {
+			return (Timestamp) value;
+		}
+		return new Timestamp(value.getTime());
+	}
+
+	public Timestamp getTimestamp(String columnLabel) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		Timestamp value = getTimestamp(columnIndex);
+		if (value == null) {
+			return null;
+		}
+		Timestamp result = new Timestamp(convertToCalendar(value, cal));
+		result.setNanos(value.getNanos());
+		return result;
+	}
+
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+
+	// RowSet navigation methods
+
+	public boolean absolute(int row) throws InvalidResultSetAccessException {
+		if (row >= 0) {
+			this.cursor = Math.min(row, this.rowCount + 1);
+		}
+		else {
+			this.cursor = Math.max(this.rowCount + 1 + row, 0);
+		}
+		return isOnRow();
+	}
+
+	public void afterLast() throws InvalidResultSetAccessException {
+		this.cursor = this.rowCount + 1;
+	}
+
+	public void beforeFirst() throws InvalidResultSetAccessException {
+		this.cursor = 0;
+	}
+
+	public boolean first() throws InvalidResultSetAccessException {
+		return absolute(1);
+	}
+
+	public int getRow() throws InvalidResultSetAccessException {
+		return (isOnRow() ? this.cursor : 0);
+	}
+
+	public boolean isAfterLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor > this.rowCount);
+	}
+
+	public boolean isBeforeFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 0);
+	}
+
+	public boolean isFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 1);
+	}
+
+	public boolean isLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == this.rowCount);
+	}
+
+	public boolean last() throws InvalidResultSetAccessException {
+		return absolute(-1);
+	}
+
+	public boolean next() throws InvalidResultSetAccessException {
+		if (this.cursor <= this.rowCount) {
+			this.cursor++;
+		}
+		return isOnRow();
+	}
+
+	public boolean previous() throws InvalidResultSetAccessException {
+		if (this.cursor > 0) {
+			this.cursor--;
+		}
+		return isOnRow();
+	}
+
+	public boolean relative(int rows) throws InvalidResultSetAccessException {
+		long target = (long) this.cursor + rows;
+		this.cursor = (int) Math.max(0, Math.min(target, this.rowCount + 1));
+		return isOnRow();
+	}
+
+	public boolean wasNull() throws InvalidResultSetAccessException {
+		return this.lastValueNull;
+	}
+
+
+	private boolean isOnRow() {
+		return (this.cursor >= 1 && this.cursor <= this.rowCount);
+	}
+
+	private int getCurrentRow() {
+		if (!isOnRow()) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid cursor position: not on a row"));
+		}
+		return this.cursor - 1;
+	}
+
+	private Column getColumn(int columnIndex) {
+		if (columnIndex < 1 || columnIndex > this.columns.length) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid column index: " + columnIndex));
+		}
+		return this.columns[columnIndex - 1];
+	}
+
+	private boolean isNull(Column column, int row) {
+		this.lastValueNull = column.isNull(row);
+		return this.lastValueNull;
+	}
+
+	private java.util.Date getDateValue(int columnIndex, String targetType) {
+		Column column = getColumn(columnIndex);
+		int row = getCurrentRow();
+		if (isNull(column, row)) {
+			return null;
+		}
+		try {
+			return column.getDate(row);
+		}
+		catch (RuntimeException ex) {
+			throw conversionFailure(columnIndex, targetType, ex);
+		}
+	}
+
+	private InvalidResultSetAccessException conversionFailure(int columnIndex, String targetType, Exception ex) {
+		SQLException sqlEx = new SQLException(
+				"Cannot convert value of column " + columnIndex + " to " + targetType + ": " + ex.getMessage());
+		sqlEx.initCause(ex);
+		return new InvalidResultSetAccessException(sqlEx);
+	}
+
+	/**
+	 * Re-interpret the local date and time fields of the given value
+	 * in the time zone of the given Calendar.
+	 */
+	private static long convertToCalendar(java.util.Date value, Calendar cal) {
+		if (cal == null) {
+			return value.getTime();
+		}
+		Calendar local = Calendar.getInstance();
+		local.setTime(value);
+		Calendar target = (Calendar) cal.clone();
+		target.clear();
+		target.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH),
+				local.get(Calendar.HOUR_OF_DAY), local.get(Calendar.MINUTE), local.get(Calendar.SECOND));
+		target.set(Calendar.MILLISECOND, local.get(Calendar.MILLISECOND));
+		return target.getTimeInMillis();
+	}
+
+
+	/**
+	 * Storage for the values of a single column, with a bitmap for null values.
+	 * Accessors are only called for non-null values.
+	 */
+	private static abstract class Column implements Serializable {
+
+		private static final long serialVersionUID = -3094906457803812255L;
+
+		private final BitSet nulls = new BitSet();
+
+		protected int capacity = 0;
+
+		public abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+		public void complete(int rowCount) {
+		}
+
+		protected void setNull(int row) {
+			this.nulls.set(row);
+		}
+
+		public boolean isNull(int row) {
+			return this.nulls.get(row);
+		}
+
+		protected int grow(int row) {
+			return Math.max(Math.max(row + 1, this.capacity * 2), INITIAL_CAPACITY);
+		}
+
+		public abstract Object getObject(int row);
+
+		public String getString(int row) {
+			return getObject(row).toString();
+		}
+
+		public long getLong(int row) {
+			Object value = getObject(row);
+			if (value instanceof Number) {
+				return ((Number) value).longValue();
+			}
+			if (value instanceof Boolean) {
+				return (((Boolean) value) ? 1 : 0);
+			}
+			return new BigDecimal(value.toString().trim()).longValue();
+		}
+
+		public double getDouble(int row) {
+			Object value = getObject(row);
+			if (value instanceof Number) {
+				return ((Number) value).doubleValue();
+			}
+			if (value instanceof Boolean) {
+				return (((Boolean) value) ? 1 : 0);
+			}
+			return Double.parseDouble(value.toString().trim());
+		}
+
+		public BigDecimal getBigDecimal(int row) {
+			Object value = getObject(row);
+			if (value instanceof BigDecimal) {
+				return (BigDecimal) value;
+			}
+			if (value instanceof Double || value instanceof Float) {
+				return BigDecimal.valueOf(((Number) value).doubleValue());
+			}
+			if (value instanceof Number) {
+				return BigDecimal.valueOf(((Number) value).longValue());
+			}
+			if (value instanceof Boolean) {
+				return (((Boolean) value) ? BigDecimal.ONE : BigDecimal.ZERO);
+			}
+			return new BigDecimal(value.toString().trim());
+		}
+
+		public boolean getBoolean(int row) {
+			Object value = getObject(row);
+			if (value instanceof Boolean) {
+				return (Boolean) value;
+			}
+			if (value instanceof Number) {
+				return (((Number) value).doubleValue() != 0);
+			}
+			String str = value.toString().trim();
+			return (str.equalsIgnoreCase("true") || str.equals("1"));
+		}
+
+		public java.util.Date getDate(int row) {
+			Object value = getObject(row);
+			if (value instanceof java.util.Date) {
+				return (java.util.Date) value;
+			}
+			String str = value.toString().trim();
+			if (str.length() == 10) {
+				return Date.valueOf(str);
+			}
+			if (str.length() == 8) {
+				return Time.valueOf(str);
+			}
+			return Timestamp.valueOf(str);
+		}
+	}
+
+
+	/**
+	 * Column storage in a {@code long[]}: for integral and boolean values
+	 * as well as for dates and times in milliseconds.
+	 */
+	private static class LongColumn extends Column {
+
+		private static final long serialVersionUID = 3507328537520195513L;
+
+		private final int sqlType;
+
+		private long[] values = new long[0];
+
+		public LongColumn(int sqlType) {
+			this.sqlType = sqlType;
+		}
+
+		@Override
+		public void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row >= this.capacity) {
+				this.capacity = grow(row);
+				long[] newValues = new long[this.capacity];
+				System.arraycopy(this.values, 0, newValues, 0, this.values.length);
+				this.values = newValues;
+			}
+			long value;
+			boolean isNull;
+			if (this.sqlType == Types.DATE) {
+				Date date = rs.getDate(columnIndex);
+				isNull = (date == null);
+				value = (isNull ? 0 : date.getTime());
+			}
+			else if (this.sqlType == Types.TIME) {
+				Time time = rs.getTime(columnIndex);
+				isNull = (time == null);
+				value = (isNull ? 0 : time.getTime());
+			}
+			else if (this.sqlType == Types.BIT || this.sqlType == Types.BOOLEAN) {
+				value = (rs.getBoolean(columnIndex) ? 1 : 0);
+				isNull = rs.wasNull();
+			}
+			else {
+				value = rs.getLong(columnIndex);
+				isNull = rs.wasNull();
+			}
+			if (isNull) {
+				setNull(row);
+			}
+			else {
+				this.values[row] = value;
+			}
+		}
+
+		@Override
+		public void complete(int rowCount) {
+			if (rowCount < this.values.length) {
+				long[] trimmed = new long[rowCount];
+				System.arraycopy(this.values, 0, trimmed, 0, rowCount);
+				this.values = trimmed;
+				this.capacity = rowCount;
+			}
+		}
+
+		@Override
+		public Object getObject(int row) {
+			long value = this.values[row];
+			switch (this.sqlType) {
+				case Types.BIT:
+				case Types.BOOLEAN:
+					return (value != 0);
+				case Types.BIGINT:
+					return value;
+				case Types.DATE:
+					return new Date(value);
+				case Types.TIME:
+					return new Time(value);
+				default:
+					// e.g. an unsigned INTEGER, exposed as Long by common drivers
+					return (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ?
+							(Object) (int) value : (Object) value);
+			}
+		}
+
+		@Override
+		public String getString(int row) {
+			if (this.sqlType == Types.BIGINT || this.sqlType == Types.INTEGER ||
+					this.sqlType == Types.SMALLINT || this.sqlType == Types.TINYINT) {
+				return Long.toString(this.values[row]);
+			}
+			return super.getString(row);
+		}
+
+		@Override
+		public long getLong(int row) {
+			if (this.sqlType == Types.DATE || this.sqlType == Types.TIME) {
+				return super.getLong(row);
+			}
+			return this.values[row];
+		}
+
+		@Override
+		public double getDouble(int row) {
+			return getLong(row);
+		}
+
+		@Override
+		public boolean getBoolean(int row) {
+			return (getLong(row) != 0);
+		}
+
+		@Override
+		public java.util.Date getDate(int row) {
+			if (this.sqlType == Types.DATE || this.sqlType == Types.TIME) {
+				return (java.util.Date) getObject(row);
+			}
+			return super.getDate(row);
+		}
+	}
+
+
+	/**
+	 * Column storage in a {@code double[]}, for floating-point values.
+	 */
+	private static class DoubleColumn extends Column {
+
+		private static final long serialVersionUID = -4117567659487965616L;
+
+		private final int sqlType;
+
+		private double[] values = new double[0];
+
+		public DoubleColumn(int sqlType) {
+			this.sqlType = sqlType;
+		}
+
+		@Override
+		public void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row >= this.capacity) {
+				this.capacity = grow(row);
+				double[] newValues = new double[this.capacity];
+				System.arraycopy(this.values, 0, newValues, 0, this.values.length);
+				this.values = newValues;
+			}
+			double value = rs.getDouble(columnIndex);
+			if (rs.wasNull()) {
+				setNull(row);
+			}
+			else {
+				this.values[row] = value;
+			}
+		}
+
+		@Override
+		public void complete(int rowCount) {
+			if (rowCount < this.values.length) {
+				double[] trimmed = new double[rowCount];
+				System.arraycopy(this.values, 0, trimmed, 0, rowCount);
+				this.values = trimmed;
+				this.capacity = rowCount;
+			}
+		}
+
+		@Override
+		public Object getObject(int row) {
+			double value = this.values[row];
+			return (this.sqlType == Types.REAL ? (Object) (float) value : (Object) value);
+		}
+
+		@Override
+		public long getLong(int row) {
+			return (long) this.values[row];
+		}
+
+		@Override
+		public double getDouble(int row) {
+			return this.values[row];
+		}
+
+		@Override
+		public boolean getBoolean(int row) {
+			return (this.values[row] != 0);
+		}
+	}
+
+
+	/**
+	 * Dictionary-encoded column storage for character values: an {@code int[]}
+	 * of codes into a list of the distinct values encountered.
+	 */
+	private static class StringColumn extends Column {
+
+		private static final long serialVersionUID = -8885174561627423685L;
+
+		private int[] codes = new int[0];
+
+		private String[] dictionary;
+
+		private transient Map<String, Integer> codesByValue = new HashMap<String, Integer>();
+
+		private transient List<String> values = new ArrayList<String>();
+
+		@Override
+		public void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row >= this.capacity) {
+				this.capacity = grow(row);
+				int[] newCodes = new int[this.capacity];
+				System.arraycopy(this.codes, 0, newCodes, 0, this.codes.length);
+				this.codes = newCodes;
+			}
+			String value = rs.getString(columnIndex);
+			if (value == null) {
+				setNull(row);
+			}
+			else {
+				Integer code = this.codesByValue.get(value);
+				if (code == null) {
+					code = this.values.size();
+					this.values.add(value);
+					this.codesByValue.put(value, code);
+				}
+				this.codes[row] = code;
+			}
+		}
+
+		@Override
+		public void complete(int rowCount) {
+			if (rowCount < this.codes.length) {
+				int[] trimmed = new int[rowCount];
+				System.arraycopy(this.codes, 0, trimmed, 0, rowCount);
+				this.codes = trimmed;
+				this.capacity = rowCount;
+			}
+			this.dictionary = this.values.toArray(new String[this.values.size()]);
+			this.codesByValue = null;
+			this.values = null;
+		}
+
+		@Override
+		public Object getObject(int row) {
+			return this.dictionary[this.codes[row]];
+		}
+
+		@Override
+		public String getString(int row) {
+			return this.dictionary[this.codes[row]];
+		}
+	}
+
+
+	/**
+	 * Column storage for all other values, as returned by {@code getObject}.
+	 */
+	private static class ObjectColumn extends Column {
+
+		private static final long serialVersionUID = -6133343555086555989L;
+
+		private Object[] values = new Object[0];
+
+		@Override
+		public void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row >= this.capacity) {
+				this.capacity = grow(row);
+				Object[] newValues = new Object[this.capacity];
+				System.arraycopy(this.values, 0, newValues, 0, this.values.length);
+				this.values = newValues;
+			}
+			Object value = rs.getObject(columnIndex);
+			if (value == null) {
+				setNull(row);
+			}
+			else {
+				this.values[row] = value;
+			}
+		}
+
+		@Override
+		public void complete(int rowCount) {
+			if (rowCount < this.values.length) {
+				Object[] trimmed = new Object[rowCount];
+				System.arraycopy(this.values, 0, trimmed, 0, rowCount);
+				this.values = trimmed;
+				this.capacity = rowCount;
+			}
+		}
+
+		@Override
+		public Object getObject(int row) {
+			return this.values[row];
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,8 @@ import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
 import org.springframework.jdbc.support.nativejdbc.NativeJdbcExtractor;
 import org.springframework.jdbc.support.nativejdbc.NativeJdbcExtractorAdapter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 
 import static org.hamcrest.Matchers.*;
@@ -1285,6 +1287,104 @@ public class JdbcTemplateTests {
 		verify(this.connection).close();
 	}
 
+	@Test
+	public void testQueryForIterator() throws Exception {
+		given(this.connection.prepareStatement(anyString(), anyInt(), anyInt())).willReturn(this.preparedStatement);
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getString(1)).willReturn("a", "b");
+		this.template.setFetchSize(50);
+
+		RowIterator<String> iterator = this.template.queryForIterator("SELECT NAME FROM CUSTMR WHERE ID > ?",
+				new NameRowMapper(), 1);
+		verify(this.connection).prepareStatement("SELECT NAME FROM CUSTMR WHERE ID > ?",
+				ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		verify(this.preparedStatement).setObject(1, 1);
+		verify(this.preparedStatement).setFetchSize(50);
+		verify(this.connection, never()).close();
+
+		assertTrue(iterator.hasNext());
+		assertEquals("a", iterator.next());
+		assertTrue(iterator.hasNext());
+		assertEquals("b", iterator.next());
+		verify(this.resultSet, never()).close();
+		assertFalse(iterator.hasNext());
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+
+		iterator.close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForIteratorClosedEarly() throws Exception {
+		given(this.resultSet.next()).willReturn(true);
+		given(this.resultSet.getString(1)).willReturn("a");
+
+		RowIterator<String> iterator = this.template.queryForIterator(new PreparedStatementCreator() {
+			@Override
+			public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+				return con.prepareStatement("SELECT NAME FROM CUSTMR");
+			}
+		}, new NameRowMapper());
+		assertEquals("a", iterator.next());
+		iterator.close();
+		assertFalse(iterator.hasNext());
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testQueryForIteratorWithSQLExceptionWhileIterating() throws Exception {
+		SQLException sqlException = new SQLException("bad fetch");
+		given(this.connection.prepareStatement(anyString(), anyInt(), anyInt())).willReturn(this.preparedStatement);
+		given(this.resultSet.next()).willReturn(true).willThrow(sqlException);
+		given(this.resultSet.getString(1)).willReturn("a");
+
+		RowIterator<String> iterator = this.template.queryForIterator("SELECT NAME FROM CUSTMR",
+				new NameRowMapper());
+		assertEquals("a", iterator.next());
+		this.thrown.expect(UncategorizedSQLException.class);
+		this.thrown.expect(exceptionCause(equalTo(sqlException)));
+		try {
+			iterator.hasNext();
+		}
+		finally {
+			verify(this.resultSet).close();
+			verify(this.preparedStatement).close();
+			verify(this.connection, atLeastOnce()).close();
+		}
+	}
+
+	@Test
+	public void testQueryForIteratorClosedOnTransactionCompletion() throws Exception {
+		given(this.connection.prepareStatement(anyString(), anyInt(), anyInt())).willReturn(this.preparedStatement);
+		given(this.resultSet.next()).willReturn(true);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			RowIterator<String> iterator = this.template.queryForIterator("SELECT NAME FROM CUSTMR",
+					new NameRowMapper());
+			assertTrue(iterator.hasNext());
+			List<TransactionSynchronization> synchs = TransactionSynchronizationManager.getSynchronizations();
+			assertEquals(2, synchs.size());
+			for (TransactionSynchronization synch : synchs) {
+				synch.beforeCompletion();
+			}
+			assertFalse(iterator.hasNext());
+			verify(this.resultSet).close();
+			verify(this.preparedStatement).close();
+			verify(this.connection).close();
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+			if (TransactionSynchronizationManager.hasResource(this.dataSource)) {
+				TransactionSynchronizationManager.unbindResource(this.dataSource);
+			}
+		}
+	}
+
 	private void mockDatabaseMetaData(boolean supportsBatchUpdates) throws SQLException {
 		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
 		given(databaseMetaData.getDatabaseProductName()).willReturn("MySQL");
@@ -1307,6 +1407,14 @@ public class JdbcTemplateTests {
 	}
 
 
+	private static class NameRowMapper implements RowMapper<String> {
+
+		@Override
+		public String mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return rs.getString(1);
+		}
+	}
+
 	private static class Dispatcher implements PreparedStatementCreator, SqlProvider {
 
 		private int id;
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.PartitionedQueryTemplate.KeyRange;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import static org.junit.Assert.*;
+
+public class PartitionedQueryTemplateTests {
+
+	private EmbeddedDatabase database;
+
+	private PartitionedQueryTemplate template;
+
+
+	@Before
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().setName("partitionedQueryTests").build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.database);
+		jdbcTemplate.execute("CREATE TABLE item (id INTEGER NOT NULL PRIMARY KEY, category VARCHAR(10))");
+		for (int i = 1; i <= 100; i++) {
+			jdbcTemplate.update("INSERT INTO item (id, category) VALUES (?, ?)", i, (i % 2 == 0 ? "even" : "odd"));
+		}
+		this.template = new PartitionedQueryTemplate(jdbcTemplate);
+		this.template.setConcurrencyLimit(3);
+	}
+
+	@After
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void splitRange() {
+		assertEquals(Arrays.asList(new KeyRange(1, 4), new KeyRange(5, 7), new KeyRange(8, 10)),
+				PartitionedQueryTemplate.splitRange(1, 10, 3));
+		assertEquals(Arrays.asList(new KeyRange(5, 5), new KeyRange(6, 6)),
+				PartitionedQueryTemplate.splitRange(5, 6, 4));
+		List<KeyRange> ranges = PartitionedQueryTemplate.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 3);
+		assertEquals(3, ranges.size());
+		assertEquals(Long.MIN_VALUE, ranges.get(0).getLowerBound());
+		assertEquals(ranges.get(0).getUpperBound() + 1, ranges.get(1).getLowerBound());
+		assertEquals(ranges.get(1).getUpperBound() + 1, ranges.get(2).getLowerBound());
+		assertEquals(Long.MAX_VALUE, ranges.get(2).getUpperBound());
+	}
+
+	@Test
+	public void computeRanges() {
+		List<KeyRange> ranges = this.template.computeRanges("SELECT MIN(id), MAX(id) FROM item", 4);
+		assertEquals(Arrays.asList(new KeyRange(1, 25), new KeyRange(26, 50), new KeyRange(51, 75),
+				new KeyRange(76, 100)), ranges);
+		assertTrue(this.template.computeRanges("SELECT MIN(id), MAX(id) FROM item WHERE id > ?", 4, 100).isEmpty());
+	}
+
+	@Test
+	public void queryWithRowMapper() {
+		List<KeyRange> ranges = this.template.computeRanges("SELECT MIN(id), MAX(id) FROM item", 10);
+		List<Integer> ids = this.template.query("SELECT id FROM item WHERE category = ? AND id BETWEEN ? AND ?",
+				new RowMapper<Integer>() {
+					public Integer mapRow(ResultSet rs, int rowNum) throws SQLException {
+						return rs.getInt(1);
+					}
+				}, ranges, "even");
+		assertEquals(50, ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(Integer.valueOf((i + 1) * 2), ids.get(i));
+		}
+	}
+
+	@Test
+	public void queryWithRowCallbackHandler() {
+		final AtomicLong sum = new AtomicLong();
+		final AtomicInteger count = new AtomicInteger();
+		this.template.query("SELECT id FROM item WHERE id BETWEEN ? AND ?", new RowCallbackHandler() {
+			public void processRow(ResultSet rs) throws SQLException {
+				sum.addAndGet(rs.getInt(1));
+				count.incrementAndGet();
+			}
+		}, PartitionedQueryTemplate.splitRange(1, 100, 7));
+		assertEquals(100, count.get());
+		assertEquals(5050, sum.get());
+	}
+
+	@Test
+	public void queryWithEmptyRanges() {
+		List<Object> result = this.template.query("SELECT id FROM item WHERE id BETWEEN ? AND ?",
+				new SingleColumnRowMapper<Object>(), Collections.<KeyRange>emptyList());
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void failureInOnePartitionPropagated() {
+		final AtomicInteger processed = new AtomicInteger();
+		try {
+			this.template.query("SELECT id FROM item WHERE id BETWEEN ? AND ?", new RowCallbackHandler() {
+				public void processRow(ResultSet rs) throws SQLException {
+					if (rs.getInt(1) == 42) {
+						throw new SQLException("Failure on row 42");
+					}
+					processed.incrementAndGet();
+				}
+			}, PartitionedQueryTemplate.splitRange(1, 100, 10));
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			assertEquals("Failure on row 42", ex.getCause().getMessage());
+		}
+		assertTrue(processed.get() < 100);
+	}
+
+	@Test(expected = DataAccessException.class)
+	public void invalidSqlPropagated() {
+		this.template.query("SELECT id FROM no_such_table WHERE id BETWEEN ? AND ?",
+				new SingleColumnRowMapper<Object>(), PartitionedQueryTemplate.splitRange(1, 100, 5));
+	}
+
+}
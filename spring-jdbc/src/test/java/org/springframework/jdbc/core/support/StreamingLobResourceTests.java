@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+public class StreamingLobResourceTests {
+
+	private EmbeddedDatabase database;
+
+	private CountingDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final byte[] content = new byte[100000];
+
+
+	@Before
+	public void setup() {
+		for (int i = 0; i < this.content.length; i++) {
+			this.content[i] = (byte) i;
+		}
+		this.database = new EmbeddedDatabaseBuilder().setName("streamingLobTests").build();
+		this.dataSource = new CountingDataSource(this.database);
+		this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+		this.jdbcTemplate.execute("CREATE TABLE document (id INTEGER NOT NULL PRIMARY KEY, " +
+				"content LONGVARBINARY, content_length INTEGER)");
+		this.jdbcTemplate.update("INSERT INTO document VALUES (?, ?, ?)", 1, this.content, this.content.length);
+		this.jdbcTemplate.update("INSERT INTO document VALUES (?, ?, ?)", 2, null, null);
+		this.dataSource.openConnections = 0;
+	}
+
+	@After
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void streamContent() throws IOException {
+		StreamingLobResource resource = new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content, content_length FROM document WHERE id = ?", 1).withLengthColumn(2);
+		assertTrue(resource.isOpen());
+		assertEquals(0, this.dataSource.openConnections);
+		assertEquals(this.content.length, resource.contentLength());
+		assertEquals(1, this.dataSource.openConnections);
+		InputStream in = resource.getInputStream();
+		byte[] result = StreamUtils.copyToByteArray(in);
+		assertArrayEquals(this.content, result);
+		assertEquals(1, this.dataSource.openConnections);
+		in.close();
+		assertEquals(0, this.dataSource.openConnections);
+	}
+
+	@Test
+	public void closeWithoutReading() throws IOException {
+		StreamingLobResource resource = new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content FROM document WHERE id = ?", 1);
+		assertTrue(resource.exists());
+		assertEquals(1, this.dataSource.openConnections);
+		resource.close();
+		resource.close();
+		assertEquals(0, this.dataSource.openConnections);
+		try {
+			resource.getInputStream();
+			fail("Should have thrown IOException");
+		}
+		catch (IOException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void contentLengthWithoutLengthColumn() throws IOException {
+		StreamingLobResource resource = new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content FROM document WHERE id = ?", 1);
+		assertEquals(-1, resource.contentLength());
+		InputStream in = resource.getInputStream();
+		assertArrayEquals(this.content, StreamUtils.copyToByteArray(in));
+		in.close();
+		assertEquals(0, this.dataSource.openConnections);
+	}
+
+	@Test
+	public void readOnlyOnce() throws IOException {
+		StreamingLobResource resource = new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content FROM document WHERE id = ?", 1);
+		resource.getInputStream();
+		try {
+			resource.getInputStream();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		finally {
+			resource.close();
+		}
+		assertEquals(0, this.dataSource.openConnections);
+	}
+
+	@Test
+	public void noContent() {
+		assertFalse(new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content FROM document WHERE id = ?", 2).exists());
+		assertFalse(new StreamingLobResource(this.jdbcTemplate,
+				"SELECT content FROM document WHERE id = ?", 3).exists());
+		assertEquals(0, this.dataSource.openConnections);
+	}
+
+
+	private static class CountingDataSource extends DelegatingDataSource {
+
+		private volatile int openConnections;
+
+		public CountingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			final Connection con = super.getConnection();
+			this.openConnections++;
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] {Connection.class}, new InvocationHandler() {
+						public Object invoke(Object proxy, Method method, Object[] args)
+								throws Throwable {
+							if (method.getName().equals("close")) {
+								openConnections--;
+							}
+							try {
+								return method.invoke(con, args);
+							}
+							catch (InvocationTargetException ex) {
+								throw ex.getTargetException();
+							}
+						}
+					});
+		}
+	}
+
+}
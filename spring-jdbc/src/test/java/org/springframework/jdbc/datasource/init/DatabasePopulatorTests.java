@@ -21,6 +21,8 @@ import java.sql.SQLException;
 
 import org.junit.After;
 import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassRelativeResourceLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceUtils;
@@ -277,4 +279,85 @@ public class DatabasePopulatorTests {
 		}
 	}
 
+	@Test
+	public void batchesConsecutiveInserts() throws SQLException {
+		StringBuilder script = new StringBuilder("create table T_BATCH (ID integer primary key, NAME varchar(20));\n");
+		for (int i = 0; i < 1050; i++) {
+			script.append("insert into T_BATCH values (").append(i).append(", 'name;").append(i).append("');\n");
+			if (i == 500) {
+				script.append("-- a comment between batches\n");
+				script.append("update T_BATCH set NAME = 'updated' where ID < 10;\n");
+				script.append("create index IDX_BATCH on T_BATCH (NAME);\n");
+			}
+		}
+		databasePopulator.addScript(new ByteArrayResource(script.toString().getBytes()));
+		databasePopulator.setBatchSize(64);
+
+		Connection connection = db.getConnection();
+		try {
+			databasePopulator.populate(connection);
+		}
+		finally {
+			connection.close();
+		}
+
+		assertEquals(1050, jdbcTemplate.queryForInt("select count(*) from T_BATCH"));
+		assertEquals(10, jdbcTemplate.queryForInt("select count(*) from T_BATCH where NAME = 'updated'"));
+		assertEquals("name;1049", jdbcTemplate.queryForObject("select NAME from T_BATCH where ID = 1049", String.class));
+	}
+
+	@Test
+	public void reportsFailedStatementWithinBatch() throws SQLException {
+		databasePopulator.addScript(new ByteArrayResource(("create table T_BATCH (ID integer primary key);\n" +
+				"insert into T_BATCH values (1);\ninsert into T_BATCH values (2);\n" +
+				"insert into T_BATCH values (2);\ninsert into T_BATCH values (3);").getBytes()));
+
+		Connection connection = db.getConnection();
+		try {
+			databasePopulator.populate(connection);
+			fail("Should have thrown ScriptStatementFailedException");
+		}
+		catch (ScriptStatementFailedException ex) {
+			assertTrue(ex.getMessage().contains("at line 4 "));
+			assertTrue(ex.getMessage().endsWith("insert into T_BATCH values (2)"));
+		}
+		finally {
+			connection.close();
+		}
+	}
+
+	@Test
+	public void readsStatementPerLineWithoutSeparator() throws SQLException {
+		databasePopulator.addScript(resourceLoader.getResource("db-schema.sql"));
+		databasePopulator.addScript(new ByteArrayResource(("insert into T_TEST (NAME) values ('Keith')\n" +
+				"-- comment\n\ninsert into T_TEST (NAME) values ('Dave')\n").getBytes()));
+
+		Connection connection = db.getConnection();
+		try {
+			databasePopulator.populate(connection);
+		}
+		finally {
+			connection.close();
+		}
+
+		assertEquals(2, jdbcTemplate.queryForInt("select count(*) from T_TEST"));
+	}
+
+	@Test
+	public void separatorWithinTrailingComment() throws SQLException {
+		databasePopulator.addScript(resourceLoader.getResource("db-schema.sql"));
+		databasePopulator.addScript(new ByteArrayResource(("insert into T_TEST (NAME) -- columns; then values\n" +
+				"values ('Keith')\n").getBytes()));
+
+		Connection connection = db.getConnection();
+		try {
+			databasePopulator.populate(connection);
+		}
+		finally {
+			connection.close();
+		}
+
+		assertTestDatabaseCreated();
+	}
+
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+public class ReadWriteRoutingDataSourceTests {
+
+	private final DataSource writeDataSource = mock(DataSource.class);
+
+	private final Connection writeConnection = mock(Connection.class);
+
+	private final DataSource readDataSource1 = mock(DataSource.class);
+
+	private final Connection readConnection1 = mock(Connection.class);
+
+	private final DataSource readDataSource2 = mock(DataSource.class);
+
+	private final Connection readConnection2 = mock(Connection.class);
+
+	private final ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource();
+
+
+	@Before
+	public void setup() throws SQLException {
+		given(this.writeDataSource.getConnection()).willReturn(this.writeConnection);
+		given(this.readDataSource1.getConnection()).willReturn(this.readConnection1);
+		given(this.readDataSource2.getConnection()).willReturn(this.readConnection2);
+		given(this.writeConnection.createStatement()).willReturn(mock(Statement.class));
+		given(this.readConnection1.createStatement()).willReturn(mock(Statement.class));
+		given(this.readConnection2.createStatement()).willReturn(mock(Statement.class));
+		this.dataSource.setWriteDataSource(this.writeDataSource);
+		this.dataSource.setReadDataSources(Arrays.asList(this.readDataSource1, this.readDataSource2));
+		this.dataSource.setHealthCheckInterval(0);
+	}
+
+	@After
+	public void cleanup() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		this.dataSource.destroy();
+	}
+
+
+	@Test
+	public void writeConnectionOutsideOfReadOnlyTransaction() throws SQLException {
+		this.dataSource.setLazyConnections(false);
+		this.dataSource.afterPropertiesSet();
+		Connection con = this.dataSource.getConnection();
+		assertSame(this.writeConnection, con);
+		verifyZeroInteractions(this.readDataSource1, this.readDataSource2);
+	}
+
+	@Test
+	public void readConnectionsBalancedByOutstandingCount() throws SQLException {
+		this.dataSource.setLazyConnections(false);
+		this.dataSource.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		Connection con1 = this.dataSource.getConnection();
+		Connection con2 = this.dataSource.getConnection();
+		assertNotSame(((ConnectionProxy) con1).getTargetConnection(), ((ConnectionProxy) con2).getTargetConnection());
+		assertEquals(1, this.dataSource.getOutstandingConnectionCount(0));
+		assertEquals(1, this.dataSource.getOutstandingConnectionCount(1));
+
+		con1.close();
+		con1.close();
+		Connection con3 = this.dataSource.getConnection();
+		assertSame(((ConnectionProxy) con1).getTargetConnection(), ((ConnectionProxy) con3).getTargetConnection());
+		con2.close();
+		con3.close();
+		assertEquals(0, this.dataSource.getOutstandingConnectionCount(0));
+		assertEquals(0, this.dataSource.getOutstandingConnectionCount(1));
+		verifyZeroInteractions(this.writeDataSource);
+	}
+
+	@Test
+	public void routingDecidedOnFirstStatement() throws SQLException {
+		this.dataSource.afterPropertiesSet();
+		// Connection obtained at transaction begin, before read-only flag exposed
+		Connection con = this.dataSource.getConnection();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		con.createStatement();
+		con.close();
+		verify(this.writeConnection, never()).createStatement();
+		assertEquals(0, this.dataSource.getOutstandingConnectionCount(0) + this.dataSource.getOutstandingConnectionCount(1));
+	}
+
+	@Test
+	public void failingReplicaSkipped() throws SQLException {
+		given(this.readDataSource1.getConnection()).willThrow(new SQLException("down"));
+		this.dataSource.setLazyConnections(false);
+		this.dataSource.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		for (int i = 0; i < 4; i++) {
+			Connection con = this.dataSource.getConnection();
+			assertSame(this.readConnection2, ((ConnectionProxy) con).getTargetConnection());
+		}
+		// no health check: replica still considered for subsequent requests
+		assertTrue(this.dataSource.isReplicaHealthy(0));
+	}
+
+	@Test
+	public void fallbackToWriteDataSourceWithoutHealthyReplica() throws SQLException {
+		this.dataSource.setValidationQuery("SELECT 1");
+		this.dataSource.setLazyConnections(false);
+		this.dataSource.afterPropertiesSet();
+		given(this.readDataSource1.getConnection()).willThrow(new SQLException("down"));
+		given(this.readConnection2.createStatement()).willThrow(new SQLException("down"));
+
+		this.dataSource.checkReplicas();
+		assertFalse(this.dataSource.isReplicaHealthy(0));
+		assertFalse(this.dataSource.isReplicaHealthy(1));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(this.writeConnection, this.dataSource.getConnection());
+		verify(this.readConnection2).close();
+
+		willReturn(mock(Statement.class)).given(this.readConnection2).createStatement();
+		this.dataSource.checkReplicas();
+		assertFalse(this.dataSource.isReplicaHealthy(0));
+		assertTrue(this.dataSource.isReplicaHealthy(1));
+		Connection con = this.dataSource.getConnection();
+		assertSame(this.readConnection2, ((ConnectionProxy) con).getTargetConnection());
+	}
+
+	@Test
+	public void readConnectionsByLowestLatency() throws Exception {
+		given(this.readDataSource1.getConnection()).willAnswer(new Answer<Connection>() {
+			public Connection answer(InvocationOnMock invocation) throws Throwable {
+				Thread.sleep(20);
+				return readConnection1;
+			}
+		});
+		this.dataSource.setSelectionPolicy(ReadWriteRoutingDataSource.SelectionPolicy.LOWEST_LATENCY);
+		this.dataSource.setLazyConnections(false);
+		this.dataSource.afterPropertiesSet();
+		this.dataSource.checkReplicas();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		for (int i = 0; i < 4; i++) {
+			Connection con = this.dataSource.getConnection();
+			assertSame(this.readConnection2, ((ConnectionProxy) con).getTargetConnection());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeDataSourceRequired() {
+		new ReadWriteRoutingDataSource().afterPropertiesSet();
+	}
+
+}
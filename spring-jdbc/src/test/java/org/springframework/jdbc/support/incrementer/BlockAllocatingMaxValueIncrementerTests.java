@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.incrementer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.junit.Assert.*;
+
+public class BlockAllocatingMaxValueIncrementerTests {
+
+	private final CountingIncrementer target = new CountingIncrementer();
+
+
+	@Test
+	public void keysFromBlocks() {
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 10);
+		incrementer.setPrefetchThreshold(0);
+		assertEquals(10, incrementer.nextLongValue());
+		assertEquals(11, incrementer.nextIntValue());
+		for (int i = 12; i < 20; i++) {
+			assertEquals(i, incrementer.nextLongValue());
+		}
+		assertEquals(1, target.count.get());
+		assertEquals(20, incrementer.nextLongValue());
+		assertEquals(2, target.count.get());
+	}
+
+	@Test
+	public void zeroNotHandedOut() {
+		target.count.set(-1);
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 10);
+		assertEquals(1, incrementer.nextLongValue());
+	}
+
+	@Test
+	public void stringValueWithPadding() {
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 10);
+		incrementer.setPaddingLength(5);
+		assertEquals("00010", incrementer.nextStringValue());
+	}
+
+	@Test
+	public void prefetchBeforeExhaustion() {
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 10);
+		incrementer.setTaskExecutor(new SyncTaskExecutor());
+		incrementer.setPrefetchThreshold(3);
+		for (int i = 10; i < 17; i++) {
+			assertEquals(i, incrementer.nextLongValue());
+		}
+		assertEquals(1, target.count.get());
+		assertEquals(17, incrementer.nextLongValue());
+		assertEquals(2, target.count.get());
+		assertEquals(18, incrementer.nextLongValue());
+		assertEquals(19, incrementer.nextLongValue());
+		assertEquals(20, incrementer.nextLongValue());
+		assertEquals(2, target.count.get());
+	}
+
+	@Test
+	public void failedPrefetchRetried() {
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 4);
+		incrementer.setTaskExecutor(new SyncTaskExecutor());
+		incrementer.setPrefetchThreshold(2);
+		assertEquals(4, incrementer.nextLongValue());
+		target.failNext = true;
+		assertEquals(5, incrementer.nextLongValue());
+		assertEquals(6, incrementer.nextLongValue());
+		assertEquals(7, incrementer.nextLongValue());
+		assertEquals(8, incrementer.nextLongValue());
+	}
+
+	@Test
+	public void uniqueKeysAcrossThreads() throws Exception {
+		final BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(target, 50);
+		final ConcurrentMap<Long, Boolean> keys = new ConcurrentHashMap<Long, Boolean>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 5000; j++) {
+						keys.put(incrementer.nextLongValue(), Boolean.TRUE);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40000, keys.size());
+		assertTrue(target.count.get() >= 800);
+	}
+
+
+	private static class CountingIncrementer implements DataFieldMaxValueIncrementer {
+
+		final AtomicLong count = new AtomicLong();
+
+		volatile boolean failNext;
+
+		public int nextIntValue() {
+			return (int) nextLongValue();
+		}
+
+		public long nextLongValue() throws DataAccessException {
+			if (this.failNext) {
+				this.failNext = false;
+				throw new DataAccessResourceFailureException("Failure");
+			}
+			return this.count.incrementAndGet();
+		}
+
+		public String nextStringValue() {
+			return String.valueOf(nextLongValue());
+		}
+	}
+
+}
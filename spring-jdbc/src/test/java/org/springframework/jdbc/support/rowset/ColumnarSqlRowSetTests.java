@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.core.ColumnarSqlRowSetResultSetExtractor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+public class ColumnarSqlRowSetTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@Before
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().setName("columnarRowSetTests").build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("CREATE TABLE item (id INTEGER NOT NULL PRIMARY KEY, amount BIGINT, " +
+				"price DOUBLE, category VARCHAR(10), total DECIMAL(10,2), created DATE, active BOOLEAN, " +
+				"modified TIMESTAMP)");
+		for (int i = 1; i <= 100; i++) {
+			this.jdbcTemplate.update("INSERT INTO item VALUES (?, ?, ?, ?, ?, ?, ?, ?)", i, i * 1000L,
+					(i % 10 == 0 ? null : i / 4.0), (i % 3 == 0 ? "three" : i % 2 == 0 ? "two" : null),
+					new BigDecimal(i + ".25"), Date.valueOf("2014-01-" + (i % 28 + 1)), i % 2 == 0,
+					new Timestamp(1000000L * i));
+		}
+	}
+
+	@After
+	public void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	public void valuesAndConversions() {
+		SqlRowSet rowSet = query();
+		assertTrue(rowSet instanceof ColumnarSqlRowSet);
+		assertEquals(100, ((ColumnarSqlRowSet) rowSet).size());
+
+		assertTrue(rowSet.absolute(6));
+		assertEquals(6, rowSet.getInt("ID"));
+		assertEquals(Integer.valueOf(6), rowSet.getObject(1));
+		assertEquals(6000L, rowSet.getLong("AMOUNT"));
+		assertEquals(Long.valueOf(6000), rowSet.getObject("AMOUNT"));
+		assertEquals("6000", rowSet.getString("AMOUNT"));
+		assertEquals(1.5, rowSet.getDouble("PRICE"), 0.0);
+		assertEquals(Double.valueOf(1.5), rowSet.getObject("PRICE"));
+		assertEquals(1, rowSet.getInt("PRICE"));
+		assertEquals("three", rowSet.getString("CATEGORY"));
+		assertEquals(new BigDecimal("6.25"), rowSet.getBigDecimal("TOTAL"));
+		assertEquals(6.25, rowSet.getDouble("TOTAL"), 0.0);
+		assertEquals(Date.valueOf("2014-01-07"), rowSet.getDate("CREATED"));
+		assertEquals(Date.valueOf("2014-01-07"), rowSet.getObject("CREATED"));
+		assertTrue(rowSet.getBoolean("ACTIVE"));
+		assertEquals(Boolean.TRUE, rowSet.getObject("ACTIVE"));
+		assertEquals(new Timestamp(6000000L), rowSet.getTimestamp("MODIFIED"));
+		assertEquals(new BigDecimal("6000"), rowSet.getBigDecimal("AMOUNT"));
+		assertEquals("1.5", rowSet.getString("PRICE"));
+		assertEquals(new BigDecimal("1.5"), rowSet.getBigDecimal("PRICE"));
+		assertFalse(rowSet.wasNull());
+		assertEquals(1, rowSet.findColumn("id"));
+	}
+
+	@Test
+	public void nullValues() {
+		SqlRowSet rowSet = query();
+		assertTrue(rowSet.absolute(10));
+		assertEquals(0.0, rowSet.getDouble("PRICE"), 0.0);
+		assertTrue(rowSet.wasNull());
+		assertNull(rowSet.getObject("PRICE"));
+		assertTrue(rowSet.wasNull());
+		assertEquals("two", rowSet.getString("CATEGORY"));
+		assertFalse(rowSet.wasNull());
+		assertTrue(rowSet.absolute(1));
+		assertNull(rowSet.getString("CATEGORY"));
+		assertTrue(rowSet.wasNull());
+		assertEquals(0, rowSet.getInt("CATEGORY"));
+		assertTrue(rowSet.wasNull());
+	}
+
+	@Test
+	public void navigation() {
+		SqlRowSet rowSet = query();
+		assertTrue(rowSet.isBeforeFirst());
+		assertEquals(0, rowSet.getRow());
+		int count = 0;
+		while (rowSet.next()) {
+			count++;
+			assertEquals(count, rowSet.getInt(1));
+			assertEquals(count, rowSet.getRow());
+		}
+		assertEquals(100, count);
+		assertTrue(rowSet.isAfterLast());
+		assertTrue(rowSet.previous());
+		assertTrue(rowSet.isLast());
+		assertEquals(100, rowSet.getInt(1));
+		assertTrue(rowSet.relative(-98));
+		assertEquals(2, rowSet.getInt(1));
+		assertFalse(rowSet.relative(-5));
+		assertTrue(rowSet.isBeforeFirst());
+		assertTrue(rowSet.first());
+		assertTrue(rowSet.isFirst());
+		assertTrue(rowSet.absolute(-2));
+		assertEquals(99, rowSet.getInt(1));
+		assertTrue(rowSet.last());
+		assertEquals(100, rowSet.getRow());
+		rowSet.beforeFirst();
+		assertTrue(rowSet.next());
+		assertEquals(1, rowSet.getInt(1));
+		rowSet.afterLast();
+		assertFalse(rowSet.next());
+	}
+
+	@Test
+	public void emptyRowSet() {
+		SqlRowSet rowSet = this.jdbcTemplate.query("SELECT * FROM item WHERE id < 0",
+				new ColumnarSqlRowSetResultSetExtractor());
+		assertFalse(rowSet.isBeforeFirst());
+		assertFalse(rowSet.next());
+		assertFalse(rowSet.first());
+		assertEquals(8, rowSet.getMetaData().getColumnCount());
+	}
+
+	@Test
+	public void metaData() {
+		SqlRowSetMetaData metaData = query().getMetaData();
+		assertEquals(8, metaData.getColumnCount());
+		assertEquals("ID", metaData.getColumnName(1));
+		assertEquals("CATEGORY", metaData.getColumnLabel(4));
+		assertEquals(java.sql.Types.VARCHAR, metaData.getColumnType(4));
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void accessBeforeFirstRow() {
+		query().getInt(1);
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void invalidColumnIndex() {
+		SqlRowSet rowSet = query();
+		rowSet.next();
+		rowSet.getInt(9);
+	}
+
+	@Test(expected = InvalidResultSetAccessException.class)
+	public void invalidConversion() {
+		SqlRowSet rowSet = query();
+		rowSet.absolute(3);
+		rowSet.getInt("CATEGORY");
+	}
+
+	@Test
+	public void copyWithOwnCursor() {
+		ColumnarSqlRowSet rowSet = (ColumnarSqlRowSet) query();
+		rowSet.absolute(50);
+		ColumnarSqlRowSet copy = rowSet.copy();
+		assertTrue(copy.next());
+		assertEquals(1, copy.getInt(1));
+		assertEquals(50, rowSet.getInt(1));
+	}
+
+	@Test
+	public void integerValueExceedingIntRange() throws Exception {
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		given(rsmd.getColumnCount()).willReturn(1);
+		given(rsmd.getColumnLabel(1)).willReturn("ID");
+		given(rsmd.getColumnType(1)).willReturn(Types.INTEGER);
+		ResultSet rs = mock(ResultSet.class);
+		given(rs.getMetaData()).willReturn(rsmd);
+		given(rs.next()).willReturn(true, true, false);
+		given(rs.getLong(1)).willReturn(4294967295L, 42L);
+
+		SqlRowSet rowSet = new ColumnarSqlRowSet(rs);
+		assertTrue(rowSet.next());
+		assertEquals(Long.valueOf(4294967295L), rowSet.getObject("ID"));
+		assertEquals(4294967295L, rowSet.getLong("ID"));
+		assertTrue(rowSet.next());
+		assertEquals(Integer.valueOf(42), rowSet.getObject("ID"));
+	}
+
+	@Test
+	public void bitStringKeptAsObject() throws Exception {
+		byte[] bits = new byte[] {(byte) 0xA5};
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		given(rsmd.getColumnCount()).willReturn(2);
+		given(rsmd.getColumnLabel(1)).willReturn("FLAG");
+		given(rsmd.getColumnType(1)).willReturn(Types.BIT);
+		given(rsmd.getPrecision(1)).willReturn(1);
+		given(rsmd.getColumnLabel(2)).willReturn("BITS");
+		given(rsmd.getColumnType(2)).willReturn(Types.BIT);
+		given(rsmd.getPrecision(2)).willReturn(8);
+		ResultSet rs = mock(ResultSet.class);
+		given(rs.getMetaData()).willReturn(rsmd);
+		given(rs.next()).willReturn(true, false);
+		given(rs.getBoolean(1)).willReturn(true);
+		given(rs.getObject(2)).willReturn(bits);
+
+		SqlRowSet rowSet = new ColumnarSqlRowSet(rs);
+		assertTrue(rowSet.next());
+		assertEquals(Boolean.TRUE, rowSet.getObject("FLAG"));
+		assertSame(bits, rowSet.getObject("BITS"));
+		assertFalse(rowSet.wasNull());
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		SqlRowSet rowSet = query();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(rowSet);
+		oos.close();
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		SqlRowSet deserialized = (SqlRowSet) ois.readObject();
+		assertTrue(deserialized.absolute(9));
+		assertEquals("three", deserialized.getString("CATEGORY"));
+		assertEquals(new BigDecimal("9.25"), deserialized.getBigDecimal("TOTAL"));
+		assertEquals("CATEGORY", deserialized.getMetaData().getColumnLabel(4));
+	}
+
+
+	private SqlRowSet query() {
+		return this.jdbcTemplate.query("SELECT * FROM item ORDER BY id", new ColumnarSqlRowSetResultSetExtractor());
+	}
+
+}
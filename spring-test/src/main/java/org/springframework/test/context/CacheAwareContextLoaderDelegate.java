@@ -16,11 +16,22 @@
 
 package org.springframework.test.context;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
 
 /**
  * {@code CacheAwareContextLoaderDelegate} loads application contexts from
@@ -31,15 +42,32 @@ import org.springframework.util.Assert;
  * <p>Note: {@code CacheAwareContextLoaderDelegate} does not implement the
  * {@link ContextLoader} or {@link SmartContextLoader} interface.
  *
+ * <p>If the {@value #PRELOAD_PROPERTY_NAME} system property or
+ * {@link SpringProperties} flag is set to "true", contexts get loaded in a
+ * background thread as soon as the {@link TestContext} of a test class has
+ * been built, e.g. for all test classes of a suite before the first one runs,
+ * as long as the context cache has not reached its maximum size. A test which
+ * requests a context that is being pre-loaded waits for the pre-load to complete
+ * rather than loading a second instance of the same context.
+ *
  * @author Sam Brannen
  * @since 3.2.2
  */
 public class CacheAwareContextLoaderDelegate {
 
+	/**
+	 * System property for enabling the background pre-loading of contexts:
+	 * {@value}.
+	 * @since 3.2.19
+	 */
+	public static final String PRELOAD_PROPERTY_NAME = "spring.test.context.cache.preload";
+
 	private static final Log logger = LogFactory.getLog(CacheAwareContextLoaderDelegate.class);
 
 	private static final Log statsLogger = LogFactory.getLog("org.springframework.test.context.cache");
 
+	private static ExecutorService preloadExecutor;
+
 	private final ContextCache contextCache;
 
 
@@ -78,26 +106,41 @@ public class CacheAwareContextLoaderDelegate {
 		return applicationContext;
 	}
 
+	/**
+	 * Load the context for the given key and store it in the cache,
+	 * recording the time it took to load it.
+	 */
+	private ApplicationContext loadAndCacheContext(MergedContextConfiguration mergedContextConfiguration)
+			throws Exception {
+
+		long startTime = System.currentTimeMillis();
+		ApplicationContext context = loadContextInternal(mergedContextConfiguration);
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Storing ApplicationContext in cache under key [%s]",
+					mergedContextConfiguration));
+		}
+		this.contextCache.put(mergedContextConfiguration, context, System.currentTimeMillis() - startTime);
+		return context;
+	}
+
 	/**
 	 * Load the {@link ApplicationContext application context} for the supplied
 	 * merged context configuration.
 	 * <p>If the context is present in the cache it will simply be returned;
-	 * otherwise, it will be loaded, stored in the cache, and returned.
+	 * otherwise, it will be loaded, stored in the cache, and returned. If the
+	 * context is being pre-loaded in the background, this method waits for
+	 * the pre-load to complete.
 	 * @return the application context
 	 * @throws IllegalStateException if an error occurs while retrieving or
 	 * loading the application context
 	 */
 	public ApplicationContext loadContext(MergedContextConfiguration mergedContextConfiguration) {
 		synchronized (this.contextCache) {
+			awaitPreload(mergedContextConfiguration);
 			ApplicationContext context = this.contextCache.get(mergedContextConfiguration);
 			if (context == null) {
 				try {
-					context = loadContextInternal(mergedContextConfiguration);
-					if (logger.isDebugEnabled()) {
-						logger.debug(String.format("Storing ApplicationContext in cache under key [%s]",
-								mergedContextConfiguration));
-					}
-					this.contextCache.put(mergedContextConfiguration, context);
+					context = loadAndCacheContext(mergedContextConfiguration);
 				}
 				catch (Exception ex) {
 					throw new IllegalStateException("Failed to load ApplicationContext", ex);
@@ -118,4 +161,155 @@ public class CacheAwareContextLoaderDelegate {
 		}
 	}
 
+	/**
+	 * Load the {@link ApplicationContext application context} for the supplied
+	 * merged context configuration in a background thread, provided that pre-loading
+	 * has been enabled through the {@value #PRELOAD_PROPERTY_NAME} property and that
+	 * the context cache has not reached its maximum size yet.
+	 * <p>Failures are logged only: they will show again when the context is
+	 * actually requested by the test.
+	 * @since 3.2.19
+	 */
+	void preloadContext(MergedContextConfiguration mergedContextConfiguration) {
+		if (!SpringProperties.getFlag(PRELOAD_PROPERTY_NAME) || mergedContextConfiguration.getContextLoader() == null) {
+			return;
+		}
+		synchronized (this.contextCache) {
+			if (this.contextCache.getPreloads().containsKey(mergedContextConfiguration) ||
+					!isPreloadable(mergedContextConfiguration)) {
+				return;
+			}
+			PreloadTask preloadTask = new PreloadTask(mergedContextConfiguration,
+					Thread.currentThread().getContextClassLoader());
+			this.contextCache.getPreloads().put(mergedContextConfiguration, preloadTask);
+			getPreloadExecutor().execute(preloadTask);
+		}
+	}
+
+	/**
+	 * Wait for a pending pre-load of the context for the given key, if any.
+	 * A pre-load which has not started yet gets cancelled instead, leaving it
+	 * to the caller to load the context. To be called while holding the cache lock.
+	 */
+	private void awaitPreload(MergedContextConfiguration mergedContextConfiguration) {
+		Future<ApplicationContext> preload;
+		while ((preload = this.contextCache.getPreloads().get(mergedContextConfiguration)) != null) {
+			if (!((PreloadTask) preload).started) {
+				preload.cancel(false);
+				this.contextCache.getPreloads().remove(mergedContextConfiguration);
+				return;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Waiting for pre-loaded ApplicationContext with key [%s]",
+						mergedContextConfiguration));
+			}
+			try {
+				// releases the cache lock until the pre-load has completed
+				this.contextCache.wait();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for pre-loaded ApplicationContext", ex);
+			}
+		}
+	}
+
+	/**
+	 * Determine whether a pre-loaded context for the given key may be stored in
+	 * the cache. To be called while holding the cache lock.
+	 */
+	private boolean isPreloadable(MergedContextConfiguration mergedContextConfiguration) {
+		return (!this.contextCache.contains(mergedContextConfiguration) &&
+				this.contextCache.size() + this.contextCache.getPreloads().size() < this.contextCache.getMaxSize());
+	}
+
+	private static synchronized ExecutorService getPreloadExecutor() {
+		if (preloadExecutor == null) {
+			final CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("spring-test-preload-");
+			threadCreator.setDaemon(true);
+			preloadExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					return threadCreator.createThread(runnable);
+				}
+			});
+		}
+		return preloadExecutor;
+	}
+
+
+	/**
+	 * Background load of a context, registered with the context cache
+	 * from submission until completion.
+	 */
+	private class PreloadTask extends FutureTask<ApplicationContext> {
+
+		private final MergedContextConfiguration mergedContextConfiguration;
+
+		/** Whether the load has started; guarded by the cache lock */
+		private boolean started;
+
+		public PreloadTask(final MergedContextConfiguration mergedContextConfiguration, final ClassLoader classLoader) {
+			super(new Callable<ApplicationContext>() {
+				public ApplicationContext call() throws Exception {
+					Thread currentThread = Thread.currentThread();
+					ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+					currentThread.setContextClassLoader(classLoader);
+					try {
+						if (logger.isDebugEnabled()) {
+							logger.debug(String.format("Pre-loading ApplicationContext for key [%s]",
+									mergedContextConfiguration));
+						}
+						return loadContextInternal(mergedContextConfiguration);
+					}
+					finally {
+						currentThread.setContextClassLoader(originalClassLoader);
+					}
+				}
+			});
+			this.mergedContextConfiguration = mergedContextConfiguration;
+		}
+
+		@Override
+		public void run() {
+			synchronized (contextCache) {
+				if (isCancelled()) {
+					return;
+				}
+				this.started = true;
+			}
+			// load without holding the cache lock, so that tests can proceed meanwhile
+			long startTime = System.currentTimeMillis();
+			super.run();
+			long loadTime = System.currentTimeMillis() - startTime;
+			ApplicationContext context = null;
+			try {
+				context = get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Failed to pre-load ApplicationContext for key [%s]",
+							this.mergedContextConfiguration), ex.getCause());
+				}
+			}
+			synchronized (contextCache) {
+				contextCache.getPreloads().remove(this.mergedContextConfiguration);
+				contextCache.notifyAll();
+				if (context == null) {
+					return;
+				}
+				if (isPreloadable(this.mergedContextConfiguration)) {
+					contextCache.put(this.mergedContextConfiguration, context, loadTime);
+					return;
+				}
+			}
+			// the cache has been filled up in the meantime
+			if (context instanceof ConfigurableApplicationContext) {
+				((ConfigurableApplicationContext) context).close();
+			}
+		}
+	}
+
 }
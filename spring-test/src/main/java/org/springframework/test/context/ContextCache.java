@@ -17,15 +17,24 @@
 package org.springframework.test.context;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.util.Assert;
@@ -42,6 +51,16 @@ import org.springframework.util.Assert;
  * initialize. Hence it often makes sense to perform that initialization only once per
  * test suite.
  *
+ * <p>The cache is bounded: once it holds more than the {@linkplain #getMaxSize()
+ * maximum number} of contexts, the least recently used context gets removed and
+ * closed, along with any child contexts in a hierarchy. The maximum size can be
+ * configured through the {@value #MAX_SIZE_PROPERTY_NAME} system property or
+ * {@link SpringProperties} entry and defaults to {@value #DEFAULT_MAX_SIZE}.
+ *
+ * <p>Hit, load and eviction counts as well as load times are tracked per key and
+ * logged at info level when the JVM shuts down, provided that the
+ * {@code org.springframework.test.context.cache} log category is enabled for it.
+ *
  * @author Sam Brannen
  * @author Juergen Hoeller
  * @since 2.5
@@ -49,10 +68,29 @@ import org.springframework.util.Assert;
 class ContextCache {
 
 	/**
-	 * Map of context keys to Spring {@code ApplicationContext} instances.
+	 * System property for the maximum number of contexts to keep in the cache:
+	 * {@value}.
+	 * @since 3.2.19
+	 */
+	public static final String MAX_SIZE_PROPERTY_NAME = "spring.test.context.cache.maxSize";
+
+	/**
+	 * Default maximum number of contexts to keep in the cache: {@value}.
+	 * @since 3.2.19
+	 */
+	public static final int DEFAULT_MAX_SIZE = 32;
+
+	private static final Log statsLogger = LogFactory.getLog("org.springframework.test.context.cache");
+
+
+	private final int maxSize;
+
+	/**
+	 * Map of context keys to Spring {@code ApplicationContext} instances,
+	 * in access order (least recently used first).
 	 */
 	private final Map<MergedContextConfiguration, ApplicationContext> contextMap =
-			new ConcurrentHashMap<MergedContextConfiguration, ApplicationContext>(64);
+			new LinkedHashMap<MergedContextConfiguration, ApplicationContext>(64, 0.75f, true);
 
 	/**
 	 * Map of parent keys to sets of children keys, representing a top-down <em>tree</em>
@@ -67,11 +105,78 @@ class ContextCache {
 
 	private final AtomicInteger missCount = new AtomicInteger();
 
+	private final AtomicInteger evictionCount = new AtomicInteger();
+
+	/**
+	 * Map of context keys to statistics, retained when contexts are removed.
+	 */
+	private final Map<MergedContextConfiguration, KeyStatistics> keyStatistics =
+			new LinkedHashMap<MergedContextConfiguration, KeyStatistics>(64);
+
+	/**
+	 * Map of context keys to pending background loads of their contexts,
+	 * to be accessed while holding the cache lock.
+	 */
+	private final Map<MergedContextConfiguration, Future<ApplicationContext>> preloads =
+			new HashMap<MergedContextConfiguration, Future<ApplicationContext>>();
+
+	private boolean shutdownHookRegistered = false;
+
+
+	/**
+	 * Create a new {@code ContextCache} with the maximum size specified through
+	 * the {@value #MAX_SIZE_PROPERTY_NAME} property, if any.
+	 */
+	public ContextCache() {
+		this(determineMaxSize());
+	}
+
+	/**
+	 * Create a new {@code ContextCache} with the given maximum size.
+	 * @param maxSize the maximum number of contexts to keep (must be positive)
+	 * @since 3.2.19
+	 */
+	public ContextCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "Maximum cache size must be positive");
+		this.maxSize = maxSize;
+	}
+
+	private static int determineMaxSize() {
+		String maxSize = SpringProperties.getProperty(MAX_SIZE_PROPERTY_NAME);
+		if (maxSize != null) {
+			try {
+				return Integer.parseInt(maxSize.trim());
+			}
+			catch (NumberFormatException ex) {
+				statsLogger.warn("Ignoring invalid value for property [" + MAX_SIZE_PROPERTY_NAME + "]: " + maxSize);
+			}
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+
+	/**
+	 * Return the maximum number of contexts to keep in this cache.
+	 * @since 3.2.19
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the pending background loads of contexts for this cache, keyed by
+	 * context key. To be accessed while holding the cache lock.
+	 * @since 3.2.19
+	 * @see CacheAwareContextLoaderDelegate#preloadContext
+	 */
+	Map<MergedContextConfiguration, Future<ApplicationContext>> getPreloads() {
+		return this.preloads;
+	}
 
 	/**
 	 * Clear all contexts from the cache and clears context hierarchy information as well.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		this.contextMap.clear();
 		this.hierarchyMap.clear();
 	}
@@ -79,16 +184,18 @@ class ContextCache {
 	/**
 	 * Clear hit and miss count statistics for the cache (i.e., resets counters to zero).
 	 */
-	public void clearStatistics() {
+	public synchronized void clearStatistics() {
 		this.hitCount.set(0);
 		this.missCount.set(0);
+		this.evictionCount.set(0);
+		this.keyStatistics.clear();
 	}
 
 	/**
 	 * Return whether there is a cached context for the given key.
 	 * @param key the context key (never {@code null})
 	 */
-	public boolean contains(MergedContextConfiguration key) {
+	public synchronized boolean contains(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
 		return this.contextMap.containsKey(key);
 	}
@@ -102,7 +209,7 @@ class ContextCache {
 	 * if not found in the cache
 	 * @see #remove
 	 */
-	public ApplicationContext get(MergedContextConfiguration key) {
+	public synchronized ApplicationContext get(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
 		ApplicationContext context = this.contextMap.get(key);
 		if (context == null) {
@@ -110,6 +217,7 @@ class ContextCache {
 		}
 		else {
 			this.hitCount.incrementAndGet();
+			getKeyStatistics(key).hitCount++;
 		}
 		return context;
 	}
@@ -132,15 +240,46 @@ class ContextCache {
 		return this.missCount.get();
 	}
 
+	/**
+	 * Get the overall number of contexts which have been removed from this
+	 * cache because its {@linkplain #getMaxSize() maximum size} was exceeded.
+	 * @since 3.2.19
+	 */
+	public int getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
 	/**
 	 * Explicitly add an {@code ApplicationContext} instance to the cache under the given key.
 	 * @param key the context key (never {@code null})
 	 * @param context the {@code ApplicationContext} instance (never {@code null})
 	 */
 	public void put(MergedContextConfiguration key, ApplicationContext context) {
+		put(key, context, -1);
+	}
+
+	/**
+	 * Explicitly add an {@code ApplicationContext} instance to the cache under the
+	 * given key, recording the time it took to load it, and remove the least
+	 * recently used contexts if the {@linkplain #getMaxSize() maximum size} of
+	 * the cache is exceeded.
+	 * @param key the context key (never {@code null})
+	 * @param context the {@code ApplicationContext} instance (never {@code null})
+	 * @param loadTime the time it took to load the context in milliseconds,
+	 * or -1 if not known
+	 * @since 3.2.19
+	 */
+	public synchronized void put(MergedContextConfiguration key, ApplicationContext context, long loadTime) {
 		Assert.notNull(key, "Key must not be null");
 		Assert.notNull(context, "ApplicationContext must not be null");
 
+		KeyStatistics statistics = getKeyStatistics(key);
+		statistics.loadCount++;
+		if (loadTime >= 0) {
+			statistics.totalLoadTime += loadTime;
+		}
+		registerShutdownHookIfNecessary();
+
 		this.contextMap.put(key, context);
 		MergedContextConfiguration child = key;
 		MergedContextConfiguration parent = child.getParent();
@@ -154,6 +293,78 @@ class ContextCache {
 			child = parent;
 			parent = child.getParent();
 		}
+
+		evictIfNecessary(key);
+	}
+
+	/**
+	 * Remove and close the least recently used contexts until the size of the cache
+	 * does not exceed its maximum size anymore, never removing the given key or any
+	 * of its ancestors.
+	 */
+	private void evictIfNecessary(MergedContextConfiguration retainedKey) {
+		while (this.contextMap.size() > this.maxSize) {
+			// prefer leaf contexts: removing a parent would close its children as well
+			MergedContextConfiguration eldestKey = null;
+			MergedContextConfiguration eldestParentKey = null;
+			for (MergedContextConfiguration candidate : this.contextMap.keySet()) {
+				if (!isSelfOrAncestor(candidate, retainedKey)) {
+					if (!this.hierarchyMap.containsKey(candidate)) {
+						eldestKey = candidate;
+						break;
+					}
+					if (eldestParentKey == null) {
+						eldestParentKey = candidate;
+					}
+				}
+			}
+			if (eldestKey == null) {
+				eldestKey = eldestParentKey;
+			}
+			if (eldestKey == null) {
+				// only the retained context hierarchy left
+				return;
+			}
+			if (statsLogger.isDebugEnabled()) {
+				statsLogger.debug(String.format("Evicting least recently used ApplicationContext with key [%s] " +
+						"from cache with maximum size %d", eldestKey, this.maxSize));
+			}
+			this.evictionCount.incrementAndGet();
+			getKeyStatistics(eldestKey).evictionCount++;
+			remove(eldestKey, HierarchyMode.CURRENT_LEVEL);
+		}
+	}
+
+	private boolean isSelfOrAncestor(MergedContextConfiguration candidate, MergedContextConfiguration key) {
+		MergedContextConfiguration current = key;
+		while (current != null) {
+			if (current.equals(candidate)) {
+				return true;
+			}
+			current = current.getParent();
+		}
+		return false;
+	}
+
+	private KeyStatistics getKeyStatistics(MergedContextConfiguration key) {
+		KeyStatistics statistics = this.keyStatistics.get(key);
+		if (statistics == null) {
+			statistics = new KeyStatistics(key);
+			this.keyStatistics.put(key, statistics);
+		}
+		return statistics;
+	}
+
+	private void registerShutdownHookIfNecessary() {
+		if (!this.shutdownHookRegistered && statsLogger.isInfoEnabled()) {
+			Runtime.getRuntime().addShutdownHook(new Thread("ContextCache statistics") {
+				@Override
+				public void run() {
+					statsLogger.info(getStatisticsSummary());
+				}
+			});
+			this.shutdownHookRegistered = true;
+		}
 	}
 
 	/**
@@ -169,7 +380,7 @@ class ContextCache {
 	 * @param hierarchyMode the hierarchy mode; may be {@code null} if the context
 	 * is not part of a hierarchy
 	 */
-	public void remove(MergedContextConfiguration key, HierarchyMode hierarchyMode) {
+	public synchronized void remove(MergedContextConfiguration key, HierarchyMode hierarchyMode) {
 		Assert.notNull(key, "Key must not be null");
 
 		// startKey is the level at which to begin clearing the cache, depending
@@ -227,7 +438,7 @@ class ContextCache {
 	 * contains more than <tt>Integer.MAX_VALUE</tt> elements, returns
 	 * <tt>Integer.MAX_VALUE</tt>.
 	 */
-	public int size() {
+	public synchronized int size() {
 		return this.contextMap.size();
 	}
 
@@ -239,18 +450,71 @@ class ContextCache {
 	}
 
 	/**
-	 * Generates a text string, which contains the {@linkplain #size() size} as well
-	 * as the {@linkplain #getHitCount() hit}, {@linkplain #getMissCount() miss},
+	 * Generate a summary of the statistics of this cache, listing the hit, load
+	 * and eviction counts as well as the load time per context key, ordered by
+	 * overall load time (descending).
+	 * @since 3.2.19
+	 */
+	public synchronized String getStatisticsSummary() {
+		List<KeyStatistics> statistics = new ArrayList<KeyStatistics>(this.keyStatistics.values());
+		Collections.sort(statistics, new Comparator<KeyStatistics>() {
+			public int compare(KeyStatistics stats1, KeyStatistics stats2) {
+				return (stats1.totalLoadTime < stats2.totalLoadTime ? 1 :
+						(stats1.totalLoadTime > stats2.totalLoadTime ? -1 : 0));
+			}
+		});
+		StringBuilder sb = new StringBuilder("Spring test ApplicationContext cache statistics: ");
+		sb.append(this);
+		for (KeyStatistics stats : statistics) {
+			sb.append("\n  ").append(stats);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generates a text string, which contains the {@linkplain #size() size} and
+	 * {@linkplain #getMaxSize() maximum size} as well as the {@linkplain #getHitCount() hit},
+	 * {@linkplain #getMissCount() miss}, {@linkplain #getEvictionCount() eviction}
 	 * and {@linkplain #getParentContextCount() parent context} counts.
 	 */
 	@Override
 	public String toString() {
 		return new ToStringCreator(this)
 				.append("size", size())
+				.append("maxSize", getMaxSize())
 				.append("hitCount", getHitCount())
 				.append("missCount", getMissCount())
+				.append("evictionCount", getEvictionCount())
 				.append("parentContextCount", getParentContextCount())
 				.toString();
 	}
 
+
+	/**
+	 * Statistics for a single context key.
+	 */
+	private static class KeyStatistics {
+
+		private final MergedContextConfiguration key;
+
+		private int hitCount;
+
+		private int loadCount;
+
+		private int evictionCount;
+
+		private long totalLoadTime;
+
+		public KeyStatistics(MergedContextConfiguration key) {
+			this.key = key;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + this.key.getTestClass().getName() + "]: loadCount = " + this.loadCount +
+					", hitCount = " + this.hitCount + ", evictionCount = " + this.evictionCount +
+					", totalLoadTime = " + this.totalLoadTime + " ms";
+		}
+	}
+
 }
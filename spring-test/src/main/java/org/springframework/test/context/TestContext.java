@@ -108,6 +108,7 @@ public class TestContext extends AttributeAccessorSupport {
 		}
 
 		this.mergedContextConfiguration = mergedContextConfiguration;
+		this.cacheAwareContextLoaderDelegate.preloadContext(mergedContextConfiguration);
 	}
 
 
@@ -16,10 +16,15 @@
 
 package org.springframework.test.context;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -261,6 +266,116 @@ public class ContextCacheTests {
 		assertParentContextCount(0);
 	}
 
+	@Test
+	public void evictLeastRecentlyUsedContext() {
+		contextCache = new ContextCache(2);
+		ApplicationContext context1 = loadContext(AnnotationConfigContextLoaderTestCase.class);
+		ApplicationContext context2 = loadContext(CustomAnnotationConfigContextLoaderTestCase.class);
+		loadCtxAndAssertStats(AnnotationConfigContextLoaderTestCase.class, 2, 1, 2);
+		loadCtxAndAssertStats(FooBarProfilesTestCase.class, 2, 1, 3);
+		assertEquals(1, contextCache.getEvictionCount());
+		assertFalse(((ConfigurableApplicationContext) context2).isActive());
+		assertTrue(((ConfigurableApplicationContext) context1).isActive());
+		assertSame(context1, loadContext(AnnotationConfigContextLoaderTestCase.class));
+		assertContextCacheStatistics(contextCache, "after eviction", 2, 2, 3);
+	}
+
+	@Test
+	public void evictLeafContextsBeforeParents() {
+		contextCache = new ContextCache(1);
+		TestContext testContext2 = new TestContext(ClassHierarchyContextHierarchyLevel2TestCase.class, contextCache);
+		testContext2.getApplicationContext();
+		// the hierarchy of the most recently loaded context is retained
+		assertContextCacheStatistics(contextCache, "level 2", 2, 0, 2);
+		assertParentContextCount(1);
+
+		loadCtxAndAssertStats(AnnotationConfigContextLoaderTestCase.class, 1, 0, 3);
+		assertEquals(2, contextCache.getEvictionCount());
+		assertParentContextCount(0);
+		assertFalse(contextCache.contains(getMergedContextConfiguration(testContext2).getParent()));
+	}
+
+	@Test
+	public void statisticsSummary() {
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+		loadContext(AnnotationConfigContextLoaderTestCase.class);
+		loadContext(FooBarProfilesTestCase.class);
+		String summary = contextCache.getStatisticsSummary();
+		assertTrue(summary.contains("[" + AnnotationConfigContextLoaderTestCase.class.getName() +
+				"]: loadCount = 1, hitCount = 1, evictionCount = 0"));
+		assertTrue(summary.contains("[" + FooBarProfilesTestCase.class.getName() +
+				"]: loadCount = 1, hitCount = 0, evictionCount = 0"));
+		assertTrue(summary.contains("maxSize = " + ContextCache.DEFAULT_MAX_SIZE));
+		contextCache.clearStatistics();
+		assertFalse(contextCache.getStatisticsSummary().contains(FooBarProfilesTestCase.class.getName()));
+	}
+
+	@Test
+	public void preloadContext() throws Exception {
+		SpringProperties.setFlag(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME);
+		try {
+			TestContext testContext = new TestContext(AnnotationConfigContextLoaderTestCase.class, contextCache);
+			MergedContextConfiguration key = getMergedContextConfiguration(testContext);
+			for (int i = 0; i < 100 && !contextCache.contains(key); i++) {
+				Thread.sleep(50);
+			}
+			assertTrue(contextCache.contains(key));
+			assertNotNull(testContext.getApplicationContext());
+			assertContextCacheStatistics(contextCache, "preloaded", 1, 1, 0);
+		}
+		finally {
+			SpringProperties.setProperty(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME, null);
+		}
+	}
+
+	@Test
+	public void preloadContextRequestedImmediately() throws Exception {
+		CountingContextLoader.loadCount.set(0);
+		SpringProperties.setFlag(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME);
+		try {
+			TestContext testContext = new TestContext(CountingContextLoaderTestCase.class, contextCache);
+			ApplicationContext context = testContext.getApplicationContext();
+			awaitPreloads();
+			assertEquals(1, CountingContextLoader.loadCount.get());
+			assertEquals(1, contextCache.size());
+			assertSame(context, contextCache.get(getMergedContextConfiguration(testContext)));
+		}
+		finally {
+			SpringProperties.setProperty(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME, null);
+		}
+	}
+
+	@Test
+	public void preloadContextAwaitedWhileLoading() throws Exception {
+		CountingContextLoader.loadCount.set(0);
+		SpringProperties.setFlag(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME);
+		try {
+			TestContext testContext = new TestContext(CountingContextLoaderTestCase.class, contextCache);
+			for (int i = 0; i < 100 && CountingContextLoader.loadCount.get() == 0; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(1, CountingContextLoader.loadCount.get());
+			assertNotNull(testContext.getApplicationContext());
+			assertEquals(1, CountingContextLoader.loadCount.get());
+			assertContextCacheStatistics(contextCache, "preloading", 1, 1, 0);
+		}
+		finally {
+			SpringProperties.setProperty(CacheAwareContextLoaderDelegate.PRELOAD_PROPERTY_NAME, null);
+		}
+	}
+
+	private void awaitPreloads() throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			synchronized (contextCache) {
+				if (contextCache.getPreloads().isEmpty()) {
+					return;
+				}
+			}
+			Thread.sleep(50);
+		}
+		fail("Pre-loads not completed");
+	}
+
 
 	@Configuration
 	static class Config {
@@ -277,6 +392,27 @@ public class ContextCacheTests {
 	private static class CustomAnnotationConfigContextLoader extends AnnotationConfigContextLoader {
 	}
 
+	@ContextConfiguration(classes = Config.class, loader = CountingContextLoader.class)
+	private static class CountingContextLoaderTestCase {
+	}
+
+	private static class CountingContextLoader extends AnnotationConfigContextLoader {
+
+		static final AtomicInteger loadCount = new AtomicInteger();
+
+		@Override
+		protected void prepareContext(GenericApplicationContext context) {
+			loadCount.incrementAndGet();
+			try {
+				// slow enough for a test to request the context while it is being loaded
+				Thread.sleep(200);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	@ActiveProfiles({ "foo", "bar" })
 	@ContextConfiguration(classes = Config.class, loader = AnnotationConfigContextLoader.class)
 	private static class FooBarProfilesTestCase {
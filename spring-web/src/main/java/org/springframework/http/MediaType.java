@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -200,6 +201,16 @@ public class MediaType implements Comparable<MediaType> {
 
 	private static final String PARAM_CHARSET = "charset";
 
+	/**
+	 * Maximum number of entries in the parsed media type cache. Once exceeded,
+	 * the cache is cleared, preventing unbounded growth from arbitrary
+	 * client-provided media type strings (e.g. in "Accept" headers).
+	 */
+	private static final int PARSED_MEDIA_TYPE_CACHE_LIMIT = 1024;
+
+	private static final Map<String, MediaType> parsedMediaTypeCache =
+			new ConcurrentHashMap<String, MediaType>(64);
+
 
 	private final String type;
 
@@ -685,6 +696,18 @@ public class MediaType implements Comparable<MediaType> {
 	 */
 	public static MediaType parseMediaType(String mediaType) {
 		Assert.hasLength(mediaType, "'mediaType' must not be empty");
+		MediaType result = parsedMediaTypeCache.get(mediaType);
+		if (result == null) {
+			result = parseMediaTypeInternal(mediaType);
+			if (parsedMediaTypeCache.size() >= PARSED_MEDIA_TYPE_CACHE_LIMIT) {
+				parsedMediaTypeCache.clear();
+			}
+			parsedMediaTypeCache.put(mediaType, result);
+		}
+		return result;
+	}
+
+	private static MediaType parseMediaTypeInternal(String mediaType) {
 		String[] parts = StringUtils.tokenizeToStringArray(mediaType, ";");
 
 		String fullType = parts[0].trim();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,14 @@
 package org.springframework.http.converter.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -29,13 +34,18 @@ import org.springframework.http.converter.GenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
@@ -47,6 +57,13 @@ import com.fasterxml.jackson.databind.SerializationFeature;
  * <p>By default, this converter supports {@code application/json}. This can be overridden by setting the
  * {@link #setSupportedMediaTypes(List) supportedMediaTypes} property.
  *
+ * <p>{@link ObjectReader}s and the {@link ObjectWriter} derived from the {@code ObjectMapper} are cached.
+ * The {@code ObjectMapper} is therefore expected to be fully configured before the converter is first used:
+ * changed features are detected, but serializers, deserializers and modules registered afterwards are not;
+ * call {@link #resetObjectMapperCaches()} after any such reconfiguration. Output up to the
+ * {@link #setFlushThreshold flush threshold} is collected in a pooled buffer and written with a
+ * {@code Content-Length} header, while larger output is streamed to the response body.
+ *
  * @author Arjen Poutsma
  * @author Keith Donald
  * @author Rossen Stoyanchev
@@ -58,19 +75,54 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 
 	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
+	/**
+	 * The default flush threshold in bytes.
+	 * @see #setFlushThreshold
+	 */
+	public static final int DEFAULT_FLUSH_THRESHOLD = 8192;
+
+	private static final int BUFFER_POOL_SIZE = 32;
 
-	private ObjectMapper objectMapper = new ObjectMapper();
+
+	private ObjectMapper objectMapper;
 
 	private String jsonPrefix;
 
 	private Boolean prettyPrint;
 
+	private int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+
+	private final BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<byte[]>(BUFFER_POOL_SIZE);
+
+	private final Map<TypeCacheKey, ObjectReader> objectReaderCache =
+			new ConcurrentHashMap<TypeCacheKey, ObjectReader>(64);
+
+	private volatile DeserializationConfig objectReaderConfig;
+
+	private volatile ObjectWriter objectWriter;
+
+	private volatile SerializationConfig objectWriterConfig;
+
 
 	/**
 	 * Construct a new {@code MappingJackson2HttpMessageConverter}.
 	 */
 	public MappingJackson2HttpMessageConverter() {
-		super(new MediaType("application", "json", DEFAULT_CHARSET), new MediaType("application", "*+json", DEFAULT_CHARSET));
+		this(new ObjectMapper(),
+				new MediaType("application", "json", DEFAULT_CHARSET), new MediaType("application", "*+json", DEFAULT_CHARSET));
+	}
+
+	/**
+	 * Construct a new converter for the given {@code ObjectMapper} and media types,
+	 * e.g. for an {@code ObjectMapper} using a binary data format.
+	 * @param objectMapper the {@code ObjectMapper} to use
+	 * @param supportedMediaTypes the supported media types
+	 * @since 3.2.19
+	 */
+	protected MappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MediaType... supportedMediaTypes) {
+		super(supportedMediaTypes);
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		this.objectMapper = objectMapper;
 	}
 
 	/**
@@ -86,6 +138,7 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
 		configurePrettyPrint();
+		resetObjectMapperCaches();
 	}
 
 	private void configurePrettyPrint() {
@@ -101,6 +154,22 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 		return this.objectMapper;
 	}
 
+	/**
+	 * Discard the {@link ObjectReader}s and the {@link ObjectWriter} cached for the
+	 * current {@code ObjectMapper}, so that they get re-created on next use.
+	 * <p>To be called after reconfiguring the {@code ObjectMapper} once this converter
+	 * has been in use, e.g. after {@code registerModule} or {@code setSerializerFactory}
+	 * calls, since readers and writers keep the serializers and deserializers that were
+	 * registered at the time of their creation.
+	 * @since 3.2.19
+	 */
+	public void resetObjectMapperCaches() {
+		this.objectReaderCache.clear();
+		this.objectReaderConfig = null;
+		this.objectWriter = null;
+		this.objectWriterConfig = null;
+	}
+
 	/**
 	 * Specify a custom prefix to use for this view's JSON output.
 	 * Default is none.
@@ -136,6 +205,30 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 		configurePrettyPrint();
 	}
 
+	/**
+	 * Set the number of bytes to collect in a buffer before writing to the
+	 * response body. Output that fits into the buffer is written in one go,
+	 * along with a {@code Content-Length} header, and nothing is written at all
+	 * if serialization fails; larger output is streamed once the threshold has
+	 * been exceeded. Buffers are pooled and reused across invocations.
+	 * <p>Default is {@link #DEFAULT_FLUSH_THRESHOLD}. Set this to 0 in order to
+	 * write straight through to the response body.
+	 * @since 3.2.19
+	 */
+	public void setFlushThreshold(int flushThreshold) {
+		Assert.isTrue(flushThreshold >= 0, "'flushThreshold' must not be negative");
+		this.flushThreshold = flushThreshold;
+		this.bufferPool.clear();
+	}
+
+	/**
+	 * Return the configured flush threshold.
+	 * @since 3.2.19
+	 */
+	public int getFlushThreshold() {
+		return this.flushThreshold;
+	}
+
 
 	@Override
 	public boolean canRead(Class<?> clazz, MediaType mediaType) {
@@ -162,50 +255,121 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(clazz, null);
-		return readJavaType(javaType, inputMessage);
+		return readWithObjectReader(getObjectReader(clazz, null), inputMessage);
 	}
 
 	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(type, contextClass);
-		return readJavaType(javaType, inputMessage);
+		return readWithObjectReader(getObjectReader(type, contextClass), inputMessage);
 	}
 
-	private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) {
+	private Object readWithObjectReader(ObjectReader objectReader, HttpInputMessage inputMessage) {
 		try {
-			return this.objectMapper.readValue(inputMessage.getBody(), javaType);
+			return objectReader.readValue(inputMessage.getBody());
 		}
 		catch (IOException ex) {
 			throw new HttpMessageNotReadableException("Could not read JSON: " + ex.getMessage(), ex);
 		}
 	}
 
+	/**
+	 * Return a cached {@link ObjectReader} for the given type and context class,
+	 * creating it via {@link #getJavaType} on first use.
+	 */
+	private ObjectReader getObjectReader(Type type, Class<?> contextClass) {
+		DeserializationConfig config = this.objectMapper.getDeserializationConfig();
+		if (config != this.objectReaderConfig) {
+			// ObjectMapper re-configured: previously created readers are stale
+			this.objectReaderCache.clear();
+			this.objectReaderConfig = config;
+		}
+		TypeCacheKey cacheKey = new TypeCacheKey(type, contextClass);
+		ObjectReader objectReader = this.objectReaderCache.get(cacheKey);
+		if (objectReader == null) {
+			objectReader = this.objectMapper.reader(getJavaType(type, contextClass));
+			this.objectReaderCache.put(cacheKey, objectReader);
+		}
+		return objectReader;
+	}
+
+	/**
+	 * Return a cached {@link ObjectWriter}, re-creating it if the configuration
+	 * of the {@code ObjectMapper} has changed.
+	 */
+	private ObjectWriter getObjectWriter() {
+		SerializationConfig config = this.objectMapper.getSerializationConfig();
+		ObjectWriter writer = this.objectWriter;
+		if (writer == null || config != this.objectWriterConfig) {
+			writer = this.objectMapper.writer();
+			this.objectWriter = writer;
+			this.objectWriterConfig = config;
+		}
+		return writer;
+	}
+
 
 	@Override
 	protected void writeInternal(Object object, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
 
 		JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders().getContentType());
-		JsonGenerator jsonGenerator =
-				this.objectMapper.getJsonFactory().createJsonGenerator(outputMessage.getBody(), encoding);
-
-		// A workaround for JsonGenerators not applying serialization features
-		// https://github.com/FasterXML/jackson-databind/issues/12
-		if (this.objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
-			jsonGenerator.useDefaultPrettyPrinter();
+		byte[] buffer = obtainBuffer();
+		FlushThresholdOutputStream bufferedBody = null;
+		OutputStream body;
+		if (buffer != null) {
+			bufferedBody = new FlushThresholdOutputStream(outputMessage, buffer);
+			body = bufferedBody;
+		}
+		else {
+			body = outputMessage.getBody();
 		}
 
 		try {
+			JsonGenerator jsonGenerator = this.objectMapper.getJsonFactory().createJsonGenerator(body, encoding);
+			// Closing the generator releases its internal buffers but must not close the response body
+			jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+			// A workaround for JsonGenerators not applying serialization features
+			// https://github.com/FasterXML/jackson-databind/issues/12
+			if (this.objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+				jsonGenerator.useDefaultPrettyPrinter();
+			}
+
 			if (this.jsonPrefix != null) {
 				jsonGenerator.writeRaw(this.jsonPrefix);
 			}
-			this.objectMapper.writeValue(jsonGenerator, object);
+			getObjectWriter().writeValue(jsonGenerator, object);
+			jsonGenerator.close();
+			if (bufferedBody != null) {
+				bufferedBody.finish();
+			}
 		}
 		catch (JsonProcessingException ex) {
 			throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getMessage(), ex);
 		}
+		finally {
+			releaseBuffer(buffer);
+		}
+	}
+
+	/**
+	 * Obtain a pooled buffer of the size of the flush threshold, or {@code null}
+	 * if writing straight through to the response body.
+	 */
+	private byte[] obtainBuffer() {
+		int size = this.flushThreshold;
+		if (size == 0) {
+			return null;
+		}
+		byte[] buffer = this.bufferPool.poll();
+		return (buffer != null && buffer.length == size ? buffer : new byte[size]);
+	}
+
+	private void releaseBuffer(byte[] buffer) {
+		if (buffer != null && buffer.length == this.flushThreshold) {
+			this.bufferPool.offer(buffer);
+		}
 	}
 
 	/**
@@ -252,4 +416,112 @@ public class MappingJackson2HttpMessageConverter extends AbstractHttpMessageConv
 		return JsonEncoding.UTF8;
 	}
 
+
+	/**
+	 * Cache key for a target type and its context class.
+	 */
+	private static class TypeCacheKey {
+
+		private final Type type;
+
+		private final Class<?> contextClass;
+
+		public TypeCacheKey(Type type, Class<?> contextClass) {
+			this.type = type;
+			this.contextClass = contextClass;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof TypeCacheKey)) {
+				return false;
+			}
+			TypeCacheKey otherKey = (TypeCacheKey) other;
+			return (this.type.equals(otherKey.type) &&
+					ObjectUtils.nullSafeEquals(this.contextClass, otherKey.contextClass));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.type.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.contextClass));
+		}
+	}
+
+
+	/**
+	 * OutputStream that collects output in the given buffer and only starts
+	 * writing to the body of the output message once the buffer is full.
+	 * Output that fits into the buffer is written by {@link #finish()},
+	 * together with a {@code Content-Length} header.
+	 */
+	private static class FlushThresholdOutputStream extends OutputStream {
+
+		private final HttpOutputMessage outputMessage;
+
+		private final byte[] buffer;
+
+		private int count;
+
+		private OutputStream body;
+
+		public FlushThresholdOutputStream(HttpOutputMessage outputMessage, byte[] buffer) {
+			this.outputMessage = outputMessage;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (this.body == null && this.count < this.buffer.length) {
+				this.buffer[this.count++] = (byte) b;
+			}
+			else {
+				getBody().write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (this.body == null && this.count + len <= this.buffer.length) {
+				System.arraycopy(b, off, this.buffer, this.count, len);
+				this.count += len;
+			}
+			else {
+				getBody().write(b, off, len);
+			}
+		}
+
+		private OutputStream getBody() throws IOException {
+			if (this.body == null) {
+				this.body = this.outputMessage.getBody();
+				this.body.write(this.buffer, 0, this.count);
+			}
+			return this.body;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// Only flush once streaming: buffered output is written by finish()
+			if (this.body != null) {
+				this.body.flush();
+			}
+		}
+
+		public void finish() throws IOException {
+			if (this.body == null) {
+				if (this.outputMessage.getHeaders().getContentLength() == -1) {
+					this.outputMessage.getHeaders().setContentLength(this.count);
+				}
+				getBody();
+			}
+		}
+
+		@Override
+		public void close() {
+			// Never close the body of the output message
+		}
+	}
+
 }
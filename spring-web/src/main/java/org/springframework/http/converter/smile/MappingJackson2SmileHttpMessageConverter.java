@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.smile;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Implementation of {@link HttpMessageConverter} that can read and write Smile data format
+ * ("binary JSON") using <a href="http://wiki.fasterxml.com/JacksonHome">Jackson 2's</a>
+ * {@link ObjectMapper} with a {@link SmileFactory}.
+ *
+ * <p>Smile is a compact, fast to parse encoding of the JSON data model, well suited for
+ * internal service-to-service traffic. This converter is not registered by default.
+ *
+ * <p>By default, this converter supports {@code application/x-jackson-smile}.
+ * This can be overridden by setting the {@link #setSupportedMediaTypes supportedMediaTypes} property.
+ *
+ * @since 3.2.19
+ */
+public class MappingJackson2SmileHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+	/**
+	 * Construct a new {@code MappingJackson2SmileHttpMessageConverter}
+	 * using a default {@code ObjectMapper} with a {@link SmileFactory}.
+	 */
+	public MappingJackson2SmileHttpMessageConverter() {
+		this(new ObjectMapper(new SmileFactory()));
+	}
+
+	/**
+	 * Construct a new {@code MappingJackson2SmileHttpMessageConverter} with a custom
+	 * {@code ObjectMapper}, which must be configured with a {@code SmileFactory} instance.
+	 * @param objectMapper the {@code ObjectMapper} to use
+	 */
+	public MappingJackson2SmileHttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper, new MediaType("application", "x-jackson-smile"));
+		assertSmileFactory(objectMapper);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The {@code ObjectMapper} must be configured with a {@code SmileFactory} instance.
+	 */
+	@Override
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		assertSmileFactory(objectMapper);
+		super.setObjectMapper(objectMapper);
+	}
+
+	/**
+	 * Not supported for the binary Smile format: a JSON prefix cannot be written
+	 * as raw content. Only accepts {@code null}, i.e. no prefix.
+	 * @throws IllegalArgumentException if a non-null prefix is given
+	 */
+	@Override
+	public void setJsonPrefix(String jsonPrefix) {
+		Assert.isNull(jsonPrefix, "JSON prefix not supported for Smile format");
+		super.setJsonPrefix(jsonPrefix);
+	}
+
+	/**
+	 * Not supported for the binary Smile format: a JSON prefix cannot be written
+	 * as raw content. Only accepts {@code false}, i.e. no prefix.
+	 * @throws IllegalArgumentException if {@code true} is given
+	 */
+	@Override
+	public void setPrefixJson(boolean prefixJson) {
+		Assert.isTrue(!prefixJson, "JSON prefix not supported for Smile format");
+		super.setPrefixJson(prefixJson);
+	}
+
+	private static void assertSmileFactory(ObjectMapper objectMapper) {
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		Assert.isInstanceOf(SmileFactory.class, objectMapper.getJsonFactory(), "SmileFactory required");
+	}
+
+}
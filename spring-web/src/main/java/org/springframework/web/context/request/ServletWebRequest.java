@@ -18,6 +18,7 @@ package org.springframework.web.context.request;
 
 import java.security.Principal;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
@@ -191,20 +192,44 @@ public class ServletWebRequest extends ServletRequestAttributes implements Nativ
 	public boolean checkNotModified(String etag) {
 		if (StringUtils.hasLength(etag) && !this.notModified &&
 				(this.response == null || !this.response.containsHeader(HEADER_ETAG))) {
-			String ifNoneMatch = getRequest().getHeader(HEADER_IF_NONE_MATCH);
-			this.notModified = etag.equals(ifNoneMatch);
+			this.notModified = isETagMatching(etag);
 			if (this.response != null) {
 				if (this.notModified && supportsNotModifiedStatus()) {
 					this.response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
 				}
-				else {
-					this.response.setHeader(HEADER_ETAG, etag);
-				}
+				// A 304 response is to carry the ETag as well, for cache revalidation
+				this.response.setHeader(HEADER_ETAG, etag);
 			}
 		}
 		return this.notModified;
 	}
 
+	/**
+	 * Check the given ETag against all "If-None-Match" values of the request,
+	 * which may be comma-separated lists including weak or wildcard ETags.
+	 */
+	private boolean isETagMatching(String etag) {
+		Enumeration<?> ifNoneMatchHeaders = getRequest().getHeaders(HEADER_IF_NONE_MATCH);
+		if (ifNoneMatchHeaders == null) {
+			return etag.equals(getRequest().getHeader(HEADER_IF_NONE_MATCH));
+		}
+		String strongETag = stripWeakPrefix(etag);
+		while (ifNoneMatchHeaders.hasMoreElements()) {
+			String ifNoneMatch = (String) ifNoneMatchHeaders.nextElement();
+			for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+				candidate = candidate.trim();
+				if ("*".equals(candidate) || strongETag.equals(stripWeakPrefix(candidate))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String stripWeakPrefix(String etag) {
+		return (etag.startsWith("W/") ? etag.substring(2) : etag);
+	}
+
 	private boolean supportsNotModifiedStatus() {
 		String method = getRequest().getMethod();
 		return (METHOD_GET.equals(method) || METHOD_HEAD.equals(method));
@@ -0,0 +1,878 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that compresses response bodies with gzip
+ * for clients that indicate support for it through the {@code Accept-Encoding}
+ * request header.
+ *
+ * <p>Only responses with a {@code 2xx} status, a content type contained in the
+ * {@link #setCompressibleContentTypes compressible content types} and a body of
+ * at least {@link #setMinCompressSize minCompressSize} bytes are compressed.
+ * Smaller bodies are collected and written with a {@code Content-Length} header.
+ * {@code Vary: Accept-Encoding} is added to all responses with a compressible
+ * content type, compressed or not, for the benefit of intermediate caches.
+ *
+ * <p>{@link Deflater} instances are pooled across requests, rather than
+ * allocated (with their native memory) for each response.
+ *
+ * <p>Optionally, compressed bodies of {@code GET} responses can be cached and
+ * reused for subsequent responses to the same URL with the same content type
+ * and strong {@code ETag}, e.g. as set by the handler or by a nested
+ * {@link ShallowEtagHeaderFilter}: see {@link #setCacheLimit}.
+ *
+ * <p>Flushing the response before the decision to compress has been made
+ * commits the response with the body collected so far, uncompressed. Flushing
+ * a compressed response writes all content so far to the client, on Java 7+.
+ *
+ * <p>If the filter chain throws an exception, the collected body is discarded
+ * and the response is left uncommitted for error handling.
+ *
+ * @since 3.2.19
+ */
+public class GzipCompressionFilter extends OncePerRequestFilter {
+
+	/** Default minimum number of bytes for a response body to be compressed: 1024 */
+	public static final int DEFAULT_MIN_COMPRESS_SIZE = 1024;
+
+	/** Default maximum size in bytes of a compressed body to be cached: 65536 */
+	public static final int DEFAULT_MAX_CACHED_BODY_SIZE = 64 * 1024;
+
+	private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+	private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+	private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+	private static final String HEADER_ETAG = "ETag";
+
+	private static final String HEADER_VARY = "Vary";
+
+	private static final String GZIP = "gzip";
+
+	private static final String X_GZIP = "x-gzip";
+
+	/** Whether Java 7's {@code Deflater.SYNC_FLUSH} mode is available */
+	private static final boolean syncFlushAvailable =
+			ClassUtils.hasMethod(Deflater.class, "deflate", byte[].class, int.class, int.class, int.class);
+
+	private static final List<MediaType> DEFAULT_COMPRESSIBLE_CONTENT_TYPES = Arrays.asList(
+			MediaType.valueOf("text/*"), MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,
+			MediaType.valueOf("application/*+json"), MediaType.valueOf("application/*+xml"),
+			MediaType.valueOf("application/javascript"));
+
+
+	private int minCompressSize = DEFAULT_MIN_COMPRESS_SIZE;
+
+	private volatile int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	private List<MediaType> compressibleContentTypes = DEFAULT_COMPRESSIBLE_CONTENT_TYPES;
+
+	private BlockingQueue<Deflater> deflaterPool = new ArrayBlockingQueue<Deflater>(32);
+
+	private volatile int cacheLimit = 0;
+
+	private int maxCachedBodySize = DEFAULT_MAX_CACHED_BODY_SIZE;
+
+	/** Cache of compressed bodies, in access order */
+	@SuppressWarnings("serial")
+	private final Map<String, byte[]> compressedBodyCache = new LinkedHashMap<String, byte[]>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+			return (size() > cacheLimit);
+		}
+	};
+
+
+	/**
+	 * Set the minimum number of bytes for a response body to be compressed.
+	 * Bodies of this size are collected before deciding whether to compress.
+	 * <p>Default is 1024.
+	 */
+	public void setMinCompressSize(int minCompressSize) {
+		Assert.isTrue(minCompressSize >= 0, "'minCompressSize' must not be negative");
+		this.minCompressSize = minCompressSize;
+	}
+
+	/**
+	 * Return the minimum number of bytes for a response body to be compressed.
+	 */
+	public int getMinCompressSize() {
+		return this.minCompressSize;
+	}
+
+	/**
+	 * Set the compression level (0-9) to use.
+	 * <p>Default is {@link Deflater#DEFAULT_COMPRESSION}.
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		Assert.isTrue(compressionLevel == Deflater.DEFAULT_COMPRESSION ||
+				(compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION),
+				"Invalid compression level: " + compressionLevel);
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Set the maximum number of idle {@link Deflater} instances to keep for reuse.
+	 * <p>Default is 32.
+	 */
+	public void setDeflaterPoolSize(int deflaterPoolSize) {
+		Assert.isTrue(deflaterPoolSize > 0, "'deflaterPoolSize' must be greater than 0");
+		releaseDeflaters();
+		this.deflaterPool = new ArrayBlockingQueue<Deflater>(deflaterPoolSize);
+	}
+
+	/**
+	 * Set the content types to compress. Wildcard types such as {@code text/*}
+	 * and {@code application/*+xml} are supported.
+	 * <p>Default is {@code text/*}, {@code application/json}, {@code application/xml},
+	 * {@code application/*+json}, {@code application/*+xml} and {@code application/javascript}.
+	 */
+	public void setCompressibleContentTypes(List<MediaType> compressibleContentTypes) {
+		Assert.notNull(compressibleContentTypes, "'compressibleContentTypes' must not be null");
+		this.compressibleContentTypes = new ArrayList<MediaType>(compressibleContentTypes);
+	}
+
+	/**
+	 * Return the content types to compress.
+	 */
+	public List<MediaType> getCompressibleContentTypes() {
+		return Collections.unmodifiableList(this.compressibleContentTypes);
+	}
+
+	/**
+	 * Specify the maximum number of compressed bodies to cache.
+	 * <p>Only {@code GET} responses with a strong {@code ETag} and without a
+	 * {@code no-store} or {@code private} cache directive are cached, keyed by
+	 * request URL, content type and {@code ETag}. On a cache hit, the body written
+	 * by the handler is discarded in favor of the cached compressed body.
+	 * <p>Default is 0, i.e. no caching.
+	 * @see #setMaxCachedBodySize
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+		synchronized (this.compressedBodyCache) {
+			this.compressedBodyCache.clear();
+		}
+	}
+
+	/**
+	 * Return the maximum number of compressed bodies to cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Set the maximum size in bytes of a compressed body to be cached.
+	 * <p>Default is 65536.
+	 */
+	public void setMaxCachedBodySize(int maxCachedBodySize) {
+		this.maxCachedBodySize = maxCachedBodySize;
+	}
+
+
+	/**
+	 * The default value is "false" so that the filter may complete the compressed
+	 * response in the last asynchronously dispatched thread.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		HttpServletResponse responseToUse = response;
+		if (!isAsyncDispatch(request)) {
+			responseToUse = new GzipResponseWrapper(request, response, isGzipAccepted(request));
+		}
+
+		boolean completed = false;
+		try {
+			filterChain.doFilter(request, responseToUse);
+			completed = true;
+		}
+		finally {
+			if (!isAsyncStarted(request)) {
+				GzipResponseWrapper responseWrapper =
+						WebUtils.getNativeResponse(responseToUse, GzipResponseWrapper.class);
+				if (responseWrapper != null) {
+					if (completed) {
+						responseWrapper.finish();
+					}
+					else {
+						responseWrapper.abort();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the client accepts gzip content encoding, according
+	 * to the {@code Accept-Encoding} header of the given request.
+	 * <p>An explicit {@code gzip} (or {@code x-gzip}) coding takes precedence
+	 * over a {@code *} coding; either is rejected with a quality value of 0.
+	 */
+	protected boolean isGzipAccepted(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HEADER_ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		double gzipQuality = -1;
+		double wildcardQuality = -1;
+		for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+			String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+			if (parts.length == 0) {
+				continue;
+			}
+			String name = parts[0];
+			if (GZIP.equalsIgnoreCase(name) || X_GZIP.equalsIgnoreCase(name)) {
+				gzipQuality = Math.max(gzipQuality, getQuality(parts));
+			}
+			else if ("*".equals(name)) {
+				wildcardQuality = Math.max(wildcardQuality, getQuality(parts));
+			}
+		}
+		return (gzipQuality != -1 ? gzipQuality > 0 : wildcardQuality > 0);
+	}
+
+	/**
+	 * Return the quality value among the given coding parameters,
+	 * or 1 if not specified (or not parseable).
+	 */
+	private static double getQuality(String[] codingParts) {
+		for (int i = 1; i < codingParts.length; i++) {
+			String param = codingParts[i];
+			int eqIndex = param.indexOf('=');
+			if (eqIndex != -1 && "q".equalsIgnoreCase(param.substring(0, eqIndex).trim())) {
+				try {
+					return Double.parseDouble(param.substring(eqIndex + 1).trim());
+				}
+				catch (NumberFormatException ex) {
+					return 1;
+				}
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Indicates whether a response with the given content type is to be compressed.
+	 * <p>The default implementation checks the configured
+	 * {@link #setCompressibleContentTypes compressible content types}.
+	 * @param contentType the content type of the response (may be {@code null})
+	 */
+	protected boolean isCompressibleContentType(String contentType) {
+		if (!StringUtils.hasLength(contentType)) {
+			return false;
+		}
+		MediaType mediaType;
+		try {
+			mediaType = MediaType.parseMediaType(contentType);
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+		for (MediaType compressibleType : this.compressibleContentTypes) {
+			if (compressibleType.includes(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the cache key for a compressed response body, or {@code null}
+	 * if the given response is not eligible for caching its compressed body.
+	 */
+	private String getCacheKey(HttpServletRequest request, String contentType, String etag, String cacheControl) {
+		if (this.cacheLimit <= 0 || !"GET".equals(request.getMethod())) {
+			return null;
+		}
+		if (!StringUtils.hasLength(etag) || etag.startsWith("W/")) {
+			return null;
+		}
+		if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+			return null;
+		}
+		StringBuilder cacheKey = new StringBuilder(request.getRequestURI());
+		if (request.getQueryString() != null) {
+			cacheKey.append('?').append(request.getQueryString());
+		}
+		return cacheKey.append(' ').append(contentType).append(' ').append(etag).toString();
+	}
+
+	private byte[] getCachedBody(String cacheKey) {
+		synchronized (this.compressedBodyCache) {
+			return this.compressedBodyCache.get(cacheKey);
+		}
+	}
+
+	private void cacheBody(String cacheKey, byte[] body) {
+		synchronized (this.compressedBodyCache) {
+			this.compressedBodyCache.put(cacheKey, body);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cached compressed body [" + cacheKey + "]");
+		}
+	}
+
+	private Deflater obtainDeflater() {
+		Deflater deflater = this.deflaterPool.poll();
+		if (deflater == null) {
+			return new Deflater(this.compressionLevel, true);
+		}
+		// A pooled Deflater may have been created before a change of compression level
+		deflater.setLevel(this.compressionLevel);
+		return deflater;
+	}
+
+	private void releaseDeflater(Deflater deflater) {
+		deflater.reset();
+		if (!this.deflaterPool.offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	private void releaseDeflaters() {
+		Deflater deflater;
+		while ((deflater = this.deflaterPool.poll()) != null) {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Releases the pooled {@link Deflater} instances.
+	 */
+	@Override
+	public void destroy() {
+		releaseDeflaters();
+	}
+
+
+	/**
+	 * {@link HttpServletResponse} wrapper that collects the first bytes of the body
+	 * and then either writes it through as-is or compresses it to the wrapped response.
+	 */
+	private class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		private final boolean gzipAccepted;
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream(256);
+
+		private final ServletOutputStream outputStream = new ResponseServletOutputStream();
+
+		private PrintWriter writer;
+
+		private int statusCode = HttpServletResponse.SC_OK;
+
+		private int contentLength = -1;
+
+		/** The ETag header value, tracked here since Servlet 2.5 has no getHeader method */
+		private String etag;
+
+		private String cacheControl;
+
+		/** The target stream once decided, or {@code null} while collecting the body */
+		private OutputStream targetStream;
+
+		private GzipOutputStream gzipStream;
+
+		private String cacheKey;
+
+		private boolean finished;
+
+		public GzipResponseWrapper(HttpServletRequest request, HttpServletResponse response, boolean gzipAccepted) {
+			super(response);
+			this.request = request;
+			this.gzipAccepted = gzipAccepted;
+		}
+
+		@Override
+		public void setStatus(int sc) {
+			super.setStatus(sc);
+			this.statusCode = sc;
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		public void setStatus(int sc, String sm) {
+			super.setStatus(sc, sm);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			this.content.reset();
+			this.targetStream = DiscardingOutputStream.INSTANCE;
+			super.sendError(sc);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			this.content.reset();
+			this.targetStream = DiscardingOutputStream.INSTANCE;
+			super.sendError(sc, msg);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			this.content.reset();
+			this.targetStream = DiscardingOutputStream.INSTANCE;
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (this.targetStream != null && this.gzipStream == null) {
+				super.setContentLength(len);
+			}
+			else {
+				this.contentLength = len;
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLength(Integer.parseInt(value));
+			}
+			else {
+				trackHeader(name, value);
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLength(Integer.parseInt(value));
+			}
+			else {
+				trackHeader(name, value);
+				super.addHeader(name, value);
+			}
+		}
+
+		private void trackHeader(String name, String value) {
+			if (HEADER_ETAG.equalsIgnoreCase(name)) {
+				this.etag = value;
+			}
+			else if (HEADER_CACHE_CONTROL.equalsIgnoreCase(name)) {
+				this.cacheControl = (this.cacheControl != null ? this.cacheControl + ", " + value : value);
+			}
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLength(value);
+			}
+			else {
+				super.setIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = (characterEncoding != null ? new ResponsePrintWriter(characterEncoding) :
+						new ResponsePrintWriter(WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			flushTargetStream();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			resetBuffer();
+			this.statusCode = HttpServletResponse.SC_OK;
+			this.contentLength = -1;
+			this.etag = null;
+			this.cacheControl = null;
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.content.reset();
+		}
+
+		/**
+		 * Return the stream to write the given number of bytes to: the content buffer
+		 * until the minimum size for compression has been exceeded, then the target stream.
+		 */
+		private OutputStream getTargetStream(int len) throws IOException {
+			if (this.targetStream == null) {
+				if (this.content.size() + len <= minCompressSize) {
+					return this.content;
+				}
+				initTargetStream(true);
+			}
+			return this.targetStream;
+		}
+
+		private void initTargetStream(boolean compressible) throws IOException {
+			HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+			boolean compressibleContentType = isCompressibleContentType(getContentType());
+			if (compressibleContentType) {
+				rawResponse.addHeader(HEADER_VARY, HEADER_ACCEPT_ENCODING);
+			}
+			if (compressible && compressibleContentType && this.gzipAccepted &&
+					this.statusCode >= 200 && this.statusCode < 300 &&
+					this.statusCode != HttpServletResponse.SC_NO_CONTENT &&
+					!rawResponse.containsHeader(HEADER_CONTENT_ENCODING)) {
+				rawResponse.setHeader(HEADER_CONTENT_ENCODING, GZIP);
+				this.cacheKey = getCacheKey(this.request, getContentType(), this.etag, this.cacheControl);
+				byte[] cachedBody = (this.cacheKey != null ? getCachedBody(this.cacheKey) : null);
+				if (cachedBody != null) {
+					rawResponse.setContentLength(cachedBody.length);
+					rawResponse.getOutputStream().write(cachedBody);
+					this.cacheKey = null;
+					this.targetStream = DiscardingOutputStream.INSTANCE;
+				}
+				else {
+					OutputStream out = rawResponse.getOutputStream();
+					if (this.cacheKey != null) {
+						out = new CachingOutputStream(out, maxCachedBodySize);
+					}
+					this.gzipStream = new GzipOutputStream(out, obtainDeflater());
+					this.targetStream = this.gzipStream;
+				}
+			}
+			else {
+				if (this.contentLength != -1) {
+					rawResponse.setContentLength(this.contentLength);
+				}
+				this.targetStream = rawResponse.getOutputStream();
+			}
+			this.content.writeTo(this.targetStream);
+			this.content.reset();
+		}
+
+		/**
+		 * Flush the target stream, deciding on it first if necessary: flushing
+		 * commits the response, so the body collected so far is written as-is.
+		 */
+		private void flushTargetStream() throws IOException {
+			if (this.targetStream == null) {
+				if (this.finished) {
+					// Flushing the writer while finishing: finish decides on its own
+					return;
+				}
+				initTargetStream(false);
+			}
+			this.targetStream.flush();
+		}
+
+		/**
+		 * Abandon the response after an exception in the filter chain: discard a
+		 * collected body, leaving the response uncommitted, and release the Deflater.
+		 */
+		public void abort() {
+			if (this.finished) {
+				return;
+			}
+			this.finished = true;
+			this.content.reset();
+			if (this.gzipStream != null) {
+				this.gzipStream.getDeflater().end();
+			}
+		}
+
+		/**
+		 * Complete the response: write a collected body as-is, or finish compression.
+		 */
+		public void finish() throws IOException {
+			if (this.finished) {
+				return;
+			}
+			this.finished = true;
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.targetStream == null) {
+				if (this.content.size() > 0) {
+					// Collected body below the minimum size for compression: set its actual length
+					this.contentLength = this.content.size();
+				}
+				initTargetStream(false);
+			}
+			if (this.gzipStream != null) {
+				try {
+					this.gzipStream.finish();
+				}
+				finally {
+					releaseDeflater(this.gzipStream.getDeflater());
+				}
+				if (this.cacheKey != null) {
+					CachingOutputStream cachingStream = (CachingOutputStream) this.gzipStream.getTarget();
+					byte[] compressedBody = cachingStream.getCachedContent();
+					if (compressedBody != null) {
+						cacheBody(this.cacheKey, compressedBody);
+					}
+				}
+			}
+		}
+
+
+		private class ResponseServletOutputStream extends ServletOutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				getTargetStream(1).write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				getTargetStream(len).write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				flushTargetStream();
+			}
+		}
+
+
+		private class ResponsePrintWriter extends PrintWriter {
+
+			public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
+				super(new OutputStreamWriter(outputStream, characterEncoding));
+			}
+		}
+	}
+
+
+	/**
+	 * OutputStream that writes gzip format, using the given (raw, "nowrap")
+	 * {@link Deflater} instead of allocating one like {@link java.util.zip.GZIPOutputStream}.
+	 */
+	private static class GzipOutputStream extends OutputStream {
+
+		private static final byte[] HEADER = new byte[] {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+		private final OutputStream target;
+
+		private final Deflater deflater;
+
+		private final CRC32 crc = new CRC32();
+
+		private final byte[] buffer = new byte[512];
+
+		private int size;
+
+		public GzipOutputStream(OutputStream target, Deflater deflater) throws IOException {
+			this.target = target;
+			this.deflater = deflater;
+			this.target.write(HEADER);
+		}
+
+		public OutputStream getTarget() {
+			return this.target;
+		}
+
+		public Deflater getDeflater() {
+			return this.deflater;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return;
+			}
+			this.crc.update(b, off, len);
+			this.size += len;
+			this.deflater.setInput(b, off, len);
+			while (!this.deflater.needsInput()) {
+				deflate();
+			}
+		}
+
+		/**
+		 * Write all content so far in a complete deflate block before flushing
+		 * the target stream, if the SYNC_FLUSH mode is available (Java 7+).
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (syncFlushAvailable && !this.deflater.finished()) {
+				int len;
+				while ((len = this.deflater.deflate(this.buffer, 0, this.buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+					this.target.write(this.buffer, 0, len);
+					if (len < this.buffer.length) {
+						break;
+					}
+				}
+			}
+			this.target.flush();
+		}
+
+		public void finish() throws IOException {
+			this.deflater.finish();
+			while (!this.deflater.finished()) {
+				deflate();
+			}
+			writeInt((int) this.crc.getValue());
+			writeInt(this.size);
+			this.target.flush();
+		}
+
+		private void deflate() throws IOException {
+			int len = this.deflater.deflate(this.buffer, 0, this.buffer.length);
+			if (len > 0) {
+				this.target.write(this.buffer, 0, len);
+			}
+		}
+
+		private void writeInt(int value) throws IOException {
+			this.target.write(value & 0xff);
+			this.target.write((value >> 8) & 0xff);
+			this.target.write((value >> 16) & 0xff);
+			this.target.write((value >> 24) & 0xff);
+		}
+	}
+
+
+	/**
+	 * OutputStream that keeps a copy of the content written through it,
+	 * up to the given maximum size.
+	 */
+	private static class CachingOutputStream extends OutputStream {
+
+		private final OutputStream target;
+
+		private final int maxSize;
+
+		private ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+
+		public CachingOutputStream(OutputStream target, int maxSize) {
+			this.target = target;
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.target.write(b);
+			if (this.content != null) {
+				this.content.write(b);
+				checkSize();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.target.write(b, off, len);
+			if (this.content != null) {
+				this.content.write(b, off, len);
+				checkSize();
+			}
+		}
+
+		private void checkSize() {
+			if (this.content.size() > this.maxSize) {
+				this.content = null;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.target.flush();
+		}
+
+		public byte[] getCachedContent() {
+			return (this.content != null ? this.content.toByteArray() : null);
+		}
+	}
+
+
+	/**
+	 * OutputStream that ignores all content, e.g. for a body replaced by a cached body.
+	 */
+	private static class DiscardingOutputStream extends OutputStream {
+
+		public static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+
+}
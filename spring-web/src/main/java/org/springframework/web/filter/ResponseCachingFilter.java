@@ -0,0 +1,781 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that keeps complete responses to {@code GET}
+ * requests in memory for a short time, serving subsequent requests for the same
+ * URL without invoking the rest of the filter chain, including the
+ * {@link org.springframework.web.servlet.DispatcherServlet DispatcherServlet}.
+ * This "micro-cache" is meant for endpoints that return the same payload to
+ * many clients, where even a cache duration of a second saves a lot of work.
+ *
+ * <p>Responses are cached by request URL and query string, plus the values of
+ * the request headers named in the {@code Vary} header of the response. They
+ * are cached for {@link #setCacheSeconds cacheSeconds} at most, or shorter if
+ * the response carries a {@code Cache-Control} header with a lower
+ * {@code s-maxage} or {@code max-age} value. Responses are not cached if they
+ * have a status other than {@code 200}, set cookies, are marked as
+ * {@code no-store}, {@code no-cache} or {@code private}, vary on {@code *},
+ * are processed asynchronously, or exceed {@link #setMaxBodySize maxBodySize}.
+ * Requests carrying a {@code Cookie} or {@code Authorization} header are not
+ * cached, unless {@link #setCacheRequestsWithCredentials} is turned on.
+ *
+ * <p>Concurrent requests for an uncached response are coalesced: one request
+ * is processed while the others wait for its response to become cached, up to
+ * the {@link #setCoalescingTimeout coalescing timeout}. Once a response turns
+ * out not to be cacheable, requests for the same key are no longer coalesced,
+ * until a response for it gets cached again.
+ *
+ * <p><b>NOTE:</b> Cached responses are shared between all clients. This filter
+ * must therefore be placed after any security filters, and only be mapped to
+ * URLs whose responses do not depend on the current user or session.
+ *
+ * @since 3.2.19
+ * @see ShallowEtagHeaderFilter
+ */
+public class ResponseCachingFilter extends OncePerRequestFilter {
+
+	/** Default maximum number of cached responses: 1024 */
+	public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+	private static final String HEADER_AUTHORIZATION = "Authorization";
+
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+	private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+	private static final String HEADER_COOKIE = "Cookie";
+
+	private static final String HEADER_SET_COOKIE = "Set-Cookie";
+
+	private static final String HEADER_VARY = "Vary";
+
+	private static final String[] NO_VARY_HEADERS = new String[0];
+
+
+	private int cacheSeconds = 1;
+
+	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+	private int maxBodySize = 1024 * 1024;
+
+	private long coalescingTimeout = 10000;
+
+	private boolean cacheRequestsWithCredentials = false;
+
+	/** Names of the request headers that responses vary on, by URL, in access order */
+	@SuppressWarnings("serial")
+	private final Map<String, String[]> varyHeaderCache = new LinkedHashMap<String, String[]>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+			return (size() > cacheLimit);
+		}
+	};
+
+	/** Cache keys whose last response was not cacheable, not to be coalesced, in access order */
+	@SuppressWarnings("serial")
+	private final Map<String, Boolean> uncacheableKeys = new LinkedHashMap<String, Boolean>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return (size() > cacheLimit);
+		}
+	};
+
+	private final ConcurrentMap<String, CachedResponse> responseCache = new ConcurrentHashMap<String, CachedResponse>(64);
+
+	/** Requests currently being processed for an uncached response, by cache key */
+	private final ConcurrentMap<String, CountDownLatch> pendingRequests = new ConcurrentHashMap<String, CountDownLatch>(16);
+
+	private final AtomicLong cacheHitCount = new AtomicLong();
+
+	private final AtomicLong cacheMissCount = new AtomicLong();
+
+
+	/**
+	 * Set the maximum number of seconds to cache a response for.
+	 * Responses with a lower {@code max-age} or {@code s-maxage} value
+	 * are cached for that number of seconds instead.
+	 * <p>Default is 1.
+	 */
+	public void setCacheSeconds(int cacheSeconds) {
+		Assert.isTrue(cacheSeconds > 0, "'cacheSeconds' must be greater than 0");
+		this.cacheSeconds = cacheSeconds;
+	}
+
+	/**
+	 * Return the maximum number of seconds to cache a response for.
+	 */
+	public int getCacheSeconds() {
+		return this.cacheSeconds;
+	}
+
+	/**
+	 * Specify the maximum number of responses to cache. This also limits the
+	 * number of URLs to keep the {@code Vary} header names of their responses for.
+	 * <p>Default is 1024.
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of responses to cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Set the maximum size in bytes of a response body to be cached.
+	 * <p>Default is 1 MB.
+	 */
+	public void setMaxBodySize(int maxBodySize) {
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Set the maximum number of milliseconds for a request to wait for a
+	 * concurrent request for the same URL to provide the cached response.
+	 * Once elapsed, the request is processed itself.
+	 * <p>Default is 10000.
+	 */
+	public void setCoalescingTimeout(long coalescingTimeout) {
+		this.coalescingTimeout = coalescingTimeout;
+	}
+
+	/**
+	 * Set whether to cache responses to requests that carry a {@code Cookie}
+	 * or {@code Authorization} header. Only to be turned on if such responses
+	 * do not depend on the credentials, since cached responses are shared
+	 * between all clients.
+	 * <p>Default is "false".
+	 */
+	public void setCacheRequestsWithCredentials(boolean cacheRequestsWithCredentials) {
+		this.cacheRequestsWithCredentials = cacheRequestsWithCredentials;
+	}
+
+	/**
+	 * Return the number of requests that have been served from the cache.
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of cacheable requests that could not be served from the cache.
+	 */
+	public long getCacheMissCount() {
+		return this.cacheMissCount.get();
+	}
+
+	/**
+	 * Remove all cached responses.
+	 */
+	public void clearCache() {
+		this.responseCache.clear();
+		synchronized (this.varyHeaderCache) {
+			this.varyHeaderCache.clear();
+		}
+		synchronized (this.uncacheableKeys) {
+			this.uncacheableKeys.clear();
+		}
+	}
+
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		if (!isCacheableRequest(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String url = getUrl(request);
+		String cacheKey = getCacheKey(url, request);
+		if (serveFromCache(cacheKey, response)) {
+			return;
+		}
+
+		// Coalesce concurrent misses: only the first request for a key proceeds immediately
+		CountDownLatch pending = null;
+		if (!isUncacheableKey(cacheKey)) {
+			pending = new CountDownLatch(1);
+			CountDownLatch existing = this.pendingRequests.putIfAbsent(cacheKey, pending);
+			if (existing != null) {
+				try {
+					existing.await(this.coalescingTimeout, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				// The response may vary on request headers that only became known just now
+				cacheKey = getCacheKey(url, request);
+				if (serveFromCache(cacheKey, response)) {
+					return;
+				}
+				pending = null;
+			}
+		}
+
+		this.cacheMissCount.incrementAndGet();
+		CachingResponseWrapper responseWrapper = new CachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(request, responseWrapper);
+			boolean cached = false;
+			if (isAsyncStarted(request)) {
+				// Not cacheable: the response body is to be written by another thread
+				responseWrapper.startPassThrough();
+			}
+			else {
+				responseWrapper.copyBodyToResponse();
+				cached = cacheResponse(url, request, responseWrapper);
+			}
+			// Before releasing waiting requests, so that later ones do not wait in vain
+			setUncacheableKey(cacheKey, !cached);
+		}
+		finally {
+			if (pending != null) {
+				this.pendingRequests.remove(cacheKey, pending);
+				pending.countDown();
+			}
+		}
+	}
+
+	/**
+	 * Indicates whether the response to the given request may be cached.
+	 * <p>The default implementation accepts {@code GET} requests, unless they
+	 * carry a {@code Cookie} or {@code Authorization} header and
+	 * {@link #setCacheRequestsWithCredentials} has not been turned on.
+	 * @param request the HTTP request
+	 */
+	protected boolean isCacheableRequest(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod())) {
+			return false;
+		}
+		return (this.cacheRequestsWithCredentials ||
+				(request.getHeader(HEADER_AUTHORIZATION) == null && request.getHeader(HEADER_COOKIE) == null));
+	}
+
+	private String getUrl(HttpServletRequest request) {
+		String queryString = request.getQueryString();
+		return (queryString != null ? request.getRequestURI() + "?" + queryString : request.getRequestURI());
+	}
+
+	private String getCacheKey(String url, HttpServletRequest request) {
+		String[] varyHeaders;
+		synchronized (this.varyHeaderCache) {
+			varyHeaders = this.varyHeaderCache.get(url);
+		}
+		if (varyHeaders == null) {
+			return url;
+		}
+		StringBuilder cacheKey = new StringBuilder(url);
+		for (String headerName : varyHeaders) {
+			cacheKey.append('\n').append(headerName).append(':');
+			Enumeration<?> headerValues = request.getHeaders(headerName);
+			while (headerValues != null && headerValues.hasMoreElements()) {
+				cacheKey.append(headerValues.nextElement()).append(',');
+			}
+		}
+		return cacheKey.toString();
+	}
+
+	private boolean serveFromCache(String cacheKey, HttpServletResponse response) throws IOException {
+		CachedResponse cachedResponse = this.responseCache.get(cacheKey);
+		if (cachedResponse == null) {
+			return false;
+		}
+		if (cachedResponse.isExpired()) {
+			this.responseCache.remove(cacheKey, cachedResponse);
+			return false;
+		}
+		this.cacheHitCount.incrementAndGet();
+		if (logger.isTraceEnabled()) {
+			logger.trace("Serving cached response for [" + cacheKey + "]");
+		}
+		cachedResponse.writeTo(response);
+		return true;
+	}
+
+	private boolean isUncacheableKey(String cacheKey) {
+		synchronized (this.uncacheableKeys) {
+			return this.uncacheableKeys.containsKey(cacheKey);
+		}
+	}
+
+	private void setUncacheableKey(String cacheKey, boolean uncacheable) {
+		synchronized (this.uncacheableKeys) {
+			if (uncacheable) {
+				this.uncacheableKeys.put(cacheKey, Boolean.TRUE);
+			}
+			else {
+				this.uncacheableKeys.remove(cacheKey);
+			}
+		}
+	}
+
+	/**
+	 * Cache the given response, if eligible.
+	 * @return whether the response has been cached
+	 */
+	private boolean cacheResponse(String url, HttpServletRequest request, CachingResponseWrapper responseWrapper) {
+		int seconds = getCacheSeconds(responseWrapper);
+		if (seconds <= 0) {
+			return false;
+		}
+		String[] varyHeaders = responseWrapper.getVaryHeaders();
+		if (varyHeaders == null) {
+			return false;
+		}
+		synchronized (this.varyHeaderCache) {
+			if (varyHeaders.length > 0) {
+				this.varyHeaderCache.put(url, varyHeaders);
+			}
+			else {
+				this.varyHeaderCache.remove(url);
+			}
+		}
+		String cacheKey = getCacheKey(url, request);
+		if (this.responseCache.size() >= this.cacheLimit) {
+			removeExpiredResponses();
+			if (this.responseCache.size() >= this.cacheLimit) {
+				// Many distinct URLs within the cache duration: start over
+				this.responseCache.clear();
+			}
+		}
+		this.responseCache.put(cacheKey, new CachedResponse(responseWrapper, seconds));
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cached response for [" + cacheKey + "] for " + seconds + " seconds");
+		}
+		return true;
+	}
+
+	/**
+	 * Determine the number of seconds to cache the given response for,
+	 * or 0 if the response is not to be cached.
+	 */
+	private int getCacheSeconds(CachingResponseWrapper responseWrapper) {
+		if (responseWrapper.getStatusCode() != HttpServletResponse.SC_OK || responseWrapper.hasCookies() ||
+				responseWrapper.getContentSize() > this.maxBodySize) {
+			return 0;
+		}
+		int seconds = this.cacheSeconds;
+		int maxAge = -1;
+		for (String header : responseWrapper.getHeaderValues(HEADER_CACHE_CONTROL)) {
+			for (String directive : StringUtils.tokenizeToStringArray(header, ",")) {
+				String name = directive.toLowerCase();
+				if (name.equals("no-store") || name.equals("no-cache") || name.startsWith("private")) {
+					return 0;
+				}
+				else if (name.startsWith("s-maxage=")) {
+					maxAge = parseSeconds(name.substring(9));
+				}
+				else if (name.startsWith("max-age=") && maxAge == -1) {
+					maxAge = parseSeconds(name.substring(8));
+				}
+			}
+		}
+		return (maxAge != -1 ? Math.min(maxAge, seconds) : seconds);
+	}
+
+	private static int parseSeconds(String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	private void removeExpiredResponses() {
+		for (Iterator<CachedResponse> it = this.responseCache.values().iterator(); it.hasNext();) {
+			if (it.next().isExpired()) {
+				it.remove();
+			}
+		}
+	}
+
+
+	/**
+	 * A cached response: status, headers and body, plus its expiration time.
+	 */
+	private static class CachedResponse {
+
+		private final List<Header> headers;
+
+		private final String contentType;
+
+		private final byte[] body;
+
+		private final long expirationTime;
+
+		public CachedResponse(CachingResponseWrapper responseWrapper, int seconds) {
+			this.headers = responseWrapper.getHeaders();
+			this.contentType = responseWrapper.getContentType();
+			this.body = responseWrapper.toByteArray();
+			this.expirationTime = System.currentTimeMillis() + seconds * 1000L;
+		}
+
+		public boolean isExpired() {
+			return (System.currentTimeMillis() > this.expirationTime);
+		}
+
+		public void writeTo(HttpServletResponse response) throws IOException {
+			response.setStatus(HttpServletResponse.SC_OK);
+			for (Header header : this.headers) {
+				header.addTo(response);
+			}
+			if (this.contentType != null) {
+				response.setContentType(this.contentType);
+			}
+			response.setContentLength(this.body.length);
+			if (this.body.length > 0) {
+				response.getOutputStream().write(this.body);
+			}
+		}
+	}
+
+
+	/**
+	 * A response header, either with a String value or a date value.
+	 */
+	private static class Header {
+
+		private final String name;
+
+		private final String value;
+
+		private final long date;
+
+		public Header(String name, String value, long date) {
+			this.name = name;
+			this.value = value;
+			this.date = date;
+		}
+
+		public void addTo(HttpServletResponse response) {
+			if (this.value != null) {
+				response.addHeader(this.name, this.value);
+			}
+			else {
+				response.addDateHeader(this.name, this.date);
+			}
+		}
+	}
+
+
+	/**
+	 * {@link HttpServletResponse} wrapper that records the headers and buffers the
+	 * body written, for both to be cached. Servlet 2.5 does not allow for reading
+	 * response headers, so they are tracked as they are being set.
+	 */
+	private static class CachingResponseWrapper extends HttpServletResponseWrapper {
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+
+		private final ServletOutputStream outputStream = new ResponseServletOutputStream();
+
+		private final List<Header> headers = new ArrayList<Header>();
+
+		private PrintWriter writer;
+
+		private int statusCode = HttpServletResponse.SC_OK;
+
+		private boolean cookies;
+
+		private OutputStream passThroughStream;
+
+		public CachingResponseWrapper(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public void setStatus(int sc) {
+			super.setStatus(sc);
+			this.statusCode = sc;
+		}
+
+		@SuppressWarnings("deprecation")
+		@Override
+		public void setStatus(int sc, String sm) {
+			super.setStatus(sc, sm);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			super.sendError(sc);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			super.sendError(sc, msg);
+			this.statusCode = sc;
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			super.sendRedirect(location);
+			this.statusCode = HttpServletResponse.SC_MOVED_TEMPORARILY;
+		}
+
+		@Override
+		public void addCookie(Cookie cookie) {
+			super.addCookie(cookie);
+			this.cookies = true;
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				return;
+			}
+			super.setHeader(name, value);
+			removeHeader(name);
+			addHeaderValue(name, value);
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				return;
+			}
+			super.addHeader(name, value);
+			addHeaderValue(name, value);
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			setHeader(name, String.valueOf(value));
+		}
+
+		@Override
+		public void addIntHeader(String name, int value) {
+			addHeader(name, String.valueOf(value));
+		}
+
+		@Override
+		public void setDateHeader(String name, long date) {
+			super.setDateHeader(name, date);
+			removeHeader(name);
+			this.headers.add(new Header(name, null, date));
+		}
+
+		@Override
+		public void addDateHeader(String name, long date) {
+			super.addDateHeader(name, date);
+			this.headers.add(new Header(name, null, date));
+		}
+
+		private void addHeaderValue(String name, String value) {
+			if (HEADER_SET_COOKIE.equalsIgnoreCase(name)) {
+				this.cookies = true;
+			}
+			this.headers.add(new Header(name, value, -1));
+		}
+
+		private void removeHeader(String name) {
+			for (Iterator<Header> it = this.headers.iterator(); it.hasNext();) {
+				if (it.next().name.equalsIgnoreCase(name)) {
+					it.remove();
+				}
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (this.passThroughStream != null) {
+				super.setContentLength(len);
+			}
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = (characterEncoding != null ? new ResponsePrintWriter(characterEncoding) :
+						new ResponsePrintWriter(WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.passThroughStream != null) {
+				super.flushBuffer();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.content.reset();
+			this.headers.clear();
+			this.statusCode = HttpServletResponse.SC_OK;
+			this.cookies = false;
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.content.reset();
+		}
+
+		public int getStatusCode() {
+			return this.statusCode;
+		}
+
+		public boolean hasCookies() {
+			return this.cookies;
+		}
+
+		public List<Header> getHeaders() {
+			return new ArrayList<Header>(this.headers);
+		}
+
+		public List<String> getHeaderValues(String name) {
+			List<String> values = new ArrayList<String>(1);
+			for (Header header : this.headers) {
+				if (header.name.equalsIgnoreCase(name) && header.value != null) {
+					values.add(header.value);
+				}
+			}
+			return values;
+		}
+
+		/**
+		 * Return the (lower-case) names of the request headers the response varies on,
+		 * or {@code null} if it varies on "*".
+		 */
+		public String[] getVaryHeaders() {
+			List<String> varyHeaders = null;
+			for (String header : getHeaderValues(HEADER_VARY)) {
+				for (String headerName : StringUtils.tokenizeToStringArray(header, ",")) {
+					if ("*".equals(headerName)) {
+						return null;
+					}
+					if (varyHeaders == null) {
+						varyHeaders = new ArrayList<String>(2);
+					}
+					varyHeaders.add(headerName.toLowerCase());
+				}
+			}
+			return (varyHeaders != null ? StringUtils.toStringArray(varyHeaders) : NO_VARY_HEADERS);
+		}
+
+		public int getContentSize() {
+			return this.content.size();
+		}
+
+		public byte[] toByteArray() {
+			return this.content.toByteArray();
+		}
+
+		public void copyBodyToResponse() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.content.size() > 0) {
+				getResponse().setContentLength(this.content.size());
+				this.content.writeTo(getResponse().getOutputStream());
+			}
+		}
+
+		/**
+		 * Write the content buffered so far, then write through to the wrapped response.
+		 */
+		public void startPassThrough() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			this.passThroughStream = getResponse().getOutputStream();
+			this.content.writeTo(this.passThroughStream);
+			this.content.reset();
+		}
+
+		private OutputStream getTargetStream() {
+			return (this.passThroughStream != null ? this.passThroughStream : this.content);
+		}
+
+
+		private class ResponseServletOutputStream extends ServletOutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				getTargetStream().write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				getTargetStream().write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (passThroughStream != null) {
+					passThroughStream.flush();
+				}
+			}
+		}
+
+
+		private class ResponsePrintWriter extends PrintWriter {
+
+			public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
+				super(new OutputStreamWriter(outputStream, characterEncoding));
+			}
+		}
+	}
+
+}
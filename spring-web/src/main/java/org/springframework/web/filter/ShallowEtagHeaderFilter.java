@@ -18,6 +18,7 @@ package org.springframework.web.filter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
@@ -42,6 +43,14 @@ import org.springframework.web.util.WebUtils;
  * <p>Since the ETag is based on the response content, the response
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
+ * Handlers that can determine a "deep" ETag cheaply, e.g. from a version
+ * number, should call {@link org.springframework.web.context.request.WebRequest#checkNotModified(String)}
+ * before producing the response body instead: responses that carry an
+ * {@code ETag} header already are passed through as-is by this filter.
+ *
+ * <p>The entire response body is buffered by default. For potentially large
+ * responses, consider setting a {@link #setStreamingThreshold streaming threshold}:
+ * responses that exceed it are written through to the client without an ETag.
  *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
@@ -54,6 +63,32 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
 
 
+	private int streamingThreshold = -1;
+
+
+	/**
+	 * Set the maximum number of bytes to buffer for ETag generation. Once a
+	 * response body exceeds this threshold, the content buffered so far is
+	 * written to the response and the remainder is streamed through, without
+	 * an ETag; this avoids holding large responses in memory and lets the
+	 * client receive the first bytes before the handler has completed.
+	 * <p>Default is -1, buffering the entire response body.
+	 * @since 3.2.19
+	 */
+	public void setStreamingThreshold(int streamingThreshold) {
+		this.streamingThreshold = streamingThreshold;
+	}
+
+	/**
+	 * Return the maximum number of bytes to buffer for ETag generation,
+	 * or -1 if the entire response body is buffered.
+	 * @since 3.2.19
+	 */
+	public int getStreamingThreshold() {
+		return this.streamingThreshold;
+	}
+
+
 	/**
 	 * The default value is "false" so that the filter may delay the generation of
 	 * an ETag until the last asynchronously dispatched thread.
@@ -69,7 +104,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request)) {
-			responseToUse = new ShallowEtagResponseWrapper(response);
+			responseToUse = new ShallowEtagResponseWrapper(response, this.streamingThreshold);
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -85,6 +120,12 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		Assert.notNull(responseWrapper, "ShallowEtagResponseWrapper not found");
 
 		HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
+		if (responseWrapper.isStreaming()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Response exceeded streaming threshold, not eligible for ETag");
+			}
+			return;
+		}
 		int statusCode = responseWrapper.getStatusCode();
 		byte[] body = responseWrapper.toByteArray();
 
@@ -123,7 +164,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	/**
 	 * Indicates whether the given request and response are eligible for ETag generation.
-	 * <p>The default implementation returns {@code true} for response status codes in the {@code 2xx} series.
+	 * <p>The default implementation returns {@code true} for response status codes in the {@code 2xx} series,
+	 * unless the response carries an {@code ETag} header already (e.g. a deep ETag set by the handler).
 	 * @param request the HTTP request
 	 * @param response the HTTP response
 	 * @param responseStatusCode the HTTP response status code
@@ -133,7 +175,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	protected boolean isEligibleForEtag(HttpServletRequest request, HttpServletResponse response,
 			int responseStatusCode, byte[] responseBody) {
 
-		return (responseStatusCode >= 200 && responseStatusCode < 300);
+		return (responseStatusCode >= 200 && responseStatusCode < 300 && !response.containsHeader(HEADER_ETAG));
 	}
 
 	/**
@@ -155,6 +197,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 	 * {@link HttpServletRequest} wrapper that buffers all content written to the
 	 * {@linkplain #getOutputStream() output stream} and {@linkplain #getWriter() writer},
 	 * and allows this content to be retrieved via a {@link #toByteArray() byte array}.
+	 * Switches to writing through to the wrapped response once the content exceeds
+	 * the streaming threshold, if any.
 	 */
 	private static class ShallowEtagResponseWrapper extends HttpServletResponseWrapper {
 
@@ -162,12 +206,19 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		private final ServletOutputStream outputStream = new ResponseServletOutputStream();
 
+		private final int streamingThreshold;
+
 		private PrintWriter writer;
 
 		private int statusCode = HttpServletResponse.SC_OK;
 
-		public ShallowEtagResponseWrapper(HttpServletResponse response) {
+		private int contentLength = -1;
+
+		private ServletOutputStream streamingOutputStream;
+
+		public ShallowEtagResponseWrapper(HttpServletResponse response, int streamingThreshold) {
 			super(response);
+			this.streamingThreshold = streamingThreshold;
 		}
 
 		@Override
@@ -197,6 +248,12 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		@Override
 		public void setContentLength(int len) {
+			if (this.streamingOutputStream != null) {
+				super.setContentLength(len);
+			}
+			else {
+				this.contentLength = len;
+			}
 		}
 
 		@Override
@@ -222,6 +279,9 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		@Override
 		public void resetBuffer() {
+			if (this.streamingOutputStream != null) {
+				super.resetBuffer();
+			}
 			this.content.reset();
 		}
 
@@ -229,21 +289,68 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			return this.statusCode;
 		}
 
+		public boolean isStreaming() {
+			return (this.streamingOutputStream != null);
+		}
+
 		public byte[] toByteArray() {
 			return this.content.toByteArray();
 		}
 
+		/**
+		 * Return the stream to write the given number of bytes to: the content buffer,
+		 * or the wrapped response once the streaming threshold has been exceeded.
+		 */
+		private OutputStream getTargetStream(int len) throws IOException {
+			if (this.streamingOutputStream == null) {
+				if (this.streamingThreshold < 0 || this.content.size() + len <= this.streamingThreshold) {
+					return this.content;
+				}
+				if (this.contentLength != -1) {
+					super.setContentLength(this.contentLength);
+				}
+				this.streamingOutputStream = getResponse().getOutputStream();
+				this.content.writeTo(this.streamingOutputStream);
+				this.content.reset();
+			}
+			return this.streamingOutputStream;
+		}
+
 
 		private class ResponseServletOutputStream extends ServletOutputStream {
 
 			@Override
 			public void write(int b) throws IOException {
-				content.write(b);
+				getTargetStream(1).write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				getTargetStream(len).write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (streamingOutputStream != null) {
+					streamingOutputStream.flush();
+				}
+			}
+		}
+
+
+		/**
+		 * Target for the writer: flushed after every write, so not propagating flush calls.
+		 */
+		private class WriterOutputStream extends OutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				getTargetStream(1).write(b);
 			}
 
 			@Override
 			public void write(byte[] b, int off, int len) throws IOException {
-				content.write(b, off, len);
+				getTargetStream(len).write(b, off, len);
 			}
 		}
 
@@ -251,7 +358,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		private class ResponsePrintWriter extends PrintWriter {
 
 			public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
-				super(new OutputStreamWriter(content, characterEncoding));
+				super(new OutputStreamWriter(new WriterOutputStream(), characterEncoding));
 			}
 
 			@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,11 +19,14 @@ package org.springframework.web.method.support;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.core.MethodParameter;
 import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
 import org.springframework.web.context.request.NativeWebRequest;
 
 /**
@@ -40,6 +43,10 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 	private final List<HandlerMethodReturnValueHandler> returnValueHandlers =
 		new ArrayList<HandlerMethodReturnValueHandler>();
 
+	private final Map<ReturnTypeCacheKey, HandlerMethodReturnValueHandler> returnValueHandlerCache =
+			new ConcurrentHashMap<ReturnTypeCacheKey, HandlerMethodReturnValueHandler>(256);
+
+
 	/**
 	 * Return a read-only list with the registered handlers, or an empty list.
 	 */
@@ -73,23 +80,30 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 	 * Find a registered {@link HandlerMethodReturnValueHandler} that supports the given return type.
 	 */
 	private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
-		for (HandlerMethodReturnValueHandler returnValueHandler : returnValueHandlers) {
-			if (logger.isTraceEnabled()) {
-				logger.trace("Testing if return value handler [" + returnValueHandler + "] supports [" +
-						returnType.getGenericParameterType() + "]");
-			}
-			if (returnValueHandler.supportsReturnType(returnType)) {
-				return returnValueHandler;
+		ReturnTypeCacheKey cacheKey = new ReturnTypeCacheKey(returnType);
+		HandlerMethodReturnValueHandler result = this.returnValueHandlerCache.get(cacheKey);
+		if (result == null) {
+			for (HandlerMethodReturnValueHandler returnValueHandler : this.returnValueHandlers) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Testing if return value handler [" + returnValueHandler + "] supports [" +
+							returnType.getGenericParameterType() + "]");
+				}
+				if (returnValueHandler.supportsReturnType(returnType)) {
+					result = returnValueHandler;
+					this.returnValueHandlerCache.put(cacheKey, result);
+					break;
+				}
 			}
 		}
-		return null;
+		return result;
 	}
 
 	/**
 	 * Add the given {@link HandlerMethodReturnValueHandler}.
 	 */
 	public HandlerMethodReturnValueHandlerComposite addHandler(HandlerMethodReturnValueHandler returnValuehandler) {
-		returnValueHandlers.add(returnValuehandler);
+		this.returnValueHandlers.add(returnValuehandler);
+		this.returnValueHandlerCache.clear();
 		return this;
 	}
 
@@ -102,8 +116,49 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 			for (HandlerMethodReturnValueHandler handler : returnValueHandlers) {
 				this.returnValueHandlers.add(handler);
 			}
+			this.returnValueHandlerCache.clear();
 		}
 		return this;
 	}
 
+
+	/**
+	 * Cache key for a return type. The return value based parameter type is
+	 * part of the key since the same method may return values of different
+	 * types, each possibly handled by a different handler.
+	 * <p>Note that {@link MethodParameter} equality is based on the underlying
+	 * method and parameter index only, not on the {@code HandlerMethod} that the
+	 * return type has been obtained from. Handler methods which share the same
+	 * underlying method but expose different annotations need separate composites.
+	 */
+	private static class ReturnTypeCacheKey {
+
+		private final MethodParameter returnType;
+
+		private final Class<?> parameterType;
+
+		public ReturnTypeCacheKey(MethodParameter returnType) {
+			this.returnType = returnType;
+			this.parameterType = returnType.getParameterType();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ReturnTypeCacheKey)) {
+				return false;
+			}
+			ReturnTypeCacheKey otherKey = (ReturnTypeCacheKey) other;
+			return (this.returnType.equals(otherKey.returnType) &&
+					ObjectUtils.nullSafeEquals(this.parameterType, otherKey.parameterType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.returnType.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.parameterType));
+		}
+	}
+
 }
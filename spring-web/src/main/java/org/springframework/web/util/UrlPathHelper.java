@@ -29,6 +29,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -54,6 +55,12 @@ public class UrlPathHelper {
 	 */
 	private static final String WEBSPHERE_URI_ATTRIBUTE = "com.ibm.websphere.servlet.uri_non_decoded";
 
+	/**
+	 * Name of the request attribute that holds the lookup path computed
+	 * for the current request, along with the state it was computed from.
+	 */
+	private static final String LOOKUP_PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".LOOKUP_PATH";
+
 	private static final Log logger = LogFactory.getLog(UrlPathHelper.class);
 
 	static volatile Boolean websphereComplianceFlag;
@@ -146,6 +153,19 @@ public class UrlPathHelper {
 	 * @see #getPathWithinServletMapping
 	 */
 	public String getLookupPathForRequest(HttpServletRequest request) {
+		// Typically called several times per request, by handler mappings,
+		// request conditions and interceptor matching: compute it only once.
+		LookupPath cached = (LookupPath) request.getAttribute(LOOKUP_PATH_ATTRIBUTE);
+		LookupPath current = new LookupPath(this, request);
+		if (current.isSameRequestState(cached)) {
+			return cached.lookupPath;
+		}
+		current.lookupPath = resolveLookupPath(request);
+		request.setAttribute(LOOKUP_PATH_ATTRIBUTE, current);
+		return current.lookupPath;
+	}
+
+	private String resolveLookupPath(HttpServletRequest request) {
 		// Always use full path within current servlet context?
 		if (this.alwaysUseFullPath) {
 			return getPathWithinApplication(request);
@@ -557,4 +577,61 @@ public class UrlPathHelper {
 		return !websphereComplianceFlag;
 	}
 
+
+
+	/**
+	 * Lookup path computed for a request, together with the request state and
+	 * helper configuration it was computed from: a change of either (e.g. for a
+	 * forward or include, or a differently configured helper) invalidates it.
+	 */
+	private static class LookupPath {
+
+		private final Class<?> helperClass;
+
+		private final boolean alwaysUseFullPath;
+
+		private final boolean urlDecode;
+
+		private final boolean removeSemicolonContent;
+
+		private final String defaultEncoding;
+
+		private final String requestUri;
+
+		private final String contextPath;
+
+		private final String servletPath;
+
+		private final String characterEncoding;
+
+		private String lookupPath;
+
+		public LookupPath(UrlPathHelper helper, HttpServletRequest request) {
+			this.helperClass = helper.getClass();
+			this.alwaysUseFullPath = helper.alwaysUseFullPath;
+			this.urlDecode = helper.urlDecode;
+			this.removeSemicolonContent = helper.removeSemicolonContent;
+			this.defaultEncoding = helper.defaultEncoding;
+			String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+			this.requestUri = (requestUri != null ? requestUri : request.getRequestURI());
+			String contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+			this.contextPath = (contextPath != null ? contextPath : request.getContextPath());
+			String servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+			this.servletPath = (servletPath != null ? servletPath : request.getServletPath());
+			this.characterEncoding = request.getCharacterEncoding();
+		}
+
+		public boolean isSameRequestState(LookupPath other) {
+			return (other != null && this.helperClass == other.helperClass &&
+					this.alwaysUseFullPath == other.alwaysUseFullPath &&
+					this.urlDecode == other.urlDecode &&
+					this.removeSemicolonContent == other.removeSemicolonContent &&
+					ObjectUtils.nullSafeEquals(this.defaultEncoding, other.defaultEncoding) &&
+					ObjectUtils.nullSafeEquals(this.requestUri, other.requestUri) &&
+					ObjectUtils.nullSafeEquals(this.contextPath, other.contextPath) &&
+					ObjectUtils.nullSafeEquals(this.servletPath, other.servletPath) &&
+					ObjectUtils.nullSafeEquals(this.characterEncoding, other.characterEncoding));
+		}
+	}
+
 }
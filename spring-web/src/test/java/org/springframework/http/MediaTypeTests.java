@@ -122,6 +122,13 @@ public class MediaTypeTests {
 		assertEquals("Invalid quality factor", 0.2D, mediaType.getQualityValue(), 0D);
 	}
 
+	@Test
+	public void parseMediaTypeCached() throws Exception {
+		MediaType mediaType = MediaType.parseMediaType("text/html; charset=UTF-8");
+		assertSame(mediaType, MediaType.parseMediaType("text/html; charset=UTF-8"));
+		assertEquals(mediaType, MediaType.parseMediaTypes("text/plain, text/html; charset=UTF-8").get(1));
+	}
+
 	@Test(expected = InvalidMediaTypeException.class)
 	public void parseMediaTypeNoSubtype() {
 		MediaType.parseMediaType("audio");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,8 +28,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.MockHttpInputMessage;
 import org.springframework.http.MockHttpOutputMessage;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import static org.junit.Assert.*;
 
@@ -131,6 +137,77 @@ public class MappingJackson2HttpMessageConverterTests extends AbstractMappingJac
 		assertEquals(")]}',\"foo\"", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
 	}
 
+	@Test
+	public void writeSetsContentLengthBelowFlushThreshold() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		getConverter().write("foo", null, outputMessage);
+
+		assertEquals("\"foo\"", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+		assertEquals(5, outputMessage.getHeaders().getContentLength());
+	}
+
+	@Test
+	public void writeStreamsAboveFlushThreshold() throws Exception {
+		getConverter().setFlushThreshold(16);
+		List<String> body = new ArrayList<String>();
+		for (int i = 0; i < 100; i++) {
+			body.add("value" + i);
+		}
+		for (int i = 0; i < 2; i++) {
+			MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+			getConverter().write(body, null, outputMessage);
+
+			assertEquals(-1, outputMessage.getHeaders().getContentLength());
+			assertEquals(body, new ObjectMapper().readValue(outputMessage.getBodyAsBytes(), List.class));
+		}
+	}
+
+	@Test
+	public void writeWithoutFlushThreshold() throws Exception {
+		getConverter().setFlushThreshold(0);
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		getConverter().write("foo", null, outputMessage);
+
+		assertEquals("\"foo\"", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+		assertEquals(-1, outputMessage.getHeaders().getContentLength());
+	}
+
+	@Test
+	public void readAfterObjectMapperReconfiguration() throws Exception {
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage("{\"name\":\"Jason\"}".getBytes("UTF-8"));
+		PrettyPrintBean result = (PrettyPrintBean) getConverter().read(PrettyPrintBean.class, inputMessage);
+		assertEquals("Jason", result.getName());
+
+		getConverter().getObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		inputMessage = new MockHttpInputMessage("{\"name\":\"Jason\",\"age\":42}".getBytes("UTF-8"));
+		result = (PrettyPrintBean) getConverter().read(PrettyPrintBean.class, inputMessage);
+		assertEquals("Jason", result.getName());
+	}
+
+	@Test
+	public void writeAfterModuleRegistrationAndReset() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		getConverter().write("foo", null, outputMessage);
+		assertEquals("\"foo\"", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+
+		SimpleModule module = new SimpleModule("test", Version.unknownVersion());
+		module.addSerializer(PrettyPrintBean.class, new JsonSerializer<PrettyPrintBean>() {
+			@Override
+			public void serialize(PrettyPrintBean value, JsonGenerator generator, SerializerProvider provider)
+					throws IOException {
+				generator.writeString(value.getName());
+			}
+		});
+		getConverter().getObjectMapper().registerModule(module);
+		getConverter().resetObjectMapperCaches();
+
+		PrettyPrintBean bean = new PrettyPrintBean();
+		bean.setName("Jason");
+		outputMessage = new MockHttpOutputMessage();
+		getConverter().write(bean, null, outputMessage);
+		assertEquals("\"Jason\"", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
 
 	public static class PrettyPrintBean {
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.smile;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.MockHttpInputMessage;
+import org.springframework.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Jackson 2.x Smile converter tests.
+ */
+public class MappingJackson2SmileHttpMessageConverterTests {
+
+	private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	private final MappingJackson2SmileHttpMessageConverter converter = new MappingJackson2SmileHttpMessageConverter();
+
+	private final ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+
+
+	@Test
+	public void canRead() {
+		assertTrue(converter.canRead(MyBean.class, SMILE));
+		assertFalse(converter.canRead(MyBean.class, new MediaType("application", "json")));
+	}
+
+	@Test
+	public void canWrite() {
+		assertTrue(converter.canWrite(MyBean.class, SMILE));
+		assertFalse(converter.canWrite(MyBean.class, new MediaType("application", "json")));
+	}
+
+	@Test
+	public void read() throws IOException {
+		MyBean body = new MyBean();
+		body.setString("Foo");
+		body.setNumber(42);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(mapper.writeValueAsBytes(body));
+		inputMessage.getHeaders().setContentType(SMILE);
+
+		MyBean result = (MyBean) converter.read(MyBean.class, inputMessage);
+		assertEquals("Foo", result.getString());
+		assertEquals(42, result.getNumber());
+	}
+
+	@Test
+	public void write() throws IOException {
+		MyBean body = new MyBean();
+		body.setString("Foo");
+		body.setNumber(42);
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		converter.write(body, null, outputMessage);
+
+		assertEquals(SMILE, outputMessage.getHeaders().getContentType());
+		MyBean result = mapper.readValue(outputMessage.getBodyAsBytes(), MyBean.class);
+		assertEquals("Foo", result.getString());
+		assertEquals(42, result.getNumber());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setObjectMapperWithoutSmileFactory() {
+		converter.setObjectMapper(new ObjectMapper());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setJsonPrefix() {
+		converter.setJsonPrefix(")]}', ");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setPrefixJson() {
+		converter.setPrefixJson(true);
+	}
+
+	@Test
+	public void writeWithoutPrefix() throws IOException {
+		converter.setJsonPrefix(null);
+		converter.setPrefixJson(false);
+		MyBean body = new MyBean();
+		body.setString("Foo");
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		converter.write(body, null, outputMessage);
+
+		assertEquals("Foo", mapper.readValue(outputMessage.getBodyAsBytes(), MyBean.class).getString());
+	}
+
+
+	public static class MyBean {
+
+		private String string;
+
+		private int number;
+
+		public String getString() {
+			return string;
+		}
+
+		public void setString(String string) {
+			this.string = string;
+		}
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(int number) {
+			this.number = number;
+		}
+	}
+
+}
@@ -225,4 +225,24 @@ public class ServletWebRequestTests {
 		assertEquals(currentETag, servletResponse.getHeader("ETag"));
 	}
 
+	@Test
+	public void checkNotModifiedETagWithMultipleValues() {
+		String eTag = "\"Foo\"";
+		servletRequest.setMethod("GET");
+		servletRequest.addHeader("If-None-Match", "\"Bar\", W/\"Foo\"");
+
+		assertTrue(request.checkNotModified(eTag));
+		assertEquals(304, servletResponse.getStatus());
+		assertEquals(eTag, servletResponse.getHeader("ETag"));
+	}
+
+	@Test
+	public void checkNotModifiedETagWithWildcard() {
+		servletRequest.setMethod("GET");
+		servletRequest.addHeader("If-None-Match", "*");
+
+		assertTrue(request.checkNotModified("\"Foo\""));
+		assertEquals(304, servletResponse.getStatus());
+	}
+
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+public class GzipCompressionFilterTests {
+
+	private GzipCompressionFilter filter;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	private String body;
+
+
+	@Before
+	public void setUp() {
+		filter = new GzipCompressionFilter();
+		request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Accept-Encoding", "deflate, gzip");
+		response = new MockHttpServletResponse();
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.append("Hello World ").append(i).append('\n');
+		}
+		body = builder.toString();
+	}
+
+
+	@Test
+	public void compressed() throws Exception {
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body, null));
+
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		assertFalse(response.containsHeader("Content-Length"));
+		assertEquals(body, gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void compressedWithWriter() throws Exception {
+		FilterChain filterChain = new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				filterResponse.setContentType("text/html");
+				filterResponse.setCharacterEncoding("UTF-8");
+				FileCopyUtils.copy(body, filterResponse.getWriter());
+			}
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals(body, gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void compressedRepeatedly() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			response = new MockHttpServletResponse();
+			filter.doFilter(request, response, new WritingFilterChain("application/json", body + i, null));
+			assertEquals(body + i, gunzip(response.getContentAsByteArray()));
+		}
+	}
+
+	@Test
+	public void notCompressedBelowMinSize() throws Exception {
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", "Hello World", null));
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		assertEquals(11, response.getContentLength());
+		assertEquals("Hello World", response.getContentAsString());
+	}
+
+	@Test
+	public void notCompressedIfNotAccepted() throws Exception {
+		request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Accept-Encoding", "gzip;q=0, identity");
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body, null));
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		assertEquals(body, response.getContentAsString());
+	}
+
+	@Test
+	public void notCompressedForContentType() throws Exception {
+		filter.doFilter(request, response, new WritingFilterChain("image/png", body, null));
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertNull(response.getHeader("Vary"));
+		assertEquals(body, response.getContentAsString());
+	}
+
+	@Test
+	public void notCompressedForErrorStatus() throws Exception {
+		FilterChain filterChain = new WritingFilterChain("text/plain", body, null) {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				super.doFilter(filterRequest, filterResponse);
+			}
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals(body, response.getContentAsString());
+	}
+
+	@Test
+	public void notCompressedIfFlushedBeforeDecision() throws Exception {
+		FilterChain filterChain = new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				filterResponse.setContentType("text/plain");
+				filterResponse.getOutputStream().write("Hello ".getBytes("UTF-8"));
+				filterResponse.flushBuffer();
+				assertTrue(filterResponse.isCommitted());
+				assertEquals("Hello ", response.getContentAsString());
+				filterResponse.getOutputStream().write(body.getBytes("UTF-8"));
+			}
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		assertEquals("Hello " + body, response.getContentAsString());
+	}
+
+	@Test
+	public void compressedContentWrittenOnFlush() throws Exception {
+		FilterChain filterChain = new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				filterResponse.setContentType("text/plain");
+				filterResponse.getOutputStream().write(body.getBytes("UTF-8"));
+				filterResponse.flushBuffer();
+				assertEquals("gzip", response.getHeader("Content-Encoding"));
+				byte[] compressed = response.getContentAsByteArray();
+				Inflater inflater = new Inflater(true);
+				inflater.setInput(compressed, 10, compressed.length - 10);
+				byte[] inflated = new byte[body.length() * 2];
+				try {
+					int len = inflater.inflate(inflated);
+					assertEquals(body, new String(inflated, 0, len, "UTF-8"));
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+				finally {
+					inflater.end();
+				}
+				filterResponse.getOutputStream().write("more".getBytes("UTF-8"));
+			}
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals(body + "more", gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void notCommittedOnException() throws Exception {
+		FilterChain filterChain = new WritingFilterChain("text/plain", "Hello World", null) {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				super.doFilter(filterRequest, filterResponse);
+				throw new IllegalStateException("Handler failure");
+			}
+		};
+		try {
+			filter.doFilter(request, response, filterChain);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Handler failure", ex.getMessage());
+		}
+
+		assertFalse(response.isCommitted());
+		assertFalse(response.containsHeader("Content-Length"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void compressionLevelAppliedToPooledDeflaters() throws Exception {
+		FilterChain filterChain = new WritingFilterChain("text/plain", body, null) {
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse) throws IOException {
+				super.doFilter(filterRequest, filterResponse);
+				// Deflater in use, to be returned to the pool afterwards
+				filter.setCompressionLevel(Deflater.NO_COMPRESSION);
+			}
+		};
+		filter.doFilter(request, response, filterChain);
+		assertTrue(response.getContentAsByteArray().length < body.length());
+
+		response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body, null));
+		assertTrue(response.getContentAsByteArray().length > body.length());
+		assertEquals(body, gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void compressedBodyCached() throws Exception {
+		filter.setCacheLimit(10);
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body, "\"v1\""));
+		byte[] compressed = response.getContentAsByteArray();
+		assertEquals(body, gunzip(compressed));
+
+		// Same ETag: the cached compressed body is used
+		response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body + "ignored", "\"v1\""));
+		assertArrayEquals(compressed, response.getContentAsByteArray());
+		assertEquals(compressed.length, response.getContentLength());
+
+		// Different ETag: compressed again
+		response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body + "changed", "\"v2\""));
+		assertEquals(body + "changed", gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void compressedBodyNotCachedForWeakETag() throws Exception {
+		filter.setCacheLimit(10);
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body, "W/\"v1\""));
+
+		response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new WritingFilterChain("text/plain", body + "changed", "W/\"v1\""));
+		assertEquals(body + "changed", gunzip(response.getContentAsByteArray()));
+	}
+
+	@Test
+	public void isGzipAccepted() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertFalse(filter.isGzipAccepted(request));
+		request.addHeader("Accept-Encoding", "gzip;q=0.5");
+		assertTrue(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "*");
+		assertTrue(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "deflate, gzip;q=0.0");
+		assertFalse(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "*;q=1, gzip; Q=0");
+		assertFalse(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip;level=1;q=0");
+		assertFalse(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "identity, *;q=0");
+		assertFalse(filter.isGzipAccepted(request));
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "x-gzip, *;q=0");
+		assertTrue(filter.isGzipAccepted(request));
+	}
+
+
+	private static String gunzip(byte[] content) throws IOException {
+		return new String(FileCopyUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(content))), "UTF-8");
+	}
+
+
+	private static class WritingFilterChain implements FilterChain {
+
+		private final String contentType;
+
+		private final String body;
+
+		private final String etag;
+
+		public WritingFilterChain(String contentType, String body, String etag) {
+			this.contentType = contentType;
+			this.body = body;
+			this.etag = etag;
+		}
+
+		@Override
+		public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse)
+				throws IOException {
+			filterResponse.setContentType(this.contentType);
+			if (this.etag != null) {
+				((HttpServletResponse) filterResponse).setHeader("ETag", this.etag);
+			}
+			byte[] bytes = this.body.getBytes("UTF-8");
+			filterResponse.setContentLength(bytes.length);
+			filterResponse.getOutputStream().write(bytes);
+		}
+	}
+
+}
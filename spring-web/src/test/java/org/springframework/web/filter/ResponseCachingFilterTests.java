@@ -0,0 +1,315 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+
+import static org.junit.Assert.*;
+
+public class ResponseCachingFilterTests {
+
+	private ResponseCachingFilter filter;
+
+	private CountingFilterChain filterChain;
+
+
+	@Before
+	public void setUp() {
+		filter = new ResponseCachingFilter();
+		filter.setCacheSeconds(60);
+		filterChain = new CountingFilterChain();
+	}
+
+
+	@Test
+	public void cached() throws Exception {
+		MockHttpServletResponse response = doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals("Hello 1", response.getContentAsString());
+
+		response = doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals(200, response.getStatus());
+		assertEquals("Hello 1", response.getContentAsString());
+		assertEquals("text/plain", response.getContentType());
+		assertEquals("bar", response.getHeader("X-Foo"));
+		assertEquals(7, response.getContentLength());
+		assertEquals(1, filterChain.count.get());
+		assertEquals(1, filter.getCacheHitCount());
+		assertEquals(1, filter.getCacheMissCount());
+	}
+
+	@Test
+	public void cachedByQueryString() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.setQueryString("page=1");
+		doFilter(request);
+		request = new MockHttpServletRequest("GET", "/hotels");
+		request.setQueryString("page=2");
+		doFilter(request);
+
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void cachedByVaryHeader() throws Exception {
+		filterChain.vary = "Accept-Language";
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Accept-Language", "en");
+		assertEquals("Hello 1", doFilter(request).getContentAsString());
+
+		request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Accept-Language", "de");
+		assertEquals("Hello 2", doFilter(request).getContentAsString());
+
+		request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Accept-Language", "en");
+		assertEquals("Hello 1", doFilter(request).getContentAsString());
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void notCachedForPost() throws Exception {
+		doFilter(new MockHttpServletRequest("POST", "/hotels"));
+		doFilter(new MockHttpServletRequest("POST", "/hotels"));
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void notCachedWithAuthorization() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Authorization", "Basic Zm9vOmJhcg==");
+		doFilter(request);
+		doFilter(request);
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void notCachedWithCookieHeader() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Cookie", "JSESSIONID=1234");
+		doFilter(request);
+		doFilter(request);
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void cachedWithCredentialsIfEnabled() throws Exception {
+		filter.setCacheRequestsWithCredentials(true);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("Cookie", "JSESSIONID=1234");
+		request.addHeader("Authorization", "Basic Zm9vOmJhcg==");
+		doFilter(request);
+		doFilter(request);
+		assertEquals(1, filterChain.count.get());
+	}
+
+	@Test
+	public void varyHeadersLimited() throws Exception {
+		filter.setCacheLimit(2);
+		filterChain.vary = "Accept-Language";
+		for (int i = 0; i < 10; i++) {
+			doFilter(new MockHttpServletRequest("GET", "/hotels/" + i));
+		}
+		Map<?, ?> varyHeaderCache = (Map<?, ?>) new DirectFieldAccessor(filter).getPropertyValue("varyHeaderCache");
+		assertEquals(2, varyHeaderCache.size());
+		assertTrue(varyHeaderCache.containsKey("/hotels/9"));
+	}
+
+	@Test
+	public void notCachedForCacheControl() throws Exception {
+		filterChain.cacheControl = "private, max-age=60";
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals(2, filterChain.count.get());
+
+		filterChain.cacheControl = "max-age=0";
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals(4, filterChain.count.get());
+	}
+
+	@Test
+	public void notCachedWithCookie() throws Exception {
+		filterChain.cookie = true;
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void notCachedForErrorStatus() throws Exception {
+		filterChain.status = HttpServletResponse.SC_NOT_FOUND;
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+		assertEquals(2, filterChain.count.get());
+	}
+
+	@Test
+	public void concurrentMissesCoalesced() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		filterChain = new CountingFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+				started.countDown();
+				try {
+					proceed.await();
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				super.doFilter(request, response);
+			}
+		};
+
+		final MockHttpServletResponse[] responses = new MockHttpServletResponse[4];
+		Thread[] threads = new Thread[responses.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						responses[index] = doFilter(new MockHttpServletRequest("GET", "/hotels"));
+					}
+					catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+			};
+			threads[i].start();
+			if (i == 0) {
+				started.await();
+			}
+		}
+		Thread.sleep(100);
+		proceed.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1, filterChain.count.get());
+		for (MockHttpServletResponse response : responses) {
+			assertEquals("Hello 1", response.getContentAsString());
+		}
+	}
+
+	@Test
+	public void concurrentRequestsNotCoalescedOnceUncacheable() throws Exception {
+		filterChain.status = HttpServletResponse.SC_NOT_FOUND;
+		doFilter(new MockHttpServletRequest("GET", "/hotels"));
+
+		final CountDownLatch bothStarted = new CountDownLatch(2);
+		final List<Object> results = new CopyOnWriteArrayList<Object>();
+		filterChain = new CountingFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+				bothStarted.countDown();
+				try {
+					results.add(bothStarted.await(5, TimeUnit.SECONDS));
+				}
+				catch (InterruptedException ex) {
+					results.add(ex);
+				}
+				super.doFilter(request, response);
+			}
+		};
+		filterChain.status = HttpServletResponse.SC_NOT_FOUND;
+
+		Thread[] threads = new Thread[2];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						doFilter(new MockHttpServletRequest("GET", "/hotels"));
+					}
+					catch (Exception ex) {
+						results.add(ex);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(2, results.size());
+		for (Object result : results) {
+			assertEquals(Boolean.TRUE, result);
+		}
+	}
+
+
+	private MockHttpServletResponse doFilter(HttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, filterChain);
+		return response;
+	}
+
+
+	private static class CountingFilterChain implements FilterChain {
+
+		final AtomicInteger count = new AtomicInteger();
+
+		int status = HttpServletResponse.SC_OK;
+
+		String vary;
+
+		String cacheControl;
+
+		boolean cookie;
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+			HttpServletResponse httpResponse = (HttpServletResponse) response;
+			httpResponse.setStatus(this.status);
+			httpResponse.setContentType("text/plain");
+			httpResponse.setHeader("X-Foo", "bar");
+			if (this.vary != null) {
+				httpResponse.setHeader("Vary", this.vary);
+			}
+			if (this.cacheControl != null) {
+				httpResponse.setHeader("Cache-Control", this.cacheControl);
+			}
+			if (this.cookie) {
+				httpResponse.addCookie(new Cookie("foo", "bar"));
+			}
+			response.getWriter().write("Hello " + this.count.incrementAndGet());
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,4 +129,73 @@ public class ShallowEtagHeaderFilterTests {
 		assertArrayEquals("Invalid content", new byte[0], response.getContentAsByteArray());
 	}
 
+	@Test
+	public void filterStreamingThresholdExceeded() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = new FilterChain() {
+
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse)
+					throws IOException, ServletException {
+				filterResponse.getOutputStream().write(responseBody, 0, 6);
+				filterResponse.getOutputStream().write(responseBody, 6, 5);
+			}
+		};
+
+		filter.setStreamingThreshold(8);
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterStreamingThresholdNotExceeded() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = new FilterChain() {
+
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse)
+					throws IOException, ServletException {
+				FileCopyUtils.copy("Hello World", filterResponse.getWriter());
+			}
+		};
+
+		filter.setStreamingThreshold(11);
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertEquals("Invalid ETag header", "\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertEquals("Invalid content", "Hello World", response.getContentAsString());
+	}
+
+	@Test
+	public void filterWithHandlerSuppliedETag() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = new FilterChain() {
+
+			@Override
+			public void doFilter(ServletRequest filterRequest, ServletResponse filterResponse)
+					throws IOException, ServletException {
+				((HttpServletResponse) filterResponse).setHeader("ETag", "\"v42\"");
+				FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+			}
+		};
+
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertEquals("Invalid ETag header", "\"v42\"", response.getHeader("ETag"));
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
 }
\ No newline at end of file
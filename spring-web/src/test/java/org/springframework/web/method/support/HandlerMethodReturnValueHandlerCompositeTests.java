@@ -24,6 +24,7 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.core.MethodParameter;
+import org.springframework.web.method.HandlerMethod;
 
 /**
  * Test fixture with {@link HandlerMethodReturnValueHandlerComposite}.
@@ -74,6 +75,19 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		assertNull("Shouldn't have use the 2nd registered handler", h2.getReturnValue());
 	}
 
+	@Test
+	public void handleReturnValueCachedPerValueType() throws Exception {
+		StubReturnValueHandler intHandler = registerHandler(Integer.class);
+		StubReturnValueHandler strHandler = registerHandler(String.class);
+		HandlerMethod handlerMethod = new HandlerMethod(this, "handleObject");
+
+		this.handlers.handleReturnValue(55, handlerMethod.getReturnValueType(55), mavContainer, null);
+		this.handlers.handleReturnValue("value", handlerMethod.getReturnValueType("value"), mavContainer, null);
+
+		assertEquals(Integer.valueOf(55), intHandler.getReturnValue());
+		assertEquals("value", strHandler.getReturnValue());
+	}
+
 	@Test(expected=IllegalArgumentException.class)
 	public void noSuitableReturnValueHandler() throws Exception {
 		registerHandler(Integer.class);
@@ -96,4 +110,8 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		return null;
 	}
 
+	public Object handleObject() {
+		return null;
+	}
+
 }
\ No newline at end of file
@@ -70,6 +70,28 @@ public class UrlPathHelperTests {
 		assertEquals("Incorrect path returned", "/welcome.html", helper.getPathWithinApplication(request));
 	}
 
+	@Test
+	public void getLookupPathForRequestReusedWithinRequest() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+
+		String lookupPath = helper.getLookupPathForRequest(request);
+		assertEquals("/welcome.html", lookupPath);
+		assertSame(lookupPath, helper.getLookupPathForRequest(request));
+		assertSame(lookupPath, new UrlPathHelper().getLookupPathForRequest(request));
+
+		UrlPathHelper fullPathHelper = new UrlPathHelper();
+		fullPathHelper.setAlwaysUseFullPath(true);
+		assertEquals("/main/welcome.html", fullPathHelper.getLookupPathForRequest(request));
+
+		request.setRequestURI("/petclinic/main/owners.html");
+		assertEquals("/owners.html", helper.getLookupPathForRequest(request));
+
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/petclinic/main/included.html");
+		assertEquals("/included.html", helper.getLookupPathForRequest(request));
+	}
+
 	@Test
 	public void getPathWithinServlet() {
 		request.setContextPath("/petclinic");
@@ -65,12 +65,17 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean defaultPathMatcher = true;
+
 	private final List<Object> interceptors = new ArrayList<Object>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<HandlerInterceptor>();
 
 	private final List<MappedInterceptor> mappedInterceptors = new ArrayList<MappedInterceptor>();
 
+	/** Mapped interceptors with precompiled patterns, shared by all requests */
+	private volatile MappedInterceptorMatcher mappedInterceptorMatcher;
+
 
 	/**
 	 * Specify the order value for this HandlerMapping bean.
@@ -159,6 +164,10 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		Assert.notNull(pathMatcher, "PathMatcher must not be null");
 		this.pathMatcher = pathMatcher;
+		this.defaultPathMatcher = false;
+		if (this.mappedInterceptorMatcher != null) {
+			this.mappedInterceptorMatcher = createMappedInterceptorMatcher();
+		}
 	}
 
 	/**
@@ -224,6 +233,8 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	/**
 	 * Initialize the specified interceptors, checking for {@link MappedInterceptor}s and
 	 * adapting {@link HandlerInterceptor}s and {@link WebRequestInterceptor}s if necessary.
+	 * <p>Compiles the path patterns of all {@link MappedInterceptor}s into a matcher
+	 * which is shared by all requests.
 	 * @see #setInterceptors
 	 * @see #adaptInterceptor
 	 */
@@ -242,6 +253,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 				}
 			}
 		}
+		this.mappedInterceptorMatcher = createMappedInterceptorMatcher();
 	}
 
 	/**
@@ -346,14 +358,26 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
 		chain.addInterceptors(getAdaptedInterceptors());
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
-		for (MappedInterceptor mappedInterceptor : this.mappedInterceptors) {
-			if (mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
-				chain.addInterceptor(mappedInterceptor.getInterceptor());
+		if (!this.mappedInterceptors.isEmpty()) {
+			MappedInterceptorMatcher matcher = this.mappedInterceptorMatcher;
+			if (matcher == null) {
+				matcher = createMappedInterceptorMatcher();
+				this.mappedInterceptorMatcher = matcher;
 			}
+			String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+			chain.addInterceptors(matcher.getMatchingInterceptors(lookupPath));
 		}
 
 		return chain;
 	}
 
+	/**
+	 * Compile the mapped interceptors into a matcher for the current PathMatcher.
+	 * <p>Plain String comparison of simple patterns only applies to the default
+	 * AntPathMatcher, since a custom PathMatcher may have different semantics.
+	 */
+	private MappedInterceptorMatcher createMappedInterceptorMatcher() {
+		return new MappedInterceptorMatcher(this.mappedInterceptors, this.pathMatcher, this.defaultPathMatcher);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,6 +84,14 @@ public final class MappedInterceptor {
 		return this.includePatterns;
 	}
 
+	/**
+	 * The path patterns the interceptor is excluded from, if any.
+	 * @since 3.2.19
+	 */
+	public String[] getExcludePathPatterns() {
+		return this.excludePatterns;
+	}
+
 	/**
 	 * The actual Interceptor reference.
 	 */
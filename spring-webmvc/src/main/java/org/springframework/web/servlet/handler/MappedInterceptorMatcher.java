@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Immutable matcher for a set of {@link MappedInterceptor}s, with their include
+ * and exclude patterns compiled once, to be shared by all requests.
+ *
+ * <p>With default {@link org.springframework.util.AntPathMatcher} semantics,
+ * patterns without wildcards as well as patterns of the form {@code /path/**}
+ * are matched through plain String comparison. Any other patterns, as well as
+ * lookup paths with empty segments or whitespace (which AntPathMatcher treats
+ * specially), are matched through the given {@link PathMatcher}.
+ *
+ * @since 3.2.19
+ * @see AbstractHandlerMapping#getHandlerExecutionChain
+ */
+final class MappedInterceptorMatcher {
+
+	private static final String PATH_SEPARATOR = "/";
+
+	private static final String ANY_PATH_SUFFIX = "/**";
+
+
+	private final PathMatcher pathMatcher;
+
+	private final List<CompiledInterceptor> interceptors;
+
+
+	/**
+	 * Create a new MappedInterceptorMatcher for the given mapped interceptors.
+	 * @param mappedInterceptors the mapped interceptors, in order
+	 * @param pathMatcher the PathMatcher to use for non-trivial patterns
+	 * @param antPathMatching whether the PathMatcher has default AntPathMatcher
+	 * semantics, allowing for plain String comparison of simple patterns
+	 */
+	public MappedInterceptorMatcher(List<MappedInterceptor> mappedInterceptors, PathMatcher pathMatcher,
+			boolean antPathMatching) {
+
+		this.pathMatcher = pathMatcher;
+		this.interceptors = new ArrayList<CompiledInterceptor>(mappedInterceptors.size());
+		for (MappedInterceptor mappedInterceptor : mappedInterceptors) {
+			this.interceptors.add(new CompiledInterceptor(mappedInterceptor, antPathMatching));
+		}
+	}
+
+
+	/**
+	 * Return the interceptors whose patterns match the given lookup path.
+	 * @param lookupPath the lookup path of the current request
+	 * @return the matching interceptors (possibly empty)
+	 */
+	public HandlerInterceptor[] getMatchingInterceptors(String lookupPath) {
+		boolean plainPath = isPlain(lookupPath);
+		List<HandlerInterceptor> matches = new ArrayList<HandlerInterceptor>(this.interceptors.size());
+		for (CompiledInterceptor interceptor : this.interceptors) {
+			if (interceptor.matches(lookupPath, plainPath, this.pathMatcher)) {
+				matches.add(interceptor.interceptor);
+			}
+		}
+		return matches.toArray(new HandlerInterceptor[matches.size()]);
+	}
+
+	/**
+	 * Determine whether the given path or pattern consists of non-empty,
+	 * untrimmed segments only, i.e. whether its AntPathMatcher tokens are
+	 * the same as its String segments.
+	 */
+	private static boolean isPlain(String path) {
+		char previous = 0;
+		for (int i = 0; i < path.length(); i++) {
+			char c = path.charAt(i);
+			if (c <= ' ' || (c == '/' && previous == '/')) {
+				return false;
+			}
+			previous = c;
+		}
+		return true;
+	}
+
+	private static boolean hasWildcard(String pattern) {
+		return (pattern.indexOf('*') != -1 || pattern.indexOf('?') != -1 || pattern.indexOf('{') != -1);
+	}
+
+	private static CompiledPattern[] compile(String[] patterns, boolean antPathMatching) {
+		if (patterns == null) {
+			return null;
+		}
+		CompiledPattern[] result = new CompiledPattern[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			result[i] = new CompiledPattern(patterns[i], antPathMatching);
+		}
+		return result;
+	}
+
+
+	/**
+	 * A mapped interceptor with compiled include and exclude patterns.
+	 */
+	private static class CompiledInterceptor {
+
+		private final CompiledPattern[] includePatterns;
+
+		private final CompiledPattern[] excludePatterns;
+
+		private final HandlerInterceptor interceptor;
+
+		public CompiledInterceptor(MappedInterceptor mappedInterceptor, boolean antPathMatching) {
+			this.includePatterns = compile(mappedInterceptor.getPathPatterns(), antPathMatching);
+			this.excludePatterns = compile(mappedInterceptor.getExcludePathPatterns(), antPathMatching);
+			this.interceptor = mappedInterceptor.getInterceptor();
+		}
+
+		public boolean matches(String lookupPath, boolean plainPath, PathMatcher pathMatcher) {
+			if (this.excludePatterns != null) {
+				for (CompiledPattern pattern : this.excludePatterns) {
+					if (pattern.matches(lookupPath, plainPath, pathMatcher)) {
+						return false;
+					}
+				}
+			}
+			if (this.includePatterns == null) {
+				return true;
+			}
+			for (CompiledPattern pattern : this.includePatterns) {
+				if (pattern.matches(lookupPath, plainPath, pathMatcher)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+
+	/**
+	 * A single include or exclude pattern, classified as literal path,
+	 * as path prefix ({@code /path/**}), or as general pattern.
+	 */
+	private static class CompiledPattern {
+
+		private final String pattern;
+
+		/** The literal path, if the pattern does not contain any wildcards */
+		private final String literal;
+
+		/** The path prefix, if the pattern is a path followed by {@code /**} */
+		private final String prefix;
+
+		public CompiledPattern(String pattern, boolean antPathMatching) {
+			this.pattern = pattern;
+			String literal = null;
+			String prefix = null;
+			if (antPathMatching && isPlain(pattern)) {
+				if (!hasWildcard(pattern)) {
+					literal = pattern;
+				}
+				else if (pattern.endsWith(ANY_PATH_SUFFIX)) {
+					String candidate = pattern.substring(0, pattern.length() - ANY_PATH_SUFFIX.length());
+					if (!hasWildcard(candidate)) {
+						prefix = candidate;
+					}
+				}
+			}
+			this.literal = literal;
+			this.prefix = prefix;
+		}
+
+		public boolean matches(String lookupPath, boolean plainPath, PathMatcher pathMatcher) {
+			if (plainPath) {
+				if (this.literal != null) {
+					return this.literal.equals(lookupPath);
+				}
+				if (this.prefix != null) {
+					if (this.prefix.length() == 0) {
+						return lookupPath.startsWith(PATH_SEPARATOR);
+					}
+					return (lookupPath.startsWith(this.prefix) && (lookupPath.length() == this.prefix.length() ||
+							lookupPath.startsWith(PATH_SEPARATOR, this.prefix.length())));
+				}
+			}
+			return pathMatcher.match(this.pattern, lookupPath);
+		}
+	}
+
+}
@@ -45,11 +45,15 @@ import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition.Hea
  */
 public final class ProducesRequestCondition extends AbstractRequestCondition<ProducesRequestCondition> {
 
+	private static final String MEDIA_TYPES_ATTRIBUTE = ProducesRequestCondition.class.getName() + ".MEDIA_TYPES";
+
 	private final List<ProduceMediaTypeExpression> MEDIA_TYPE_ALL_LIST =
 			Collections.singletonList(new ProduceMediaTypeExpression("*/*"));
 
 	private final List<ProduceMediaTypeExpression> expressions;
 
+	private final Set<MediaType> producibleMediaTypes;
+
 	private final ContentNegotiationManager contentNegotiationManager;
 
 
@@ -84,6 +88,7 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 	public ProducesRequestCondition(String[] produces, String[] headers, ContentNegotiationManager manager) {
 		this.expressions = new ArrayList<ProduceMediaTypeExpression>(parseExpressions(produces, headers));
 		Collections.sort(this.expressions);
+		this.producibleMediaTypes = initProducibleMediaTypes(this.expressions);
 		this.contentNegotiationManager = (manager != null ? manager : new ContentNegotiationManager());
 	}
 
@@ -93,6 +98,7 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 	private ProducesRequestCondition(Collection<ProduceMediaTypeExpression> expressions, ContentNegotiationManager manager) {
 		this.expressions = new ArrayList<ProduceMediaTypeExpression>(expressions);
 		Collections.sort(this.expressions);
+		this.producibleMediaTypes = initProducibleMediaTypes(this.expressions);
 		this.contentNegotiationManager = (manager != null ? manager : new ContentNegotiationManager());
 	}
 
@@ -128,13 +134,17 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 	 * Return the contained producible media types excluding negated expressions.
 	 */
 	public Set<MediaType> getProducibleMediaTypes() {
+		return this.producibleMediaTypes;
+	}
+
+	private static Set<MediaType> initProducibleMediaTypes(List<ProduceMediaTypeExpression> expressions) {
 		Set<MediaType> result = new LinkedHashSet<MediaType>();
-		for (ProduceMediaTypeExpression expression : this.expressions) {
+		for (ProduceMediaTypeExpression expression : expressions) {
 			if (!expression.isNegated()) {
 				result.add(expression.getMediaType());
 			}
 		}
-		return result;
+		return Collections.unmodifiableSet(result);
 	}
 
 	/**
@@ -184,7 +194,13 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 				iterator.remove();
 			}
 		}
-		return (result.isEmpty()) ? null : new ProducesRequestCondition(result, this.contentNegotiationManager);
+		if (result.isEmpty()) {
+			return null;
+		}
+		else if (result.size() == this.expressions.size()) {
+			return this;
+		}
+		return new ProducesRequestCondition(result, this.contentNegotiationManager);
 	}
 
 	/**
@@ -229,9 +245,33 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 		}
 	}
 
+	/**
+	 * Return the media types requested by the client. These are resolved once
+	 * and then kept in a request attribute, since they are consulted for every
+	 * expression of every candidate mapping during handler lookup.
+	 * @see #clearMediaTypesAttribute(HttpServletRequest)
+	 */
+	@SuppressWarnings("unchecked")
 	private List<MediaType> getAcceptedMediaTypes(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
-		List<MediaType> mediaTypes = this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
-		return mediaTypes.isEmpty() ? Collections.singletonList(MediaType.ALL) : mediaTypes;
+		List<MediaType> mediaTypes = (List<MediaType>) request.getAttribute(MEDIA_TYPES_ATTRIBUTE);
+		if (mediaTypes == null) {
+			mediaTypes = this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+			mediaTypes = (mediaTypes.isEmpty() ? Collections.singletonList(MediaType.ALL) :
+					Collections.unmodifiableList(mediaTypes));
+			request.setAttribute(MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+		}
+		return mediaTypes;
+	}
+
+	/**
+	 * Remove the requested media types memoized during handler lookup. To be
+	 * called once lookup is complete, so that the media types are resolved again
+	 * for a subsequent lookup with the same request (e.g. after a forward).
+	 * @param request the current request
+	 * @since 3.2.19
+	 */
+	public static void clearMediaTypesAttribute(HttpServletRequest request) {
+		request.removeAttribute(MEDIA_TYPES_ATTRIBUTE);
 	}
 
 	private int indexOfEqualMediaType(MediaType mediaType) {
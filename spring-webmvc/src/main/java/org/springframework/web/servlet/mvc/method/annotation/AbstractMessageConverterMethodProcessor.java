@@ -24,7 +24,9 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -76,6 +78,9 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<String>();
 
+	private final Map<Class<?>, List<MediaType>> producibleMediaTypeCache =
+			new ConcurrentHashMap<Class<?>, List<MediaType>>(64);
+
 
 	protected AbstractMessageConverterMethodProcessor(List<HttpMessageConverter<?>> messageConverters) {
 		this(messageConverters, null);
@@ -184,6 +189,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	 * <li>Media types of configured converters that can write the specific return value, or
 	 * <li>{@link MediaType#ALL}
 	 * </ul>
+	 * <p>Media types derived from the configured converters are cached per return value class.
 	 */
 	@SuppressWarnings("unchecked")
 	protected List<MediaType> getProducibleMediaTypes(HttpServletRequest request, Class<?> returnValueClass) {
@@ -192,11 +198,16 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			return new ArrayList<MediaType>(mediaTypes);
 		}
 		else if (!this.allSupportedMediaTypes.isEmpty()) {
-			List<MediaType> result = new ArrayList<MediaType>();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				if (converter.canWrite(returnValueClass, null)) {
-					result.addAll(converter.getSupportedMediaTypes());
+			List<MediaType> result = this.producibleMediaTypeCache.get(returnValueClass);
+			if (result == null) {
+				result = new ArrayList<MediaType>();
+				for (HttpMessageConverter<?> converter : this.messageConverters) {
+					if (converter.canWrite(returnValueClass, null)) {
+						result.addAll(converter.getSupportedMediaTypes());
+					}
 				}
+				result = Collections.unmodifiableList(result);
+				this.producibleMediaTypeCache.put(returnValueClass, result);
 			}
 			return result;
 		}
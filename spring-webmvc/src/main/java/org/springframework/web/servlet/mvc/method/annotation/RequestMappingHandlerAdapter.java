@@ -167,6 +167,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache =
 			new LinkedHashMap<ControllerAdviceBean, Set<Method>>();
 
+	private final Map<Class<?>, InvocationPlan> invocationPlanCache =
+			new ConcurrentHashMap<Class<?>, InvocationPlan>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -649,7 +652,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	protected final ModelAndView handleInternal(HttpServletRequest request,
 			HttpServletResponse response, HandlerMethod handlerMethod) throws Exception {
 
-		if (getSessionAttributesHandler(handlerMethod).hasSessionAttributes()) {
+		if (getInvocationPlan(handlerMethod).hasSessionAttributes()) {
 			// Always prevent caching in case of session attribute management.
 			checkAndPrepare(request, response, this.cacheSecondsForSessionAttributeHandlers, true);
 		}
@@ -702,6 +705,22 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return sessionAttrHandler;
 	}
 
+	/**
+	 * Return the {@link InvocationPlan} for the given handler type, creating
+	 * it on first use.
+	 */
+	private InvocationPlan getInvocationPlan(HandlerMethod handlerMethod) {
+		Class<?> handlerType = handlerMethod.getBeanType();
+		InvocationPlan plan = this.invocationPlanCache.get(handlerType);
+		if (plan == null) {
+			plan = new InvocationPlan(getSessionAttributesHandler(handlerMethod),
+					getInitBinderMethods(handlerType), getModelAttributeMethods(handlerType),
+					this.initBinderAdviceCache.isEmpty(), this.modelAttributeAdviceCache.isEmpty());
+			this.invocationPlanCache.put(handlerType, plan);
+		}
+		return plan;
+	}
+
 	/**
 	 * Invoke the {@link RequestMapping} handler method preparing a {@link ModelAndView}
 	 * if view resolution is required.
@@ -711,13 +730,16 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 
-		WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
-		ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
+		InvocationPlan plan = getInvocationPlan(handlerMethod);
+		WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod, plan);
+		ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory, plan);
 		ServletInvocableHandlerMethod requestMappingMethod = createRequestMappingMethod(handlerMethod, binderFactory);
 
 		ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 		mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
-		modelFactory.initModel(webRequest, mavContainer, requestMappingMethod);
+		if (plan.isModelInitializationRequired()) {
+			modelFactory.initModel(webRequest, mavContainer, requestMappingMethod);
+		}
 		mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
 
 		AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(request, response);
@@ -746,6 +768,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			return null;
 		}
 
+		if (mavContainer.isRequestHandled() && !plan.hasSessionAttributes()) {
+			// Response written directly (e.g. @ResponseBody): no model to synchronize.
+			return null;
+		}
+
 		return getModelAndView(mavContainer, modelFactory, webRequest);
 	}
 
@@ -761,14 +788,26 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return requestMethod;
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
-		Class<?> handlerType = handlerMethod.getBeanType();
+	private Set<Method> getModelAttributeMethods(Class<?> handlerType) {
 		Set<Method> methods = this.modelAttributeCache.get(handlerType);
 		if (methods == null) {
 			methods = HandlerMethodSelector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
 			this.modelAttributeCache.put(handlerType, methods);
 		}
+		return methods;
+	}
+
+	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory,
+			InvocationPlan plan) {
+
+		if (!plan.hasModelAttributeMethods() && !plan.hasInitBinderMethods()) {
+			ModelFactory modelFactory = plan.getSharedModelFactory();
+			if (modelFactory == null) {
+				modelFactory = new ModelFactory(null, binderFactory, plan.getSessionAttributesHandler());
+				plan.setSharedModelFactory(modelFactory);
+			}
+			return modelFactory;
+		}
 		List<InvocableHandlerMethod> attrMethods = new ArrayList<InvocableHandlerMethod>();
 		// Global methods first
 		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.modelAttributeAdviceCache.entrySet()) {
@@ -777,11 +816,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 			}
 		}
-		for (Method method : methods) {
+		for (Method method : plan.getModelAttributeMethods()) {
 			Object bean = handlerMethod.getBean();
 			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 		}
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		return new ModelFactory(attrMethods, binderFactory, plan.getSessionAttributesHandler());
 	}
 
 	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean, Method method) {
@@ -792,22 +831,35 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return attrMethod;
 	}
 
-	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
-		Class<?> handlerType = handlerMethod.getBeanType();
+	private Set<Method> getInitBinderMethods(Class<?> handlerType) {
 		Set<Method> methods = this.initBinderCache.get(handlerType);
 		if (methods == null) {
 			methods = HandlerMethodSelector.selectMethods(handlerType, INIT_BINDER_METHODS);
 			this.initBinderCache.put(handlerType, methods);
 		}
+		return methods;
+	}
+
+	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod, InvocationPlan plan)
+			throws Exception {
+
+		if (!plan.hasInitBinderMethods()) {
+			WebDataBinderFactory binderFactory = plan.getSharedBinderFactory();
+			if (binderFactory == null) {
+				binderFactory = createDataBinderFactory(Collections.<InvocableHandlerMethod>emptyList());
+				plan.setSharedBinderFactory(binderFactory);
+			}
+			return binderFactory;
+		}
 		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<InvocableHandlerMethod>();
 		// Global methods first
-		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.initBinderAdviceCache .entrySet()) {
+		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.initBinderAdviceCache.entrySet()) {
 			Object bean = entry.getKey().resolveBean();
 			for (Method method : entry.getValue()) {
 				initBinderMethods.add(createInitBinderMethod(bean, method));
 			}
 		}
-		for (Method method : methods) {
+		for (Method method : plan.getInitBinderMethods()) {
 			Object bean = handlerMethod.getBean();
 			initBinderMethods.add(createInitBinderMethod(bean, method));
 		}
@@ -878,4 +930,89 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	};
 
+
+	/**
+	 * Pre-computed per handler type decisions on which parts of the model and
+	 * data binding machinery need to be set up for each request. Handler types
+	 * without {@code @InitBinder}, {@code @ModelAttribute} and
+	 * {@code @SessionAttributes} declarations (incl. controller advice) share
+	 * a single {@link WebDataBinderFactory} and {@link ModelFactory} instance
+	 * and skip model initialization and synchronization altogether.
+	 */
+	private static class InvocationPlan {
+
+		private final SessionAttributesHandler sessionAttributesHandler;
+
+		private final Set<Method> initBinderMethods;
+
+		private final Set<Method> modelAttributeMethods;
+
+		private final boolean hasInitBinderMethods;
+
+		private final boolean hasModelAttributeMethods;
+
+		private volatile WebDataBinderFactory sharedBinderFactory;
+
+		private volatile ModelFactory sharedModelFactory;
+
+		public InvocationPlan(SessionAttributesHandler sessionAttributesHandler,
+				Set<Method> initBinderMethods, Set<Method> modelAttributeMethods,
+				boolean noInitBinderAdvice, boolean noModelAttributeAdvice) {
+
+			this.sessionAttributesHandler = sessionAttributesHandler;
+			this.initBinderMethods = initBinderMethods;
+			this.modelAttributeMethods = modelAttributeMethods;
+			this.hasInitBinderMethods = !(initBinderMethods.isEmpty() && noInitBinderAdvice);
+			this.hasModelAttributeMethods = !(modelAttributeMethods.isEmpty() && noModelAttributeAdvice);
+		}
+
+		public SessionAttributesHandler getSessionAttributesHandler() {
+			return this.sessionAttributesHandler;
+		}
+
+		public boolean hasSessionAttributes() {
+			return this.sessionAttributesHandler.hasSessionAttributes();
+		}
+
+		public Set<Method> getInitBinderMethods() {
+			return this.initBinderMethods;
+		}
+
+		public boolean hasInitBinderMethods() {
+			return this.hasInitBinderMethods;
+		}
+
+		public Set<Method> getModelAttributeMethods() {
+			return this.modelAttributeMethods;
+		}
+
+		public boolean hasModelAttributeMethods() {
+			return this.hasModelAttributeMethods;
+		}
+
+		/**
+		 * Whether {@link ModelFactory#initModel} has any work to do, i.e. whether
+		 * there are {@code @ModelAttribute} methods or session attributes.
+		 */
+		public boolean isModelInitializationRequired() {
+			return (this.hasModelAttributeMethods || hasSessionAttributes());
+		}
+
+		public WebDataBinderFactory getSharedBinderFactory() {
+			return this.sharedBinderFactory;
+		}
+
+		public void setSharedBinderFactory(WebDataBinderFactory binderFactory) {
+			this.sharedBinderFactory = binderFactory;
+		}
+
+		public ModelFactory getSharedModelFactory() {
+			return this.sharedModelFactory;
+		}
+
+		public void setSharedModelFactory(ModelFactory modelFactory) {
+			this.sharedModelFactory = modelFactory;
+		}
+	}
+
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Handles return values of type {@link Resource}, copying the content of the
+ * resource to the response in chunks and closing its stream afterwards.
+ *
+ * <p>Supports single-range HTTP requests ({@code Range: bytes=...}) for
+ * resources exposing their {@link Resource#contentLength() content length},
+ * skipping to the requested offset in the resource's stream. Requests for
+ * multiple ranges and conditional ({@code If-Range}) requests are answered
+ * with the full content, as permitted by the HTTP specification. This is
+ * particularly useful for resources backed by a database LOB, such as
+ * spring-jdbc's {@code StreamingLobResource}, where the stream holds on to
+ * a connection until it gets closed.
+ *
+ * <p>Not registered by default: add it through
+ * {@link RequestMappingHandlerAdapter#setCustomReturnValueHandlers}. Note that
+ * {@code @ResponseBody} methods returning a Resource are still handled by the
+ * message converters, i.e. without range support.
+ *
+ * @since 3.2.19
+ */
+public class ResourceReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+	private static final String RANGE_PREFIX = "bytes=";
+
+	private static final Log logger = LogFactory.getLog(ResourceReturnValueHandler.class);
+
+
+	private MediaType defaultContentType = MediaType.APPLICATION_OCTET_STREAM;
+
+	private int bufferSize = 8192;
+
+
+	/**
+	 * Set the content type to use when the handler method did not set one
+	 * on the response. Default is {@code application/octet-stream}.
+	 */
+	public void setDefaultContentType(MediaType defaultContentType) {
+		Assert.notNull(defaultContentType, "Default content type must not be null");
+		this.defaultContentType = defaultContentType;
+	}
+
+	/**
+	 * Set the size of the chunks to copy to the response. Default is 8192 bytes.
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
+
+	public boolean supportsReturnType(MethodParameter returnType) {
+		return Resource.class.isAssignableFrom(returnType.getParameterType());
+	}
+
+	public void handleReturnValue(Object returnValue,
+			MethodParameter returnType, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest) throws Exception {
+
+		mavContainer.setRequestHandled(true);
+		if (returnValue == null) {
+			return;
+		}
+
+		Resource resource = (Resource) returnValue;
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+		try {
+			writeResource(resource, request, response);
+		}
+		finally {
+			if (resource instanceof Closeable) {
+				try {
+					((Closeable) resource).close();
+				}
+				catch (IOException ex) {
+					logger.debug("Could not close resource " + resource, ex);
+				}
+			}
+		}
+	}
+
+	private void writeResource(Resource resource, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+
+		long length = -1;
+		try {
+			length = resource.contentLength();
+		}
+		catch (IOException ex) {
+			// content length not available: stream full content without it
+		}
+		if (response.getContentType() == null) {
+			response.setContentType(this.defaultContentType.toString());
+		}
+
+		long start = 0;
+		long end = length - 1;
+		if (length >= 0) {
+			response.setHeader("Accept-Ranges", "bytes");
+			long[] range = parseRange(request.getHeader("Range"), request.getHeader("If-Range"), length);
+			if (range != null) {
+				if (range.length == 0) {
+					response.setHeader("Content-Range", "bytes */" + length);
+					response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+					return;
+				}
+				start = range[0];
+				end = range[1];
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+			}
+			response.setHeader("Content-Length", Long.toString(end - start + 1));
+		}
+
+		if ("HEAD".equals(request.getMethod())) {
+			return;
+		}
+
+		InputStream in = resource.getInputStream();
+		try {
+			skipFully(in, start);
+			copy(in, response.getOutputStream(), (length >= 0 ? end - start + 1 : -1));
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException ex) {
+				logger.debug("Could not close stream of resource " + resource, ex);
+			}
+		}
+		response.flushBuffer();
+	}
+
+	/**
+	 * Parse the given Range header value for a single byte range.
+	 * @return the first and last byte position, an empty array if the range is
+	 * not satisfiable, or {@code null} if the full content is to be returned
+	 */
+	private long[] parseRange(String rangeHeader, String ifRangeHeader, long length) {
+		if (rangeHeader == null || ifRangeHeader != null) {
+			return null;
+		}
+		rangeHeader = rangeHeader.trim();
+		if (!rangeHeader.startsWith(RANGE_PREFIX) || rangeHeader.indexOf(',') != -1) {
+			return null;
+		}
+		String spec = rangeHeader.substring(RANGE_PREFIX.length()).trim();
+		int dashIndex = spec.indexOf('-');
+		if (dashIndex == -1) {
+			return null;
+		}
+		try {
+			String startSpec = spec.substring(0, dashIndex).trim();
+			String endSpec = spec.substring(dashIndex + 1).trim();
+			long start;
+			long end;
+			if (startSpec.length() == 0) {
+				// suffix range: the last n bytes
+				long suffixLength = Long.parseLong(endSpec);
+				if (suffixLength <= 0) {
+					return new long[0];
+				}
+				start = Math.max(length - suffixLength, 0);
+				end = length - 1;
+			}
+			else {
+				start = Long.parseLong(startSpec);
+				end = (endSpec.length() > 0 ? Math.min(Long.parseLong(endSpec), length - 1) : length - 1);
+				if (end < start) {
+					return (start >= length ? new long[0] : null);
+				}
+			}
+			if (start >= length || start < 0) {
+				return new long[0];
+			}
+			return new long[] {start, end};
+		}
+		catch (NumberFormatException ex) {
+			// invalid range header: ignore it
+			return null;
+		}
+	}
+
+	private void skipFully(InputStream in, long bytes) throws IOException {
+		long remaining = bytes;
+		while (remaining > 0) {
+			long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				// skip not supported by stream: read the bytes instead
+				if (in.read() == -1) {
+					throw new IOException("Unexpected end of stream while skipping to range start");
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	private void copy(InputStream in, OutputStream out, long count) throws IOException {
+		byte[] buffer = new byte[this.bufferSize];
+		long remaining = count;
+		while (count < 0 || remaining > 0) {
+			int toRead = (count < 0 ? buffer.length : (int) Math.min(buffer.length, remaining));
+			int bytesRead = in.read(buffer, 0, toRead);
+			if (bytesRead == -1) {
+				break;
+			}
+			out.write(buffer, 0, bytesRead);
+			remaining -= bytesRead;
+		}
+		out.flush();
+	}
+
+}
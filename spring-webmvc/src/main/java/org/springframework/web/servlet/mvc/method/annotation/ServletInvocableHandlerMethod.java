@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,8 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 	private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
+	private HandlerMethodReturnValueHandlerComposite concurrentResultReturnValueHandlers;
+
 
 	/**
 	 * Creates an instance from the given handler and method.
@@ -88,6 +90,7 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 */
 	public void setHandlerMethodReturnValueHandlers(HandlerMethodReturnValueHandlerComposite returnValueHandlers) {
 		this.returnValueHandlers = returnValueHandlers;
+		this.concurrentResultReturnValueHandlers = null;
 	}
 
 	/**
@@ -180,7 +183,7 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 */
 	ServletInvocableHandlerMethod wrapConcurrentResult(final Object result) {
 
-		return new CallableHandlerMethod(new Callable<Object>() {
+		return new CallableHandlerMethod(getConcurrentResultReturnValueHandlers(), new Callable<Object>() {
 
 			public Object call() throws Exception {
 				if (result instanceof Exception) {
@@ -194,6 +197,23 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		});
 	}
 
+	/**
+	 * Return the return value handlers for concurrent results of this handler method.
+	 * <p>The "call" method of the {@link CallableHandlerMethod} is shared by all
+	 * concurrent results, whereas the applicable return value handler depends on
+	 * the annotations of the original handler method: hence a separate composite,
+	 * with its own lookup cache, built once and reused for this handler method.
+	 */
+	private HandlerMethodReturnValueHandlerComposite getConcurrentResultReturnValueHandlers() {
+		HandlerMethodReturnValueHandlerComposite handlers = this.concurrentResultReturnValueHandlers;
+		if (handlers == null) {
+			handlers = new HandlerMethodReturnValueHandlerComposite();
+			handlers.addHandlers(this.returnValueHandlers.getHandlers());
+			this.concurrentResultReturnValueHandlers = handlers;
+		}
+		return handlers;
+	}
+
 
 	/**
 	 * A ServletInvocableHandlerMethod sub-class that invokes a given
@@ -202,9 +222,9 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 */
 	private class CallableHandlerMethod extends ServletInvocableHandlerMethod {
 
-		public CallableHandlerMethod(Callable<?> callable) {
+		public CallableHandlerMethod(HandlerMethodReturnValueHandlerComposite returnValueHandlers, Callable<?> callable) {
 			super(callable, ClassUtils.getMethod(callable.getClass(), "call"));
-			this.setHandlerMethodReturnValueHandlers(ServletInvocableHandlerMethod.this.returnValueHandlers);
+			this.setHandlerMethodReturnValueHandlers(returnValueHandlers);
 		}
 
 		@Override
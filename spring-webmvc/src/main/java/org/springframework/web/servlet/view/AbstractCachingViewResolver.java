@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,13 @@
 
 package org.springframework.web.servlet.view;
 
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -33,6 +36,12 @@ import org.springframework.web.servlet.ViewResolver;
  * once resolved: This means that view resolution won't be a performance problem,
  * no matter how costly initial view retrieval is.
  *
+ * <p>The view cache is a concurrent map bounded by the {@link #setCacheLimit
+ * cache limit}, evicting entries that have not been accessed recently once the
+ * limit is exceeded. Cached views are returned without any lock; concurrent
+ * misses for the same view are coalesced, so that each view is only created
+ * once, and without blocking the resolution of other views.
+ *
  * <p>Subclasses need to implement the {@link #loadView} template method,
  * building the View object for a specific view name and locale.
  *
@@ -61,24 +70,26 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Whether we should refrain from resolving views again if unresolved once */
 	private boolean cacheUnresolved = true;
 
-	/** Fast access cache for Views, returning already cached instances without a global lock */
-	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<Object, View>(DEFAULT_CACHE_LIMIT);
-
-	/** Map from view key to View instance, synchronized for View creation */
-	@SuppressWarnings("serial")
-	private final Map<Object, View> viewCreationCache =
-			new LinkedHashMap<Object, View>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
-					if (size() > getCacheLimit()) {
-						viewAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	/** Time in milliseconds to cache unresolved views for, -1 for caching them forever */
+	private volatile long cacheUnresolvedMillis = -1;
+
+	/** Cache entries per view key, accessed without a global lock */
+	private final ConcurrentMap<Object, CacheEntry> viewAccessCache =
+			new ConcurrentHashMap<Object, CacheEntry>(DEFAULT_CACHE_LIMIT);
+
+	/**
+	 * Cache entries in order of insertion, used for second-chance eviction.
+	 * Holds each entry of the view access cache exactly once: a view replaced
+	 * or removed for a given key is held by the same entry.
+	 */
+	private final Queue<CacheEntry> evictionQueue = new ConcurrentLinkedQueue<CacheEntry>();
+
+	/** Map from view key to creation lock, held while the View is being created */
+	private final ConcurrentMap<Object, Object> viewCreationLocks = new ConcurrentHashMap<Object, Object>(16);
+
+	private final AtomicLong cacheHitCount = new AtomicLong();
+
+	private final AtomicLong cacheMissCount = new AtomicLong();
 
 
 	/**
@@ -125,6 +136,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 * resource exists via {@link AbstractUrlBasedView#checkResource(Locale)}.
 	 * With this flag set to "false", an underlying resource that re-appears
 	 * is noticed and used. With the flag set to "true", one check is made only.
+	 * @see #setCacheUnresolvedSeconds
 	 */
 	public void setCacheUnresolved(boolean cacheUnresolved) {
 		this.cacheUnresolved = cacheUnresolved;
@@ -137,37 +149,156 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		return this.cacheUnresolved;
 	}
 
+	/**
+	 * Set the number of seconds to cache unresolved view names for, if
+	 * {@link #setCacheUnresolved "cacheUnresolved"} is enabled. Once expired,
+	 * the next request for such a view name will attempt to resolve it again,
+	 * noticing an underlying resource that has appeared in the meantime.
+	 * <p>Default is "-1", caching unresolved view names forever.
+	 * @since 3.2.19
+	 */
+	public void setCacheUnresolvedSeconds(int cacheUnresolvedSeconds) {
+		this.cacheUnresolvedMillis = (cacheUnresolvedSeconds < 0 ? -1 : cacheUnresolvedSeconds * 1000L);
+	}
+
+	/**
+	 * Return the number of view resolutions that have been served from the cache.
+	 * @since 3.2.19
+	 */
+	public long getCacheHitCount() {
+		return this.cacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of view resolutions that have led to the creation
+	 * of a view, because the view was not cached (or caching is disabled).
+	 * @since 3.2.19
+	 */
+	public long getCacheMissCount() {
+		return this.cacheMissCount.get();
+	}
+
+	/**
+	 * Return the number of views currently held in the view cache,
+	 * including unresolved view names.
+	 * @since 3.2.19
+	 */
+	public int getCacheSize() {
+		int size = 0;
+		for (CacheEntry entry : this.viewAccessCache.values()) {
+			if (entry.cachedView != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
 
 	public View resolveViewName(String viewName, Locale locale) throws Exception {
 		if (!isCache()) {
+			this.cacheMissCount.incrementAndGet();
 			return createView(viewName, locale);
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			View view = this.viewAccessCache.get(cacheKey);
+			View view = getCachedView(cacheKey);
 			if (view == null) {
-				synchronized (this.viewCreationCache) {
-					view = this.viewCreationCache.get(cacheKey);
-					if (view == null) {
-						// Ask the subclass to create the View object.
-						view = createView(viewName, locale);
-						if (view == null && this.cacheUnresolved) {
-							view = UNRESOLVED_VIEW;
-						}
-						if (view != null) {
-							this.viewAccessCache.put(cacheKey, view);
-							this.viewCreationCache.put(cacheKey, view);
-							if (logger.isTraceEnabled()) {
-								logger.trace("Cached view [" + cacheKey + "]");
+				Object creationLock = new Object();
+				Object existingLock = this.viewCreationLocks.putIfAbsent(cacheKey, creationLock);
+				if (existingLock != null) {
+					creationLock = existingLock;
+				}
+				synchronized (creationLock) {
+					try {
+						// Another thread may have created the View while we were waiting
+						view = getCachedView(cacheKey);
+						if (view == null) {
+							this.cacheMissCount.incrementAndGet();
+							// Ask the subclass to create the View object.
+							view = createView(viewName, locale);
+							if (view == null && this.cacheUnresolved) {
+								view = UNRESOLVED_VIEW;
+							}
+							if (view != null) {
+								cacheView(cacheKey, view);
 							}
 						}
 					}
+					finally {
+						this.viewCreationLocks.remove(cacheKey, creationLock);
+					}
 				}
 			}
 			return (view != UNRESOLVED_VIEW ? view : null);
 		}
 	}
 
+	/**
+	 * Return the cached View for the given key, if any, recording the access.
+	 */
+	private View getCachedView(Object cacheKey) {
+		CacheEntry entry = this.viewAccessCache.get(cacheKey);
+		if (entry == null) {
+			return null;
+		}
+		CachedView cachedView = entry.cachedView;
+		if (cachedView == null || cachedView.isExpired()) {
+			// The entry is kept for the key, to be filled again by cacheView
+			return null;
+		}
+		entry.accessed = true;
+		this.cacheHitCount.incrementAndGet();
+		return cachedView.view;
+	}
+
+	private void cacheView(Object cacheKey, View view) {
+		long expirationTime = -1;
+		if (view == UNRESOLVED_VIEW && this.cacheUnresolvedMillis >= 0) {
+			expirationTime = System.currentTimeMillis() + this.cacheUnresolvedMillis;
+		}
+		CachedView cachedView = new CachedView(view, expirationTime);
+		CacheEntry entry = this.viewAccessCache.get(cacheKey);
+		if (entry == null) {
+			CacheEntry newEntry = new CacheEntry(cacheKey);
+			entry = this.viewAccessCache.putIfAbsent(cacheKey, newEntry);
+			if (entry == null) {
+				entry = newEntry;
+				this.evictionQueue.offer(newEntry);
+			}
+		}
+		entry.cachedView = cachedView;
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cached view [" + cacheKey + "]");
+		}
+		evictIfNecessary();
+	}
+
+	/**
+	 * Evict entries beyond the cache limit, giving recently accessed entries
+	 * a second chance instead of maintaining a strict (and globally locked)
+	 * access order.
+	 */
+	private void evictIfNecessary() {
+		int attempts = 2 * this.viewAccessCache.size();
+		while (this.viewAccessCache.size() > getCacheLimit() && attempts-- > 0) {
+			CacheEntry candidate = this.evictionQueue.poll();
+			if (candidate == null) {
+				return;
+			}
+			if (this.viewAccessCache.get(candidate.cacheKey) != candidate) {
+				// Stale entry: cache cleared in the meantime
+				continue;
+			}
+			if (candidate.accessed && candidate.cachedView != null) {
+				candidate.accessed = false;
+				this.evictionQueue.offer(candidate);
+			}
+			else {
+				this.viewAccessCache.remove(candidate.cacheKey, candidate);
+			}
+		}
+	}
+
 	/**
 	 * Return the cache key for the given view name and the given locale.
 	 * <p>Default is a String consisting of view name and locale suffix.
@@ -194,10 +325,12 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			Object cachedView;
-			synchronized (this.viewCreationCache) {
-				this.viewAccessCache.remove(cacheKey);
-				cachedView = this.viewCreationCache.remove(cacheKey);
+			CachedView cachedView = null;
+			CacheEntry entry = this.viewAccessCache.get(cacheKey);
+			if (entry != null) {
+				// Keep the (now empty) entry in place, to be evicted in queue order
+				cachedView = entry.cachedView;
+				entry.cachedView = null;
 			}
 			if (logger.isDebugEnabled()) {
 				// Some debug output might be useful...
@@ -217,10 +350,8 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void clearCache() {
 		logger.debug("Clearing entire view cache");
-		synchronized (this.viewCreationCache) {
-			this.viewAccessCache.clear();
-			this.viewCreationCache.clear();
-		}
+		this.viewAccessCache.clear();
+		this.evictionQueue.clear();
 	}
 
 
@@ -256,4 +387,43 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	protected abstract View loadView(String viewName, Locale locale) throws Exception;
 
+
+
+	/**
+	 * Cache entry for a view key, holding the currently cached View (if any)
+	 * along with its eviction state.
+	 */
+	private static class CacheEntry {
+
+		private final Object cacheKey;
+
+		private volatile CachedView cachedView;
+
+		private volatile boolean accessed;
+
+		public CacheEntry(Object cacheKey) {
+			this.cacheKey = cacheKey;
+		}
+	}
+
+
+	/**
+	 * Holder for a cached View, along with its expiration time.
+	 */
+	private static class CachedView {
+
+		private final View view;
+
+		private final long expirationTime;
+
+		public CachedView(View view, long expirationTime) {
+			this.view = view;
+			this.expirationTime = expirationTime;
+		}
+
+		public boolean isExpired() {
+			return (this.expirationTime >= 0 && System.currentTimeMillis() > this.expirationTime);
+		}
+	}
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test fixture for {@link MappedInterceptorMatcher} tests.
+ */
+public class MappedInterceptorMatcherTests {
+
+	private static final String[] PATTERNS = {"/foo", "/foo/", "foo", "/foo/bar", "/**", "/foo/**", "foo/**",
+			"/foo/*", "/foo*/*", "/*/bar", "/{name}", "/foo/**/bar", "", "/foo//**", "/foo /**"};
+
+	private static final String[] PATHS = {"", "/", "/foo", "/foo/", "foo", "foo/bar", "/foobar", "/foo/bar",
+			"/foo/bar/", "/foo/bar/baz", "/foo;a=b/bar", "//foo", "/foo//bar", "/foo /bar", "/bar", "/x/bar"};
+
+	private final HandlerInterceptor interceptor = new HandlerInterceptorAdapter() {};
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+
+	@Test
+	public void matchesLikePathMatcher() {
+		for (String pattern : PATTERNS) {
+			MappedInterceptor include = new MappedInterceptor(new String[] {pattern}, this.interceptor);
+			MappedInterceptor exclude = new MappedInterceptor(null, new String[] {pattern}, this.interceptor);
+			MappedInterceptorMatcher includeMatcher = createMatcher(include);
+			MappedInterceptorMatcher excludeMatcher = createMatcher(exclude);
+			for (String path : PATHS) {
+				String message = "Pattern [" + pattern + "] against path [" + path + "]";
+				assertEquals(message, include.matches(path, this.pathMatcher),
+						includeMatcher.getMatchingInterceptors(path).length == 1);
+				assertEquals(message, exclude.matches(path, this.pathMatcher),
+						excludeMatcher.getMatchingInterceptors(path).length == 1);
+			}
+		}
+	}
+
+	@Test
+	public void simplePatternsWithoutPathMatcher() {
+		final AtomicInteger matches = new AtomicInteger();
+		AntPathMatcher countingPathMatcher = new AntPathMatcher() {
+			@Override
+			public boolean match(String pattern, String path) {
+				matches.incrementAndGet();
+				return super.match(pattern, path);
+			}
+		};
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				new String[] {"/foo", "/bar/**"}, new String[] {"/bar/baz"}, this.interceptor);
+		MappedInterceptorMatcher matcher = new MappedInterceptorMatcher(
+				Arrays.asList(mappedInterceptor), countingPathMatcher, true);
+
+		assertArrayEquals(new HandlerInterceptor[] {this.interceptor}, matcher.getMatchingInterceptors("/foo"));
+		assertArrayEquals(new HandlerInterceptor[] {this.interceptor}, matcher.getMatchingInterceptors("/bar/foo"));
+		assertEquals(0, matcher.getMatchingInterceptors("/bar/baz").length);
+		assertEquals(0, matcher.getMatchingInterceptors("/foo/bar").length);
+		assertEquals(0, matches.get());
+
+		assertArrayEquals(new HandlerInterceptor[] {this.interceptor}, matcher.getMatchingInterceptors("/bar//foo"));
+		assertTrue(matches.get() > 0);
+	}
+
+	@Test
+	public void customPathMatcher() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] {"/FOO"}, this.interceptor);
+		AntPathMatcher caseInsensitivePathMatcher = new AntPathMatcher() {
+			@Override
+			public boolean match(String pattern, String path) {
+				return super.match(pattern.toLowerCase(), path.toLowerCase());
+			}
+		};
+		MappedInterceptorMatcher matcher = new MappedInterceptorMatcher(
+				Arrays.asList(mappedInterceptor), caseInsensitivePathMatcher, false);
+
+		assertArrayEquals(new HandlerInterceptor[] {this.interceptor}, matcher.getMatchingInterceptors("/foo"));
+	}
+
+	private MappedInterceptorMatcher createMatcher(MappedInterceptor mappedInterceptor) {
+		return new MappedInterceptorMatcher(Arrays.asList(mappedInterceptor), this.pathMatcher, true);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,13 @@ package org.springframework.web.servlet.handler;
 
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.FatalBeanException;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.context.support.XmlWebApplicationContext;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -153,6 +155,53 @@ public class SimpleUrlHandlerMappingTests {
 		assertEquals("/somePath", req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
 	}
 
+	@Test
+	public void mappedInterceptors() throws Exception {
+		SimpleUrlHandlerMapping hm = new SimpleUrlHandlerMapping();
+		hm.setDefaultHandler(new Object());
+		HandlerInterceptor interceptor = new HandlerInterceptorAdapter() {};
+		HandlerInterceptor otherInterceptor = new HandlerInterceptorAdapter() {};
+		hm.setInterceptors(new Object[] {new MappedInterceptor(new String[] {"/admin/**"}, interceptor),
+				new MappedInterceptor(new String[] {"/*/hot"}, new String[] {"/admin/*"}, otherInterceptor)});
+		hm.setApplicationContext(new StaticApplicationContext());
+
+		HandlerExecutionChain hec = hm.getHandler(new MockHttpServletRequest("GET", "/admin/hot"));
+		assertEquals(2, hec.getInterceptors().length);
+		assertSame(interceptor, hec.getInterceptors()[1]);
+		hec = hm.getHandler(new MockHttpServletRequest("GET", "/public/hot"));
+		assertEquals(2, hec.getInterceptors().length);
+		assertSame(otherInterceptor, hec.getInterceptors()[1]);
+		hec = hm.getHandler(new MockHttpServletRequest("GET", "/administration"));
+		assertEquals(1, hec.getInterceptors().length);
+	}
+
+	@Test
+	public void mappedInterceptorsWithCustomPathMatcher() throws Exception {
+		final AtomicInteger matches = new AtomicInteger();
+		SimpleUrlHandlerMapping hm = new SimpleUrlHandlerMapping();
+		hm.setDefaultHandler(new Object());
+		hm.setPathMatcher(new AntPathMatcher() {
+			@Override
+			public boolean match(String pattern, String path) {
+				matches.incrementAndGet();
+				return super.match(pattern, path);
+			}
+		});
+		HandlerInterceptor interceptor = new HandlerInterceptorAdapter() {};
+		hm.setInterceptors(new Object[] {new MappedInterceptor(new String[] {"/admin/**"}, interceptor)});
+		hm.setApplicationContext(new StaticApplicationContext());
+
+		HandlerExecutionChain hec = hm.getHandler(new MockHttpServletRequest("GET", "/admin/hot"));
+		assertEquals(2, hec.getInterceptors().length);
+		assertSame(interceptor, hec.getInterceptors()[1]);
+		int initialMatches = matches.get();
+		assertTrue(initialMatches > 0);
+
+		hec = hm.getHandler(new MockHttpServletRequest("GET", "/path"));
+		assertEquals(1, hec.getInterceptors().length);
+		assertTrue(matches.get() > initialMatches);
+	}
+
 	private HandlerExecutionChain getHandler(HandlerMapping hm, MockHttpServletRequest req) throws Exception {
 		HandlerExecutionChain hec = hm.getHandler(req);
 		HandlerInterceptor[] interceptors = hec.getInterceptors();
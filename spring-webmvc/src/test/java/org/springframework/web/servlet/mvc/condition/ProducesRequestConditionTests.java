@@ -19,14 +19,21 @@ package org.springframework.web.servlet.mvc.condition;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition.ProduceMediaTypeExpression;
 
 /**
@@ -61,6 +68,39 @@ public class ProducesRequestConditionTests {
 		assertEquals(Collections.emptySet(), condition.getProducibleMediaTypes());
 	}
 
+	@Test
+	public void matchAllExpressionsReturnsSameCondition() {
+		ProducesRequestCondition condition = new ProducesRequestCondition("text/plain", "text/html");
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "text/*");
+
+		assertSame(condition, condition.getMatchingCondition(request));
+	}
+
+	@Test
+	public void matchMemoizesRequestedMediaTypes() {
+		final AtomicInteger count = new AtomicInteger();
+		ContentNegotiationManager manager = new ContentNegotiationManager(new ContentNegotiationStrategy() {
+			public List<MediaType> resolveMediaTypes(NativeWebRequest webRequest) {
+				count.incrementAndGet();
+				return Collections.singletonList(MediaType.TEXT_PLAIN);
+			}
+		});
+		ProducesRequestCondition condition1 = new ProducesRequestCondition(new String[] {"text/plain"}, null, manager);
+		ProducesRequestCondition condition2 = new ProducesRequestCondition(new String[] {"text/*"}, null, manager);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertNotNull(condition1.getMatchingCondition(request));
+		assertNotNull(condition2.getMatchingCondition(request));
+		assertTrue(condition1.compareTo(condition2, request) < 0);
+		assertEquals(1, count.get());
+
+		ProducesRequestCondition.clearMediaTypesAttribute(request);
+		assertNotNull(condition1.getMatchingCondition(request));
+		assertEquals(2, count.get());
+	}
+
 	@Test
 	public void matchWildcard() {
 		ProducesRequestCondition condition = new ProducesRequestCondition("text/*");
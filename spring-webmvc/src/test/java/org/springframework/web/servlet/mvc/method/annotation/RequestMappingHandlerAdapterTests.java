@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import java.beans.PropertyEditorSupport;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 
@@ -26,8 +27,12 @@ import org.junit.Test;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.method.HandlerMethod;
@@ -187,6 +192,66 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals("gAttr2", mav.getModel().get("attr2"));
 	}
 
+	@Test
+	public void handlerWithoutInitBinderAndModelAttributeMethods() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		HandlerMethod handlerMethod = handlerMethod(new PlainController(), "handle", String.class, Model.class);
+
+		for (int i = 0; i < 2; i++) {
+			this.request.setParameter("value", "foo" + i);
+			ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+			assertEquals("view", mav.getViewName());
+			assertEquals("foo" + i, mav.getModel().get("value"));
+			assertEquals(1, mav.getModel().size());
+		}
+	}
+
+	@Test
+	public void handlerWithoutInitBinderAndModelAttributeMethodsWritingResponse() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		HandlerMethod handlerMethod = handlerMethod(new PlainController(), "handleBody", String.class);
+
+		this.request.setParameter("value", "foo");
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+		assertNull(mav);
+		assertEquals("foo", this.response.getContentAsString());
+	}
+
+	@Test
+	public void handlerWithInitBinderMethod() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		HandlerMethod plainMethod = handlerMethod(new PlainController(), "handle", String.class, Model.class);
+		HandlerMethod binderMethod = handlerMethod(new InitBinderController(), "handle", String.class, Model.class);
+
+		this.request.setParameter("value", "foo");
+		assertEquals("foo", this.handlerAdapter.handle(this.request, this.response, plainMethod).getModel().get("value"));
+		assertEquals("FOO", this.handlerAdapter.handle(this.request, this.response, binderMethod).getModel().get("value"));
+		assertEquals("foo", this.handlerAdapter.handle(this.request, this.response, plainMethod).getModel().get("value"));
+	}
+
+	@Test
+	public void handlerWithModelAttributeMethod() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+
+		for (int i = 0; i < 2; i++) {
+			ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+			assertEquals("lAttr1", mav.getModel().get("attr1"));
+		}
+	}
+
+	@Test
+	public void initBinderAdviceAppliedToHandlerWithoutInitBinderMethods() throws Exception {
+		this.webAppContext.registerSingleton("iba", InitBinderAdvice.class);
+		this.webAppContext.refresh();
+		this.handlerAdapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new PlainController(), "handle", String.class, Model.class);
+		this.request.setParameter("value", "foo");
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+		assertEquals("FOO", mav.getModel().get("value"));
+	}
+
 
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
@@ -214,6 +279,36 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class PlainController {
+
+		public String handle(@RequestParam("value") String value, Model model) {
+			model.addAttribute("value", value);
+			return "view";
+		}
+
+		@ResponseBody
+		public String handleBody(@RequestParam("value") String value) {
+			return value;
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	private static class InitBinderController {
+
+		@InitBinder
+		public void initBinder(WebDataBinder binder) {
+			binder.registerCustomEditor(String.class, new UpperCaseEditor());
+		}
+
+		public String handle(@RequestParam("value") String value, Model model) {
+			model.addAttribute("value", value);
+			return "view";
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
@@ -243,4 +338,24 @@ public class RequestMappingHandlerAdapterTests {
 		}
 	}
 
+
+
+	@ControllerAdvice
+	private static class InitBinderAdvice {
+
+		@InitBinder
+		public void initBinder(WebDataBinder binder) {
+			binder.registerCustomEditor(String.class, new UpperCaseEditor());
+		}
+	}
+
+
+	private static class UpperCaseEditor extends PropertyEditorSupport {
+
+		@Override
+		public void setAsText(String text) {
+			setValue(text.toUpperCase());
+		}
+	}
+
 }
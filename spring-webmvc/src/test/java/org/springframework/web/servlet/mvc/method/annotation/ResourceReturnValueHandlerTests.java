@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import static org.junit.Assert.*;
+
+public class ResourceReturnValueHandlerTests {
+
+	private static final byte[] CONTENT = "0123456789abcdefghij".getBytes();
+
+	private final ResourceReturnValueHandler handler = new ResourceReturnValueHandler();
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	private ServletWebRequest webRequest;
+
+	private ModelAndViewContainer mavContainer;
+
+
+	@Before
+	public void setup() {
+		this.request = new MockHttpServletRequest("GET", "/resource");
+		this.response = new MockHttpServletResponse();
+		this.webRequest = new ServletWebRequest(this.request, this.response);
+		this.mavContainer = new ModelAndViewContainer();
+		this.handler.setBufferSize(4);
+	}
+
+
+	@Test
+	public void supportsReturnType() throws Exception {
+		assertTrue(this.handler.supportsReturnType(returnType("resource")));
+		assertFalse(this.handler.supportsReturnType(returnType("string")));
+	}
+
+	@Test
+	public void fullContent() throws Exception {
+		handle(new ByteArrayResource(CONTENT));
+		assertTrue(this.mavContainer.isRequestHandled());
+		assertEquals(200, this.response.getStatus());
+		assertEquals("bytes", this.response.getHeader("Accept-Ranges"));
+		assertEquals("20", this.response.getHeader("Content-Length"));
+		assertEquals("application/octet-stream", this.response.getContentType());
+		assertEquals("0123456789abcdefghij", this.response.getContentAsString());
+	}
+
+	@Test
+	public void byteRange() throws Exception {
+		this.request.addHeader("Range", "bytes=5-9");
+		handle(new ByteArrayResource(CONTENT));
+		assertEquals(206, this.response.getStatus());
+		assertEquals("bytes 5-9/20", this.response.getHeader("Content-Range"));
+		assertEquals("5", this.response.getHeader("Content-Length"));
+		assertEquals("56789", this.response.getContentAsString());
+	}
+
+	@Test
+	public void openEndedByteRange() throws Exception {
+		this.request.addHeader("Range", "bytes=15-");
+		handle(new ByteArrayResource(CONTENT));
+		assertEquals(206, this.response.getStatus());
+		assertEquals("bytes 15-19/20", this.response.getHeader("Content-Range"));
+		assertEquals("fghij", this.response.getContentAsString());
+	}
+
+	@Test
+	public void suffixByteRange() throws Exception {
+		this.request.addHeader("Range", "bytes=-3");
+		handle(new ByteArrayResource(CONTENT));
+		assertEquals(206, this.response.getStatus());
+		assertEquals("bytes 17-19/20", this.response.getHeader("Content-Range"));
+		assertEquals("hij", this.response.getContentAsString());
+	}
+
+	@Test
+	public void unsatisfiableByteRange() throws Exception {
+		this.request.addHeader("Range", "bytes=20-30");
+		handle(new ByteArrayResource(CONTENT));
+		assertEquals(416, this.response.getStatus());
+		assertEquals("bytes */20", this.response.getHeader("Content-Range"));
+	}
+
+	@Test
+	public void multipleRangesIgnored() throws Exception {
+		this.request.addHeader("Range", "bytes=0-1,5-6");
+		handle(new ByteArrayResource(CONTENT));
+		assertEquals(200, this.response.getStatus());
+		assertEquals("0123456789abcdefghij", this.response.getContentAsString());
+	}
+
+	@Test
+	public void headRequest() throws Exception {
+		this.request.setMethod("HEAD");
+		ClosingResource resource = new ClosingResource(CONTENT.length);
+		handle(resource);
+		assertEquals("20", this.response.getHeader("Content-Length"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+		assertTrue(resource.closed);
+	}
+
+	@Test
+	public void unknownLengthAndResourceClosed() throws Exception {
+		this.request.addHeader("Range", "bytes=5-9");
+		ClosingResource resource = new ClosingResource(-1);
+		handle(resource);
+		assertEquals(200, this.response.getStatus());
+		assertNull(this.response.getHeader("Content-Length"));
+		assertNull(this.response.getHeader("Accept-Ranges"));
+		assertEquals("0123456789abcdefghij", this.response.getContentAsString());
+		assertTrue(resource.closed);
+	}
+
+
+	private void handle(Resource resource) throws Exception {
+		this.handler.handleReturnValue(resource, returnType("resource"), this.mavContainer, this.webRequest);
+	}
+
+	private MethodParameter returnType(String methodName) throws Exception {
+		Method method = getClass().getDeclaredMethod(methodName);
+		return new MethodParameter(method, -1);
+	}
+
+	@SuppressWarnings("unused")
+	private Resource resource() {
+		return null;
+	}
+
+	@SuppressWarnings("unused")
+	private String string() {
+		return null;
+	}
+
+
+	private static class ClosingResource extends AbstractResource implements Closeable {
+
+		private final long length;
+
+		private boolean closed;
+
+		public ClosingResource(long length) {
+			this.length = length;
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			if (this.length < 0) {
+				throw new IOException("No content length");
+			}
+			return this.length;
+		}
+
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(CONTENT);
+		}
+
+		public String getDescription() {
+			return "Closing resource";
+		}
+
+		public void close() {
+			this.closed = true;
+		}
+	}
+
+}
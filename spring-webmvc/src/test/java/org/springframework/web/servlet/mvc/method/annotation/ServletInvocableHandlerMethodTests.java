@@ -17,6 +17,8 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -26,6 +28,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotWritableException;
@@ -146,6 +149,22 @@ public class ServletInvocableHandlerMethodTests {
 		assertEquals("view", mavContainer.getViewName());
 	}
 
+	@Test
+	public void wrapConcurrentResult_ReturnValueHandlersReused() throws Exception {
+		returnValueHandlers.addHandler(new ViewNameMethodReturnValueHandler());
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod("handle");
+		ServletInvocableHandlerMethod wrapped = handlerMethod.wrapConcurrentResult("view");
+		ServletInvocableHandlerMethod otherWrapped = handlerMethod.wrapConcurrentResult("otherView");
+
+		Object handlers = new DirectFieldAccessor(wrapped).getPropertyValue("returnValueHandlers");
+		assertNotSame(returnValueHandlers, handlers);
+		assertSame(handlers, new DirectFieldAccessor(otherWrapped).getPropertyValue("returnValueHandlers"));
+
+		otherWrapped.invokeAndHandle(webRequest, mavContainer);
+		assertEquals("otherView", mavContainer.getViewName());
+	}
+
 
 	private ServletInvocableHandlerMethod getHandlerMethod(String methodName, Class<?>... argTypes)
 			throws NoSuchMethodException {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,14 @@
 
 package org.springframework.web.servlet.view;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
@@ -33,6 +37,7 @@ import javax.servlet.jsp.jstl.fmt.LocalizationContext;
 
 import org.junit.Test;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyValue;
 import org.springframework.tests.sample.beans.TestBean;
@@ -535,6 +540,153 @@ public class ViewResolverTests {
 		assertEquals(3, count.intValue());
 	}
 
+	@Test
+	public void testCacheStatistics() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				count.incrementAndGet();
+				return ("missing".equals(viewName) ? null : new InternalResourceView(viewName));
+			}
+		};
+
+		View view = viewResolver.resolveViewName("view", Locale.getDefault());
+		assertSame(view, viewResolver.resolveViewName("view", Locale.getDefault()));
+		assertNull(viewResolver.resolveViewName("missing", Locale.getDefault()));
+		assertNull(viewResolver.resolveViewName("missing", Locale.getDefault()));
+
+		assertEquals(2, count.intValue());
+		assertEquals(2, viewResolver.getCacheMissCount());
+		assertEquals(2, viewResolver.getCacheHitCount());
+		assertEquals(2, viewResolver.getCacheSize());
+
+		viewResolver.clearCache();
+		assertEquals(0, viewResolver.getCacheSize());
+	}
+
+	@Test
+	public void testCacheLimit() throws Exception {
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				return new InternalResourceView(viewName);
+			}
+		};
+		viewResolver.setCacheLimit(10);
+
+		View view = viewResolver.resolveViewName("view", Locale.getDefault());
+		for (int i = 0; i < 100; i++) {
+			viewResolver.resolveViewName("view" + i, Locale.getDefault());
+			// Recently accessed views are retained
+			assertSame(view, viewResolver.resolveViewName("view", Locale.getDefault()));
+		}
+		assertEquals(10, viewResolver.getCacheSize());
+	}
+
+	@Test
+	public void testCacheUnresolvedSeconds() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				count.incrementAndGet();
+				return null;
+			}
+		};
+
+		viewResolver.setCacheUnresolvedSeconds(0);
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		Thread.sleep(10);
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		assertEquals(2, count.intValue());
+		Thread.sleep(10);
+
+		viewResolver.setCacheUnresolvedSeconds(60);
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		viewResolver.resolveViewName("view", Locale.getDefault());
+		assertEquals(3, count.intValue());
+	}
+
+	@Test
+	public void testReplacedViewsKeepSingleEvictionQueueEntry() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				count.incrementAndGet();
+				return ("missing".equals(viewName) ? null : new InternalResourceView(viewName));
+			}
+		};
+		viewResolver.setCacheUnresolvedSeconds(0);
+
+		for (int i = 0; i < 10; i++) {
+			assertNull(viewResolver.resolveViewName("missing", Locale.getDefault()));
+			Thread.sleep(5);
+			assertNotNull(viewResolver.resolveViewName("view", Locale.getDefault()));
+			viewResolver.removeFromCache("view", Locale.getDefault());
+		}
+		assertEquals(20, count.intValue());
+		assertEquals(1, viewResolver.getCacheSize());
+		Collection<?> evictionQueue = (Collection<?>) new DirectFieldAccessor(viewResolver).getPropertyValue("evictionQueue");
+		assertEquals(2, evictionQueue.size());
+	}
+
+	@Test
+	public void testConcurrentViewCreation() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		final CountDownLatch creationStarted = new CountDownLatch(1);
+		final CountDownLatch creationFinished = new CountDownLatch(1);
+		final AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				count.incrementAndGet();
+				if ("slow".equals(viewName)) {
+					creationStarted.countDown();
+					creationFinished.await();
+				}
+				return new InternalResourceView(viewName);
+			}
+		};
+
+		final View[] views = new View[4];
+		final List<Throwable> failures = new CopyOnWriteArrayList<Throwable>();
+		Thread[] threads = new Thread[views.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						views[index] = viewResolver.resolveViewName("slow", Locale.getDefault());
+					}
+					catch (Throwable ex) {
+						failures.add(ex);
+					}
+				}
+			};
+			threads[i].start();
+			if (i == 0) {
+				creationStarted.await();
+			}
+		}
+
+		// Other views can be resolved while "slow" is being created
+		assertNotNull(viewResolver.resolveViewName("fast", Locale.getDefault()));
+		creationFinished.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue("Failures in resolver threads: " + failures, failures.isEmpty());
+		assertEquals(2, count.intValue());
+		assertNotNull(views[0]);
+		for (View view : views) {
+			assertSame(views[0], view);
+		}
+	}
+
 
 	public static class TestView extends InternalResourceView {
 